@@ -44,9 +44,10 @@ import javax.swing.filechooser.FileSystemView;
 import java.awt.*;
 import java.io.File;
 import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Panel that hosts image-based buttons.
@@ -57,7 +58,10 @@ import java.util.Map;
 public class ExplorerFileViewPanel<T> extends AbstractFileViewPanel<T> {
     private JBreadcrumbBar<T> bar;
 
-    private static Map<String, ResizableIcon> iconMapping = new HashMap<>();
+    /**
+     * Shared between the icon loader threads of all panels.
+     */
+    private static Map<String, ResizableIcon> iconMapping = new ConcurrentHashMap<>();
 
     private boolean useNativeIcons;
 
@@ -94,7 +98,7 @@ public class ExplorerFileViewPanel<T> extends AbstractFileViewPanel<T> {
         if (this.useNativeIcons) {
             Object sourceProp = leaf.getLeafProp("source");
             if (sourceProp instanceof File) {
-                Icon delegate = FileSystemView.getFileSystemView().getSystemIcon((File) sourceProp);
+                Icon delegate = getSystemIcon((File) sourceProp);
                 if (delegate != null) {
                     return new IconWrapperResizableIcon(delegate);
                 }
@@ -144,6 +148,29 @@ public class ExplorerFileViewPanel<T> extends AbstractFileViewPanel<T> {
         return icon;
     }
 
+    /**
+     * Returns the system icon of the specified file. The icons are loaded on worker threads,
+     * while {@link FileSystemView} must only be accessed on EDT.
+     *
+     * @param file File.
+     * @return The system icon of the file, or <code>null</code> if there is none.
+     */
+    private static Icon getSystemIcon(File file) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            return FileSystemView.getFileSystemView().getSystemIcon(file);
+        }
+        Icon[] result = new Icon[1];
+        try {
+            SwingUtilities.invokeAndWait(() ->
+                    result[0] = FileSystemView.getFileSystemView().getSystemIcon(file));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } catch (InvocationTargetException ite) {
+            // No system icon for this file
+        }
+        return result[0];
+    }
+
     @Override
     protected void configureCommand(Leaf leaf, Command command, ResizableIcon icon) {
         String filename = leaf.getLeafName();
@@ -41,7 +41,10 @@ import org.pushingpixels.photon.api.icon.SvgBatikResizableIcon
 import java.awt.Dimension
 import java.io.File
 import java.io.InputStream
-import java.util.*
+import java.lang.reflect.InvocationTargetException
+import java.util.concurrent.ConcurrentHashMap
+import javax.swing.Icon
+import javax.swing.SwingUtilities
 import javax.swing.filechooser.FileSystemView
 
 /**
@@ -73,7 +76,7 @@ class ExplorerFileViewPanel<T>(val bar: JBreadcrumbBar<T>, startingState: Comman
         if (this.useNativeIcons) {
             val sourceProp = leaf.getLeafProp("source")
             if (sourceProp is File) {
-                val delegate = FileSystemView.getFileSystemView().getSystemIcon(sourceProp)
+                val delegate = getSystemIcon(sourceProp)
                 if (delegate != null) {
                     return IconWrapperResizableIcon(delegate)
                 }
@@ -136,6 +139,28 @@ class ExplorerFileViewPanel<T>(val bar: JBreadcrumbBar<T>, startingState: Comman
     }
 
     companion object {
-        private val iconMapping = HashMap<String, ResizableIcon>()
+        // Icons are loaded on the loader threads of the file view panel
+        private val iconMapping = ConcurrentHashMap<String, ResizableIcon>()
+
+        /**
+         * Returns the system icon of the specified file. [FileSystemView] is not
+         * thread-safe, so the lookup is done on the event dispatch thread.
+         */
+        private fun getSystemIcon(file: File): Icon? {
+            if (SwingUtilities.isEventDispatchThread()) {
+                return FileSystemView.getFileSystemView().getSystemIcon(file)
+            }
+            var result: Icon? = null
+            try {
+                SwingUtilities.invokeAndWait {
+                    result = FileSystemView.getFileSystemView().getSystemIcon(file)
+                }
+            } catch (ie: InterruptedException) {
+                Thread.currentThread().interrupt()
+            } catch (ite: InvocationTargetException) {
+                // No system icon for this file
+            }
+            return result
+        }
     }
 }
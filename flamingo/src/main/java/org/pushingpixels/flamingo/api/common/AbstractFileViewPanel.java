@@ -30,16 +30,24 @@
 package org.pushingpixels.flamingo.api.common;
 
 import org.pushingpixels.flamingo.api.common.icon.EmptyResizableIcon;
+import org.pushingpixels.flamingo.api.common.icon.ImageWrapperResizableIcon;
 import org.pushingpixels.flamingo.api.common.model.Command;
 import org.pushingpixels.flamingo.api.common.model.CommandGroup;
 import org.pushingpixels.flamingo.api.common.model.CommandPanelContentModel;
 import org.pushingpixels.flamingo.api.common.model.CommandPanelPresentationModel;
 import org.pushingpixels.flamingo.api.common.projection.CommandPanelProjection;
+import org.pushingpixels.flamingo.internal.utils.ThumbnailDiskCache;
+import org.pushingpixels.flamingo.internal.utils.ViewportPrioritizedLoader;
 import org.pushingpixels.neon.api.AsynchronousLoading;
+import org.pushingpixels.neon.api.NeonCortex;
 import org.pushingpixels.neon.api.icon.ResizableIcon;
 
+import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 import java.util.*;
@@ -68,9 +76,22 @@ public abstract class AbstractFileViewPanel<T> extends JCommandButtonPanel {
     private Set<Command> loadedSet;
 
     /**
-     * The main worker that loads the images off EDT.
+     * The main loader that loads the images off EDT, prioritizing the buttons that are
+     * currently visible in the enclosing scroll pane.
      */
-    private SwingWorker<Void, Leaf> mainWorker;
+    private ViewportPrioritizedLoader mainLoader;
+
+    /**
+     * Optional disk cache for the thumbnails created in
+     * {@link #getThumbnailIcon(Leaf, InputStream, Dimension)}.
+     */
+    private ThumbnailDiskCache thumbnailCache;
+
+    /**
+     * Maximum number of threads used to load the icons.
+     */
+    private static final int LOADER_POOL_SIZE =
+            Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
 
     /**
      * Information on the specific file. Depending on the actual type of the file repository, the
@@ -192,21 +213,40 @@ public abstract class AbstractFileViewPanel<T> extends JCommandButtonPanel {
         return this.progressListener;
     }
 
+    /**
+     * Sets the folder for caching the thumbnails created in
+     * {@link #getThumbnailIcon(Leaf, InputStream, Dimension)}. Cached thumbnails are keyed by
+     * the path and the last modification time of the source file.
+     *
+     * @param thumbnailCacheFolder Folder for caching the thumbnails. Pass <code>null</code>
+     *                             to disable the thumbnail cache.
+     */
+    public void setThumbnailCacheFolder(File thumbnailCacheFolder) {
+        this.thumbnailCache = (thumbnailCacheFolder == null) ? null
+                : new ThumbnailDiskCache(thumbnailCacheFolder);
+    }
+
     /**
      * Sets the current entries to show. The current contents of the panel are discarded. For each
      * matching entry determined by the {@link #toShowFile(StringValuePair)} call, a new
      * {@link JCommandButton} hosting an the matching implementation of {@link ResizableIcon} is
      * added to the panel.
+     * <p>
+     * The icons are loaded on a bounded pool of worker threads. The icons of buttons that are
+     * visible in the enclosing scroll pane are loaded first, and pending icons of buttons that
+     * are scrolled far away are not loaded until the scroll pane gets close to them again.
      *
      * @param leafs Information on the entries to show in the panel.
      */
     public void setFolder(final java.util.List<StringValuePair<T>> leafs) {
+        this.cancelMainWorker();
+
         this.getProjection().getContentModel().removeAllCommandGroups();
         this.getProjection().getContentModel().addCommandGroup(new CommandGroup(new ArrayList<>()));
         this.buttonMap.clear();
-        int fileCount = 0;
 
         final Map<String, Command> newCommands = new HashMap<>();
+        final List<StringValuePair<T>> shownLeafs = new ArrayList<>();
         for (StringValuePair<T> leaf : leafs) {
             String name = leaf.getKey();
             if (!toShowFile(leaf)) {
@@ -222,52 +262,41 @@ public abstract class AbstractFileViewPanel<T> extends JCommandButtonPanel {
 
             newCommands.put(name, command);
             buttonMap.put(name, button);
-            fileCount++;
+            shownLeafs.add(leaf);
         }
         this.doLayout();
         this.repaint();
 
-        final int totalCount = fileCount;
-        this.mainWorker = new SwingWorker<>() {
-            @Override
-            protected Void doInBackground() throws Exception {
-                if ((totalCount > 0) && (progressListener != null)) {
-                    progressListener.onProgress(
-                            new ProgressEvent(AbstractFileViewPanel.this, 0, totalCount, 0));
+        final int totalCount = shownLeafs.size();
+        if ((totalCount > 0) && (progressListener != null)) {
+            progressListener.onProgress(new ProgressEvent(this, 0, totalCount, 0));
+        }
+
+        final ViewportPrioritizedLoader loader = new ViewportPrioritizedLoader(this,
+                LOADER_POOL_SIZE);
+        this.mainLoader = loader;
+        // Capture the presentation on EDT so that the workers don't access the model
+        final CommandButtonPresentationState presentationState =
+                getProjection().getPresentationModel().getCommandPresentationState();
+        final int iconDimension = getProjection().getPresentationModel().getCommandIconDimension();
+        for (final StringValuePair<T> leafPair : shownLeafs) {
+            final String name = leafPair.getKey();
+            loader.submit(buttonMap.get(name), () -> {
+                // Runs on a loader thread
+                InputStream stream = getLeafContent(leafPair.getValue());
+                Leaf leaf = new Leaf(name, stream);
+                leaf.setLeafProp("source", leafPair.getValue());
+                for (Map.Entry<String, Object> propEntry : leafPair.getProps().entrySet()) {
+                    leaf.setLeafProp(propEntry.getKey(), propEntry.getValue());
                 }
-                for (final StringValuePair<T> leafPair : leafs) {
-                    if (isCancelled()) {
-                        break;
-                    }
-                    final String name = leafPair.getKey();
-                    if (!toShowFile(leafPair)) {
-                        continue;
-                    }
-                    InputStream stream = getLeafContent(leafPair.getValue());
-                    Leaf leaf = new Leaf(name, stream);
-                    leaf.setLeafProp("source", leafPair.getValue());
-                    for (Map.Entry<String, Object> propEntry : leafPair.getProps().entrySet()) {
-                        leaf.setLeafProp(propEntry.getKey(), propEntry.getValue());
-                    }
-                    publish(leaf);
+                final ResizableIcon icon = getResizableIcon(leaf, stream, presentationState,
+                        new Dimension(iconDimension, iconDimension));
+                if (icon == null) {
+                    return null;
                 }
-                return null;
-            }
 
-            @Override
-            protected void process(List<Leaf> leaves) {
-                for (final Leaf leaf : leaves) {
-                    final String name = leaf.getLeafName();
-                    InputStream stream = leaf.getLeafStream();
-                    int iconDimension = getProjection().getPresentationModel()
-                            .getCommandIconDimension();
-                    Dimension dim = new Dimension(iconDimension, iconDimension);
-                    final ResizableIcon icon = getResizableIcon(leaf, stream,
-                            getProjection().getPresentationModel().getCommandPresentationState(),
-                            dim);
-                    if (icon == null) {
-                        continue;
-                    }
+                // Runs on EDT
+                return () -> {
                     final Command command = newCommands.get(name);
                     command.setIconFactory(() -> icon);
 
@@ -289,10 +318,9 @@ public abstract class AbstractFileViewPanel<T> extends JCommandButtonPanel {
                     }
 
                     configureCommand(leaf, command, icon);
-                }
-            }
-        };
-        mainWorker.execute();
+                };
+            });
+        }
     }
 
     /**
@@ -308,13 +336,11 @@ public abstract class AbstractFileViewPanel<T> extends JCommandButtonPanel {
      * Cancels the pending processing.
      */
     public void cancelMainWorker() {
-        if (this.mainWorker == null) {
-            return;
-        }
-        if (this.mainWorker.isDone() || this.mainWorker.isCancelled()) {
+        if (this.mainLoader == null) {
             return;
         }
-        this.mainWorker.cancel(false);
+        this.mainLoader.dispose();
+        this.mainLoader = null;
     }
 
     /**
@@ -336,7 +362,8 @@ public abstract class AbstractFileViewPanel<T> extends JCommandButtonPanel {
     protected abstract boolean toShowFile(StringValuePair<T> pair);
 
     /**
-     * Returns the icon for the specified parameters.
+     * Returns the icon for the specified parameters. This method is called on one of the
+     * loader threads and not on the Event Dispatch Thread.
      *
      * @param leaf      Information on the file.
      * @param stream    Input stream with the file contents.
@@ -347,6 +374,70 @@ public abstract class AbstractFileViewPanel<T> extends JCommandButtonPanel {
     protected abstract ResizableIcon getResizableIcon(Leaf leaf, InputStream stream,
             CommandButtonPresentationState state, Dimension dimension);
 
+    /**
+     * Decodes the image in the specified stream and returns an icon that wraps its thumbnail.
+     * Unlike {@link ImageWrapperResizableIcon#getIcon(InputStream, Dimension)}, the decoding and
+     * the downscaling are done synchronously, which makes this method suitable to be called from
+     * {@link #getResizableIcon(Leaf, InputStream, CommandButtonPresentationState, Dimension)}.
+     * If a thumbnail cache folder has been set with {@link #setThumbnailCacheFolder(File)} and
+     * the leaf "source" property is a {@link File}, the thumbnail is looked up in and stored to
+     * that cache.
+     *
+     * @param leaf      Information on the file.
+     * @param stream    Input stream with the file contents.
+     * @param dimension Icon dimension.
+     * @return Icon that wraps the image thumbnail, or <code>null</code> if the stream contents
+     * could not be decoded.
+     */
+    protected ResizableIcon getThumbnailIcon(Leaf leaf, InputStream stream,
+            Dimension dimension) {
+        try {
+            ThumbnailDiskCache cache = this.thumbnailCache;
+            Object source = leaf.getLeafProp("source");
+            File sourceFile = (source instanceof File) ? (File) source : null;
+            if ((cache != null) && (sourceFile != null)) {
+                BufferedImage cached = cache.get(sourceFile, dimension.width, dimension.height);
+                if (cached != null) {
+                    return ImageWrapperResizableIcon.getIcon(cached, dimension);
+                }
+            }
+
+            if (stream == null) {
+                return null;
+            }
+            BufferedImage original;
+            try {
+                original = ImageIO.read(stream);
+            } catch (IOException ioe) {
+                return null;
+            }
+            if (original == null) {
+                return null;
+            }
+
+            BufferedImage thumbnail = original;
+            float scale = Math.max((float) original.getWidth() / dimension.width,
+                    (float) original.getHeight() / dimension.height);
+            if (scale > 1.0f) {
+                thumbnail = NeonCortex.createThumbnail(original,
+                        Math.max(1, (int) (original.getWidth() / scale)));
+            }
+            if ((cache != null) && (sourceFile != null)) {
+                cache.put(sourceFile, dimension.width, dimension.height, thumbnail);
+            }
+            return ImageWrapperResizableIcon.getIcon(thumbnail, dimension);
+        } finally {
+            // The stream is owned by this method on every path, including a cache hit
+            if (stream != null) {
+                try {
+                    stream.close();
+                } catch (IOException ioe) {
+                    // Nothing to do
+                }
+            }
+        }
+    }
+
     /**
      * Configures the specified command. Can be used to wire additional behavior, such as
      * tooltips or action listeners if the specific panel implementation requires it.
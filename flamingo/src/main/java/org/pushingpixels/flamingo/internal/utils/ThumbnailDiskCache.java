@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.flamingo.internal.utils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Disk cache for image thumbnails. Thumbnails are keyed by the absolute path and the last
+ * modification time of the source file, as well as by the thumbnail size. Modifying the source
+ * file results in a new key, and the stale entry is simply never looked up again.
+ * <p>
+ * The methods of this class are safe to call from multiple threads. A concurrent write of
+ * the same entry results in one of the writes winning, which is fine as they have the same
+ * content.
+ *
+ * @author Kirill Grouchnikov
+ */
+public class ThumbnailDiskCache {
+    private final File folder;
+
+    /**
+     * Creates a new cache that stores the thumbnails in the specified folder.
+     *
+     * @param folder Cache folder. Will be created on the first write if it doesn't exist.
+     */
+    public ThumbnailDiskCache(File folder) {
+        if (folder == null) {
+            throw new IllegalArgumentException("Cache folder cannot be null");
+        }
+        this.folder = folder;
+    }
+
+    /**
+     * Returns the cached thumbnail of the specified source file.
+     *
+     * @param source Source file.
+     * @param width  Thumbnail width.
+     * @param height Thumbnail height.
+     * @return The cached thumbnail, or <code>null</code> if there is no up to date thumbnail
+     * of this source file and size in this cache.
+     */
+    public BufferedImage get(File source, int width, int height) {
+        File cacheFile = this.getCacheFile(source, width, height);
+        if ((cacheFile == null) || !cacheFile.isFile()) {
+            return null;
+        }
+        try {
+            return ImageIO.read(cacheFile);
+        } catch (IOException ioe) {
+            // Treat a corrupted entry as a miss. It will be overwritten by the next put.
+            return null;
+        }
+    }
+
+    /**
+     * Stores the thumbnail of the specified source file.
+     *
+     * @param source    Source file.
+     * @param width     Thumbnail width.
+     * @param height    Thumbnail height.
+     * @param thumbnail Thumbnail image.
+     */
+    public void put(File source, int width, int height, BufferedImage thumbnail) {
+        File cacheFile = this.getCacheFile(source, width, height);
+        if (cacheFile == null) {
+            return;
+        }
+        if (!this.folder.isDirectory() && !this.folder.mkdirs()) {
+            return;
+        }
+        try {
+            // Write to a temporary file first so that a reader never sees a partial entry
+            File tempFile = File.createTempFile("thumb", ".tmp", this.folder);
+            if (ImageIO.write(thumbnail, "png", tempFile) && tempFile.renameTo(cacheFile)) {
+                return;
+            }
+            tempFile.delete();
+        } catch (IOException ioe) {
+            // The cache is best-effort
+        }
+    }
+
+    private File getCacheFile(File source, int width, int height) {
+        long lastModified = source.lastModified();
+        if (lastModified == 0L) {
+            // The file doesn't exist or can't be accessed
+            return null;
+        }
+        String key = source.getAbsolutePath() + "|" + lastModified + "|" + width + "x" + height;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] hash = digest.digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder(2 * hash.length + 4);
+            for (byte b : hash) {
+                name.append(Character.forDigit((b >> 4) & 0xF, 16));
+                name.append(Character.forDigit(b & 0xF, 16));
+            }
+            name.append(".png");
+            return new File(this.folder, name.toString());
+        } catch (NoSuchAlgorithmException nsae) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.flamingo.internal.utils;
+
+import javax.swing.*;
+import javax.swing.event.ChangeListener;
+import java.awt.*;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs per-component load work on a bounded pool of worker threads. The work for components
+ * that are currently visible in the viewport of the host component is done first, and the
+ * queue is re-prioritized as the viewport is scrolled. Work for components that are too far
+ * away from the visible area is deferred until the viewport gets close to them again.
+ * <p>
+ * Each work item runs off EDT and returns an optional continuation. Continuations are applied
+ * on EDT in batches, so that a burst of completed work results in a single EDT event.
+ * <p>
+ * All the methods of this class except for {@link #dispose()} must be called on EDT.
+ *
+ * @author Kirill Grouchnikov
+ */
+public class ViewportPrioritizedLoader {
+    /**
+     * How far (in multiples of the larger visible dimension) a component can be from the
+     * visible area before its pending work is deferred.
+     */
+    private static final int FAR_DISTANCE_FACTOR = 3;
+
+    private static final int QUEUED = 0;
+    private static final int DEFERRED = 1;
+    private static final int RUNNING = 2;
+    private static final int DONE = 3;
+
+    private final JComponent host;
+    private final ThreadPoolExecutor executor;
+    private final List<Entry> entries;
+    private int submittedCount;
+
+    private final Queue<Runnable> continuations;
+    private final AtomicBoolean continuationsScheduled;
+    private boolean reprioritizeScheduled;
+
+    private volatile boolean isDisposed;
+
+    private JViewport viewport;
+    private final ChangeListener viewportListener;
+    private final HierarchyListener hierarchyListener;
+
+    /**
+     * A single unit of work tied to a component in the host.
+     */
+    private class Entry implements Runnable, Comparable<Entry> {
+        private final JComponent anchor;
+        private final Supplier<Runnable> work;
+        private final int index;
+        private final AtomicInteger state;
+        // Only mutated on EDT while this entry is not in the executor queue
+        private long priority;
+
+        private Entry(JComponent anchor, Supplier<Runnable> work, int index) {
+            this.anchor = anchor;
+            this.work = work;
+            this.index = index;
+            this.state = new AtomicInteger(QUEUED);
+            this.priority = index;
+        }
+
+        @Override
+        public void run() {
+            if (isDisposed || !this.state.compareAndSet(QUEUED, RUNNING)) {
+                return;
+            }
+            try {
+                Runnable continuation = this.work.get();
+                if ((continuation != null) && !isDisposed) {
+                    continuations.add(continuation);
+                    scheduleContinuations();
+                }
+            } finally {
+                this.state.set(DONE);
+            }
+        }
+
+        @Override
+        public int compareTo(Entry o) {
+            return Long.compare(this.priority, o.priority);
+        }
+    }
+
+    /**
+     * Creates a new loader.
+     *
+     * @param host     The host component. The components passed to
+     *                 {@link #submit(JComponent, Supplier)} are expected to be its children.
+     * @param poolSize Maximum number of worker threads.
+     */
+    public ViewportPrioritizedLoader(JComponent host, int poolSize) {
+        this.host = host;
+        this.entries = new ArrayList<>();
+        this.continuations = new ConcurrentLinkedQueue<>();
+        this.continuationsScheduled = new AtomicBoolean(false);
+
+        AtomicInteger threadCounter = new AtomicInteger(0);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 2, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>(), (Runnable r) -> {
+            Thread thread = new Thread(r,
+                    "Radiance viewport loader " + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.viewportListener = changeEvent -> scheduleReprioritize();
+        this.hierarchyListener = (HierarchyEvent e) -> {
+            if ((e.getChangeFlags() & HierarchyEvent.PARENT_CHANGED) != 0) {
+                attachToViewport();
+            }
+        };
+        this.host.addHierarchyListener(this.hierarchyListener);
+        this.attachToViewport();
+    }
+
+    /**
+     * Submits load work for the specified component.
+     *
+     * @param anchor Component that will display the result of the work. Its bounds in the
+     *               host are used to prioritize the work.
+     * @param work   The work to run off EDT. It can return a continuation to be run on EDT,
+     *               or <code>null</code>.
+     */
+    public void submit(JComponent anchor, Supplier<Runnable> work) {
+        if (this.isDisposed) {
+            return;
+        }
+        Entry entry = new Entry(anchor, work, this.submittedCount++);
+        this.entries.add(entry);
+        this.executor.execute(entry);
+        this.scheduleReprioritize();
+    }
+
+    /**
+     * Recomputes the priority of all pending work based on the current visible area of the
+     * host. Work for components that are far away from the visible area is deferred, and
+     * previously deferred work for components that are now close enough is queued again.
+     */
+    public void reprioritize() {
+        this.reprioritizeScheduled = false;
+        if (this.isDisposed) {
+            return;
+        }
+
+        // Take all the pending work out of the queue so that its priorities can be updated
+        this.executor.getQueue().clear();
+
+        Rectangle visibleRect = this.host.getVisibleRect();
+        boolean hasVisibleArea = (visibleRect.width > 0) && (visibleRect.height > 0);
+        int farDistance = FAR_DISTANCE_FACTOR * Math.max(visibleRect.width, visibleRect.height);
+
+        List<Runnable> toQueue = new ArrayList<>();
+        int liveCount = 0;
+        for (int i = 0; i < this.entries.size(); i++) {
+            Entry entry = this.entries.get(i);
+            int state = entry.state.get();
+            if (state == DONE) {
+                continue;
+            }
+            this.entries.set(liveCount++, entry);
+            if (state == RUNNING) {
+                continue;
+            }
+
+            if (!hasVisibleArea) {
+                // Nothing is visible (yet) - fall back to the submission order
+                entry.priority = entry.index;
+            } else {
+                int distance = getDistance(entry.anchor.getBounds(), visibleRect);
+                if (distance > farDistance) {
+                    entry.state.compareAndSet(QUEUED, DEFERRED);
+                    continue;
+                }
+                // Distance from the visible area first, and submission order next
+                entry.priority = ((long) distance << 32) | entry.index;
+            }
+            // A worker might have already taken this entry. If so, queueing it again is
+            // harmless since the state check in run() lets only one of them through.
+            entry.state.compareAndSet(DEFERRED, QUEUED);
+            if (entry.state.get() == QUEUED) {
+                toQueue.add(entry);
+            }
+        }
+        this.entries.subList(liveCount, this.entries.size()).clear();
+
+        this.executor.getQueue().addAll(toQueue);
+        this.executor.prestartAllCoreThreads();
+    }
+
+    /**
+     * Cancels all pending work and stops the worker threads. Work that is already running is
+     * allowed to complete, but its continuation is not applied. This method can be called
+     * from any thread.
+     */
+    public void dispose() {
+        this.isDisposed = true;
+        this.executor.getQueue().clear();
+        this.executor.shutdown();
+        this.continuations.clear();
+
+        SwingUtilities.invokeLater(() -> {
+            host.removeHierarchyListener(hierarchyListener);
+            if (viewport != null) {
+                viewport.removeChangeListener(viewportListener);
+                viewport = null;
+            }
+            entries.clear();
+        });
+    }
+
+    private void attachToViewport() {
+        JViewport newViewport = (JViewport) SwingUtilities.getAncestorOfClass(
+                JViewport.class, this.host);
+        if (newViewport == this.viewport) {
+            return;
+        }
+        if (this.viewport != null) {
+            this.viewport.removeChangeListener(this.viewportListener);
+        }
+        this.viewport = newViewport;
+        if (this.viewport != null) {
+            this.viewport.addChangeListener(this.viewportListener);
+        }
+        this.scheduleReprioritize();
+    }
+
+    private void scheduleReprioritize() {
+        // Coalesce bursts of submissions and scroll events into a single pass
+        if (this.reprioritizeScheduled) {
+            return;
+        }
+        this.reprioritizeScheduled = true;
+        SwingUtilities.invokeLater(this::reprioritize);
+    }
+
+    private void scheduleContinuations() {
+        if (!this.continuationsScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        SwingUtilities.invokeLater(() -> {
+            continuationsScheduled.set(false);
+            Runnable continuation;
+            while ((continuation = continuations.poll()) != null) {
+                if (isDisposed) {
+                    continuations.clear();
+                    return;
+                }
+                continuation.run();
+            }
+        });
+    }
+
+    private static int getDistance(Rectangle bounds, Rectangle visibleRect) {
+        int dx = Math.max(0, Math.max(visibleRect.x - (bounds.x + bounds.width),
+                bounds.x - (visibleRect.x + visibleRect.width)));
+        int dy = Math.max(0, Math.max(visibleRect.y - (bounds.y + bounds.height),
+                bounds.y - (visibleRect.y + visibleRect.height)));
+        return Math.max(dx, dy);
+    }
+}
@@ -36,6 +36,7 @@ import org.pushingpixels.neon.api.icon.ResizableIcon;
 import org.pushingpixels.neon.api.icon.ResizableIconUIResource;
 import org.pushingpixels.neon.internal.font.*;
 import org.pushingpixels.neon.internal.ColorFilter;
+import org.pushingpixels.neon.internal.ImageDownscaler;
 import org.pushingpixels.neon.internal.contrib.intellij.*;
 import org.pushingpixels.neon.internal.contrib.jgoodies.looks.LookUtils;
 
@@ -134,36 +135,30 @@ public class NeonCortex {
     }
 
     /**
-     * Creates a thumbnail of the specified width.
+     * Creates a thumbnail of the specified width. Shrinking averages all the pixels of the
+     * original image that fall into each thumbnail pixel.
      *
      * @param image               The original image.
      * @param requestedThumbWidth The width of the resulting thumbnail.
      * @return Thumbnail of the specified width.
-     * @author Romain Guy
      */
     public static BufferedImage createThumbnail(BufferedImage image, int requestedThumbWidth) {
         float ratio = (float) image.getWidth() / (float) image.getHeight();
-        int width = image.getWidth();
-        BufferedImage thumb = image;
+        BufferedImage thumb = NeonCortex.getBlankImage(requestedThumbWidth,
+                (int) (requestedThumbWidth / ratio));
 
-        double scaleFactor = getScaleFactor();
-        do {
-            width /= 2;
-            if (width < requestedThumbWidth) {
-                width = requestedThumbWidth;
-            }
-
-            BufferedImage temp = NeonCortex.getBlankImage(width, (int) (width / ratio));
-            Graphics2D g2 = temp.createGraphics();
-            g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
-                    RenderingHints.VALUE_INTERPOLATION_BICUBIC);
-            g2.drawImage(thumb, 0, 0, (int) (temp.getWidth() / scaleFactor),
-                    (int) (temp.getHeight() / scaleFactor), null);
-            g2.dispose();
-
-            thumb = temp;
-        } while (width != requestedThumbWidth);
+        if ((thumb.getWidth() <= image.getWidth()) && (thumb.getHeight() <= image.getHeight())) {
+            ImageDownscaler.downscale(image, thumb);
+            return thumb;
+        }
 
+        double scaleFactor = getScaleFactor();
+        Graphics2D g2 = thumb.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g2.drawImage(image, 0, 0, (int) (thumb.getWidth() / scaleFactor),
+                (int) (thumb.getHeight() / scaleFactor), null);
+        g2.dispose();
         return thumb;
     }
 
@@ -254,6 +249,9 @@ public class NeonCortex {
     public static BufferedImage getBlankImage(int width, int height) {
         if (UIUtil.getScaleFactor() > 1.0) {
             return JBHiDPIScaledImage.create(width, height, BufferedImage.TYPE_INT_ARGB);
+        } else if (GraphicsEnvironment.isHeadless()) {
+            // No screen device to create a compatible image for
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
         } else {
             GraphicsEnvironment e = GraphicsEnvironment.getLocalGraphicsEnvironment();
             GraphicsDevice d = e.getDefaultScreenDevice();
@@ -272,6 +270,9 @@ public class NeonCortex {
     public static BufferedImage getBlankUnscaledImage(int width, int height) {
         if (UIUtil.getScaleFactor() > 1.0) {
             return JBHiDPIScaledImage.createUnscaled(width, height, BufferedImage.TYPE_INT_ARGB);
+        } else if (GraphicsEnvironment.isHeadless()) {
+            // No screen device to create a compatible image for
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
         } else {
             GraphicsEnvironment e = GraphicsEnvironment.getLocalGraphicsEnvironment();
             GraphicsDevice d = e.getDefaultScreenDevice();
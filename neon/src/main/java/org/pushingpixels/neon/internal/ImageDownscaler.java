@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.neon.internal;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Area-averaging image downscaler that works on <code>int</code> rows of ARGB pixels. Every
+ * destination pixel is the average of the source area that it covers, including the partial
+ * coverage of the source pixels on its edges. The averaging is done on premultiplied
+ * components, so that fully transparent pixels do not bleed their color into the result.
+ * <p>
+ * The source is processed one row at a time, with a horizontal pass on the source row
+ * followed by accumulation into the destination row. The row buffers are kept per thread and
+ * reused across the calls. Large sources are split into bands of destination rows that are
+ * processed in parallel on the common fork / join pool.
+ *
+ * @author Kirill Grouchnikov
+ */
+public class ImageDownscaler {
+    /**
+     * Sources with at least this many pixels are processed in parallel when there is more
+     * than one thread in the common fork / join pool.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 20;
+
+    /**
+     * Minimal number of source pixels in a single parallel band.
+     */
+    private static final int MIN_BAND_SIZE = 1 << 18;
+
+    private static final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Per-thread buffers, grown as needed.
+     */
+    private static class Scratch {
+        private int[] sourceRow = new int[0];
+
+        private float[] horizontalRow = new float[0];
+
+        private float[] accumulatedRow = new float[0];
+
+        private int[] destinationRow = new int[0];
+
+        private void ensureCapacity(int sourceWidth, int destinationWidth) {
+            if (this.sourceRow.length < sourceWidth) {
+                this.sourceRow = new int[sourceWidth];
+            }
+            if (this.destinationRow.length < destinationWidth) {
+                this.destinationRow = new int[destinationWidth];
+                this.horizontalRow = new float[4 * destinationWidth];
+                this.accumulatedRow = new float[4 * destinationWidth];
+            }
+        }
+    }
+
+    /**
+     * Horizontal mapping of source columns to destination columns. Every source column
+     * contributes to at most two adjacent destination columns since the scale is at most 1.
+     */
+    private static class ColumnMapping {
+        private final int[] destinationColumn;
+
+        private final float[] firstWeight;
+
+        private final float[] secondWeight;
+
+        private ColumnMapping(int sourceWidth, int destinationWidth) {
+            this.destinationColumn = new int[sourceWidth];
+            this.firstWeight = new float[sourceWidth];
+            this.secondWeight = new float[sourceWidth];
+
+            double scale = (double) destinationWidth / sourceWidth;
+            for (int x = 0; x < sourceWidth; x++) {
+                double start = x * scale;
+                double end = (x + 1) * scale;
+                int column = Math.min((int) start, destinationWidth - 1);
+                this.destinationColumn[x] = column;
+                if ((end <= column + 1) || (column == destinationWidth - 1)) {
+                    this.firstWeight[x] = (float) (end - start);
+                } else {
+                    this.firstWeight[x] = (float) (column + 1 - start);
+                    this.secondWeight[x] = (float) (end - column - 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Downscales the source image into the destination image. The destination image must not
+     * be larger than the source image in either dimension.
+     *
+     * @param source      Source image.
+     * @param destination Destination image.
+     */
+    public static void downscale(BufferedImage source, BufferedImage destination) {
+        int sourceWidth = source.getWidth();
+        int sourceHeight = source.getHeight();
+        int destinationWidth = destination.getWidth();
+        int destinationHeight = destination.getHeight();
+        if ((destinationWidth > sourceWidth) || (destinationHeight > sourceHeight)) {
+            throw new IllegalArgumentException("Cannot downscale " + sourceWidth + "x"
+                    + sourceHeight + " to " + destinationWidth + "x" + destinationHeight);
+        }
+
+        ColumnMapping mapping = new ColumnMapping(sourceWidth, destinationWidth);
+        if (((long) sourceWidth * sourceHeight >= PARALLEL_THRESHOLD)
+                && (ForkJoinPool.getCommonPoolParallelism() > 1)) {
+            ForkJoinPool.commonPool().invoke(
+                    new BandTask(source, destination, mapping, 0, destinationHeight));
+        } else {
+            downscaleRows(source, destination, mapping, 0, destinationHeight);
+        }
+    }
+
+    private static class BandTask extends RecursiveAction {
+        private final BufferedImage source;
+
+        private final BufferedImage destination;
+
+        private final ColumnMapping mapping;
+
+        private final int fromRow;
+
+        private final int toRow;
+
+        private BandTask(BufferedImage source, BufferedImage destination, ColumnMapping mapping,
+                int fromRow, int toRow) {
+            this.source = source;
+            this.destination = destination;
+            this.mapping = mapping;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected void compute() {
+            int rows = this.toRow - this.fromRow;
+            long bandSize = (long) rows * this.source.getWidth() * this.source.getHeight()
+                    / this.destination.getHeight();
+            if ((rows < 2) || (bandSize < 2 * MIN_BAND_SIZE)) {
+                downscaleRows(this.source, this.destination, this.mapping, this.fromRow,
+                        this.toRow);
+                return;
+            }
+            int middleRow = this.fromRow + rows / 2;
+            invokeAll(new BandTask(this.source, this.destination, this.mapping, this.fromRow,
+                            middleRow),
+                    new BandTask(this.source, this.destination, this.mapping, middleRow,
+                            this.toRow));
+        }
+    }
+
+    private static void downscaleRows(BufferedImage source, BufferedImage destination,
+            ColumnMapping mapping, int fromRow, int toRow) {
+        int sourceWidth = source.getWidth();
+        int sourceHeight = source.getHeight();
+        int destinationWidth = destination.getWidth();
+        double rowScale = (double) sourceHeight / destination.getHeight();
+
+        Scratch buffers = scratch.get();
+        buffers.ensureCapacity(sourceWidth, destinationWidth);
+        float[] horizontalRow = buffers.horizontalRow;
+        float[] accumulatedRow = buffers.accumulatedRow;
+        int[] destinationRow = buffers.destinationRow;
+
+        // A source row on the boundary between two destination rows is needed by both
+        int horizontalRowIndex = -1;
+        for (int row = fromRow; row < toRow; row++) {
+            double start = row * rowScale;
+            double end = Math.min((row + 1) * rowScale, sourceHeight);
+            Arrays.fill(accumulatedRow, 0, 4 * destinationWidth, 0.0f);
+            for (int y = (int) start; y < end; y++) {
+                float weight = (float) ((Math.min(y + 1, end) - Math.max(y, start)) / rowScale);
+                if (weight <= 0.0f) {
+                    continue;
+                }
+                if (y != horizontalRowIndex) {
+                    averageRow(source, y, buffers.sourceRow, mapping, horizontalRow,
+                            destinationWidth);
+                    horizontalRowIndex = y;
+                }
+                for (int i = 0; i < 4 * destinationWidth; i++) {
+                    accumulatedRow[i] += weight * horizontalRow[i];
+                }
+            }
+            writeRow(destination, row, accumulatedRow, destinationRow, destinationWidth);
+        }
+    }
+
+    /**
+     * Averages the specified source row horizontally into premultiplied components.
+     */
+    private static void averageRow(BufferedImage source, int y, int[] sourceRow,
+            ColumnMapping mapping, float[] horizontalRow, int destinationWidth) {
+        int sourceWidth = source.getWidth();
+        int imageType = source.getType();
+        boolean isOpaque = (imageType == BufferedImage.TYPE_INT_RGB);
+        boolean isPremultiplied = (imageType == BufferedImage.TYPE_INT_ARGB_PRE);
+        if ((imageType == BufferedImage.TYPE_INT_ARGB) || isOpaque || isPremultiplied) {
+            Raster raster = source.getRaster();
+            raster.getDataElements(0, y, sourceWidth, 1, sourceRow);
+        } else {
+            // Unmanages the image
+            source.getRGB(0, y, sourceWidth, 1, sourceRow, 0, sourceWidth);
+        }
+
+        Arrays.fill(horizontalRow, 0, 4 * destinationWidth, 0.0f);
+        int[] destinationColumn = mapping.destinationColumn;
+        float[] firstWeight = mapping.firstWeight;
+        float[] secondWeight = mapping.secondWeight;
+        for (int x = 0; x < sourceWidth; x++) {
+            int pixel = sourceRow[x];
+            float alpha = isOpaque ? 255.0f : (pixel >>> 24);
+            if (alpha == 0.0f) {
+                continue;
+            }
+            float red = (pixel >>> 16) & 0xFF;
+            float green = (pixel >>> 8) & 0xFF;
+            float blue = pixel & 0xFF;
+            if (!isOpaque && !isPremultiplied) {
+                float factor = alpha / 255.0f;
+                red *= factor;
+                green *= factor;
+                blue *= factor;
+            }
+
+            int index = 4 * destinationColumn[x];
+            float weight = firstWeight[x];
+            horizontalRow[index] += weight * alpha;
+            horizontalRow[index + 1] += weight * red;
+            horizontalRow[index + 2] += weight * green;
+            horizontalRow[index + 3] += weight * blue;
+            weight = secondWeight[x];
+            if (weight > 0.0f) {
+                horizontalRow[index + 4] += weight * alpha;
+                horizontalRow[index + 5] += weight * red;
+                horizontalRow[index + 6] += weight * green;
+                horizontalRow[index + 7] += weight * blue;
+            }
+        }
+    }
+
+    private static void writeRow(BufferedImage destination, int y, float[] accumulatedRow,
+            int[] destinationRow, int destinationWidth) {
+        int imageType = destination.getType();
+        boolean isPremultiplied = (imageType == BufferedImage.TYPE_INT_ARGB_PRE);
+        for (int x = 0; x < destinationWidth; x++) {
+            int index = 4 * x;
+            float alpha = accumulatedRow[index];
+            int alphaValue = Math.min(255, (int) (alpha + 0.5f));
+            if (alphaValue == 0) {
+                destinationRow[x] = 0;
+                continue;
+            }
+            // Unpremultiply unless the destination stores premultiplied components
+            float factor = isPremultiplied ? 1.0f : 255.0f / alpha;
+            int red = Math.min(255, (int) (accumulatedRow[index + 1] * factor + 0.5f));
+            int green = Math.min(255, (int) (accumulatedRow[index + 2] * factor + 0.5f));
+            int blue = Math.min(255, (int) (accumulatedRow[index + 3] * factor + 0.5f));
+            destinationRow[x] = (alphaValue << 24) | (red << 16) | (green << 8) | blue;
+        }
+
+        if ((imageType == BufferedImage.TYPE_INT_ARGB) || isPremultiplied
+                || (imageType == BufferedImage.TYPE_INT_RGB)) {
+            WritableRaster raster = destination.getRaster();
+            raster.setDataElements(0, y, destinationWidth, 1, destinationRow);
+        } else {
+            // Unmanages the image
+            destination.setRGB(0, y, destinationWidth, 1, destinationRow, 0, destinationWidth);
+        }
+    }
+}
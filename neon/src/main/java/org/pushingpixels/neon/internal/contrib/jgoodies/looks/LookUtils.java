@@ -193,6 +193,10 @@ public final class LookUtils {
      * @return true if the screen resolution is smaller than 120 dpi
      */
     private static boolean isLowResolution() {
+        if (GraphicsEnvironment.isHeadless()) {
+            // No screen to query
+            return true;
+        }
         return Toolkit.getDefaultToolkit().getScreenResolution() < 120;
     }
 
@@ -34,7 +34,9 @@ import org.pushingpixels.substance.api.colorscheme.SubstanceColorScheme;
 import org.pushingpixels.substance.api.skin.NebulaAccentedSkin;
 
 import javax.swing.*;
+import javax.swing.event.ChangeEvent;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * <p>
@@ -176,6 +178,17 @@ import java.util.*;
 public final class ComponentState {
 	private static Set<ComponentState> allStates = new HashSet<>();
 
+	/**
+	 * The number of component states created so far.
+	 */
+	private static final AtomicInteger stateCount = new AtomicInteger(0);
+
+	/**
+	 * Snapshot of the selected path of the default {@link MenuSelectionManager}.
+	 * Initialized on the first query.
+	 */
+	private static volatile MenuElement[] selectedMenuPath;
+
 	/**
 	 * Disabled default. Used for disabled buttons that have been marked as
 	 * <code>default</code> with {@link JRootPane#setDefaultButton(JButton)}
@@ -277,21 +290,36 @@ public final class ComponentState {
 	 * {@link #ROLLOVER_SELECTED} contains {@link ComponentStateFacet#ROLLOVER}
 	 * and {@link ComponentStateFacet#SELECTION}.
 	 */
-	private Set<ComponentStateFacet> facetsTurnedOn;
+	private ComponentStateFacet[] facetsTurnedOn;
 
 	/**
 	 * Facets that are turned on for this state. For example,
 	 * {@link #DISABLED_UNSELECTED} contains {@link ComponentStateFacet#ENABLE}
 	 * and {@link ComponentStateFacet#SELECTION}.
 	 */
-	private Set<ComponentStateFacet> facetsTurnedOff;
+	private ComponentStateFacet[] facetsTurnedOff;
+
+	/**
+	 * Bitmask of {@link #facetsTurnedOn}, combined from
+	 * {@link ComponentStateFacet#mask}s.
+	 */
+	private long facetsTurnedOnMask;
 
-	private Map<ComponentStateFacet, Boolean> mapping;
+	/**
+	 * Bitmask of {@link #facetsTurnedOff}, combined from
+	 * {@link ComponentStateFacet#mask}s.
+	 */
+	private long facetsTurnedOffMask;
 
 	private String name;
 
 	private ComponentState hardFallback;
 
+	/**
+	 * Dense ordinal of this state.
+	 */
+	private final int ordinal;
+
 	/**
 	 * Creates a new component state.
 	 * 
@@ -343,39 +371,60 @@ public final class ComponentState {
 		}
 		this.name = name;
 		this.hardFallback = hardFallback;
-		this.facetsTurnedOn = new HashSet<>();
+		List<ComponentStateFacet> on = new ArrayList<>();
 		if (facetsOn != null) {
-		    Collections.addAll(this.facetsTurnedOn, facetsOn);
+			for (ComponentStateFacet facet : facetsOn) {
+				if ((this.facetsTurnedOnMask & facet.mask) == 0) {
+					this.facetsTurnedOnMask |= facet.mask;
+					on.add(facet);
+				}
+			}
 		}
-		this.facetsTurnedOff = new HashSet<>();
+		this.facetsTurnedOn = on.toArray(new ComponentStateFacet[0]);
+		List<ComponentStateFacet> off = new ArrayList<>();
 		if (facetsOff != null) {
-            Collections.addAll(this.facetsTurnedOff, facetsOff);
+			for (ComponentStateFacet facet : facetsOff) {
+				if ((this.facetsTurnedOffMask & facet.mask) == 0) {
+					this.facetsTurnedOffMask |= facet.mask;
+					off.add(facet);
+				}
+			}
 		}
-		this.mapping = new HashMap<>();
+		this.facetsTurnedOff = off.toArray(new ComponentStateFacet[0]);
+		this.ordinal = stateCount.getAndIncrement();
 		allStates.add(this);
 	}
 
+	/**
+	 * Returns the dense ordinal of this state. Ordinals start at 0 and are
+	 * assigned in the order of state creation, which makes them suitable for
+	 * indexing lookup tables that would otherwise be keyed by component state.
+	 * Note that two equal states (with the same on and off facets) have
+	 * different ordinals, as they can have different hard fallbacks.
+	 * 
+	 * @return The dense ordinal of this state.
+	 */
+	int getOrdinal() {
+		return this.ordinal;
+	}
+
 	@Override
 	public String toString() {
 		StringBuffer sb = new StringBuffer();
 		sb.append(this.name);
 		sb.append(" : on {");
-		if (this.facetsTurnedOn != null) {
-			String sep = "";
-			for (ComponentStateFacet on : this.facetsTurnedOn) {
-				sb.append(sep);
-				sep = ", ";
-				sb.append(on.toString());
-			}
+		String sep = "";
+		for (ComponentStateFacet on : this.facetsTurnedOn) {
+			sb.append(sep);
+			sep = ", ";
+			sb.append(on.toString());
 		}
 		sb.append("} : off {");
-		if (this.facetsTurnedOff != null) {
-			String sep = "";
-			for (ComponentStateFacet off : this.facetsTurnedOff) {
-				sb.append(sep);
-				sep = ", ";
-				sb.append(off.toString());
-			}
+		sep = "";
+		for (ComponentStateFacet off : this.facetsTurnedOff) {
+			sb.append(sep);
+			sep = ", ";
+			sb.append(off.toString());
 		}
 		sb.append("}");
 		return sb.toString();
@@ -397,16 +446,7 @@ public final class ComponentState {
 	 *         otherwise.
 	 */
 	public boolean isFacetActive(ComponentStateFacet stateFacet) {
-		Boolean result = this.mapping.get(stateFacet);
-		if (result != null) {
-            return result;
-        }
-		if ((facetsTurnedOn != null) && facetsTurnedOn.contains(stateFacet)) {
-			this.mapping.put(stateFacet, Boolean.TRUE);
-			return true;
-		}
-		this.mapping.put(stateFacet, Boolean.FALSE);
-		return false;
+		return (this.facetsTurnedOnMask & stateFacet.mask) != 0;
 	}
 
 	/**
@@ -449,10 +489,7 @@ public final class ComponentState {
 		if (this == ComponentState.ENABLED) {
             return false;
         }
-		if (!this.isFacetActive(ComponentStateFacet.ENABLE)) {
-            return false;
-        }
-		return true;
+		return (this.facetsTurnedOnMask & ComponentStateFacet.ENABLE.mask) != 0;
 	}
 
 	/**
@@ -503,15 +540,8 @@ public final class ComponentState {
 
 		// fix for defect 103 - no rollover effects on menu items
 		// that are not in the selected menu path
-		if (component instanceof MenuElement) {
-			MenuElement[] selectedMenuPath = MenuSelectionManager
-					.defaultManager().getSelectedPath();
-			for (MenuElement elem : selectedMenuPath) {
-				if (elem == component) {
-					isRollover = true;
-					break;
-				}
-			}
+		if ((component instanceof MenuElement) && isInSelectedMenuPath((MenuElement) component)) {
+			isRollover = true;
 		}
 
 		if (component != null) {
@@ -568,6 +598,38 @@ public final class ComponentState {
 		return ENABLED;
 	}
 
+	/**
+	 * Checks whether the specified menu element is in the selected path of the
+	 * default {@link MenuSelectionManager}. The selected path is tracked with a
+	 * change listener, so that this method doesn't clone the selected path on
+	 * every call.
+	 * 
+	 * @param menuElement
+	 *            Menu element.
+	 * @return <code>true</code> if the specified menu element is in the
+	 *         selected menu path, <code>false</code> otherwise.
+	 */
+	private static boolean isInSelectedMenuPath(MenuElement menuElement) {
+		MenuElement[] path = selectedMenuPath;
+		if (path == null) {
+			synchronized (ComponentState.class) {
+				if (selectedMenuPath == null) {
+					MenuSelectionManager manager = MenuSelectionManager.defaultManager();
+					manager.addChangeListener(
+							(ChangeEvent e) -> selectedMenuPath = manager.getSelectedPath());
+					selectedMenuPath = manager.getSelectedPath();
+				}
+				path = selectedMenuPath;
+			}
+		}
+		for (MenuElement elem : path) {
+			if (elem == menuElement) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Returns the component state that matches the specified parameters.
 	 * 
@@ -601,49 +663,35 @@ public final class ComponentState {
 
 	private int fitValue(ComponentState state) {
 		int value = 0;
-		if (this.facetsTurnedOn != null) {
-			for (ComponentStateFacet on : this.facetsTurnedOn) {
-				if (state.facetsTurnedOn == null) {
-					value -= on.value / 2;
-				} else {
-					if (state.facetsTurnedOn.contains(on)) {
-						value += on.value;
-					} else {
-						value -= on.value / 2;
-					}
-					if (state.facetsTurnedOff.contains(on)) {
-						value -= on.value;
-					}
-				}
+		for (ComponentStateFacet on : this.facetsTurnedOn) {
+			if ((state.facetsTurnedOnMask & on.mask) != 0) {
+				value += on.value;
+			} else {
+				value -= on.value / 2;
+			}
+			if ((state.facetsTurnedOffMask & on.mask) != 0) {
+				value -= on.value;
 			}
 		}
-		if (this.facetsTurnedOff != null) {
-			for (ComponentStateFacet off : this.facetsTurnedOff) {
-				if (state.facetsTurnedOff == null) {
-					value -= off.value / 2;
-				} else {
-					if (state.facetsTurnedOff.contains(off)) {
-						value += off.value;
-					} else {
-						value -= off.value / 2;
-					}
-					if (state.facetsTurnedOn.contains(off)) {
-						value -= off.value;
-					}
-				}
+		for (ComponentStateFacet off : this.facetsTurnedOff) {
+			if ((state.facetsTurnedOffMask & off.mask) != 0) {
+				value += off.value;
+			} else {
+				value -= off.value / 2;
+			}
+			if ((state.facetsTurnedOnMask & off.mask) != 0) {
+				value -= off.value;
 			}
 		}
-		// / System.out.println("Fit value is " + value + " for ");
-		// / System.out.println("\t" + this);
-		// System.out.println("\t" + state);
 		return value;
 	}
 
 	public ComponentState bestFit(Collection<ComponentState> states) {
 		ComponentState bestFit = null;
 		int bestFitValue = 0;
+		boolean isActive = this.isActive();
 		for (ComponentState state : states) {
-			if (this.isActive() != state.isActive()) {
+			if (isActive != state.isActive()) {
                 continue;
             }
 			int currFitValue = state.fitValue(this) + this.fitValue(state);
@@ -670,38 +718,7 @@ public final class ComponentState {
 
 	@Override
 	public int hashCode() {
-		if (this.facetsTurnedOn.isEmpty() && this.facetsTurnedOff.isEmpty()) {
-            return 0;
-        }
-
-		if (this.facetsTurnedOn.isEmpty()) {
-			boolean isFirst = true;
-			int result = 0;
-			for (ComponentStateFacet off : this.facetsTurnedOff) {
-				if (isFirst) {
-					result = ~off.hashCode();
-					isFirst = false;
-				} else {
-					result = result & ~off.hashCode();
-				}
-			}
-			return result;
-		} else {
-			boolean isFirst = true;
-			int result = 0;
-			for (ComponentStateFacet on : this.facetsTurnedOn) {
-				if (isFirst) {
-					result = on.hashCode();
-					isFirst = false;
-				} else {
-					result = result & on.hashCode();
-				}
-			}
-			for (ComponentStateFacet off : this.facetsTurnedOff) {
-				result = result & ~off.hashCode();
-			}
-			return result;
-		}
+		return 31 * Long.hashCode(this.facetsTurnedOnMask) + Long.hashCode(this.facetsTurnedOffMask);
 	}
 
 	@Override
@@ -711,20 +728,7 @@ public final class ComponentState {
         }
 
 		ComponentState second = (ComponentState) obj;
-		if (this.facetsTurnedOn.size() != second.facetsTurnedOn.size()) {
-            return false;
-        }
-		if (this.facetsTurnedOff.size() != second.facetsTurnedOff.size()) {
-            return false;
-        }
-
-		if (!this.facetsTurnedOn.containsAll(second.facetsTurnedOn)) {
-            return false;
-        }
-		if (!this.facetsTurnedOff.containsAll(second.facetsTurnedOff)) {
-            return false;
-        }
-
-		return true;
+		return (this.facetsTurnedOnMask == second.facetsTurnedOnMask)
+				&& (this.facetsTurnedOffMask == second.facetsTurnedOffMask);
 	}
 }
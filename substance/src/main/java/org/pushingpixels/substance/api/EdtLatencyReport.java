@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.substance.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshot of the slow Event Dispatch Thread work collected by the EDT watchdog installed with
+ * {@link SubstanceCortex.GlobalScope#installEdtWatchdog(long, long, java.util.function.Consumer)}.
+ * <p>
+ * Slow work is aggregated into entries. Each entry has the kind of work, the event type
+ * and the component and UI delegate classes that the work is attributed to, along with a
+ * histogram of durations. The bucket <code>i</code> of the histogram counts the occurrences
+ * that took at least <code>2<sup>i</sup></code> times the watchdog threshold, and less than
+ * twice that. The last bucket counts all the longer occurrences.
+ *
+ * @author Kirill Grouchnikov
+ * @see SubstanceCortex.GlobalScope#getEdtLatencyReport()
+ */
+public final class EdtLatencyReport {
+    /**
+     * Number of buckets in duration histograms.
+     */
+    public static final int HISTOGRAM_BUCKET_COUNT = 7;
+
+    private static final int MAX_PRINTED_STACK_DEPTH = 32;
+
+    /**
+     * Kind of the Event Dispatch Thread work.
+     */
+    public enum Kind {
+        /**
+         * Dispatch of a single event, not including the nested paint cycles and the nested
+         * event dispatches.
+         */
+        EVENT_DISPATCH,
+
+        /**
+         * Single paint cycle of the repaint manager.
+         */
+        PAINT_CYCLE
+    }
+
+    /**
+     * Aggregated information on slow work with the same attribution.
+     */
+    public static final class Entry {
+        private final Kind kind;
+        private final String eventType;
+        private final String componentClassName;
+        private final String uiClassName;
+        private final int count;
+        private final long totalDurationNanos;
+        private final long maxDurationNanos;
+        private final int[] histogram;
+        private final StackTraceElement[] maxDurationStackTrace;
+
+        public Entry(Kind kind, String eventType, String componentClassName,
+                String uiClassName, int count, long totalDurationNanos, long maxDurationNanos,
+                int[] histogram, StackTraceElement[] maxDurationStackTrace) {
+            this.kind = kind;
+            this.eventType = eventType;
+            this.componentClassName = componentClassName;
+            this.uiClassName = uiClassName;
+            this.count = count;
+            this.totalDurationNanos = totalDurationNanos;
+            this.maxDurationNanos = maxDurationNanos;
+            this.histogram = histogram.clone();
+            this.maxDurationStackTrace = (maxDurationStackTrace == null) ? null
+                    : maxDurationStackTrace.clone();
+        }
+
+        public Kind getKind() {
+            return this.kind;
+        }
+
+        /**
+         * Returns the class name of the dispatched event.
+         *
+         * @return The class name of the dispatched event, or <code>null</code> for
+         * {@link Kind#PAINT_CYCLE} entries.
+         */
+        public String getEventType() {
+            return this.eventType;
+        }
+
+        /**
+         * Returns the class name of the component that the work is attributed to. This is
+         * the source of the dispatched event if it's a component, and otherwise the innermost
+         * component class in the sampled stack trace.
+         *
+         * @return The class name of the component, or <code>null</code> if the work could not
+         * be attributed to a component.
+         */
+        public String getComponentClassName() {
+            return this.componentClassName;
+        }
+
+        /**
+         * Returns the class name of the UI delegate that the work is attributed to. This is
+         * the innermost UI delegate class in the sampled stack trace, and otherwise the UI
+         * delegate of the event source.
+         *
+         * @return The class name of the UI delegate, or <code>null</code> if the work could
+         * not be attributed to a UI delegate.
+         */
+        public String getUiClassName() {
+            return this.uiClassName;
+        }
+
+        public int getCount() {
+            return this.count;
+        }
+
+        public long getTotalDuration(TimeUnit unit) {
+            return unit.convert(this.totalDurationNanos, TimeUnit.NANOSECONDS);
+        }
+
+        public long getMaxDuration(TimeUnit unit) {
+            return unit.convert(this.maxDurationNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Returns the histogram of durations.
+         *
+         * @return The histogram of durations. The array has
+         * {@link EdtLatencyReport#HISTOGRAM_BUCKET_COUNT} elements.
+         */
+        public int[] getHistogram() {
+            return this.histogram.clone();
+        }
+
+        /**
+         * Returns the Event Dispatch Thread stack trace sampled during the longest occurrence
+         * of this work.
+         *
+         * @return The sampled stack trace, or <code>null</code> if the longest occurrence has
+         * not been sampled.
+         */
+        public StackTraceElement[] getMaxDurationStackTrace() {
+            return (this.maxDurationStackTrace == null) ? null
+                    : this.maxDurationStackTrace.clone();
+        }
+    }
+
+    private final long thresholdNanos;
+    private final long eventDispatchCount;
+    private final long paintCycleCount;
+    private final List<Entry> entries;
+
+    public EdtLatencyReport(long thresholdNanos, long eventDispatchCount, long paintCycleCount,
+            List<Entry> entries) {
+        this.thresholdNanos = thresholdNanos;
+        this.eventDispatchCount = eventDispatchCount;
+        this.paintCycleCount = paintCycleCount;
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort((Entry e1, Entry e2) -> Long.compare(e2.totalDurationNanos,
+                e1.totalDurationNanos));
+        this.entries = Collections.unmodifiableList(sorted);
+    }
+
+    public long getThreshold(TimeUnit unit) {
+        return unit.convert(this.thresholdNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the number of all the events dispatched since the watchdog has been installed.
+     *
+     * @return The number of all the dispatched events.
+     */
+    public long getEventDispatchCount() {
+        return this.eventDispatchCount;
+    }
+
+    /**
+     * Returns the number of all the paint cycles since the watchdog has been installed. This
+     * is always 0 if the application uses a custom repaint manager.
+     *
+     * @return The number of all the paint cycles.
+     */
+    public long getPaintCycleCount() {
+        return this.paintCycleCount;
+    }
+
+    /**
+     * Returns the entries of this report.
+     *
+     * @return Unmodifiable list of the entries, sorted by the descending total duration.
+     */
+    public List<Entry> getEntries() {
+        return this.entries;
+    }
+
+    @Override
+    public String toString() {
+        long thresholdMillis = TimeUnit.NANOSECONDS.toMillis(this.thresholdNanos);
+        StringBuilder result = new StringBuilder();
+        result.append("EDT latency report: ").append(this.eventDispatchCount)
+                .append(" events, ").append(this.paintCycleCount)
+                .append(" paint cycles, threshold ").append(thresholdMillis).append(" ms\n");
+        result.append("Histogram buckets (ms):");
+        for (int i = 0; i < HISTOGRAM_BUCKET_COUNT; i++) {
+            result.append(" ").append(thresholdMillis << i).append("+");
+        }
+        result.append("\n");
+        for (Entry entry : this.entries) {
+            result.append(entry.kind);
+            if (entry.eventType != null) {
+                result.append(" ").append(entry.eventType);
+            }
+            result.append(" component=").append(entry.componentClassName);
+            result.append(" ui=").append(entry.uiClassName);
+            result.append(" count=").append(entry.count);
+            result.append(" total=").append(entry.getTotalDuration(TimeUnit.MILLISECONDS))
+                    .append(" ms");
+            result.append(" max=").append(entry.getMaxDuration(TimeUnit.MILLISECONDS))
+                    .append(" ms");
+            result.append(" histogram=[");
+            for (int i = 0; i < HISTOGRAM_BUCKET_COUNT; i++) {
+                if (i > 0) {
+                    result.append(", ");
+                }
+                result.append(entry.histogram[i]);
+            }
+            result.append("]\n");
+            if (entry.maxDurationStackTrace != null) {
+                int frameCount = Math.min(entry.maxDurationStackTrace.length,
+                        MAX_PRINTED_STACK_DEPTH);
+                for (int i = 0; i < frameCount; i++) {
+                    result.append("\tat ").append(entry.maxDurationStackTrace[i]).append("\n");
+                }
+                if (frameCount < entry.maxDurationStackTrace.length) {
+                    result.append("\t...\n");
+                }
+            }
+        }
+        return result.toString();
+    }
+}
@@ -36,6 +36,7 @@ import org.pushingpixels.substance.api.colorscheme.ColorSchemeTransform;
 import org.pushingpixels.substance.api.colorscheme.SubstanceColorScheme;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Color scheme bundle. Defines the visual appearance of a single decoration area of a skin.
@@ -130,7 +131,21 @@ public class SubstanceColorSchemeBundle {
      */
     private Map<ColorSchemeAssociationKind, Map<ComponentState, SubstanceColorScheme>> colorSchemeMap;
 
-    private Map<ColorSchemeAssociationKind, Map<ComponentState, ComponentState>> bestFillMap;
+    /**
+     * Marks a resolved lookup that has no matching color scheme.
+     */
+    private static final Object NO_SCHEME = new Object();
+
+    /**
+     * Maps from color scheme association kinds to the color schemes resolved for that kind,
+     * indexed by {@link ComponentState#getOrdinal()}. A <code>null</code> entry means that
+     * the state hasn't been resolved yet, and {@link #NO_SCHEME} means that there is no
+     * matching scheme. For {@link ColorSchemeAssociationKind#FILL} the entries contain the
+     * final result of {@link #getColorScheme(ComponentState)}, and for other kinds the
+     * entries contain the result of the exact and best fit lookup without the fallback
+     * association kind. Every registration replaces the tables with empty ones.
+     */
+    private Map<ColorSchemeAssociationKind, AtomicReference<Object[]>> resolvedSchemeMap;
 
     /**
      * Creates a new color scheme bundle.
@@ -158,12 +173,44 @@ public class SubstanceColorSchemeBundle {
             this.colorSchemeMap.put(associationKind, new HashMap<>());
         }
 
-        this.bestFillMap = new HashMap<>();
+        this.resolvedSchemeMap = new HashMap<>();
         for (ColorSchemeAssociationKind associationKind : ColorSchemeAssociationKind.values()) {
-            this.bestFillMap.put(associationKind, new HashMap<>());
+            this.resolvedSchemeMap.put(associationKind, new AtomicReference<>(new Object[0]));
+        }
+    }
+
+    /**
+     * Discards all the resolved color schemes. Must be called after every change to
+     * the registered color schemes.
+     */
+    private void invalidateResolvedSchemes() {
+        for (AtomicReference<Object[]> resolved : this.resolvedSchemeMap.values()) {
+            resolved.set(new Object[0]);
         }
     }
 
+    /**
+     * Stores the resolved color scheme of the specified state. If the table has been replaced
+     * since it was read by the caller (due to a registration or a concurrent store that grew
+     * it), the value is not stored and will be resolved again on the next lookup.
+     *
+     * @param resolved Resolved scheme tables for a single association kind.
+     * @param table    The table that was current when the lookup started.
+     * @param state    Component state.
+     * @param value    The resolved scheme, or {@link #NO_SCHEME}.
+     */
+    private static void storeResolved(AtomicReference<Object[]> resolved, Object[] table,
+            ComponentState state, Object value) {
+        int ordinal = state.getOrdinal();
+        if (ordinal < table.length) {
+            table[ordinal] = value;
+            return;
+        }
+        Object[] grown = Arrays.copyOf(table, Math.max(ordinal + 1, 2 * table.length));
+        grown[ordinal] = value;
+        resolved.compareAndSet(table, grown);
+    }
+
     /**
      * Registers an alpha channel value for the specific component states.
      *
@@ -223,6 +270,7 @@ public class SubstanceColorSchemeBundle {
                 this.colorSchemeMap.get(ColorSchemeAssociationKind.HIGHLIGHT).put(state, stateHighlightScheme);
             }
         }
+        this.invalidateResolvedSchemes();
     }
 
     /**
@@ -252,27 +300,27 @@ public class SubstanceColorSchemeBundle {
      * state.
      */
     public SubstanceColorScheme getColorScheme(ComponentState componentState) {
-        SubstanceColorScheme registered = this.colorSchemeMap.get(
-                ColorSchemeAssociationKind.FILL).get(componentState);
-        if (registered != null) {
-            return registered;
+        AtomicReference<Object[]> resolved = this.resolvedSchemeMap.get(
+                ColorSchemeAssociationKind.FILL);
+        Object[] table = resolved.get();
+        int ordinal = componentState.getOrdinal();
+        if (ordinal < table.length) {
+            Object cached = table[ordinal];
+            if (cached != null) {
+                return (SubstanceColorScheme) cached;
+            }
         }
 
-        // for now look for the best fit only on active states
-        Map<ComponentState, ComponentState> bestFitForFill = this.bestFillMap
-                .get(ColorSchemeAssociationKind.FILL);
-        if (!bestFitForFill.containsKey(componentState)) {
-            Collection<ComponentState> registeredStates = this.colorSchemeMap
-                    .get(ColorSchemeAssociationKind.FILL).keySet();
-            bestFitForFill.put(componentState, componentState
-                    .bestFit(registeredStates));
-        }
-        ComponentState bestFit = bestFitForFill.get(componentState);
-        if (bestFit != null) {
-            registered = this.colorSchemeMap.get(ColorSchemeAssociationKind.FILL).get(bestFit);
-            if (registered != null) {
-                return registered;
-            }
+        SubstanceColorScheme result = this.resolveColorScheme(componentState);
+        storeResolved(resolved, table, componentState, result);
+        return result;
+    }
+
+    private SubstanceColorScheme resolveColorScheme(ComponentState componentState) {
+        SubstanceColorScheme registered = this.getRegisteredColorScheme(
+                ColorSchemeAssociationKind.FILL, componentState);
+        if (registered != null) {
+            return registered;
         }
 
         if (componentState.isFacetActive(ComponentStateFacet.PRESS)) {
@@ -315,6 +363,31 @@ public class SubstanceColorSchemeBundle {
         return this.activeColorScheme;
     }
 
+    /**
+     * Returns the color scheme registered for the specified component state, or for the
+     * registered state that is the best fit for the specified component state.
+     *
+     * @param associationKind Color scheme association kind.
+     * @param componentState  Component state.
+     * @return The registered color scheme, or <code>null</code> if there is no registered
+     * state that is close enough to the specified component state.
+     */
+    private SubstanceColorScheme getRegisteredColorScheme(
+            ColorSchemeAssociationKind associationKind, ComponentState componentState) {
+        Map<ComponentState, SubstanceColorScheme> registeredMap =
+                this.colorSchemeMap.get(associationKind);
+        SubstanceColorScheme registered = registeredMap.get(componentState);
+        if (registered != null) {
+            return registered;
+        }
+
+        ComponentState bestFit = componentState.bestFit(registeredMap.keySet());
+        if (bestFit != null) {
+            return registeredMap.get(bestFit);
+        }
+        return null;
+    }
+
     /**
      * Returns the alpha channel of the highlight color schemes for the specified component state.
      *
@@ -412,6 +485,7 @@ public class SubstanceColorSchemeBundle {
                 this.colorSchemeMap.get(associationKind).put(state, scheme);
             }
         }
+        this.invalidateResolvedSchemes();
     }
 
     /**
@@ -433,27 +507,18 @@ public class SubstanceColorSchemeBundle {
             return this.getColorScheme(componentState);
         }
 
-        SubstanceColorScheme registered = this.colorSchemeMap.get(
-                associationKind).get(componentState);
-        if (registered != null) {
-            return registered;
+        AtomicReference<Object[]> resolved = this.resolvedSchemeMap.get(associationKind);
+        Object[] table = resolved.get();
+        int ordinal = componentState.getOrdinal();
+        Object cached = (ordinal < table.length) ? table[ordinal] : null;
+        if (cached == null) {
+            SubstanceColorScheme registered = this.getRegisteredColorScheme(associationKind,
+                    componentState);
+            cached = (registered != null) ? registered : NO_SCHEME;
+            storeResolved(resolved, table, componentState, cached);
         }
-
-        // if (componentState.isActive()) {
-        // for now look for the best fit only on active states
-        Map<ComponentState, ComponentState> bestFitForState = this.bestFillMap
-                .get(associationKind);
-        if (!bestFitForState.containsKey(componentState)) {
-            Collection<ComponentState> registeredStates = this.colorSchemeMap
-                    .get(associationKind).keySet();
-            bestFitForState.put(componentState, componentState
-                    .bestFit(registeredStates));
-        }
-        ComponentState bestFit = bestFitForState.get(componentState);
-        if (bestFit != null) {
-            registered = this.colorSchemeMap.get(associationKind).get(bestFit);
-            if (registered != null)
-                return registered;
+        if (cached != NO_SCHEME) {
+            return (SubstanceColorScheme) cached;
         }
 
         if (!allowFallback) {
@@ -63,6 +63,7 @@ import javax.swing.text.JTextComponent;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * This class is the only officially-supported entry point into configuring the behavior of
@@ -161,6 +162,7 @@ public class SubstanceCortex {
                     }
                 }
 
+                Object phaseEvent = FlightRecorderEvents.beginSkinChangePhase();
                 LookAndFeel derived = new SkinDerivedLookAndFeel(newSkin);
                 try {
                     UIManager.setLookAndFeel(derived);
@@ -170,9 +172,13 @@ public class SubstanceCortex {
                 if (!(UIManager.getLookAndFeel() instanceof SubstanceLookAndFeel)) {
                     return false;
                 }
+                FlightRecorderEvents.endSkinChangePhase(phaseEvent, "lookAndFeel", newSkin);
+
+                phaseEvent = FlightRecorderEvents.beginSkinChangePhase();
                 for (Window window : Window.getWindows()) {
                     SwingUtilities.updateComponentTreeUI(window);
                 }
+                FlightRecorderEvents.endSkinChangePhase(phaseEvent, "components", newSkin);
                 return true;
             }
 
@@ -182,6 +188,7 @@ public class SubstanceCortex {
                     return false;
                 }
 
+                Object phaseEvent = FlightRecorderEvents.beginSkinChangePhase();
                 UIDefaults lafDefaults = UIManager.getLookAndFeelDefaults();
                 UIDefaults defaults = lafDefaults;
                 // The table will be null when the skin is set using a custom LAF
@@ -191,8 +198,10 @@ public class SubstanceCortex {
                     SubstancePluginRepository.getInstance()
                             .processAllDefaultsEntriesComponentPlugins(lafDefaults, newSkin);
                 }
+                FlightRecorderEvents.endSkinChangePhase(phaseEvent, "defaults", newSkin);
 
                 // file chooser strings go to the main UIManager table
+                phaseEvent = FlightRecorderEvents.beginSkinChangePhase();
                 ResourceBundle substanceBundle = getLabelBundle();
                 Enumeration<String> keyEn = substanceBundle.getKeys();
                 while (keyEn.hasMoreElements()) {
@@ -202,20 +211,27 @@ public class SubstanceCortex {
                         UIManager.put(key, value);
                     }
                 }
+                FlightRecorderEvents.endSkinChangePhase(phaseEvent, "resources", newSkin);
 
                 if (isSubstance) {
+                    phaseEvent = FlightRecorderEvents.beginSkinChangePhase();
                     LazyResettableHashMap.reset();
+                    FlightRecorderEvents.endSkinChangePhase(phaseEvent, "caches", newSkin);
                 }
 
                 currentSkin = newSkin;
 
                 if (toUpdateWindows) {
+                    phaseEvent = FlightRecorderEvents.beginSkinChangePhase();
                     SubstanceCoreUtilities.updateActiveUi();
+                    FlightRecorderEvents.endSkinChangePhase(phaseEvent, "components", newSkin);
                 }
 
+                phaseEvent = FlightRecorderEvents.beginSkinChangePhase();
                 for (SkinChangeListener skinChangeListener : skinChangeListeners) {
                     skinChangeListener.skinChanged();
                 }
+                FlightRecorderEvents.endSkinChangePhase(phaseEvent, "listeners", newSkin);
                 return true;
             } catch (NoClassDefFoundError ncdfe) {
                 // this may happen when a skin references some class
@@ -1265,6 +1281,64 @@ public class SubstanceCortex {
             UIManager.put(SubstanceSynapse.TRACE_FILE, traceFilename);
         }
 
+        /**
+         * Installs the Event Dispatch Thread latency watchdog. The watchdog measures how long
+         * the dispatch of every event and every paint cycle takes. When the dispatch of an
+         * event or a paint cycle takes longer than the specified threshold, the stack of the
+         * Event Dispatch Thread is sampled, and the slow work is recorded in the report
+         * returned by {@link #getEdtLatencyReport()}. This method must be called on the Event
+         * Dispatch Thread. This method does not require Substance to be the current
+         * look-and-feel.
+         *
+         * @param thresholdMillis Threshold for reporting an event dispatch or a paint cycle
+         *                        as slow.
+         * @see #installEdtWatchdog(long, long, Consumer)
+         * @see #uninstallEdtWatchdog()
+         */
+        public static void installEdtWatchdog(long thresholdMillis) {
+            EdtWatchdog.install(thresholdMillis, 0, null);
+        }
+
+        /**
+         * Installs the Event Dispatch Thread latency watchdog that periodically reports
+         * the slow work. The report consumer is called on the watchdog thread, and each report
+         * contains all the slow work since the watchdog has been installed. This method must be
+         * called on the Event Dispatch Thread.
+         *
+         * @param thresholdMillis      Threshold for reporting an event dispatch or a paint
+         *                             cycle as slow.
+         * @param reportIntervalMillis Interval between two consecutive reports.
+         * @param reportConsumer       Report consumer.
+         * @see #installEdtWatchdog(long)
+         * @see #uninstallEdtWatchdog()
+         */
+        public static void installEdtWatchdog(long thresholdMillis, long reportIntervalMillis,
+                Consumer<EdtLatencyReport> reportConsumer) {
+            EdtWatchdog.install(thresholdMillis, reportIntervalMillis, reportConsumer);
+        }
+
+        /**
+         * Uninstalls the Event Dispatch Thread latency watchdog installed with
+         * {@link #installEdtWatchdog(long)} or
+         * {@link #installEdtWatchdog(long, long, Consumer)}. This method must be called on the
+         * Event Dispatch Thread.
+         */
+        public static void uninstallEdtWatchdog() {
+            EdtWatchdog.uninstall();
+        }
+
+        /**
+         * Returns the report of the Event Dispatch Thread latency watchdog. This method must
+         * be called on the Event Dispatch Thread.
+         *
+         * @return The report of the slow work since the watchdog has been installed, or
+         * <code>null</code> if the watchdog is not installed.
+         * @see #installEdtWatchdog(long)
+         */
+        public static EdtLatencyReport getEdtLatencyReport() {
+            return EdtWatchdog.getReport();
+        }
+
         /**
          * Specifies the kind of focus indication to be used on application components.
          *
@@ -44,6 +44,7 @@ import java.awt.*;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Various constants and data classes used in scope-defined APIs provided by {@link SubstanceCortex}.
@@ -987,10 +988,21 @@ public final class SubstanceSlices {
      * {@link ComponentState} class for more information on state facets.
      */
     public final static class ComponentStateFacet {
+        /**
+         * The number of facets created so far. Each facet gets its own bit in the facet
+         * masks of {@link ComponentState}.
+         */
+        private static final AtomicInteger facetCount = new AtomicInteger(0);
+
         int value;
 
         String name;
 
+        /**
+         * The bit of this facet in the facet masks of {@link ComponentState}.
+         */
+        final long mask;
+
         /**
          * Facet that describes the enabled bit.
          */
@@ -1048,6 +1060,12 @@ public final class SubstanceSlices {
                 throw new IllegalArgumentException("Facet value must be non-negative");
             }
             this.value = value;
+            int bitIndex = facetCount.getAndIncrement();
+            if (bitIndex >= Long.SIZE) {
+                throw new IllegalStateException("At most " + Long.SIZE
+                        + " component state facets are supported");
+            }
+            this.mask = 1L << bitIndex;
         }
 
         @Override
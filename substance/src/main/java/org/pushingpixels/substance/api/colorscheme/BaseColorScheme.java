@@ -30,16 +30,21 @@
 package org.pushingpixels.substance.api.colorscheme;
 
 import org.pushingpixels.substance.internal.colorscheme.*;
+import org.pushingpixels.substance.internal.colorscheme.ColorSchemeRegistry.Derivation;
+import org.pushingpixels.substance.internal.colorscheme.ColorSchemeRegistry.DerivationKey;
 import org.pushingpixels.substance.internal.utils.SubstanceColorUtilities;
 
 import java.awt.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * Base class for <b>Substance</b> color schemes.
  * 
  * @author Kirill Grouchnikov
  */
-public abstract class BaseColorScheme implements SubstanceColorScheme {
+public abstract class BaseColorScheme implements SubstanceColorScheme, Cloneable {
 	/**
 	 * Indicates whether this color scheme is dark.
 	 */
@@ -55,6 +60,30 @@ public abstract class BaseColorScheme implements SubstanceColorScheme {
 	 */
 	private SchemeDerivedColors derivedColorsResolver;
 
+	/**
+	 * Id of this color scheme.
+	 */
+	private int schemeId;
+
+	/**
+	 * Color schemes derived from this color scheme, interned by the derivation
+	 * kind and factor. Shifted and blended schemes are not interned, as they
+	 * are parameterized by arbitrary colors and schemes.
+	 */
+	private Map<DerivationKey, SubstanceColorScheme> derivedSchemes;
+
+	/**
+	 * If this color scheme was derived from another color scheme, points to the
+	 * table where it has been interned.
+	 */
+	private Map<DerivationKey, SubstanceColorScheme> internTable;
+
+	/**
+	 * If this color scheme was derived from another color scheme, this is the
+	 * key under which it has been interned.
+	 */
+	private DerivationKey internKey;
+
 	/**
 	 * Constructs the basic functionality of a color scheme.
 	 * 
@@ -68,6 +97,40 @@ public abstract class BaseColorScheme implements SubstanceColorScheme {
 		this.isDark = isDark;
 		this.derivedColorsResolver = this.isDark ? new DerivedColorsResolverDark(this)
 				: new DerivedColorsResolverLight(this);
+		this.schemeId = ColorSchemeRegistry.nextSchemeId();
+		this.derivedSchemes = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Returns the id of this color scheme. The id is unique to this scheme
+	 * object, and can be used in cache keys. This method is for internal use
+	 * only.
+	 * 
+	 * @return The id of this color scheme.
+	 */
+	public final int getSchemeId() {
+		return this.schemeId;
+	}
+
+	/**
+	 * Returns the interned derived color scheme for the specified key, creating
+	 * it if necessary.
+	 * 
+	 * @param key
+	 *            Derivation key.
+	 * @param factory
+	 *            Creates the derived scheme when there is none interned for the
+	 *            specified key.
+	 * @return The derived color scheme.
+	 */
+	private SubstanceColorScheme derive(DerivationKey key,
+			Supplier<BaseColorScheme> factory) {
+		return this.derivedSchemes.computeIfAbsent(key, (DerivationKey k) -> {
+			BaseColorScheme derived = factory.get();
+			derived.internTable = this.derivedSchemes;
+			derived.internKey = k;
+			return derived;
+		});
 	}
 
 	@Override
@@ -97,37 +160,44 @@ public abstract class BaseColorScheme implements SubstanceColorScheme {
 
 	@Override
 	public SubstanceColorScheme tint(double tintFactor) {
-		return new TintColorScheme(this, tintFactor);
+		return this.derive(DerivationKey.of(Derivation.TINT, tintFactor),
+				() -> new TintColorScheme(this, tintFactor));
 	}
 
 	@Override
 	public SubstanceColorScheme tone(double toneFactor) {
-		return new ToneColorScheme(this, toneFactor);
+		return this.derive(DerivationKey.of(Derivation.TONE, toneFactor),
+				() -> new ToneColorScheme(this, toneFactor));
 	}
 
 	@Override
 	public SubstanceColorScheme shade(double shadeFactor) {
-		return new ShadeColorScheme(this, shadeFactor);
+		return this.derive(DerivationKey.of(Derivation.SHADE, shadeFactor),
+				() -> new ShadeColorScheme(this, shadeFactor));
 	}
 
 	@Override
 	public SubstanceColorScheme saturate(double saturateFactor) {
-		return new SaturatedColorScheme(this, saturateFactor);
+		return this.derive(DerivationKey.of(Derivation.SATURATE, saturateFactor),
+				() -> new SaturatedColorScheme(this, saturateFactor));
 	}
 
 	@Override
 	public SubstanceColorScheme invert() {
-		return new InvertedColorScheme(this);
+		return this.derive(DerivationKey.of(Derivation.INVERT),
+				() -> new InvertedColorScheme(this));
 	}
 
 	@Override
 	public SubstanceColorScheme negate() {
-		return new NegatedColorScheme(this);
+		return this.derive(DerivationKey.of(Derivation.NEGATE),
+				() -> new NegatedColorScheme(this));
 	}
 
 	@Override
 	public SubstanceColorScheme hueShift(double hueShiftFactor) {
-		return new HueShiftColorScheme(this, hueShiftFactor);
+		return this.derive(DerivationKey.of(Derivation.HUE_SHIFT, hueShiftFactor),
+				() -> new HueShiftColorScheme(this, hueShiftFactor));
 	}
 
 	@Override
@@ -168,8 +238,24 @@ public abstract class BaseColorScheme implements SubstanceColorScheme {
 
 	@Override
 	public final SubstanceColorScheme named(String colorSchemeDisplayName) {
-		this.displayName = colorSchemeDisplayName;
-		return this;
+		if (this.internTable == null) {
+			this.displayName = colorSchemeDisplayName;
+			return this;
+		}
+		// An interned scheme is shared by everybody that asked for the same
+		// derivation, so rename a copy instead. The copy has the same colors,
+		// and its own id and derived schemes.
+		try {
+			BaseColorScheme renamed = (BaseColorScheme) this.clone();
+			renamed.schemeId = ColorSchemeRegistry.nextSchemeId();
+			renamed.derivedSchemes = new ConcurrentHashMap<>();
+			renamed.internTable = null;
+			renamed.internKey = null;
+			renamed.displayName = colorSchemeDisplayName;
+			return renamed;
+		} catch (CloneNotSupportedException cnse) {
+			throw new IllegalStateException(cnse);
+		}
 	}
 
 	@Override
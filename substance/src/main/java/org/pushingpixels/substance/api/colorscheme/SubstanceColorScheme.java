@@ -155,11 +155,13 @@ public interface SubstanceColorScheme extends SubstanceTrait, SchemeBaseColors,
 
     /**
      * This method is a fluent-interface builder utility for setting the display
-     * name for this color scheme. The implementation must return the same
-     * <code>this</code> instance.
+     * name for this color scheme. Derived color schemes are shared between all
+     * the callers that derive them the same way, so for those the implementation
+     * returns a renamed copy and leaves the shared instance unchanged. Otherwise it
+     * returns the same <code>this</code> instance.
      *
      * @param colorSchemeDisplayName New display name for this color scheme.
-     * @return This color scheme.
+     * @return The color scheme with the new display name.
      */
     SubstanceColorScheme named(String colorSchemeDisplayName);
 }
@@ -49,12 +49,6 @@ import java.util.Set;
  * @author Kirill Grouchnikov
  */
 public class ClassicButtonShaper implements SubstanceButtonShaper, RectangularButtonShaper {
-    /**
-     * Cache of already computed contours.
-     */
-    private final static LazyResettableHashMap<Shape> contours = new LazyResettableHashMap<>(
-            "ClassicButtonShaper");
-
     /**
      * Reusable instance of this shaper.
      */
@@ -78,25 +72,9 @@ public class ClassicButtonShaper implements SubstanceButtonShaper, RectangularBu
                 radius = 0.0f;
         }
 
-        HashMapKey key = SubstanceCoreUtilities.getHashKey(width, height, straightSides, radius,
-                extraInsets);
-
-        Shape result = contours.get(key);
-        if (result != null) {
-            return result;
-        }
-
-//        System.out.println("Getting button outline for " + width + "x" + height + " and " + extraInsets);
-        result = SubstanceOutlineUtilities.getBaseOutline(width, height, radius, straightSides,
+        // The outlines are cached and shared by SubstanceOutlineUtilities
+        return SubstanceOutlineUtilities.getBaseOutline(width, height, radius, straightSides,
                 extraInsets);
-//        System.out.println("\t-->" + result.getBounds2D());
-//        try {
-//            throw new Exception();
-//        } catch (Throwable t) {
-//            t.printStackTrace(System.out);
-//        }
-        contours.put(key, result);
-        return result;
     }
 
     @Override
@@ -48,12 +48,6 @@ import java.util.Set;
  * @author Kirill Grouchnikov
  */
 public class StandardButtonShaper implements SubstanceButtonShaper, RectangularButtonShaper {
-    /**
-     * Cache of already computed contours.
-     */
-    private final static LazyResettableHashMap<Shape> contours = new LazyResettableHashMap<>(
-            "StandardButtonShaper");
-
     @Override
     public String getDisplayName() {
         return "Standard";
@@ -72,18 +66,9 @@ public class StandardButtonShaper implements SubstanceButtonShaper, RectangularB
                 radius = 0.0f;
         }
 
-        HashMapKey key = SubstanceCoreUtilities.getHashKey(width, height, straightSides, radius,
-                extraInsets);
-
-        Shape result = contours.get(key);
-        if (result != null) {
-            return result;
-        }
-
-        result = SubstanceOutlineUtilities.getBaseOutline(width, height, radius, straightSides,
+        // The outlines are cached and shared by SubstanceOutlineUtilities
+        return SubstanceOutlineUtilities.getBaseOutline(width, height, radius, straightSides,
                 extraInsets);
-        contours.put(key, result);
-        return result;
     }
 
     @Override
@@ -30,7 +30,9 @@
 package org.pushingpixels.substance.internal;
 
 import org.pushingpixels.substance.api.SubstanceSlices.AnimationFacet;
+import org.pushingpixels.trident.api.Timeline;
 import org.pushingpixels.trident.api.ease.Spline;
+import org.pushingpixels.trident.api.ease.TimelineEase;
 import org.pushingpixels.trident.api.swing.SwingComponentTimeline;
 
 import java.awt.*;
@@ -278,14 +280,18 @@ public class AnimationConfigurationManager {
         return timelineDuration;
     }
 
+    public TimelineEase getTimelineEase() {
+        return DEFAULT_EASE;
+    }
+
     public SwingComponentTimeline.Builder timelineBuilder(Component component) {
         return SwingComponentTimeline.componentBuilder(component)
                 .setDuration(this.timelineDuration)
                 .setEase(DEFAULT_EASE);
     }
 
-    public SwingComponentTimeline.Builder modifiedTimelineBuilder(Component component) {
-        return SwingComponentTimeline.componentBuilder(component)
+    public Timeline.Builder modifiedTimelineBuilder() {
+        return Timeline.builder()
                 .setDuration(this.timelineDuration)
                 .setEase(durationFraction -> {
                     if (durationFraction < 0.8f) {
@@ -33,6 +33,9 @@ import org.pushingpixels.substance.api.SubstanceWidget;
 
 import javax.swing.*;
 import javax.swing.text.JTextComponent;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.*;
 
 /**
@@ -53,6 +56,13 @@ public class SubstanceWidgetRepository {
      */
     private Set<String> widgetClassesToIgnore;
 
+    /**
+     * Constructors of the widgets that match the specific component class. Each entry is
+     * computed once on the first installation of a component of that class, and the whole
+     * table is discarded on every change to the registered or ignored widgets.
+     */
+    private volatile ClassValue<List<MethodHandle>> widgetConstructors;
+
     /**
      * Singleton instance.
      */
@@ -94,6 +104,16 @@ public class SubstanceWidgetRepository {
     private SubstanceWidgetRepository() {
         this.widgets = new HashMap<>();
         this.widgetClassesToIgnore = new HashSet<>();
+        this.widgetConstructors = this.createWidgetConstructors();
+    }
+
+    private ClassValue<List<MethodHandle>> createWidgetConstructors() {
+        return new ClassValue<List<MethodHandle>>() {
+            @Override
+            protected List<MethodHandle> computeValue(Class<?> type) {
+                return getWidgetConstructors(type);
+            }
+        };
     }
 
     /**
@@ -194,6 +214,7 @@ public class SubstanceWidgetRepository {
             }
         }
         this.widgets.get(supportedClass).add(new WidgetClassInfo(widgetClassName, isExact));
+        this.widgetConstructors = this.createWidgetConstructors();
     }
 
     /**
@@ -206,9 +227,36 @@ public class SubstanceWidgetRepository {
      * @return Set of widgets that match the specified component.
      */
     @SuppressWarnings("unchecked")
-    public synchronized <T extends JComponent> Set<SubstanceWidget<T>> getMatchingWidgets(T jcomp) {
+    public <T extends JComponent> Set<SubstanceWidget<T>> getMatchingWidgets(T jcomp) {
+        List<MethodHandle> constructors = this.widgetConstructors.get(jcomp.getClass());
+        if (constructors.isEmpty()) {
+            return Collections.emptySet();
+        }
         Set<SubstanceWidget<T>> result = new HashSet<>();
-        Class<?> clazz = jcomp.getClass();
+        for (MethodHandle constructor : constructors) {
+            try {
+                SubstanceWidget<T> widget = (SubstanceWidget<T>) constructor.invoke();
+                widget.setComponent(jcomp);
+                result.add(widget);
+                // the exceptions are ignored - see the explanation
+                // in getWidgetConstructors
+            } catch (Throwable t) {
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the constructors of all widgets that match the specified component class. The
+     * class hierarchy is scanned bottom-up.
+     * 
+     * @param componentClass
+     *            UI component class.
+     * @return Constructors of all widgets that match the specified component class.
+     */
+    private synchronized List<MethodHandle> getWidgetConstructors(Class<?> componentClass) {
+        List<MethodHandle> result = new ArrayList<>();
+        Class<?> clazz = componentClass;
         boolean isOriginator = true;
         while (clazz != null) {
             Set<WidgetClassInfo> registered = this.widgets.get(clazz);
@@ -228,12 +276,10 @@ public class SubstanceWidgetRepository {
                         // The code below will fail if no such class exists.
                         // This allows safely removing the relevant widget
                         // classes making the jar size smaller.
-                        Object widgetObj = Class.forName(widgetClassName)
-                                .getDeclaredConstructor().newInstance();
-                        if (widgetObj instanceof SubstanceWidget) {
-                            SubstanceWidget<T> widget = (SubstanceWidget<T>) widgetObj;
-                            widget.setComponent(jcomp);
-                            result.add(widget);
+                        Class<?> widgetClass = Class.forName(widgetClassName);
+                        if (SubstanceWidget.class.isAssignableFrom(widgetClass)) {
+                            result.add(MethodHandles.publicLookup().findConstructor(
+                                    widgetClass, MethodType.methodType(void.class)));
                         }
                         // the exceptions are ignored - see the explanation
                         // above.
@@ -244,7 +290,7 @@ public class SubstanceWidgetRepository {
             clazz = clazz.getSuperclass();
             isOriginator = false;
         }
-        return result;
+        return result.isEmpty() ? Collections.emptyList() : result;
     }
 
     /**
@@ -255,5 +301,6 @@ public class SubstanceWidgetRepository {
      */
     public synchronized void addToIgnoreWidgets(String widgetClassName) {
         this.widgetClassesToIgnore.add(widgetClassName);
+        this.widgetConstructors = this.createWidgetConstructors();
     }
 }
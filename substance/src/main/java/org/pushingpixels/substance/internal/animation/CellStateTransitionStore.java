@@ -0,0 +1,491 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.substance.internal.animation;
+
+import org.pushingpixels.substance.api.ComponentState;
+import org.pushingpixels.substance.internal.AnimationConfigurationManager;
+import org.pushingpixels.trident.api.Timeline;
+import org.pushingpixels.trident.api.Timeline.RepeatBehavior;
+import org.pushingpixels.trident.api.Timeline.TimelineState;
+import org.pushingpixels.trident.api.ease.TimelineEase;
+import org.pushingpixels.trident.api.swing.EventDispatchThreadTimelineCallbackAdapter;
+
+import javax.swing.*;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Tracks the rollover / selection / enabled transitions of the cells of a single component,
+ * such as the rows of a list or the cells of a table. This is a lightweight alternative to a
+ * {@link StateTransitionMultiTracker} that holds a full {@link StateTransitionTracker} (with
+ * its own button model, listeners, contribution maps and timelines) for every animating cell.
+ * <p>
+ * The state of all the animating cells is kept in primitive arrays. Each cell state is encoded
+ * in three bits (enabled, rollover, selected), and each animating cell has the start and end
+ * contributions of each of the eight possible states, as well as the start time and the
+ * duration of its current transition. The contributions are interpolated when they are
+ * queried, and a single looping timeline drives the repaints of all the animating cells and
+ * retires the cells with completed transitions. The {@link StateTransitionTracker.ModelStateInfo}
+ * view expected by the painting code is filled on demand.
+ * <p>
+ * Cells are identified by a <code>long</code> key, such as the row index of a list or the row
+ * and the column of a table packed with {@link #getCellKey(int, int)}. The number of cells that
+ * animate at the same time is small (bounded by the animation duration and the rate of user
+ * interaction), and cells are looked up by a linear scan.
+ * <p>
+ * All the methods of this class must be called on the Event Dispatch Thread.
+ *
+ * @author Kirill Grouchnikov
+ */
+public final class CellStateTransitionStore {
+    /**
+     * Repaints a single animating cell.
+     */
+    @FunctionalInterface
+    public interface CellRepainter {
+        void repaintCell(long cellKey);
+    }
+
+    private static final int ENABLED = 1;
+    private static final int ROLLOVER = 2;
+    private static final int SELECTED = 4;
+    private static final int STATE_COUNT = 8;
+
+    private static final ComponentState[] STATES = new ComponentState[STATE_COUNT];
+
+    static {
+        for (int bits = 0; bits < STATE_COUNT; bits++) {
+            STATES[bits] = ComponentState.getState((bits & ENABLED) != 0,
+                    (bits & ROLLOVER) != 0, (bits & SELECTED) != 0);
+        }
+    }
+
+    private final JComponent component;
+
+    private final CellRepainter repainter;
+
+    private int slotCount;
+
+    private long[] cellKeys;
+
+    private int[] currBits;
+
+    private int[] presentMasks;
+
+    private float[] starts;
+
+    private float[] ends;
+
+    private long[] startTimes;
+
+    private long[] durations;
+
+    private Timeline pulseTimeline;
+
+    private final float[] scratchContributions;
+
+    private final StateTransitionTracker.ModelStateInfo scratchModelStateInfo;
+
+    private final StateTransitionTracker.StateContributionInfo[] scratchInfos;
+
+    private final StateTransitionTracker.StateContributionInfo[] scratchNoSelectionInfos;
+
+    /**
+     * Creates a new store.
+     *
+     * @param component The component that hosts the cells.
+     * @param repainter Repaints a single cell on every animation pulse.
+     */
+    public CellStateTransitionStore(JComponent component, CellRepainter repainter) {
+        this.component = component;
+        this.repainter = repainter;
+
+        int capacity = 4;
+        this.cellKeys = new long[capacity];
+        this.currBits = new int[capacity];
+        this.presentMasks = new int[capacity];
+        this.starts = new float[capacity * STATE_COUNT];
+        this.ends = new float[capacity * STATE_COUNT];
+        this.startTimes = new long[capacity];
+        this.durations = new long[capacity];
+
+        this.scratchContributions = new float[STATE_COUNT];
+        this.scratchModelStateInfo = new StateTransitionTracker.ModelStateInfo();
+        this.scratchInfos = new StateTransitionTracker.StateContributionInfo[STATE_COUNT];
+        this.scratchNoSelectionInfos = new StateTransitionTracker.StateContributionInfo[STATE_COUNT];
+        for (int i = 0; i < STATE_COUNT; i++) {
+            this.scratchInfos[i] = new StateTransitionTracker.StateContributionInfo(0.0f, 0.0f);
+            this.scratchNoSelectionInfos[i] =
+                    new StateTransitionTracker.StateContributionInfo(0.0f, 0.0f);
+        }
+    }
+
+    /**
+     * Returns the key of the cell at the specified row and column.
+     *
+     * @param row    Row index.
+     * @param column Column index.
+     * @return The key of the cell at the specified row and column.
+     */
+    public static long getCellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns the row index of the cell with the specified key.
+     *
+     * @param cellKey Cell key created with {@link #getCellKey(int, int)}.
+     * @return The row index of the cell.
+     */
+    public static int getRow(long cellKey) {
+        return (int) (cellKey >> 32);
+    }
+
+    /**
+     * Returns the column index of the cell with the specified key.
+     *
+     * @param cellKey Cell key created with {@link #getCellKey(int, int)}.
+     * @return The column index of the cell.
+     */
+    public static int getColumn(long cellKey) {
+        return (int) cellKey;
+    }
+
+    /**
+     * Returns the number of cells that are currently animating.
+     *
+     * @return The number of cells that are currently animating.
+     */
+    public int size() {
+        return this.slotCount;
+    }
+
+    /**
+     * Starts the transition of the rollover facet of the specified cell.
+     *
+     * @param cellKey              Cell key.
+     * @param isRollover           The new rollover value.
+     * @param isSelectedIfInactive Selection value to use if the cell is not animating.
+     */
+    public void setRollover(long cellKey, boolean isRollover, boolean isSelectedIfInactive) {
+        int slot = this.findSlot(cellKey);
+        int fromBits = (slot >= 0) ? this.currBits[slot]
+                : toBits(this.component.isEnabled(), !isRollover, isSelectedIfInactive);
+        this.transition(cellKey, slot, fromBits, withBit(fromBits, ROLLOVER, isRollover));
+    }
+
+    /**
+     * Starts the transition of the selection facet of the specified cell.
+     *
+     * @param cellKey              Cell key.
+     * @param isSelected           The new selection value.
+     * @param isRolloverIfInactive Rollover value to use if the cell is not animating.
+     */
+    public void setSelected(long cellKey, boolean isSelected, boolean isRolloverIfInactive) {
+        int slot = this.findSlot(cellKey);
+        int fromBits = (slot >= 0) ? this.currBits[slot]
+                : toBits(this.component.isEnabled(), isRolloverIfInactive, !isSelected);
+        this.transition(cellKey, slot, fromBits, withBit(fromBits, SELECTED, isSelected));
+    }
+
+    /**
+     * Updates the enabled facet of the specified cell. Has no effect if the cell is not
+     * animating.
+     *
+     * @param cellKey Cell key.
+     * @param isEnabled The new enabled value.
+     */
+    public void setEnabled(long cellKey, boolean isEnabled) {
+        int slot = this.findSlot(cellKey);
+        if (slot < 0) {
+            return;
+        }
+        int fromBits = this.currBits[slot];
+        this.transition(cellKey, slot, fromBits, withBit(fromBits, ENABLED, isEnabled));
+    }
+
+    /**
+     * Returns the target state of the specified cell.
+     *
+     * @param cellKey Cell key.
+     * @return The target state of the specified cell, or <code>null</code> if the cell is
+     * not animating.
+     */
+    public ComponentState getCurrState(long cellKey) {
+        int slot = this.findSlot(cellKey);
+        return (slot < 0) ? null : STATES[this.currBits[slot]];
+    }
+
+    /**
+     * Returns the current model state info of the specified cell. The returned object is shared
+     * by all the cells of this store, and is only valid until the next call to this method.
+     *
+     * @param cellKey Cell key.
+     * @return The current model state info of the specified cell, or <code>null</code> if the
+     * cell is not animating.
+     */
+    public StateTransitionTracker.ModelStateInfo getModelStateInfo(long cellKey) {
+        int slot = this.findSlot(cellKey);
+        if (slot < 0) {
+            return null;
+        }
+
+        StateTransitionTracker.ModelStateInfo info = this.scratchModelStateInfo;
+        int bits = this.currBits[slot];
+        info.setCurrStates(STATES[bits], STATES[bits & ~SELECTED]);
+
+        Map<ComponentState, StateTransitionTracker.StateContributionInfo> contributionMap =
+                info.getStateContributionMap();
+        Map<ComponentState, StateTransitionTracker.StateContributionInfo> noSelectionMap =
+                info.getStateNoSelectionContributionMap();
+        contributionMap.clear();
+        noSelectionMap.clear();
+
+        float position = this.getTimelinePosition(slot, System.currentTimeMillis());
+        int presentMask = this.presentMasks[slot];
+        int base = slot * STATE_COUNT;
+        for (int stateBits = 0; stateBits < STATE_COUNT; stateBits++) {
+            if ((presentMask & (1 << stateBits)) == 0) {
+                continue;
+            }
+            StateTransitionTracker.StateContributionInfo stateInfo = this.scratchInfos[stateBits];
+            stateInfo.start = this.starts[base + stateBits];
+            stateInfo.end = this.ends[base + stateBits];
+            stateInfo.updateContribution(position);
+            contributionMap.put(STATES[stateBits], stateInfo);
+
+            // The no-selection view folds the selected and unselected variants together
+            int noSelectionBits = stateBits & ~SELECTED;
+            StateTransitionTracker.StateContributionInfo noSelectionInfo =
+                    this.scratchNoSelectionInfos[noSelectionBits];
+            ComponentState noSelectionState = STATES[noSelectionBits];
+            if (noSelectionMap.containsKey(noSelectionState)) {
+                noSelectionInfo.curr += stateInfo.curr;
+            } else {
+                noSelectionInfo.start = stateInfo.curr;
+                noSelectionInfo.end = stateInfo.curr;
+                noSelectionInfo.curr = stateInfo.curr;
+                noSelectionMap.put(noSelectionState, noSelectionInfo);
+            }
+        }
+        info.sync();
+        return info;
+    }
+
+    /**
+     * Ends all the transitions and stops tracking all the cells.
+     */
+    public void clear() {
+        this.slotCount = 0;
+        this.stopPulses();
+    }
+
+    private void transition(long cellKey, int slot, int fromBits, int toBits) {
+        if (fromBits == toBits) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if (slot < 0) {
+            // Start tracking this cell in its initial state
+            slot = this.allocateSlot(cellKey, fromBits, now);
+        }
+
+        // Snapshot the current contributions of the states of this cell
+        float[] curr = this.scratchContributions;
+        float position = this.getTimelinePosition(slot, now);
+        int base = slot * STATE_COUNT;
+        int presentMask = this.presentMasks[slot];
+        for (int stateBits = 0; stateBits < STATE_COUNT; stateBits++) {
+            if ((presentMask & (1 << stateBits)) != 0) {
+                float start = this.starts[base + stateBits];
+                curr[stateBits] = start + position * (this.ends[base + stateBits] - start);
+            }
+        }
+
+        long duration = AnimationConfigurationManager.getInstance().getTimelineDuration();
+        if (((fromBits & SELECTED) == 0) && ((toBits & SELECTED) != 0)) {
+            // special handling for transition from non-selected to
+            // selected state - make it twice faster
+            duration /= 2;
+        }
+        boolean isPartiallyActive = (presentMask & (1 << toBits)) != 0;
+        if (isPartiallyActive) {
+            // Going to a state that is already partially active. The transition
+            // is going to be shorter, and the rest of the states go to 0.0f
+            duration = (long) (duration * (1.0f - curr[toBits]));
+        } else {
+            presentMask |= (1 << toBits);
+            curr[toBits] = 0.0f;
+        }
+        for (int stateBits = 0; stateBits < STATE_COUNT; stateBits++) {
+            if ((presentMask & (1 << stateBits)) != 0) {
+                this.starts[base + stateBits] = curr[stateBits];
+                this.ends[base + stateBits] = (stateBits == toBits) ? 1.0f : 0.0f;
+            }
+        }
+        this.presentMasks[slot] = presentMask;
+        this.currBits[slot] = toBits;
+        this.startTimes[slot] = now;
+        this.durations[slot] = duration;
+
+        if ((duration <= 0) || !this.component.isShowing()) {
+            // No animations on hidden components
+            this.releaseSlot(slot);
+        } else {
+            this.startPulses();
+        }
+        this.repainter.repaintCell(cellKey);
+    }
+
+    private void onPulse() {
+        long now = System.currentTimeMillis();
+        int slot = 0;
+        while (slot < this.slotCount) {
+            long cellKey = this.cellKeys[slot];
+            if ((now - this.startTimes[slot]) >= this.durations[slot]) {
+                // The transition of this cell is done - the painting will go back to
+                // the static state of this cell
+                this.releaseSlot(slot);
+            } else {
+                slot++;
+            }
+            this.repainter.repaintCell(cellKey);
+        }
+        if (this.slotCount == 0) {
+            this.stopPulses();
+        }
+    }
+
+    private float getTimelinePosition(int slot, long now) {
+        long duration = this.durations[slot];
+        if (duration <= 0) {
+            return 1.0f;
+        }
+        float durationFraction = Math.min(1.0f, (float) (now - this.startTimes[slot]) / duration);
+        TimelineEase ease = AnimationConfigurationManager.getInstance().getTimelineEase();
+        return ease.map(durationFraction);
+    }
+
+    private int findSlot(long cellKey) {
+        for (int slot = 0; slot < this.slotCount; slot++) {
+            if (this.cellKeys[slot] == cellKey) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int allocateSlot(long cellKey, int bits, long now) {
+        if (this.slotCount == this.cellKeys.length) {
+            int capacity = 2 * this.slotCount;
+            this.cellKeys = Arrays.copyOf(this.cellKeys, capacity);
+            this.currBits = Arrays.copyOf(this.currBits, capacity);
+            this.presentMasks = Arrays.copyOf(this.presentMasks, capacity);
+            this.starts = Arrays.copyOf(this.starts, capacity * STATE_COUNT);
+            this.ends = Arrays.copyOf(this.ends, capacity * STATE_COUNT);
+            this.startTimes = Arrays.copyOf(this.startTimes, capacity);
+            this.durations = Arrays.copyOf(this.durations, capacity);
+        }
+        int slot = this.slotCount++;
+        this.cellKeys[slot] = cellKey;
+        this.currBits[slot] = bits;
+        this.presentMasks[slot] = (1 << bits);
+        this.starts[slot * STATE_COUNT + bits] = 1.0f;
+        this.ends[slot * STATE_COUNT + bits] = 1.0f;
+        this.startTimes[slot] = now;
+        this.durations[slot] = 0;
+        return slot;
+    }
+
+    private void releaseSlot(int slot) {
+        int last = --this.slotCount;
+        if (slot == last) {
+            return;
+        }
+        // Move the last slot in place of the released one
+        this.cellKeys[slot] = this.cellKeys[last];
+        this.currBits[slot] = this.currBits[last];
+        this.presentMasks[slot] = this.presentMasks[last];
+        System.arraycopy(this.starts, last * STATE_COUNT, this.starts, slot * STATE_COUNT,
+                STATE_COUNT);
+        System.arraycopy(this.ends, last * STATE_COUNT, this.ends, slot * STATE_COUNT,
+                STATE_COUNT);
+        this.startTimes[slot] = this.startTimes[last];
+        this.durations[slot] = this.durations[last];
+    }
+
+    private void startPulses() {
+        if (this.pulseTimeline == null) {
+            this.pulseTimeline = AnimationConfigurationManager.getInstance()
+                    .timelineBuilder(this.component)
+                    .setName("Cell transitions")
+                    .addCallback(new EventDispatchThreadTimelineCallbackAdapter() {
+                        @Override
+                        public void onTimelinePulse(float durationFraction,
+                                float timelinePosition) {
+                            onPulse();
+                        }
+                    })
+                    .build();
+        }
+        if (this.pulseTimeline.getState() == TimelineState.IDLE) {
+            this.pulseTimeline.playLoop(RepeatBehavior.LOOP);
+        }
+    }
+
+    private void stopPulses() {
+        if ((this.pulseTimeline != null)
+                && (this.pulseTimeline.getState() != TimelineState.IDLE)) {
+            this.pulseTimeline.cancel();
+        }
+    }
+
+    private static int toBits(boolean isEnabled, boolean isRollover, boolean isSelected) {
+        int bits = 0;
+        if (isEnabled) {
+            bits |= ENABLED;
+            // Disabled cells don't show rollovers
+            if (isRollover) {
+                bits |= ROLLOVER;
+            }
+        }
+        if (isSelected) {
+            bits |= SELECTED;
+        }
+        return bits;
+    }
+
+    private static int withBit(int bits, int bit, boolean isOn) {
+        int result = isOn ? (bits | bit) : (bits & ~bit);
+        return toBits((result & ENABLED) != 0, (result & ROLLOVER) != 0,
+                (result & SELECTED) != 0);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.substance.internal.animation;
+
+import org.pushingpixels.substance.internal.AnimationConfigurationManager;
+import org.pushingpixels.trident.api.Timeline;
+import org.pushingpixels.trident.api.Timeline.RepeatBehavior;
+import org.pushingpixels.trident.api.swing.EventDispatchThreadTimelineCallbackAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared clock for the attention-drawing animation of modified contents (tabs, buttons and
+ * title pane close buttons). All the modification-aware UI delegates subscribe to the same
+ * looping timeline instead of running a timeline of their own, so that all the modified
+ * indicators pulse in sync, and each one of the subscribers is notified once per pulse. The
+ * timeline runs only while there is at least one subscriber. This class is <b>for internal
+ * use only</b>, and all its methods must be called on EDT.
+ *
+ * @author Kirill Grouchnikov
+ */
+public class ModificationPulse {
+    private static ModificationPulse instance;
+
+    private final List<Runnable> subscribers;
+
+    private Timeline timeline;
+
+    private ModificationPulse() {
+        this.subscribers = new ArrayList<>();
+    }
+
+    public static ModificationPulse getInstance() {
+        if (instance == null) {
+            instance = new ModificationPulse();
+        }
+        return instance;
+    }
+
+    /**
+     * Subscribes to the pulses of this clock.
+     *
+     * @param onPulse Called on EDT on every pulse. The same instance must be passed to
+     *                {@link #unsubscribe(Runnable)}.
+     */
+    public void subscribe(Runnable onPulse) {
+        this.subscribers.add(onPulse);
+        if (this.timeline == null) {
+            this.timeline = AnimationConfigurationManager.getInstance().modifiedTimelineBuilder()
+                    .addCallback(new EventDispatchThreadTimelineCallbackAdapter() {
+                        @Override
+                        public void onTimelinePulse(float durationFraction,
+                                float timelinePosition) {
+                            notifySubscribers();
+                        }
+                    })
+                    .setName("Modification pulse")
+                    .build();
+            this.timeline.playLoop(RepeatBehavior.REVERSE);
+        }
+    }
+
+    /**
+     * Unsubscribes from the pulses of this clock.
+     *
+     * @param onPulse The instance that was passed to {@link #subscribe(Runnable)}.
+     */
+    public void unsubscribe(Runnable onPulse) {
+        this.subscribers.remove(onPulse);
+        if (this.subscribers.isEmpty() && (this.timeline != null)) {
+            this.timeline.cancel();
+            this.timeline = null;
+        }
+    }
+
+    /**
+     * Returns the looping timeline of this clock.
+     *
+     * @return The looping timeline of this clock, or <code>null</code> if there are no
+     * subscribers.
+     */
+    public Timeline getTimeline() {
+        return this.timeline;
+    }
+
+    /**
+     * Returns the current position of this clock.
+     *
+     * @return The current position of this clock, or 0 if there are no subscribers.
+     */
+    public float getPosition() {
+        return (this.timeline == null) ? 0.0f : this.timeline.getTimelinePosition();
+    }
+
+    private void notifySubscribers() {
+        // Iterate backwards so that the subscribers can unsubscribe during the notification
+        for (int i = this.subscribers.size() - 1; i >= 0; i--) {
+            if (i < this.subscribers.size()) {
+                this.subscribers.get(i).run();
+            }
+        }
+    }
+}
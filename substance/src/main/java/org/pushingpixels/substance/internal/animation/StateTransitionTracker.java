@@ -161,6 +161,11 @@ public class StateTransitionTracker {
             return this.activeStrength;
         }
 
+        void setCurrStates(ComponentState currState, ComponentState currStateNoSelection) {
+            this.currState = currState;
+            this.currStateNoSelection = currStateNoSelection;
+        }
+
         void clear() {
             if (!SwingUtilities.isEventDispatchThread()) {
                 UiThreadingViolationException uiThreadingViolationError = new
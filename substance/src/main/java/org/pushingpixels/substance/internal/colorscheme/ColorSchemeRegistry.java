@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.substance.internal.colorscheme;
+
+import org.pushingpixels.substance.api.colorscheme.BaseColorScheme;
+import org.pushingpixels.substance.api.colorscheme.SubstanceColorScheme;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of color scheme identities. Every color scheme gets a stable integer id that can
+ * be used in image cache keys instead of the (potentially long and non-unique) display name.
+ * Color schemes derived with a single factor (or with no parameters) are interned by their
+ * origin scheme based on the {@link DerivationKey} of the derivation, so that equivalent
+ * derivations return the same instance (and the same id). Shifted and blended schemes are
+ * parameterized by arbitrary colors and schemes, and are not interned. This class is for
+ * internal use only.
+ *
+ * @author Kirill Grouchnikov
+ */
+public final class ColorSchemeRegistry {
+    /**
+     * Kinds of color scheme derivations.
+     */
+    public enum Derivation {
+        TINT, TONE, SHADE, SATURATE, INVERT, NEGATE, HUE_SHIFT
+    }
+
+    private static final AtomicInteger idCounter = new AtomicInteger(0);
+
+    /**
+     * Ids of color schemes that do not extend {@link BaseColorScheme}. Those are rare, and
+     * the weak keys make sure that this map doesn't keep them alive.
+     */
+    private static final Map<SubstanceColorScheme, Integer> externalIds = new WeakHashMap<>();
+
+    private ColorSchemeRegistry() {
+    }
+
+    /**
+     * Allocates a new color scheme id.
+     *
+     * @return A new color scheme id.
+     */
+    public static int nextSchemeId() {
+        return idCounter.incrementAndGet();
+    }
+
+    /**
+     * Returns the id of the specified color scheme.
+     *
+     * @param scheme Color scheme.
+     * @return The id of the specified color scheme. Two calls on the same scheme object will
+     * return the same id. Calls on two different scheme objects will return different ids.
+     */
+    public static int getSchemeId(SubstanceColorScheme scheme) {
+        if (scheme instanceof BaseColorScheme) {
+            return ((BaseColorScheme) scheme).getSchemeId();
+        }
+        synchronized (externalIds) {
+            return externalIds.computeIfAbsent(scheme, (SubstanceColorScheme key) -> nextSchemeId());
+        }
+    }
+
+    /**
+     * Key of a single derivation of a color scheme. The origin scheme is not a part of this
+     * key, as derived schemes are interned by their origin scheme.
+     */
+    public static final class DerivationKey {
+        private final Derivation derivation;
+        private final double factor;
+
+        private DerivationKey(Derivation derivation, double factor) {
+            this.derivation = derivation;
+            this.factor = factor;
+        }
+
+        /**
+         * Returns the key of a derivation that is parameterized by a single factor.
+         *
+         * @param derivation Derivation kind.
+         * @param factor     Derivation factor.
+         * @return Derivation key.
+         */
+        public static DerivationKey of(Derivation derivation, double factor) {
+            return new DerivationKey(derivation, factor);
+        }
+
+        /**
+         * Returns the key of a derivation that has no parameters.
+         *
+         * @param derivation Derivation kind.
+         * @return Derivation key.
+         */
+        public static DerivationKey of(Derivation derivation) {
+            return new DerivationKey(derivation, 0.0);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.derivation.hashCode() + Double.hashCode(this.factor);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof DerivationKey)) {
+                return false;
+            }
+            DerivationKey other = (DerivationKey) obj;
+            return (this.derivation == other.derivation)
+                    && (Double.compare(this.factor, other.factor) == 0);
+        }
+    }
+}
@@ -35,6 +35,7 @@ import org.pushingpixels.substance.api.SubstanceSlices.Side;
 import org.pushingpixels.substance.api.colorscheme.SubstanceColorScheme;
 import org.pushingpixels.substance.api.painter.border.SubstanceBorderPainter;
 import org.pushingpixels.substance.api.painter.highlight.SubstanceHighlightPainter;
+import org.pushingpixels.substance.internal.colorscheme.ColorSchemeRegistry;
 import org.pushingpixels.substance.internal.utils.*;
 
 import javax.swing.*;
@@ -103,7 +104,8 @@ public class HighlightPainterUtils {
 
             HashMapKey key = SubstanceCoreUtilities.getHashKey(highlightPainter.getDisplayName(),
                     highlightBorderPainter.getDisplayName(), rect.width, rect.height,
-                    fillScheme.getDisplayName(), borderScheme.getDisplayName(), borderAlpha,
+                    ColorSchemeRegistry.getSchemeId(fillScheme),
+                    ColorSchemeRegistry.getSchemeId(borderScheme), borderAlpha,
                     openKey);
             BufferedImage result = smallCache.get(key);
             if (result == null) {
@@ -36,6 +36,7 @@ import org.pushingpixels.substance.api.SubstanceSkin;
 import org.pushingpixels.substance.api.SubstanceSlices.ColorSchemeAssociationKind;
 import org.pushingpixels.substance.api.SubstanceSlices.DecorationAreaType;
 import org.pushingpixels.substance.api.colorscheme.SubstanceColorScheme;
+import org.pushingpixels.substance.internal.colorscheme.ColorSchemeRegistry;
 import org.pushingpixels.substance.internal.utils.*;
 
 import javax.swing.*;
@@ -222,9 +223,9 @@ public class SeparatorPainterUtils {
 		if ((width == 0) || (height == 0))
 			return;
 
-		HashMapKey key = SubstanceCoreUtilities.getHashKey(fontSize, scheme.getDisplayName(), width,
-				height, orientation, hasShadow, maxGradLengthStart, maxGradLengthEnd,
-				toUseAlphaColors, backgrFill.getRGB());
+		HashMapKey key = SubstanceCoreUtilities.getHashKey(fontSize,
+				ColorSchemeRegistry.getSchemeId(scheme), width, height, orientation, hasShadow,
+				maxGradLengthStart, maxGradLengthEnd, toUseAlphaColors, backgrFill.getRGB());
 
 		BufferedImage singleLine = cached.get(key);
 		if (singleLine == null) {
@@ -343,8 +344,8 @@ public class SeparatorPainterUtils {
 		Color backgrFill = SubstanceColorUtilities.getBackgroundFillColor(c);
 
 		HashMapKey key = SubstanceCoreUtilities.getHashKey(componentFontSize,
-				scheme.getDisplayName(), 0, height, SwingConstants.VERTICAL, true, 0.0,
-				fadeStartFraction, backgrFill.getRGB());
+				ColorSchemeRegistry.getSchemeId(scheme), 0, height, SwingConstants.VERTICAL,
+				true, 0.0, fadeStartFraction, backgrFill.getRGB());
 
 		float borderStrokeWidth = SubstanceSizeUtils.getBorderStrokeWidth();
 		BufferedImage singleLine = cached.get(key);
@@ -420,8 +421,8 @@ public class SeparatorPainterUtils {
 		Color backgrFill = SubstanceColorUtilities.getBackgroundFillColor(c);
 
 		HashMapKey key = SubstanceCoreUtilities.getHashKey(componentFontSize,
-				scheme.getDisplayName(), width, 0, SwingConstants.VERTICAL, true, 0.0,
-				fadeStartFraction, isLtr, backgrFill.getRGB());
+				ColorSchemeRegistry.getSchemeId(scheme), width, 0, SwingConstants.VERTICAL,
+				true, 0.0, fadeStartFraction, isLtr, backgrFill.getRGB());
 
 		float borderStrokeWidth = SubstanceSizeUtils.getBorderStrokeWidth();
 		BufferedImage singleLine = cached.get(key);
@@ -37,6 +37,7 @@ import org.pushingpixels.substance.internal.AnimationConfigurationManager;
 import org.pushingpixels.substance.internal.SubstanceSynapse;
 import org.pushingpixels.substance.internal.SubstanceWidgetRepository;
 import org.pushingpixels.substance.internal.animation.ModificationAwareUI;
+import org.pushingpixels.substance.internal.animation.ModificationPulse;
 import org.pushingpixels.substance.internal.animation.StateTransitionTracker;
 import org.pushingpixels.substance.internal.animation.TransitionAwareUI;
 import org.pushingpixels.substance.internal.utils.*;
@@ -45,8 +46,6 @@ import org.pushingpixels.substance.internal.utils.icon.GlowingIcon;
 import org.pushingpixels.substance.internal.widget.animation.effects.GhostPaintingUtils;
 import org.pushingpixels.substance.internal.widget.animation.effects.GhostingListener;
 import org.pushingpixels.trident.api.Timeline;
-import org.pushingpixels.trident.api.Timeline.RepeatBehavior;
-import org.pushingpixels.trident.api.swing.SwingRepaintCallback;
 
 import javax.swing.*;
 import javax.swing.border.Border;
@@ -133,7 +132,11 @@ public class SubstanceButtonUI extends BasicButtonUI implements
 
     protected AbstractButton button;
 
-    private Timeline modifiedTimeline;
+    /**
+     * Subscribed to the shared {@link ModificationPulse} while the button is marked as modified
+     * (with {@link SubstanceSynapse#CONTENTS_MODIFIED} property).
+     */
+    private Runnable modifiedPulseCallback;
 
     private Rectangle viewRect = new Rectangle();
 
@@ -214,6 +217,7 @@ public class SubstanceButtonUI extends BasicButtonUI implements
 
     @Override
     protected void uninstallDefaults(AbstractButton b) {
+        stopTrackModificationFlag();
         super.uninstallDefaults(b);
 
         b.setBorder((Border) b.getClientProperty(SubstanceButtonUI.BORDER_ORIGINAL));
@@ -253,9 +257,7 @@ public class SubstanceButtonUI extends BasicButtonUI implements
                 if (newValue) {
                     trackModificationFlag();
                 } else {
-                    if (modifiedTimeline != null) {
-                        modifiedTimeline.cancel();
-                    }
+                    stopTrackModificationFlag();
                 }
             }
 
@@ -458,10 +460,12 @@ public class SubstanceButtonUI extends BasicButtonUI implements
 
     @Override
     public void update(Graphics g, JComponent c) {
+        Object paintEvent = FlightRecorderEvents.beginPaint();
         Graphics2D g2d = (Graphics2D) g.create();
         NeonCortex.installDesktopHints(g2d, c.getFont());
         this.paint(g2d, c);
         g2d.dispose();
+        FlightRecorderEvents.endPaint(paintEvent, c, this);
     }
 
     @Override
@@ -475,16 +479,25 @@ public class SubstanceButtonUI extends BasicButtonUI implements
     }
 
     private void trackModificationFlag() {
-        this.modifiedTimeline =
-                AnimationConfigurationManager.getInstance().modifiedTimelineBuilder(this.button)
-                        .addCallback(new SwingRepaintCallback(this.button))
-                        .build();
+        if (this.modifiedPulseCallback != null) {
+            return;
+        }
+        this.modifiedPulseCallback = this.button::repaint;
+        ModificationPulse.getInstance().subscribe(this.modifiedPulseCallback);
+    }
 
-        this.modifiedTimeline.playLoop(RepeatBehavior.REVERSE);
+    private void stopTrackModificationFlag() {
+        if (this.modifiedPulseCallback == null) {
+            return;
+        }
+        ModificationPulse.getInstance().unsubscribe(this.modifiedPulseCallback);
+        this.modifiedPulseCallback = null;
+        this.button.repaint();
     }
 
     @Override
     public Timeline getModificationTimeline() {
-        return this.modifiedTimeline;
+        return (this.modifiedPulseCallback != null)
+                ? ModificationPulse.getInstance().getTimeline() : null;
     }
 }
@@ -32,6 +32,7 @@ package org.pushingpixels.substance.internal.ui;
 import org.pushingpixels.neon.api.NeonCortex;
 import org.pushingpixels.substance.internal.animation.StateTransitionTracker;
 import org.pushingpixels.substance.internal.animation.TransitionAwareUI;
+import org.pushingpixels.substance.internal.utils.FlightRecorderEvents;
 import org.pushingpixels.substance.internal.utils.RolloverMenuItemListener;
 import org.pushingpixels.substance.internal.utils.SubstanceCoreUtilities;
 import org.pushingpixels.substance.internal.utils.SubstanceSizeUtils;
@@ -200,9 +201,11 @@ public class SubstanceCheckBoxMenuItemUI extends BasicCheckBoxMenuItemUI
 
     @Override
     public void update(Graphics g, JComponent c) {
+        Object paintEvent = FlightRecorderEvents.beginPaint();
         Graphics2D g2d = (Graphics2D) g.create();
         NeonCortex.installDesktopHints(g2d, c.getFont());
         super.update(g2d, c);
         g2d.dispose();
+        FlightRecorderEvents.endPaint(paintEvent, c, this);
     }
 }
@@ -36,6 +36,7 @@ import org.pushingpixels.substance.api.SubstanceSlices.ComponentStateFacet;
 import org.pushingpixels.substance.api.colorscheme.SubstanceColorScheme;
 import org.pushingpixels.substance.api.painter.border.SubstanceBorderPainter;
 import org.pushingpixels.substance.api.painter.fill.SubstanceFillPainter;
+import org.pushingpixels.substance.internal.colorscheme.ColorSchemeRegistry;
 import org.pushingpixels.substance.internal.animation.StateTransitionTracker;
 import org.pushingpixels.substance.internal.utils.*;
 
@@ -131,9 +132,10 @@ public class SubstanceCheckBoxUI extends SubstanceRadioButtonUI {
 
         HashMapKey keyBase = SubstanceCoreUtilities.getHashKey(fontSize, checkMarkSize,
                 fillPainter.getDisplayName(), borderPainter.getDisplayName(),
-                baseFillColorScheme.getDisplayName(), baseMarkColorScheme.getDisplayName(),
-                baseBorderColorScheme.getDisplayName(), visibility, isCheckMarkFadingOut,
-                alpha);
+                ColorSchemeRegistry.getSchemeId(baseFillColorScheme),
+                ColorSchemeRegistry.getSchemeId(baseMarkColorScheme),
+                ColorSchemeRegistry.getSchemeId(baseBorderColorScheme),
+                visibility, isCheckMarkFadingOut, alpha);
         ImageWrapperIcon iconBase = icons.get(keyBase);
         if (iconBase == null) {
             iconBase = new ImageWrapperIcon(
@@ -175,8 +177,9 @@ public class SubstanceCheckBoxUI extends SubstanceRadioButtonUI {
 
                 HashMapKey keyLayer = SubstanceCoreUtilities.getHashKey(fontSize, checkMarkSize,
                         fillPainter.getDisplayName(), borderPainter.getDisplayName(),
-                        fillColorScheme.getDisplayName(), markColorScheme.getDisplayName(),
-                        borderColorScheme.getDisplayName(), visibility);
+                        ColorSchemeRegistry.getSchemeId(fillColorScheme),
+                        ColorSchemeRegistry.getSchemeId(markColorScheme),
+                        ColorSchemeRegistry.getSchemeId(borderColorScheme), visibility);
                 ImageWrapperIcon iconLayer = icons.get(keyLayer);
                 if (iconLayer == null) {
                     iconLayer = new ImageWrapperIcon(
@@ -216,10 +219,12 @@ public class SubstanceCheckBoxUI extends SubstanceRadioButtonUI {
 
     @Override
     public void update(Graphics g, JComponent c) {
+        Object paintEvent = FlightRecorderEvents.beginPaint();
         Graphics2D g2d = (Graphics2D) g.create();
         NeonCortex.installDesktopHints(g2d, c.getFont());
         super.update(g2d, c);
         g2d.dispose();
+        FlightRecorderEvents.endPaint(paintEvent, c, this);
     }
 
     /**
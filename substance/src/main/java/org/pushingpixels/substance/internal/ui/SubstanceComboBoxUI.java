@@ -38,6 +38,8 @@ import org.pushingpixels.substance.internal.utils.*;
 import org.pushingpixels.substance.internal.utils.SubstanceCoreUtilities.TextComponentAware;
 import org.pushingpixels.substance.internal.utils.border.SubstanceTextComponentBorder;
 import org.pushingpixels.substance.internal.utils.combo.ComboBoxBackgroundDelegate;
+import org.pushingpixels.substance.internal.utils.combo.ComboBoxDisplaySizeCache;
+import org.pushingpixels.substance.internal.utils.combo.IndexedKeySelectionManager;
 import org.pushingpixels.substance.internal.utils.combo.SubstanceComboBoxEditor;
 import org.pushingpixels.substance.internal.utils.combo.SubstanceComboPopup;
 
@@ -62,6 +64,12 @@ import java.beans.PropertyChangeEvent;
  * @author inostock
  */
 public class SubstanceComboBoxUI extends BasicComboBoxUI implements TransitionAwareUI {
+    /**
+     * Combo boxes that have at least this many elements in the model and no prototype display
+     * value use the cached renderer sizes, fixed popup cell sizes and indexed type-ahead.
+     */
+    private static final int LARGE_MODEL_THRESHOLD = 1000;
+
     /**
      * Property change handler.
      */
@@ -88,6 +96,17 @@ public class SubstanceComboBoxUI extends BasicComboBoxUI implements TransitionAw
 
     private Insets layoutInsets;
 
+    /**
+     * Renderer sizes of the model elements. Created on the first display size computation for
+     * a large model.
+     */
+    private ComboBoxDisplaySizeCache displaySizeCache;
+
+    /**
+     * Indicates whether the popup list currently has the fixed cell sizes set by this UI.
+     */
+    private boolean hasFixedPopupCellSize;
+
     @SuppressWarnings("unchecked")
     public static ComponentUI createUI(JComponent comp) {
         SubstanceCoreUtilities.testComponentCreationThreadingViolation(comp);
@@ -112,6 +131,13 @@ public class SubstanceComboBoxUI extends BasicComboBoxUI implements TransitionAw
                     }
                     return null;
                 });
+
+        JComboBox.KeySelectionManager keySelectionManager = this.comboBox
+                .getKeySelectionManager();
+        if (keySelectionManager instanceof UIResource) {
+            this.comboBox.setKeySelectionManager(new IndexedKeySelectionManager(this.comboBox,
+                    keySelectionManager, LARGE_MODEL_THRESHOLD));
+        }
     }
 
     @Override
@@ -123,6 +149,19 @@ public class SubstanceComboBoxUI extends BasicComboBoxUI implements TransitionAw
         }
         c.putClientProperty(SubstanceButtonUI.OPACITY_ORIGINAL, null);
 
+        JComboBox.KeySelectionManager keySelectionManager = this.comboBox
+                .getKeySelectionManager();
+        if (keySelectionManager instanceof IndexedKeySelectionManager) {
+            IndexedKeySelectionManager indexedManager =
+                    (IndexedKeySelectionManager) keySelectionManager;
+            indexedManager.dispose();
+            this.comboBox.setKeySelectionManager(indexedManager.getFallback());
+        }
+        if (this.displaySizeCache != null) {
+            this.displaySizeCache.dispose();
+            this.displaySizeCache = null;
+        }
+
         super.uninstallUI(c);
     }
 
@@ -278,6 +317,116 @@ public class SubstanceComboBoxUI extends BasicComboBoxUI implements TransitionAw
         return rend.getPreferredSize();
     }
 
+    /**
+     * Returns indication whether the model of the associated combo box is large enough to use
+     * the cached renderer sizes, fixed popup cell sizes and indexed type-ahead.
+     *
+     * @return <code>true</code> if the model of the associated combo box is large and there is
+     * no prototype display value, <code>false</code> otherwise.
+     */
+    private boolean isLargeModel() {
+        return (this.comboBox.getPrototypeDisplayValue() == null)
+                && (this.comboBox.getModel().getSize() >= LARGE_MODEL_THRESHOLD);
+    }
+
+    private ComboBoxDisplaySizeCache getDisplaySizeCache() {
+        if (this.displaySizeCache == null) {
+            this.displaySizeCache = new ComboBoxDisplaySizeCache(
+                    value -> this.getSizeForComponent(this.comboBox.getRenderer()
+                            .getListCellRendererComponent(this.listBox, value, -1, false, false)),
+                    () -> {
+                        this.isMinimumSizeDirty = true;
+                        this.comboBox.revalidate();
+                        this.syncPopupListCellSize();
+                    });
+            this.displaySizeCache.setModel(this.comboBox.getModel());
+        }
+        return this.displaySizeCache;
+    }
+
+    @Override
+    protected Dimension getDisplaySize() {
+        if (!this.isLargeModel()) {
+            return super.getDisplaySize();
+        }
+
+        // Instead of asking the renderer for the size of every element, use the sizes cached
+        // and updated incrementally as the model changes
+        Dimension result = this.getDisplaySizeCache().getSize();
+        if (this.comboBox.isEditable()) {
+            Dimension d = this.editor.getPreferredSize();
+            result.width = Math.max(result.width, d.width);
+            result.height = Math.max(result.height, d.height);
+        }
+        if (this.padding != null) {
+            result.width += this.padding.left + this.padding.right;
+            result.height += this.padding.top + this.padding.bottom;
+        }
+        return result;
+    }
+
+    /**
+     * Sets fixed cell sizes on the popup list of a combo box with a large model. Otherwise the
+     * list asks the renderer for the size of every element on every layout, even though it only
+     * paints the visible rows.
+     */
+    public void syncPopupListCellSize() {
+        if (this.isLargeModel()) {
+            Dimension size = this.getDisplaySizeCache().getSize();
+            this.listBox.setFixedCellWidth(size.width);
+            this.listBox.setFixedCellHeight(size.height);
+            this.hasFixedPopupCellSize = true;
+        } else if (this.hasFixedPopupCellSize) {
+            this.listBox.setFixedCellWidth(-1);
+            this.listBox.setFixedCellHeight(-1);
+            this.hasFixedPopupCellSize = false;
+        }
+    }
+
+    @Override
+    public int getBaseline(JComponent c, int width, int height) {
+        if (!this.isLargeModel()) {
+            return super.getBaseline(c, width, height);
+        }
+        if ((width < 0) || (height < 0)) {
+            throw new IllegalArgumentException("Width and height must be >= 0");
+        }
+
+        // The base implementation checks that all the elements have the same baseline. For
+        // large models assume that they do, and use the first element
+        Insets insets = c.getInsets();
+        height = Math.max(height - insets.top - insets.bottom, 0);
+        int baseline = this.comboBox.isEditable() ? this.editor.getBaseline(width, height)
+                : this.getBaselineRendererComponent().getBaseline(width, height);
+        if (baseline > 0) {
+            baseline += insets.top;
+        }
+        return baseline;
+    }
+
+    @Override
+    public Component.BaselineResizeBehavior getBaselineResizeBehavior(JComponent c) {
+        if (!this.isLargeModel()) {
+            return super.getBaselineResizeBehavior(c);
+        }
+        return this.comboBox.isEditable() ? this.editor.getBaselineResizeBehavior()
+                : this.getBaselineRendererComponent().getBaselineResizeBehavior();
+    }
+
+    private Component getBaselineRendererComponent() {
+        Component component = this.comboBox.getRenderer().getListCellRendererComponent(
+                this.listBox, this.comboBox.getModel().getElementAt(0), -1, false, false);
+        if (component instanceof JLabel) {
+            JLabel label = (JLabel) component;
+            String text = label.getText();
+            if ((text == null) || text.isEmpty()) {
+                label.setText(" ");
+            }
+        }
+        component.setFont(this.comboBox.getFont());
+        return component;
+    }
+
     @Override
     public Dimension getMinimumSize(JComponent c) {
 //        if (!this.isMinimumSizeDirty) {
@@ -380,6 +529,15 @@ public class SubstanceComboBoxUI extends BasicComboBoxUI implements TransitionAw
             if ("enabled".equals(propertyName)) {
                 SubstanceComboBoxUI.this.transitionModel.setEnabled(comboBox.isEnabled());
             }
+
+            if (displaySizeCache != null) {
+                if ("model".equals(propertyName)) {
+                    displaySizeCache.setModel(comboBox.getModel());
+                }
+                if ("renderer".equals(propertyName)) {
+                    displaySizeCache.reset();
+                }
+            }
             // Do not call super - fix for bug 63
         }
     }
@@ -587,10 +745,12 @@ public class SubstanceComboBoxUI extends BasicComboBoxUI implements TransitionAw
 
     @Override
     public void update(Graphics g, JComponent c) {
+        Object paintEvent = FlightRecorderEvents.beginPaint();
         Graphics2D g2d = (Graphics2D) g.create();
         NeonCortex.installDesktopHints(g2d, c.getFont());
         this.paint(g2d, c);
         g2d.dispose();
+        FlightRecorderEvents.endPaint(paintEvent, c, this);
     }
 
     @Override
@@ -30,6 +30,7 @@
 package org.pushingpixels.substance.internal.ui;
 
 import org.pushingpixels.substance.internal.painter.BackgroundPaintingUtils;
+import org.pushingpixels.substance.internal.utils.FlightRecorderEvents;
 import org.pushingpixels.substance.internal.utils.SubstanceCoreUtilities;
 import org.pushingpixels.substance.internal.utils.WidgetUtilities;
 import org.pushingpixels.substance.internal.widget.animation.effects.GhostPaintingUtils;
@@ -71,6 +72,7 @@ public class SubstanceDesktopPaneUI extends BasicDesktopPaneUI {
 		if (!c.isShowing()) {
 			return;
 		}
+		Object paintEvent = FlightRecorderEvents.beginPaint();
 		Graphics2D graphics = (Graphics2D) g.create();
 		graphics.setComposite(WidgetUtilities.getAlphaComposite(c, g));
 		if (SubstanceCoreUtilities.isOpaque(c)) {
@@ -85,5 +87,6 @@ public class SubstanceDesktopPaneUI extends BasicDesktopPaneUI {
 		super.paint(graphics, c);
 		GhostPaintingUtils.paintGhostImages(c, graphics);
 		graphics.dispose();
+		FlightRecorderEvents.endPaint(paintEvent, c, this);
 	}
 }
@@ -203,9 +203,11 @@ public class SubstanceLabelUI extends BasicLabelUI {
         if (!SubstanceCoreUtilities.isCurrentLookAndFeel()) {
             return;
         }
+        Object paintEvent = FlightRecorderEvents.beginPaint();
         Graphics2D g2d = (Graphics2D) g.create();
         NeonCortex.installDesktopHints(g2d, c.getFont());
         this.paint(g2d, c);
         g2d.dispose();
+        FlightRecorderEvents.endPaint(paintEvent, c, this);
     }
 }
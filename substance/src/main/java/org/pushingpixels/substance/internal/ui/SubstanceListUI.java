@@ -37,13 +37,12 @@ import org.pushingpixels.substance.api.SubstanceSlices.ComponentStateFacet;
 import org.pushingpixels.substance.api.colorscheme.SubstanceColorScheme;
 import org.pushingpixels.substance.api.renderer.SubstanceDefaultListCellRenderer;
 import org.pushingpixels.substance.api.renderer.SubstancePanelListCellRenderer;
-import org.pushingpixels.substance.internal.animation.StateTransitionMultiTracker;
+import org.pushingpixels.substance.internal.animation.CellStateTransitionStore;
 import org.pushingpixels.substance.internal.animation.StateTransitionTracker;
 import org.pushingpixels.substance.internal.painter.BackgroundPaintingUtils;
 import org.pushingpixels.substance.internal.painter.HighlightPainterUtils;
 import org.pushingpixels.substance.internal.utils.*;
-import org.pushingpixels.trident.api.Timeline.TimelineState;
-import org.pushingpixels.trident.api.swing.EventDispatchThreadTimelineCallbackAdapter;
+import org.pushingpixels.trident.api.swing.SwingRepaintAggregator;
 
 import javax.swing.*;
 import javax.swing.event.ListDataEvent;
@@ -56,10 +55,9 @@ import javax.swing.plaf.basic.BasicListUI;
 import java.awt.*;
 import java.awt.event.*;
 import java.beans.PropertyChangeListener;
+import java.util.BitSet;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * UI for lists in <b>Substance</b> look and feel.
@@ -94,7 +92,10 @@ public class SubstanceListUI extends BasicListUI implements UpdateOptimizationAw
 
     private ComponentListener substanceComponentListener;
 
-    private StateTransitionMultiTracker<Integer> stateTransitionMultiTracker;
+    /**
+     * Transitions of the animating cells of this list.
+     */
+    private CellStateTransitionStore cellTransitionStore;
 
     private ListDataListener substanceListDataListener;
 
@@ -131,7 +132,7 @@ public class SubstanceListUI extends BasicListUI implements UpdateOptimizationAw
                 return;
             }
 
-            Set<StateTransitionTracker> initiatedTrackers = new HashSet<>();
+            int initiatedTransitions = 0;
             boolean fadeCanceled = false;
 
             for (int i = e.getFirstIndex(); i <= e.getLastIndex(); i++) {
@@ -147,14 +148,11 @@ public class SubstanceListUI extends BasicListUI implements UpdateOptimizationAw
                         selectedIndices.put(i, list.getModel().getElementAt(i));
 
                         if (!fadeCanceled) {
-                            StateTransitionTracker tracker = getTracker(i, (i == rolledOverIndex),
-                                    false);
-                            tracker.getModel().setSelected(true);
-
-                            initiatedTrackers.add(tracker);
-                            if (initiatedTrackers.size() > 25) {
-                                stateTransitionMultiTracker.clear();
-                                initiatedTrackers.clear();
+                            cellTransitionStore.setSelected(i, true, (i == rolledOverIndex));
+
+                            initiatedTransitions++;
+                            if (initiatedTransitions > 25) {
+                                cellTransitionStore.clear();
                                 fadeCanceled = true;
                             }
                         }
@@ -169,14 +167,11 @@ public class SubstanceListUI extends BasicListUI implements UpdateOptimizationAw
                             // .println("Fade out on index " + i);
 
                             if (!fadeCanceled) {
-                                StateTransitionTracker tracker = getTracker(i,
-                                        (i == rolledOverIndex), true);
-                                tracker.getModel().setSelected(false);
-
-                                initiatedTrackers.add(tracker);
-                                if (initiatedTrackers.size() > 25) {
-                                    stateTransitionMultiTracker.clear();
-                                    initiatedTrackers.clear();
+                                cellTransitionStore.setSelected(i, false, (i == rolledOverIndex));
+
+                                initiatedTransitions++;
+                                if (initiatedTransitions > 25) {
+                                    cellTransitionStore.clear();
                                     fadeCanceled = true;
                                 }
                             }
@@ -188,26 +183,83 @@ public class SubstanceListUI extends BasicListUI implements UpdateOptimizationAw
         }
     }
 
-    private final class SubstanceListDataListener implements ListDataListener {
-        private void _syncModelContents() {
+    final class SubstanceListDataListener implements ListDataListener {
+        /**
+         * Indices of elements changed since the last flush of model changes. This only
+         * tracks the indices of {@link ListDataEvent#CONTENTS_CHANGED} events that do not
+         * require a full resync, and never grows past the size of the list model.
+         */
+        private final BitSet pendingChangedIndices = new BitSet();
+
+        /**
+         * Indicates whether a model event since the last flush requires a full resync.
+         */
+        private boolean isFullSyncPending;
+
+        private boolean isFlushScheduled;
+
+        private void _syncModelContents(ListDataEvent e) {
             // fix for issue 469/474 - update the inner structures
-            // in a separate event
-            SwingUtilities.invokeLater(SubstanceListUI.this::syncModelContents);
+            // in a separate event. Models that are updated at high frequency can fire
+            // thousands of events per second, so all the events that arrive before the
+            // next EDT pass are coalesced into a single flush.
+            synchronized (this) {
+                int minIndex = Math.min(e.getIndex0(), e.getIndex1());
+                int maxIndex = Math.max(e.getIndex0(), e.getIndex1());
+                // Ranges that reach past the end of the model (such as the 0..MAX_VALUE
+                // "everything changed" range) are handled with a full resync
+                if ((e.getType() == ListDataEvent.CONTENTS_CHANGED) && (minIndex >= 0)
+                        && (maxIndex != Integer.MAX_VALUE)
+                        && (maxIndex < list.getModel().getSize())) {
+                    pendingChangedIndices.set(minIndex, maxIndex + 1);
+                } else {
+                    isFullSyncPending = true;
+                }
+                if (isFlushScheduled) {
+                    return;
+                }
+                isFlushScheduled = true;
+            }
+            SwingUtilities.invokeLater(this::flushModelChanges);
+        }
+
+        synchronized boolean isFullSyncPending() {
+            return isFullSyncPending;
+        }
+
+        synchronized int getPendingChangedIndexCount() {
+            return pendingChangedIndices.cardinality();
+        }
+
+        private void flushModelChanges() {
+            BitSet changedIndices;
+            synchronized (this) {
+                changedIndices = isFullSyncPending ? null
+                        : (BitSet) pendingChangedIndices.clone();
+                pendingChangedIndices.clear();
+                isFullSyncPending = false;
+                isFlushScheduled = false;
+            }
+            if (changedIndices == null) {
+                syncModelContents();
+            } else {
+                syncChangedContents(changedIndices);
+            }
         }
 
         @Override
         public void intervalRemoved(ListDataEvent e) {
-            _syncModelContents();
+            _syncModelContents(e);
         }
 
         @Override
         public void intervalAdded(ListDataEvent e) {
-            _syncModelContents();
+            _syncModelContents(e);
         }
 
         @Override
         public void contentsChanged(ListDataEvent e) {
-            _syncModelContents();
+            _syncModelContents(e);
         }
     }
 
@@ -283,9 +335,7 @@ public class SubstanceListUI extends BasicListUI implements UpdateOptimizationAw
                 fadeOutRolloverIndication();
 
                 // rollover on a new row
-                StateTransitionTracker tracker = getTracker(roIndex, false,
-                        list.isSelectedIndex(roIndex));
-                tracker.getModel().setRollover(true);
+                cellTransitionStore.setRollover(roIndex, true, list.isSelectedIndex(roIndex));
                 rolledOverIndex = roIndex;
             }
         }
@@ -303,14 +353,15 @@ public class SubstanceListUI extends BasicListUI implements UpdateOptimizationAw
         super();
         rolledOverIndex = -1;
         selectedIndices = new HashMap<>();
-
-        this.stateTransitionMultiTracker = new StateTransitionMultiTracker<>();
     }
 
     @Override
     protected void installDefaults() {
         super.installDefaults();
 
+        this.cellTransitionStore = new CellStateTransitionStore(list,
+                cellKey -> this.repaintCell((int) cellKey));
+
         syncModelContents();
     }
 
@@ -323,7 +374,7 @@ public class SubstanceListUI extends BasicListUI implements UpdateOptimizationAw
 
     @Override
     public void uninstallUI(JComponent c) {
-        this.stateTransitionMultiTracker.clear();
+        this.cellTransitionStore.clear();
 
         super.uninstallUI(c);
     }
@@ -331,63 +382,25 @@ public class SubstanceListUI extends BasicListUI implements UpdateOptimizationAw
     /**
      * Repaints a single cell during the fade animation cycle.
      *
-     * @author Kirill Grouchnikov
+     * @param cellIndex Associated (animated) cell index.
      */
-    private class CellRepaintCallback extends EventDispatchThreadTimelineCallbackAdapter {
-        /**
-         * Associated list.
-         */
-        protected JList list;
-
-        /**
-         * Associated (animated) cell index.
-         */
-        private int cellIndex;
-
-        /**
-         * Creates a new animation repaint callback.
-         *
-         * @param list      Associated list.
-         * @param cellIndex Associated (animated) cell index.
-         */
-        private CellRepaintCallback(JList list, int cellIndex) {
-            this.list = list;
-            this.cellIndex = cellIndex;
-        }
-
-        @Override
-        public void onTimelineStateChanged(TimelineState oldState, TimelineState newState,
-                float durationFraction, float timelinePosition) {
-            repaintCell();
-        }
-
-        @Override
-        public void onTimelinePulse(float durationFraction, float timelinePosition) {
-            // System.out.println(cellIndex + " at " + timelinePosition);
-            repaintCell();
+    private void repaintCell(int cellIndex) {
+        if (this.list == null) {
+            // may happen if the LAF was switched in the meantime
+            return;
         }
-
-        /**
-         * Repaints the associated cell.
-         */
-        private void repaintCell() {
-            if (SubstanceListUI.this.list == null) {
-                // may happen if the LAF was switched in the meantime
-                return;
-            }
-            try {
-                maybeUpdateLayoutState();
-                int cellCount = list.getModel().getSize();
-                if ((cellCount > 0) && (cellIndex < cellCount)) {
-                    // need to retrieve the cell rectangle since the
-                    // cells can be moved while animating
-                    Rectangle rect = SubstanceListUI.this.getCellBounds(list, cellIndex, cellIndex);
-                    // System.out.println("Repainting " + cellIndex
-                    // + " at " + rect);
-                    list.repaint(rect);
+        try {
+            maybeUpdateLayoutState();
+            int cellCount = list.getModel().getSize();
+            if ((cellCount > 0) && (cellIndex < cellCount)) {
+                // need to retrieve the cell rectangle since the
+                // cells can be moved while animating
+                Rectangle rect = this.getCellBounds(list, cellIndex, cellIndex);
+                if (rect != null) {
+                    SwingRepaintAggregator.getInstance().repaint(list, rect);
                 }
-            } catch (RuntimeException re) {
             }
+        } catch (RuntimeException re) {
         }
     }
 
@@ -520,10 +533,8 @@ public class SubstanceListUI extends BasicListUI implements UpdateOptimizationAw
             g2d.fillRect(cx, cy, cw, ch);
         }
 
-        StateTransitionTracker tracker = this.stateTransitionMultiTracker.getTracker(row);
-        if (tracker != null) {
-            tracker.getModel().setEnabled(this.list.isEnabled() && rendererComponent.isEnabled());
-        }
+        this.cellTransitionStore.setEnabled(row,
+                this.list.isEnabled() && rendererComponent.isEnabled());
 
         StateTransitionTracker.ModelStateInfo modelStateInfo = getModelStateInfo(row,
                 rendererComponent);
@@ -612,13 +623,12 @@ public class SubstanceListUI extends BasicListUI implements UpdateOptimizationAw
         if (rendererComponent != null) {
             isEnabled = isEnabled && rendererComponent.isEnabled();
         }
-        StateTransitionTracker tracker = this.stateTransitionMultiTracker.getTracker(cellIndex);
-        if (tracker == null) {
+        ComponentState fromTracker = this.cellTransitionStore.getCurrState(cellIndex);
+        if (fromTracker == null) {
             boolean isRollover = (rolledOverIndex >= 0) && (rolledOverIndex == cellIndex);
             boolean isSelected = selectedIndices.containsKey(cellIndex);
             return ComponentState.getState(isEnabled, isRollover, isSelected);
         } else {
-            ComponentState fromTracker = tracker.getModelStateInfo().getCurrModelState();
             return ComponentState.getState(isEnabled,
                     fromTracker.isFacetActive(ComponentStateFacet.ROLLOVER),
                     fromTracker.isFacetActive(ComponentStateFacet.SELECTION));
@@ -627,14 +637,9 @@ public class SubstanceListUI extends BasicListUI implements UpdateOptimizationAw
 
     public StateTransitionTracker.ModelStateInfo getModelStateInfo(int row,
             Component rendererComponent) {
-        if (this.stateTransitionMultiTracker.size() == 0)
+        if (this.cellTransitionStore.size() == 0)
             return null;
-        StateTransitionTracker tracker = this.stateTransitionMultiTracker.getTracker(row);
-        if (tracker == null) {
-            return null;
-        } else {
-            return tracker.getModelStateInfo();
-        }
+        return this.cellTransitionStore.getModelStateInfo(row);
     }
 
     /**
@@ -651,13 +656,13 @@ public class SubstanceListUI extends BasicListUI implements UpdateOptimizationAw
         if (rolledOverIndex < 0)
             return;
 
-        StateTransitionTracker tracker = getTracker(rolledOverIndex, true,
+        cellTransitionStore.setRollover(rolledOverIndex, false,
                 list.isSelectedIndex(rolledOverIndex));
-        tracker.getModel().setRollover(false);
     }
 
     @Override
     public void update(Graphics g, JComponent c) {
+        Object paintEvent = FlightRecorderEvents.beginPaint();
         BackgroundPaintingUtils.updateIfOpaque(g, c);
 
         Graphics2D g2d = (Graphics2D) g.create();
@@ -668,6 +673,7 @@ public class SubstanceListUI extends BasicListUI implements UpdateOptimizationAw
         SubstanceStripingUtils.tearDown(c);
         g2d.dispose();
         this.updateInfo = null;
+        FlightRecorderEvents.endPaint(paintEvent, c, this);
     }
 
     private UpdateOptimizationInfo updateInfo;
@@ -675,7 +681,7 @@ public class SubstanceListUI extends BasicListUI implements UpdateOptimizationAw
     private void syncModelContents() {
         if (list == null)
             return;
-        stateTransitionMultiTracker.clear();
+        cellTransitionStore.clear();
         selectedIndices.clear();
         for (int i = 0; i < list.getModel().getSize(); i++) {
             if (list.isSelectedIndex(i)) {
@@ -685,20 +691,41 @@ public class SubstanceListUI extends BasicListUI implements UpdateOptimizationAw
         list.repaint();
     }
 
-    private StateTransitionTracker getTracker(final int row, boolean initialRollover,
-            boolean initialSelected) {
-        StateTransitionTracker tracker = stateTransitionMultiTracker.getTracker(row);
-        if (tracker == null) {
-            ButtonModel model = new DefaultButtonModel();
-            model.setSelected(initialSelected);
-            model.setRollover(initialRollover);
-            tracker = new StateTransitionTracker(list, model);
-            tracker.registerModelListeners();
-            tracker.setRepaintCallback(() -> new CellRepaintCallback(list, row));
-            tracker.setName("row " + row);
-            stateTransitionMultiTracker.addTracker(row, tracker);
+    /**
+     * Syncs the inner structures after the elements at the specified indices have changed
+     * in place. Unlike {@link #syncModelContents()}, this doesn't rescan the entire model and
+     * doesn't cancel the running animations. Only the selected elements among the changed
+     * ones need to be tracked again, and only their cells are repainted. The list repaints
+     * the changed cells on its own.
+     *
+     * @param changedIndices Indices of the changed elements.
+     */
+    private void syncChangedContents(BitSet changedIndices) {
+        if (list == null)
+            return;
+        ListModel model = list.getModel();
+        int size = model.getSize();
+        Rectangle dirtyRect = null;
+        for (int i = changedIndices.nextSetBit(0); (i >= 0) && (i < size);
+                i = changedIndices.nextSetBit(i + 1)) {
+            if (list.isSelectedIndex(i)) {
+                selectedIndices.put(i, model.getElementAt(i));
+            } else if (selectedIndices.remove(i) == null) {
+                continue;
+            }
+            Rectangle cellBounds = list.getCellBounds(i, i);
+            if (cellBounds == null) {
+                continue;
+            }
+            if (dirtyRect == null) {
+                dirtyRect = cellBounds;
+            } else {
+                dirtyRect.add(cellBounds);
+            }
+        }
+        if (dirtyRect != null) {
+            list.repaint(dirtyRect);
         }
-        return tracker;
     }
 
     @Override
@@ -35,6 +35,7 @@ import org.pushingpixels.substance.api.SubstanceWidget;
 import org.pushingpixels.substance.internal.SubstanceWidgetRepository;
 import org.pushingpixels.substance.internal.painter.BackgroundPaintingUtils;
 import org.pushingpixels.substance.internal.painter.DecorationPainterUtils;
+import org.pushingpixels.substance.internal.utils.FlightRecorderEvents;
 import org.pushingpixels.substance.internal.utils.SubstanceCoreUtilities;
 import org.pushingpixels.substance.internal.widget.animation.effects.GhostPaintingUtils;
 
@@ -120,6 +121,7 @@ public class SubstanceMenuBarUI extends BasicMenuBarUI {
 
     @Override
     public void update(Graphics g, JComponent c) {
+        Object paintEvent = FlightRecorderEvents.beginPaint();
         boolean isOpaque = SubstanceCoreUtilities.isOpaque(c);
         if (isOpaque) {
             BackgroundPaintingUtils.update(g, c, false);
@@ -127,6 +129,7 @@ public class SubstanceMenuBarUI extends BasicMenuBarUI {
             super.update(g, c);
         }
         GhostPaintingUtils.paintGhostImages(c, g);
+        FlightRecorderEvents.endPaint(paintEvent, c, this);
     }
 
     /**
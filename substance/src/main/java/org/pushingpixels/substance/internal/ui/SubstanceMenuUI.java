@@ -33,6 +33,7 @@ import org.pushingpixels.neon.api.NeonCortex;
 import org.pushingpixels.substance.api.SubstanceCortex;
 import org.pushingpixels.substance.internal.animation.StateTransitionTracker;
 import org.pushingpixels.substance.internal.animation.TransitionAwareUI;
+import org.pushingpixels.substance.internal.utils.FlightRecorderEvents;
 import org.pushingpixels.substance.internal.utils.SubstanceCoreUtilities;
 import org.pushingpixels.substance.internal.utils.SubstanceSizeUtils;
 import org.pushingpixels.substance.internal.utils.icon.MenuArrowIcon;
@@ -258,7 +259,7 @@ public class SubstanceMenuUI extends BasicMenuUI implements SubstanceMenu,
 		Dimension superDim = super.getPreferredMenuItemSize(c, checkIcon,
 				arrowIcon, defaultTextIconGap);
 
-		if (MenuUtilities.getPopupLayoutMetrics(menuItem, false) != null) {
+		if (MenuUtilities.getPopupLayoutMetrics(menuItem) != null) {
 			return new Dimension(MenuUtilities.getPreferredWidth(menuItem),
 					superDim.height);
 		}
@@ -286,11 +287,13 @@ public class SubstanceMenuUI extends BasicMenuUI implements SubstanceMenu,
 
 	@Override
 	public void update(Graphics g, JComponent c) {
+		Object paintEvent = FlightRecorderEvents.beginPaint();
 		Graphics2D g2d = (Graphics2D) g.create();
 		NeonCortex.installDesktopHints(g2d, c.getFont());
 		super.update(g2d, c);
 		GhostPaintingUtils.paintGhostImages(c, g2d);
 		g2d.dispose();
+		FlightRecorderEvents.endPaint(paintEvent, c, this);
 	}
 	
 	public void updateCheckIconIfNeeded() {
@@ -30,6 +30,7 @@
 package org.pushingpixels.substance.internal.ui;
 
 import org.pushingpixels.substance.internal.painter.BackgroundPaintingUtils;
+import org.pushingpixels.substance.internal.utils.FlightRecorderEvents;
 import org.pushingpixels.substance.internal.utils.SubstanceColorUtilities;
 import org.pushingpixels.substance.internal.utils.SubstanceCoreUtilities;
 import org.pushingpixels.substance.internal.widget.animation.effects.GhostPaintingUtils;
@@ -76,11 +77,13 @@ public class SubstancePanelUI extends BasicPanelUI {
 			return;
 		}
 
+		Object paintEvent = FlightRecorderEvents.beginPaint();
 		if (toPaintBackground(c)) {
 			BackgroundPaintingUtils.update(g, c, false);
 		}
 		super.paint(g, c);
 		GhostPaintingUtils.paintGhostImages(c, g);
+		FlightRecorderEvents.endPaint(paintEvent, c, this);
 	}
 
 	/**
@@ -69,11 +69,11 @@ public class SubstancePopupMenuUI extends BasicPopupMenuUI {
 
 		this.substanceContainerListener = new ContainerListener() {
 			public void componentAdded(ContainerEvent e) {
-				MenuUtilities.cleanPopupLayoutMetrics(popupMenu);
+				MenuUtilities.popupMenuComponentAdded(popupMenu, e.getChild());
 			}
 
 			public void componentRemoved(ContainerEvent e) {
-				MenuUtilities.cleanPopupLayoutMetrics(popupMenu);
+				MenuUtilities.popupMenuComponentRemoved(popupMenu, e.getChild());
 			}
 		};
 		this.popupMenu.addContainerListener(this.substanceContainerListener);
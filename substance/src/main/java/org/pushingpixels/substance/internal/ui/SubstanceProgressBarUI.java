@@ -37,6 +37,7 @@ import org.pushingpixels.substance.api.colorscheme.ColorSchemeSingleColorQuery;
 import org.pushingpixels.substance.api.colorscheme.SubstanceColorScheme;
 import org.pushingpixels.substance.api.painter.fill.FractionBasedFillPainter;
 import org.pushingpixels.substance.api.painter.fill.SubstanceFillPainter;
+import org.pushingpixels.substance.internal.colorscheme.ColorSchemeRegistry;
 import org.pushingpixels.substance.internal.AnimationConfigurationManager;
 import org.pushingpixels.substance.internal.utils.*;
 import org.pushingpixels.trident.api.Timeline;
@@ -245,7 +246,7 @@ public class SubstanceProgressBarUI extends BasicProgressBarUI {
     private static BufferedImage getStripe(int baseSize, boolean isRotated,
             SubstanceColorScheme colorScheme) {
         HashMapKey key = SubstanceCoreUtilities.getHashKey(baseSize, isRotated,
-                colorScheme.getDisplayName());
+                ColorSchemeRegistry.getSchemeId(colorScheme));
         BufferedImage result = SubstanceProgressBarUI.stripeMap.get(key);
         if (result == null) {
             result = SubstanceImageCreator.getStripe(baseSize, colorScheme.getUltraLightColor());
@@ -272,8 +273,9 @@ public class SubstanceProgressBarUI extends BasicProgressBarUI {
     private static BufferedImage getDeterminateBackground(JProgressBar bar, int width, int height,
             SubstanceColorScheme scheme, SubstanceFillPainter fillPainter, int orientation,
             ComponentOrientation componentOrientation) {
-        HashMapKey key = SubstanceCoreUtilities.getHashKey(width, height, scheme.getDisplayName(),
-                fillPainter.getDisplayName(), orientation, componentOrientation);
+        HashMapKey key = SubstanceCoreUtilities.getHashKey(width, height,
+                ColorSchemeRegistry.getSchemeId(scheme), fillPainter.getDisplayName(),
+                orientation, componentOrientation);
         BufferedImage result = SubstanceProgressBarUI.backgroundMap.get(key);
         if (result == null) {
             result = SubstanceCoreUtilities.getBlankImage(width, height);
@@ -308,8 +310,9 @@ public class SubstanceProgressBarUI extends BasicProgressBarUI {
     private static BufferedImage getDeterminateProgress(JProgressBar bar, int width, int height,
             boolean isFull, SubstanceColorScheme scheme, SubstanceFillPainter fillPainter,
             int orientation, ComponentOrientation componentOrientation) {
-        HashMapKey key = SubstanceCoreUtilities.getHashKey(width, height, scheme.getDisplayName(),
-                fillPainter.getDisplayName(), orientation, componentOrientation);
+        HashMapKey key = SubstanceCoreUtilities.getHashKey(width, height,
+                ColorSchemeRegistry.getSchemeId(scheme), fillPainter.getDisplayName(),
+                orientation, componentOrientation);
         BufferedImage result = SubstanceProgressBarUI.progressMap.get(key);
         if (result == null) {
             result = SubstanceCoreUtilities.getBlankImage(width, height);
@@ -687,9 +690,11 @@ public class SubstanceProgressBarUI extends BasicProgressBarUI {
 
     @Override
     public void update(Graphics g, JComponent c) {
+        Object paintEvent = FlightRecorderEvents.beginPaint();
         Graphics2D g2d = (Graphics2D) g.create();
         NeonCortex.installDesktopHints(g2d, c.getFont());
         super.update(g2d, c);
         g2d.dispose();
+        FlightRecorderEvents.endPaint(paintEvent, c, this);
     }
 }
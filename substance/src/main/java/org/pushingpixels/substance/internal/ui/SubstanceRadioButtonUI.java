@@ -36,6 +36,7 @@ import org.pushingpixels.substance.api.SubstanceSlices.ComponentStateFacet;
 import org.pushingpixels.substance.api.colorscheme.SubstanceColorScheme;
 import org.pushingpixels.substance.api.painter.border.SubstanceBorderPainter;
 import org.pushingpixels.substance.api.painter.fill.SubstanceFillPainter;
+import org.pushingpixels.substance.internal.colorscheme.ColorSchemeRegistry;
 import org.pushingpixels.substance.internal.animation.StateTransitionTracker;
 import org.pushingpixels.substance.internal.animation.TransitionAwareUI;
 import org.pushingpixels.substance.internal.painter.BackgroundPaintingUtils;
@@ -165,8 +166,9 @@ public class SubstanceRadioButtonUI extends BasicRadioButtonUI implements Transi
 
         HashMapKey keyBase = SubstanceCoreUtilities.getHashKey(fontSize, checkMarkSize,
                 fillPainter.getDisplayName(), borderPainter.getDisplayName(),
-                baseFillColorScheme.getDisplayName(), baseMarkColorScheme.getDisplayName(),
-                baseBorderColorScheme.getDisplayName(), visibility, alpha);
+                ColorSchemeRegistry.getSchemeId(baseFillColorScheme),
+                ColorSchemeRegistry.getSchemeId(baseMarkColorScheme),
+                ColorSchemeRegistry.getSchemeId(baseBorderColorScheme), visibility, alpha);
         ImageWrapperIcon iconBase = icons.get(keyBase);
         if (iconBase == null) {
             iconBase = new ImageWrapperIcon(SubstanceImageCreator.getRadioButton(button, fillPainter,
@@ -205,8 +207,9 @@ public class SubstanceRadioButtonUI extends BasicRadioButtonUI implements Transi
 
                 HashMapKey keyLayer = SubstanceCoreUtilities.getHashKey(fontSize, checkMarkSize,
                         fillPainter.getDisplayName(), borderPainter.getDisplayName(),
-                        fillColorScheme.getDisplayName(), markColorScheme.getDisplayName(),
-                        borderColorScheme.getDisplayName(), visibility, alpha);
+                        ColorSchemeRegistry.getSchemeId(fillColorScheme),
+                        ColorSchemeRegistry.getSchemeId(markColorScheme),
+                        ColorSchemeRegistry.getSchemeId(borderColorScheme), visibility, alpha);
                 ImageWrapperIcon iconLayer = icons.get(keyLayer);
                 if (iconLayer == null) {
                     iconLayer = new ImageWrapperIcon(
@@ -377,9 +380,11 @@ public class SubstanceRadioButtonUI extends BasicRadioButtonUI implements Transi
 
     @Override
     public void update(Graphics g, JComponent c) {
+        Object paintEvent = FlightRecorderEvents.beginPaint();
         Graphics2D g2d = (Graphics2D) g.create();
         NeonCortex.installDesktopHints(g2d, c.getFont());
         super.update(g2d, c);
         g2d.dispose();
+        FlightRecorderEvents.endPaint(paintEvent, c, this);
     }
 }
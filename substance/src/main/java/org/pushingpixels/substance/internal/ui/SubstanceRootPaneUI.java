@@ -293,10 +293,12 @@ public class SubstanceRootPaneUI extends BasicRootPaneUI {
         if (!SubstanceCoreUtilities.isCurrentLookAndFeel())
             return;
 
+        Object paintEvent = FlightRecorderEvents.beginPaint();
         if (SubstanceCoreUtilities.isOpaque(c)) {
             BackgroundPaintingUtils.update(g, c, false);
         }
         super.paint(g, c);
+        FlightRecorderEvents.endPaint(paintEvent, c, this);
     }
 
     /**
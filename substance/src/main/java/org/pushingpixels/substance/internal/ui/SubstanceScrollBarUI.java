@@ -37,6 +37,7 @@ import org.pushingpixels.substance.api.colorscheme.SubstanceColorScheme;
 import org.pushingpixels.substance.api.painter.border.SubstanceBorderPainter;
 import org.pushingpixels.substance.api.painter.fill.SubstanceFillPainter;
 import org.pushingpixels.substance.api.shaper.SubstanceButtonShaper;
+import org.pushingpixels.substance.internal.colorscheme.ColorSchemeRegistry;
 import org.pushingpixels.substance.internal.SubstanceWidgetRepository;
 import org.pushingpixels.substance.internal.animation.StateTransitionTracker;
 import org.pushingpixels.substance.internal.animation.TransitionAwareUI;
@@ -243,9 +244,10 @@ public class SubstanceScrollBarUI extends BasicScrollBarUI implements Transition
         SubstanceFillPainter painter = SubstanceCoreUtilities.getFillPainter(scrollBar);
         SubstanceButtonShaper shaper = SubstanceCoreUtilities.getButtonShaper(scrollBar);
         SubstanceBorderPainter borderPainter = SubstanceCoreUtilities.getBorderPainter(scrollBar);
-        HashMapKey key = SubstanceCoreUtilities.getHashKey(width, height, scheme.getDisplayName(),
-                borderScheme.getDisplayName(), painter.getDisplayName(), shaper.getDisplayName(),
-                borderPainter.getDisplayName());
+        HashMapKey key = SubstanceCoreUtilities.getHashKey(width, height,
+                ColorSchemeRegistry.getSchemeId(scheme),
+                ColorSchemeRegistry.getSchemeId(borderScheme), painter.getDisplayName(),
+                shaper.getDisplayName(), borderPainter.getDisplayName());
         BufferedImage result = SubstanceScrollBarUI.thumbVerticalMap.get(key);
         if (result == null) {
             // System.out.println("Cache miss - computing");
@@ -357,9 +359,10 @@ public class SubstanceScrollBarUI extends BasicScrollBarUI implements Transition
         SubstanceFillPainter painter = SubstanceCoreUtilities.getFillPainter(scrollBar);
         SubstanceButtonShaper shaper = SubstanceCoreUtilities.getButtonShaper(scrollBar);
         SubstanceBorderPainter borderPainter = SubstanceCoreUtilities.getBorderPainter(scrollBar);
-        HashMapKey key = SubstanceCoreUtilities.getHashKey(width, height, scheme.getDisplayName(),
-                borderScheme.getDisplayName(), painter.getDisplayName(), shaper.getDisplayName(),
-                borderPainter.getDisplayName());
+        HashMapKey key = SubstanceCoreUtilities.getHashKey(width, height,
+                ColorSchemeRegistry.getSchemeId(scheme),
+                ColorSchemeRegistry.getSchemeId(borderScheme), painter.getDisplayName(),
+                shaper.getDisplayName(), borderPainter.getDisplayName());
 
         float radius = height / 2;
         float borderDelta = SubstanceSizeUtils.getBorderStrokeWidth() / 2.0f;
@@ -1107,7 +1110,9 @@ public class SubstanceScrollBarUI extends BasicScrollBarUI implements Transition
 
     @Override
     public void update(Graphics g, JComponent c) {
+        Object paintEvent = FlightRecorderEvents.beginPaint();
         super.update(g, c);
         GhostPaintingUtils.paintGhostImages(c, g);
+        FlightRecorderEvents.endPaint(paintEvent, c, this);
     }
 }
\ No newline at end of file
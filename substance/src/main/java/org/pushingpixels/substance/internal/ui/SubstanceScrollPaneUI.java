@@ -34,6 +34,7 @@ import org.pushingpixels.substance.api.SubstanceWidget;
 import org.pushingpixels.substance.internal.AnimationConfigurationManager;
 import org.pushingpixels.substance.internal.SubstanceWidgetRepository;
 import org.pushingpixels.substance.internal.painter.BackgroundPaintingUtils;
+import org.pushingpixels.substance.internal.utils.FlightRecorderEvents;
 import org.pushingpixels.substance.internal.utils.SubstanceColorUtilities;
 import org.pushingpixels.substance.internal.utils.SubstanceCoreUtilities;
 import org.pushingpixels.trident.api.Timeline;
@@ -252,6 +253,7 @@ public class SubstanceScrollPaneUI extends BasicScrollPaneUI {
 
     @Override
     public void update(Graphics g, JComponent c) {
+        Object paintEvent = FlightRecorderEvents.beginPaint();
         BackgroundPaintingUtils.updateIfOpaque(g, c);
         JScrollPane jsp = (JScrollPane) c;
 
@@ -305,6 +307,7 @@ public class SubstanceScrollPaneUI extends BasicScrollPaneUI {
         }
 
         super.paint(g, c);
+        FlightRecorderEvents.endPaint(paintEvent, c, this);
     }
 
     /**
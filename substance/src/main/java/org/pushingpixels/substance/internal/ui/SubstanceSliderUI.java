@@ -37,6 +37,7 @@ import org.pushingpixels.substance.api.colorscheme.SubstanceColorScheme;
 import org.pushingpixels.substance.api.painter.border.SubstanceBorderPainter;
 import org.pushingpixels.substance.api.painter.fill.ClassicFillPainter;
 import org.pushingpixels.substance.api.painter.fill.SubstanceFillPainter;
+import org.pushingpixels.substance.internal.colorscheme.ColorSchemeRegistry;
 import org.pushingpixels.substance.internal.animation.StateTransitionTracker;
 import org.pushingpixels.substance.internal.animation.TransitionAwareUI;
 import org.pushingpixels.substance.internal.painter.BackgroundPaintingUtils;
@@ -276,7 +277,8 @@ public class SubstanceSliderUI extends BasicSliderUI implements TransitionAwareU
         float borderThickness = (int) SubstanceSizeUtils.getBorderStrokeWidth();
 
         HashMapKey key = SubstanceCoreUtilities.getHashKey(width, height, radius, borderDelta,
-                borderThickness, fillColorScheme.getDisplayName(), borderScheme.getDisplayName());
+                borderThickness, ColorSchemeRegistry.getSchemeId(fillColorScheme),
+                ColorSchemeRegistry.getSchemeId(borderScheme));
 
         BufferedImage trackImage = trackCache.get(key);
         if (trackImage == null) {
@@ -38,9 +38,11 @@ import org.pushingpixels.substance.api.painter.fill.SubstanceFillPainter;
 import org.pushingpixels.substance.api.shaper.ClassicButtonShaper;
 import org.pushingpixels.substance.api.shaper.SubstanceButtonShaper;
 import org.pushingpixels.substance.api.tabbed.*;
+import org.pushingpixels.substance.internal.colorscheme.ColorSchemeRegistry;
 import org.pushingpixels.substance.internal.AnimationConfigurationManager;
 import org.pushingpixels.substance.internal.SubstanceSynapse;
 import org.pushingpixels.substance.internal.SubstanceWidgetRepository;
+import org.pushingpixels.substance.internal.animation.ModificationPulse;
 import org.pushingpixels.substance.internal.animation.StateTransitionMultiTracker;
 import org.pushingpixels.substance.internal.animation.StateTransitionTracker;
 import org.pushingpixels.substance.internal.animation.StateTransitionTracker.StateContributionInfo;
@@ -49,11 +51,11 @@ import org.pushingpixels.substance.internal.utils.*;
 import org.pushingpixels.substance.internal.utils.icon.TransitionAwareIcon;
 import org.pushingpixels.substance.internal.utils.scroll.SubstanceScrollButton;
 import org.pushingpixels.trident.api.Timeline;
-import org.pushingpixels.trident.api.Timeline.RepeatBehavior;
 import org.pushingpixels.trident.api.Timeline.TimelineState;
 import org.pushingpixels.trident.api.swing.EventDispatchThreadTimelineCallbackAdapter;
 
 import javax.swing.*;
+import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 import javax.swing.plaf.ComponentUI;
 import javax.swing.plaf.UIResource;
@@ -68,6 +70,7 @@ import java.awt.image.BufferedImage;
 import java.beans.PropertyChangeListener;
 import java.util.List;
 import java.util.*;
+import java.util.function.IntPredicate;
 
 /**
  * UI for tabbed panes in <b>Substance</b> look and feel.
@@ -93,10 +96,16 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
             "SubstanceTabbedPaneUI.closeButton");
 
     /**
-     * Key - tab component. Value - the looping timeline that animates the tab component when it's
-     * marked as modified (with {@link SubstanceSynapse#CONTENTS_MODIFIED} property).
+     * Tab components that are marked as modified (with {@link SubstanceSynapse#CONTENTS_MODIFIED}
+     * property). These are animated by the shared {@link ModificationPulse}.
      */
-    private Map<Component, Timeline> modifiedTimelines;
+    private Set<Component> modifiedTabs;
+
+    /**
+     * Subscribed to the shared {@link ModificationPulse} while there is at least one modified tab.
+     * Repaints all the modified tabs in a single pass on every pulse.
+     */
+    private Runnable modifiedTabsPulseCallback;
 
     /**
      * Currently selected index (for selection animations).
@@ -134,6 +143,66 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
 
     private boolean substanceContentOpaque;
 
+    /**
+     * Indicates that multiple tabs are being removed in a single batch. The per-tab tracking
+     * and the selection animations are suspended until the batch is done.
+     */
+    private boolean isRemovingTabs;
+
+    /**
+     * Cached tab sizes, keyed by the tab content component. Inserting or removing a tab only
+     * measures that tab, and the rectangles of all the other tabs are laid out from their cached
+     * sizes. The cache is cleared on any property change of the tabbed pane.
+     */
+    private Map<Component, TabSize> tabSizes;
+
+    /**
+     * Clears the cached tab sizes on property changes of the tabbed pane.
+     */
+    private PropertyChangeListener substancePropertyChangeListener;
+
+    /**
+     * The viewport that hosts the tabs under {@link JTabbedPane#SCROLL_TAB_LAYOUT}.
+     */
+    private JViewport scrollableTabViewport;
+
+    /**
+     * Size of a single tab, along with the tab attributes that were used to compute it.
+     *
+     * @author Kirill Grouchnikov
+     */
+    private static class TabSize {
+        private final int tabPlacement;
+
+        private final String title;
+
+        private final Icon icon;
+
+        private final boolean isEnabled;
+
+        private final boolean hasCloseButton;
+
+        private int width = -1;
+
+        private int height = -1;
+
+        private TabSize(int tabPlacement, String title, Icon icon, boolean isEnabled,
+                boolean hasCloseButton) {
+            this.tabPlacement = tabPlacement;
+            this.title = title;
+            this.icon = icon;
+            this.isEnabled = isEnabled;
+            this.hasCloseButton = hasCloseButton;
+        }
+
+        private boolean matches(int tabPlacement, String title, Icon icon, boolean isEnabled,
+                boolean hasCloseButton) {
+            return (this.tabPlacement == tabPlacement) && Objects.equals(this.title, title)
+                    && (this.icon == icon) && (this.isEnabled == isEnabled)
+                    && (this.hasCloseButton == hasCloseButton);
+        }
+    }
+
     /**
      * Tracks changes to the tabbed pane contents. Each tab component is tracked for changes on the
      * {@link SubstanceSynapse#CONTENTS_MODIFIED} property.
@@ -146,7 +215,12 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
          * <p/>
          * Fixes defect 135 - memory leaks on tabbed panes.
          */
-        private Map<Component, List<PropertyChangeListener>> listeners = new HashMap<>();
+        private Map<Component, PropertyChangeListener> listeners = new HashMap<>();
+
+        /**
+         * Tab components removed during the current batch removal.
+         */
+        private List<Component> pendingRemovedTabs = new ArrayList<>();
 
         /**
          * Creates a new container listener.
@@ -171,11 +245,15 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
          *            Tab component.
          */
         private void trackTab(final Component tabComponent) {
-            if (tabComponent == null) {
+            if ((tabComponent == null) || this.listeners.containsKey(tabComponent)) {
                 return;
             }
 
             PropertyChangeListener tabModifiedListener = propertyChangeEvent -> {
+                if (SubstanceSynapse.TABBED_PANE_CLOSE_BUTTONS.equals(
+                        propertyChangeEvent.getPropertyName())) {
+                    tabSizes.remove(tabComponent);
+                }
                 if (SubstanceSynapse.CONTENTS_MODIFIED.equals(propertyChangeEvent.getPropertyName())) {
                     Object oldValue = propertyChangeEvent.getOldValue();
                     Object newValue = propertyChangeEvent.getNewValue();
@@ -184,16 +262,14 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
 
                     if (wasModified) {
                         if (!isModified) {
-                            Timeline modifiedTimeline = modifiedTimelines.get(tabComponent);
-                            modifiedTimeline.cancel();
-                            modifiedTimelines.remove(tabComponent);
+                            stopTrackTabModification(tabComponent);
                         }
                     } else {
                         if (isModified) {
                             int tabIndex = SubstanceTabbedPaneUI.this.tabPane
                                     .indexOfComponent(tabComponent);
                             if (tabIndex >= 0) {
-                                trackTabModification(tabIndex, tabComponent);
+                                trackTabModification(tabComponent);
                             }
                         }
                     }
@@ -201,14 +277,7 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
             };
             tabComponent.addPropertyChangeListener(tabModifiedListener);
             // fix for defect 135 - memory leaks on tabbed panes
-            List<PropertyChangeListener> currList = this.listeners.get(tabComponent);
-            if (currList == null) {
-                currList = new LinkedList<>();
-            }
-            currList.add(tabModifiedListener);
-            // System.err.println(this.hashCode() + " adding for " +
-            // tabComponent.hashCode());
-            this.listeners.put(tabComponent, currList);
+            this.listeners.put(tabComponent, tabModifiedListener);
             // Fix for defect 104 - a 'modified' component is added to
             // the tabbed pane. In this case it should be animated from the
             // beginning.
@@ -218,7 +287,7 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
                     int tabIndex = SubstanceTabbedPaneUI.this.tabPane
                             .indexOfComponent(tabComponent);
                     if (tabIndex >= 0) {
-                        trackTabModification(tabIndex, tabComponent);
+                        trackTabModification(tabComponent);
                     }
                 }
             }
@@ -235,14 +304,10 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
                 return;
             }
 
-            List<PropertyChangeListener> pclList = this.listeners.get(tabComponent);
-            if (pclList != null) {
-                for (PropertyChangeListener pcl : pclList) {
-                    tabComponent.removePropertyChangeListener(pcl);
-                }
+            PropertyChangeListener pcl = this.listeners.remove(tabComponent);
+            if (pcl != null) {
+                tabComponent.removePropertyChangeListener(pcl);
             }
-
-            this.listeners.put(tabComponent, null);
         }
 
         /**
@@ -276,18 +341,28 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
             if (tabComponent instanceof UIResource) {
                 return;
             }
-            for (PropertyChangeListener pcl : this.listeners.get(tabComponent)) {
-                tabComponent.removePropertyChangeListener(pcl);
+            if (isRemovingTabs) {
+                this.pendingRemovedTabs.add(tabComponent);
+                return;
             }
-            this.listeners.get(tabComponent).clear();
-            this.listeners.remove(tabComponent);
+            this.tabRemoved(tabComponent);
+        }
 
-            // has running timeline?
-            Timeline timeline = modifiedTimelines.get(tabComponent);
-            if (timeline != null) {
-                timeline.cancel();
-                modifiedTimelines.remove(tabComponent);
+        /**
+         * Stops tracking all the tab components removed during the batch removal.
+         */
+        private void processPendingRemovedTabs() {
+            for (Component tabComponent : this.pendingRemovedTabs) {
+                this.tabRemoved(tabComponent);
             }
+            this.pendingRemovedTabs.clear();
+        }
+
+        private void tabRemoved(Component tabComponent) {
+            this.stopTrackTab(tabComponent);
+
+            stopTrackTabModification(tabComponent);
+            tabSizes.remove(tabComponent);
         }
 
     }
@@ -538,6 +613,13 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
     @Override
     protected void installListeners() {
         super.installListeners();
+        // The rollover tab is tracked by our own mouse handler. Remove the base mouse motion
+        // listener (that is also the base property change listener) that does the same with
+        // a linear scan over all the tabs on every mouse move.
+        if (this.propertyChangeListener instanceof MouseMotionListener) {
+            this.tabPane.removeMouseMotionListener(
+                    (MouseMotionListener) this.propertyChangeListener);
+        }
         // Install listener to repaint the tabbed pane
         // on mouse move (for rollover effects).
         this.substanceRolloverHandler = new MouseRolloverHandler();
@@ -547,40 +629,24 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
         // Add container listener to wire property change listener
         // on each tab in the tabbed pane.
         this.substanceContainerListener = new TabbedContainerListener();
+        // This also starts tracking the tabs that are already marked as modified
         this.substanceContainerListener.trackExistingTabs();
 
-        for (int i = 0; i < this.tabPane.getTabCount(); i++) {
-            Component tabComp = this.tabPane.getComponentAt(i);
-            if (SubstanceCoreUtilities.isTabModified(tabComp)) {
-                trackTabModification(i, tabComp);
-            }
-        }
-
         this.tabPane.addContainerListener(this.substanceContainerListener);
 
-        this.substanceSelectionListener = changeEvent -> SwingUtilities.invokeLater(() -> {
-            if (SubstanceTabbedPaneUI.this.tabPane == null) {
-                return;
+        this.substancePropertyChangeListener = propertyChangeEvent -> {
+            // JTabbedPane sets this client property on every tab removal
+            if (!"__index_to_remove__".equals(propertyChangeEvent.getPropertyName())) {
+                this.tabSizes.clear();
             }
-            int selected = SubstanceTabbedPaneUI.this.tabPane.getSelectedIndex();
-
-            // fix for issue 437 - track the selection change,
-            // fading out the previously selected tab
-            if ((currSelectedIndex >= 0)
-                    && (currSelectedIndex < SubstanceTabbedPaneUI.this.tabPane.getTabCount())
-                    && SubstanceTabbedPaneUI.this.tabPane.isEnabledAt(currSelectedIndex)) {
-                StateTransitionTracker tracker = getTracker(currSelectedIndex,
-                        getRolloverTabIndex() == currSelectedIndex, true);
-                tracker.getModel().setSelected(false);
-            }
-            currSelectedIndex = selected;
-            if ((selected >= 0) && (selected < SubstanceTabbedPaneUI.this.tabPane.getTabCount())
-                    && SubstanceTabbedPaneUI.this.tabPane.isEnabledAt(selected)) {
-                StateTransitionTracker tracker = getTracker(selected,
-                        getRolloverTabIndex() == selected, false);
-                tracker.getModel().setSelected(true);
-            }
-        });
+        };
+        this.tabPane.addPropertyChangeListener(this.substancePropertyChangeListener);
+
+        this.substanceSelectionListener = changeEvent -> {
+            if (!isRemovingTabs) {
+                SwingUtilities.invokeLater(this::trackSelectionChange);
+            }
+        };
         this.tabPane.getModel().addChangeListener(this.substanceSelectionListener);
 
         for (SubstanceWidget lafWidget : this.lafWidgets) {
@@ -588,6 +654,34 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
         }
     }
 
+    /**
+     * Tracks the change of the selected tab, fading out the previously selected tab and fading
+     * in the newly selected tab.
+     */
+    private void trackSelectionChange() {
+        if (this.tabPane == null) {
+            return;
+        }
+        int selected = this.tabPane.getSelectedIndex();
+
+        // fix for issue 437 - track the selection change,
+        // fading out the previously selected tab
+        if ((currSelectedIndex >= 0)
+                && (currSelectedIndex < this.tabPane.getTabCount())
+                && this.tabPane.isEnabledAt(currSelectedIndex)) {
+            StateTransitionTracker tracker = getTracker(currSelectedIndex,
+                    getRolloverTabIndex() == currSelectedIndex, true);
+            tracker.getModel().setSelected(false);
+        }
+        currSelectedIndex = selected;
+        if ((selected >= 0) && (selected < this.tabPane.getTabCount())
+                && this.tabPane.isEnabledAt(selected)) {
+            StateTransitionTracker tracker = getTracker(selected,
+                    getRolloverTabIndex() == selected, false);
+            tracker.getModel().setSelected(true);
+        }
+    }
+
     @Override
     protected void uninstallListeners() {
         super.uninstallListeners();
@@ -597,20 +691,17 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
             this.substanceRolloverHandler = null;
         }
         if (this.substanceContainerListener != null) {
-            for (Map.Entry<Component, List<PropertyChangeListener>> entry : this.substanceContainerListener.listeners
+            for (Map.Entry<Component, PropertyChangeListener> entry : this.substanceContainerListener.listeners
                     .entrySet()) {
-                Component comp = entry.getKey();
-                // System.out.println(this.containerListener.hashCode() +"
-                // removing all for" + comp.hashCode());
-                for (PropertyChangeListener pcl : entry.getValue()) {
-                    comp.removePropertyChangeListener(pcl);
-                }
+                entry.getKey().removePropertyChangeListener(entry.getValue());
             }
             this.substanceContainerListener.listeners.clear();
 
             this.tabPane.removeContainerListener(this.substanceContainerListener);
             this.substanceContainerListener = null;
         }
+        this.tabPane.removePropertyChangeListener(this.substancePropertyChangeListener);
+        this.substancePropertyChangeListener = null;
         this.tabPane.getModel().removeChangeListener(this.substanceSelectionListener);
         this.substanceSelectionListener = null;
 
@@ -625,7 +716,9 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
 
         this.substanceContentOpaque = UIManager.getBoolean("TabbedPane.contentOpaque");
 
-        this.modifiedTimelines = new HashMap<>();
+        this.modifiedTabs = new HashSet<>();
+        this.modifiedTabsPulseCallback = this::repaintModifiedTabs;
+        this.tabSizes = new HashMap<>();
         this.currSelectedIndex = this.tabPane.getSelectedIndex();
 
         for (SubstanceWidget lafWidget : this.lafWidgets) {
@@ -635,9 +728,12 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
 
     @Override
     protected void uninstallDefaults() {
-        for (Timeline timeline : this.modifiedTimelines.values())
-            timeline.cancel();
-        this.modifiedTimelines.clear();
+        if (!this.modifiedTabs.isEmpty()) {
+            ModificationPulse.getInstance().unsubscribe(this.modifiedTabsPulseCallback);
+            this.modifiedTabs.clear();
+        }
+        this.tabSizes.clear();
+        this.scrollableTabViewport = null;
 
         for (SubstanceWidget lafWidget : this.lafWidgets) {
             lafWidget.uninstallDefaults();
@@ -737,7 +833,8 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
         HashMapKey key = SubstanceCoreUtilities.getHashKey(width, height, tabPlacement,
                 fillPainter.getDisplayName(), borderPainter.getDisplayName(),
                 shaper.getDisplayName(), tabPlacement == SwingConstants.BOTTOM, side.name(),
-                colorScheme.getDisplayName(), borderScheme.getDisplayName(), tabColor);
+                ColorSchemeRegistry.getSchemeId(colorScheme),
+                ColorSchemeRegistry.getSchemeId(borderScheme), tabColor);
 
         SubstanceSkin skin = SubstanceCoreUtilities.getSkin(tabPane);
         BufferedImage result = SubstanceTabbedPaneUI.backgroundMap.get(key);
@@ -786,8 +883,8 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
             return null;
 
         HashMapKey key = SubstanceCoreUtilities.getHashKey(width, height, toPaintBorder,
-                fillPainter.getDisplayName(), fillScheme.getDisplayName(),
-                markScheme.getDisplayName());
+                fillPainter.getDisplayName(), ColorSchemeRegistry.getSchemeId(fillScheme),
+                ColorSchemeRegistry.getSchemeId(markScheme));
         BufferedImage result = SubstanceTabbedPaneUI.closeButtonMap.get(key);
         if (result == null) {
             result = SubstanceCoreUtilities.getBlankImage(width, height);
@@ -858,7 +955,7 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
             SubstanceColorScheme colorScheme2 = SubstanceColorSchemeUtilities.YELLOW;
             SubstanceColorScheme colorScheme = SubstanceColorSchemeUtilities.ORANGE;
 
-            float cyclePos = this.modifiedTimelines.get(comp).getTimelinePosition();
+            float cyclePos = ModificationPulse.getInstance().getPosition();
 
             BufferedImage layer1 = SubstanceTabbedPaneUI.getFinalTabBackgroundImage(this.tabPane,
                     tabIndex, x, y, w, h, tabPlacement, SubstanceSlices.Side.BOTTOM, colorScheme,
@@ -995,7 +1092,7 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
                     SubstanceColorScheme colorScheme2 = SubstanceColorSchemeUtilities.YELLOW;
                     SubstanceColorScheme colorScheme = SubstanceColorSchemeUtilities.ORANGE;
 
-                    float cyclePos = this.modifiedTimelines.get(comp).getTimelinePosition();
+                    float cyclePos = ModificationPulse.getInstance().getPosition();
 
                     BufferedImage layer1 = SubstanceTabbedPaneUI.getCloseButtonImage(this.tabPane,
                             orig.width, orig.height, toPaintCloseBorder, colorScheme,
@@ -1091,31 +1188,86 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
 
     @Override
     protected int calculateTabHeight(int tabPlacement, int tabIndex, int fontHeight) {
+        TabSize tabSize = this.getTabSize(tabPlacement, tabIndex);
+        if ((tabSize != null) && (tabSize.height >= 0)) {
+            return tabSize.height;
+        }
         boolean toSwap = toRotateTabsOnPlacement(tabPlacement);
+        int result;
         if (toSwap)
-            return this.getTabExtraWidth(tabPlacement, tabIndex)
+            result = this.getTabExtraWidth(tabPlacement, tabIndex)
                     + super.calculateTabWidth(tabPlacement, tabIndex, this.getFontMetrics());
-        return super.calculateTabHeight(tabPlacement, tabIndex, fontHeight);
+        else
+            result = super.calculateTabHeight(tabPlacement, tabIndex, fontHeight);
+        if (tabSize != null) {
+            tabSize.height = result;
+        }
+        return result;
     }
 
     @Override
     protected int calculateTabWidth(int tabPlacement, int tabIndex, FontMetrics metrics) {
+        TabSize tabSize = this.getTabSize(tabPlacement, tabIndex);
+        if ((tabSize != null) && (tabSize.width >= 0)) {
+            return tabSize.width;
+        }
         boolean toSwap = toRotateTabsOnPlacement(tabPlacement);
+        int result;
         if (toSwap)
-            return super.calculateTabHeight(tabPlacement, tabIndex, metrics.getHeight());
-        int result = this.getTabExtraWidth(tabPlacement, tabIndex)
-                + super.calculateTabWidth(tabPlacement, tabIndex, metrics);
+            result = super.calculateTabHeight(tabPlacement, tabIndex, metrics.getHeight());
+        else
+            result = this.getTabExtraWidth(tabPlacement, tabIndex)
+                    + super.calculateTabWidth(tabPlacement, tabIndex, metrics);
+        if (tabSize != null) {
+            tabSize.width = result;
+        }
         return result;
     }
 
+    /**
+     * Returns the cached size of the specified tab.
+     *
+     * @param tabPlacement
+     *            Tab placement.
+     * @param tabIndex
+     *            Tab index.
+     * @return The cached size of the specified tab. The width and the height are negative if they
+     *         haven't been computed yet. Returns <code>null</code> if the size of the specified
+     *         tab should not be cached.
+     */
+    private TabSize getTabSize(int tabPlacement, int tabIndex) {
+        if (this.tabSizes == null) {
+            return null;
+        }
+        Component component = this.tabPane.getComponentAt(tabIndex);
+        if ((component == null) || (this.tabPane.getTabComponentAt(tabIndex) != null)) {
+            // Custom tab components can change their preferred size without notifying
+            // the tabbed pane
+            return null;
+        }
+        String title = this.tabPane.getTitleAt(tabIndex);
+        Icon icon = this.getIconForTab(tabIndex);
+        boolean isEnabled = this.tabPane.isEnabledAt(tabIndex);
+        // The close button can also be toggled on the tab component or globally in UIManager,
+        // neither of which notifies the tabbed pane
+        boolean hasCloseButton = SubstanceCoreUtilities.hasCloseButton(this.tabPane, tabIndex);
+        TabSize tabSize = this.tabSizes.get(component);
+        if ((tabSize == null)
+                || !tabSize.matches(tabPlacement, title, icon, isEnabled, hasCloseButton)) {
+            tabSize = new TabSize(tabPlacement, title, icon, isEnabled, hasCloseButton);
+            this.tabSizes.put(component, tabSize);
+        }
+        return tabSize;
+    }
+
     @Override
     protected int calculateMaxTabHeight(int tabPlacement) {
         if (toRotateTabsOnPlacement(tabPlacement))
             return super.calculateMaxTabHeight(tabPlacement);
+        int fontHeight = this.getFontMetrics().getHeight();
         int result = 0;
         for (int i = 0; i < this.tabPane.getTabCount(); i++)
-            result = Math.max(result,
-                    this.calculateTabHeight(tabPlacement, i, this.getFontMetrics().getHeight()));
+            result = Math.max(result, this.calculateTabHeight(tabPlacement, i, fontHeight));
         return result;
     }
 
@@ -1226,7 +1378,52 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
             BackgroundPaintingUtils.update(g2d, this.tabPane, true);
             g2d.dispose();
         }
-        super.paintTabArea(g, tabPlacement, selectedIndex);
+
+        int tabCount = this.tabPane.getTabCount();
+        Rectangle clipRect = g.getClipBounds();
+        if ((clipRect == null) || (this.rects.length < tabCount)) {
+            super.paintTabArea(g, tabPlacement, selectedIndex);
+            return;
+        }
+
+        // Same as the base implementation, but only going over the tabs that intersect
+        // the clip instead of over all the tabs
+        boolean isHorizontal = isHorizontalTabPlacement(tabPlacement);
+        int clipStart = isHorizontal ? clipRect.x : clipRect.y;
+        int clipEnd = clipStart + (isHorizontal ? clipRect.width : clipRect.height);
+        Rectangle iconRect = new Rectangle();
+        Rectangle textRect = new Rectangle();
+        // Paint runs of tabs from back to front
+        for (int run = this.runCount - 1; run >= 0; run--) {
+            int start = this.tabRuns[run];
+            int end = this.lastTabInRun(tabCount, run);
+            if ((start < 0) || (end >= tabCount) || (start > end)) {
+                continue;
+            }
+            int first, last;
+            if (this.isAscendingRun(start, end, isHorizontal)) {
+                first = findFirstTab(start, end,
+                        i -> getTabEnd(this.rects[i], isHorizontal) > clipStart);
+                last = findFirstTab(start, end,
+                        i -> getTabStart(this.rects[i], isHorizontal) >= clipEnd) - 1;
+            } else {
+                first = findFirstTab(start, end,
+                        i -> getTabStart(this.rects[i], isHorizontal) < clipEnd);
+                last = findFirstTab(start, end,
+                        i -> getTabEnd(this.rects[i], isHorizontal) <= clipStart) - 1;
+            }
+            for (int i = first; i <= last; i++) {
+                if ((i != selectedIndex) && this.rects[i].intersects(clipRect)) {
+                    this.paintTab(g, tabPlacement, this.rects, i, iconRect, textRect);
+                }
+            }
+        }
+
+        // Paint selected tab if its in the front run since it may overlap other tabs
+        if ((selectedIndex >= 0) && (selectedIndex < tabCount)
+                && this.rects[selectedIndex].intersects(clipRect)) {
+            this.paintTab(g, tabPlacement, this.rects, selectedIndex, iconRect, textRect);
+        }
     }
 
     /**
@@ -1507,14 +1704,7 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
                 ((MultipleTabCloseListener) listener).tabsClosing(this.tabPane, componentSet);
         }
 
-        for (Component toRemove : componentSet) {
-            this.tabPane.remove(toRemove);
-        }
-
-        if (this.tabPane.getTabCount() > 0) {
-            this.selectPreviousTab(0);
-            this.selectNextTab(this.tabPane.getSelectedIndex());
-        }
+        this.removeTabs(componentSet);
         this.tabPane.repaint();
 
         for (BaseTabCloseListener listener : SubstanceCortex.ComponentScope
@@ -1524,6 +1714,86 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
         }
     }
 
+    /**
+     * Removes the specified tabs in a single batch. The first enabled remaining tab is selected
+     * before the removal so that the selected tab is never removed. While the tabs are being
+     * removed, the per-tab tracking, the selection animations and the layout updates of the
+     * basic UI delegate are suspended, and then done once for the entire batch.
+     * 
+     * @param components
+     *            Components of the tabs to remove. Components that are no longer in the tabbed
+     *            pane are ignored.
+     */
+    private void removeTabs(Set<Component> components) {
+        // The close listeners may have added, removed or reordered tabs, so the indexes
+        // are resolved only now
+        Set<Integer> tabIndexes = new HashSet<>();
+        for (Component component : components) {
+            int tabIndex = this.tabPane.indexOfComponent(component);
+            if (tabIndex >= 0) {
+                tabIndexes.add(tabIndex);
+            }
+        }
+        if (tabIndexes.isEmpty()) {
+            return;
+        }
+
+        int tabCount = this.tabPane.getTabCount();
+        int newSelectedIndex = -1;
+        for (int i = 0; i < tabCount; i++) {
+            if (!tabIndexes.contains(i)) {
+                if (this.tabPane.isEnabledAt(i)) {
+                    newSelectedIndex = i;
+                    break;
+                }
+                if (newSelectedIndex < 0) {
+                    newSelectedIndex = i;
+                }
+            }
+        }
+
+        Component selectedComponent = this.tabPane.getSelectedComponent();
+        Integer[] sortedIndexes = tabIndexes.toArray(new Integer[0]);
+        Arrays.sort(sortedIndexes, Collections.reverseOrder());
+
+        ChangeListener basicChangeListener = this.tabChangeListener;
+        if (basicChangeListener != null) {
+            this.tabPane.removeChangeListener(basicChangeListener);
+        }
+        this.isRemovingTabs = true;
+        try {
+            this.tabPane.setSelectedIndex(newSelectedIndex);
+            // Remove from the end so that the indexes of the remaining tabs to remove
+            // don't shift
+            for (int tabIndex : sortedIndexes) {
+                this.tabPane.removeTabAt(tabIndex);
+            }
+        } finally {
+            this.isRemovingTabs = false;
+            if (basicChangeListener != null) {
+                this.tabPane.addChangeListener(basicChangeListener);
+            }
+        }
+
+        if (this.substanceContainerListener != null) {
+            this.substanceContainerListener.processPendingRemovedTabs();
+        }
+        if (basicChangeListener != null) {
+            basicChangeListener.stateChanged(new ChangeEvent(this.tabPane));
+        }
+
+        // The transition trackers are keyed by tab indexes that are now stale
+        this.stateTransitionMultiTracker.clear();
+        if ((selectedComponent != null)
+                && (this.tabPane.getSelectedComponent() == selectedComponent)) {
+            // The selected tab stays the same - no need to animate
+            this.currSelectedIndex = this.tabPane.getSelectedIndex();
+        } else {
+            this.currSelectedIndex = -1;
+            this.trackSelectionChange();
+        }
+    }
+
     @Override
     protected int getTabLabelShiftX(int tabPlacement, int tabIndex, boolean isSelected) {
         int delta = 0;
@@ -2092,6 +2362,128 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
         return this.getTabBounds(i, tabRect);
     }
 
+    @Override
+    public int tabForCoordinate(JTabbedPane pane, int x, int y) {
+        this.ensureCurrentLayout();
+        int tabCount = this.tabPane.getTabCount();
+        if ((tabCount == 0) || (this.rects.length < tabCount)) {
+            return super.tabForCoordinate(pane, x, y);
+        }
+
+        int px = x;
+        int py = y;
+        if (this.tabPane.getTabLayoutPolicy() == JTabbedPane.SCROLL_TAB_LAYOUT) {
+            JViewport viewport = this.getScrollableTabViewport();
+            if (viewport == null) {
+                return super.tabForCoordinate(pane, x, y);
+            }
+            if (!viewport.getBounds().contains(x, y)) {
+                return -1;
+            }
+            // translate to the coordinate space of the scrollable tab panel
+            Point viewPosition = viewport.getViewPosition();
+            px = x - viewport.getX() + viewPosition.x;
+            py = y - viewport.getY() + viewPosition.y;
+        }
+
+        // The tabs in each run are laid out one after another, so that their rectangles
+        // can be binary searched instead of going over all the tabs
+        boolean isHorizontal = isHorizontalTabPlacement(this.tabPane.getTabPlacement());
+        int coord = isHorizontal ? px : py;
+        int result = -1;
+        for (int run = 0; run < this.runCount; run++) {
+            int start = this.tabRuns[run];
+            int end = this.lastTabInRun(tabCount, run);
+            if ((start < 0) || (end >= tabCount) || (start > end)) {
+                continue;
+            }
+            int candidate;
+            if (this.isAscendingRun(start, end, isHorizontal)) {
+                candidate = findFirstTab(start, end,
+                        i -> getTabEnd(this.rects[i], isHorizontal) > coord);
+            } else {
+                candidate = findFirstTab(start, end,
+                        i -> getTabStart(this.rects[i], isHorizontal) <= coord);
+            }
+            // Runs can overlap. Return the lowest matching index, as the base implementation does
+            if ((candidate <= end) && this.rects[candidate].contains(px, py)
+                    && ((result < 0) || (candidate < result))) {
+                result = candidate;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the viewport that hosts the tabs under {@link JTabbedPane#SCROLL_TAB_LAYOUT}.
+     *
+     * @return The viewport that hosts the tabs, or <code>null</code> if there is none.
+     */
+    private JViewport getScrollableTabViewport() {
+        if ((this.scrollableTabViewport != null)
+                && (this.scrollableTabViewport.getParent() == this.tabPane)) {
+            return this.scrollableTabViewport;
+        }
+        this.scrollableTabViewport = null;
+        for (int i = 0; i < this.tabPane.getComponentCount(); i++) {
+            Component child = this.tabPane.getComponent(i);
+            if ((child instanceof JViewport) && (child instanceof UIResource)) {
+                this.scrollableTabViewport = (JViewport) child;
+                break;
+            }
+        }
+        return this.scrollableTabViewport;
+    }
+
+    private static boolean isHorizontalTabPlacement(int tabPlacement) {
+        return (tabPlacement == SwingConstants.TOP) || (tabPlacement == SwingConstants.BOTTOM);
+    }
+
+    private static int getTabStart(Rectangle tabRect, boolean isHorizontal) {
+        return isHorizontal ? tabRect.x : tabRect.y;
+    }
+
+    private static int getTabEnd(Rectangle tabRect, boolean isHorizontal) {
+        return isHorizontal ? tabRect.x + tabRect.width : tabRect.y + tabRect.height;
+    }
+
+    /**
+     * Returns indication whether the tabs in the specified run are laid out in the increasing
+     * coordinate order. This is not the case for horizontal tabs under right-to-left
+     * orientation.
+     */
+    private boolean isAscendingRun(int start, int end, boolean isHorizontal) {
+        return getTabStart(this.rects[start], isHorizontal)
+                <= getTabStart(this.rects[end], isHorizontal);
+    }
+
+    /**
+     * Binary searches the specified range of tabs.
+     *
+     * @param start
+     *            Index of the first tab in the range.
+     * @param end
+     *            Index of the last tab in the range.
+     * @param predicate
+     *            Tab predicate. Must be monotonic over the range - once a tab matches, all
+     *            the following tabs in the range must match as well.
+     * @return Index of the first matching tab in the range, or <code>end + 1</code> if there
+     *         is none.
+     */
+    private static int findFirstTab(int start, int end, IntPredicate predicate) {
+        int low = start;
+        int high = end + 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (predicate.test(mid)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
     private StateTransitionTracker.ModelStateInfo getModelStateInfo(int tabIndex) {
         if (this.stateTransitionMultiTracker.size() == 0)
             return null;
@@ -2276,20 +2668,53 @@ public class SubstanceTabbedPaneUI extends BasicTabbedPaneUI {
         return tracker;
     }
 
-    private void trackTabModification(int tabIndex, Component tabComponent) {
-        Timeline modifiedTimeline =
-                AnimationConfigurationManager.getInstance().modifiedTimelineBuilder(this.tabPane)
-                        .addCallback(new TabRepaintCallback(tabPane, tabIndex))
-                        .build();
-        modifiedTimeline.playLoop(RepeatBehavior.REVERSE);
-        modifiedTimelines.put(tabComponent, modifiedTimeline);
+    private void trackTabModification(Component tabComponent) {
+        if (this.modifiedTabs.add(tabComponent) && (this.modifiedTabs.size() == 1)) {
+            ModificationPulse.getInstance().subscribe(this.modifiedTabsPulseCallback);
+        }
+    }
+
+    private void stopTrackTabModification(Component tabComponent) {
+        if (!this.modifiedTabs.remove(tabComponent)) {
+            return;
+        }
+        if (this.modifiedTabs.isEmpty()) {
+            ModificationPulse.getInstance().unsubscribe(this.modifiedTabsPulseCallback);
+        }
+        // Repaint the tab one last time to remove the modified indication
+        int tabIndex = this.tabPane.indexOfComponent(tabComponent);
+        if ((tabIndex >= 0) && (tabIndex < this.rects.length)) {
+            this.tabPane.repaint(this.getTabBounds(this.tabPane, tabIndex));
+        }
+    }
+
+    /**
+     * Repaints all the modified tabs. Called on every pulse of the shared
+     * {@link ModificationPulse}.
+     */
+    private void repaintModifiedTabs() {
+        if (this.tabPane == null) {
+            // may happen if the LAF was switched in the meantime
+            return;
+        }
+        this.ensureCurrentLayout();
+        // need to retrieve the tab rectangles since the tabs can be moved while animating
+        // (especially when the current layout is SCROLL_LAYOUT)
+        int tabCount = Math.min(this.tabPane.getTabCount(), this.rects.length);
+        for (int i = 0; i < tabCount; i++) {
+            if (this.modifiedTabs.contains(this.tabPane.getComponentAt(i))) {
+                this.tabPane.repaint(this.getTabBounds(this.tabPane, i));
+            }
+        }
     }
 
     @Override
     public void update(Graphics g, JComponent c) {
+        Object paintEvent = FlightRecorderEvents.beginPaint();
         Graphics2D g2d = (Graphics2D) g.create();
         NeonCortex.installDesktopHints(g2d, c.getFont());
         super.update(g2d, c);
         g2d.dispose();
+        FlightRecorderEvents.endPaint(paintEvent, c, this);
     }
 }
\ No newline at end of file
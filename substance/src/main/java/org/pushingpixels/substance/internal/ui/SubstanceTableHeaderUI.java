@@ -42,6 +42,7 @@ import org.pushingpixels.substance.internal.animation.StateTransitionMultiTracke
 import org.pushingpixels.substance.internal.animation.StateTransitionTracker;
 import org.pushingpixels.substance.internal.painter.DecorationPainterUtils;
 import org.pushingpixels.substance.internal.painter.HighlightPainterUtils;
+import org.pushingpixels.substance.internal.utils.FlightRecorderEvents;
 import org.pushingpixels.substance.internal.utils.SubstanceColorSchemeUtilities;
 import org.pushingpixels.substance.internal.utils.SubstanceCoreUtilities;
 import org.pushingpixels.substance.internal.utils.SubstanceSizeUtils;
@@ -50,9 +51,13 @@ import org.pushingpixels.trident.api.Timeline.TimelineState;
 import org.pushingpixels.trident.api.swing.EventDispatchThreadTimelineCallbackAdapter;
 
 import javax.swing.*;
+import javax.swing.event.ChangeEvent;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
+import javax.swing.event.TableColumnModelEvent;
+import javax.swing.event.TableColumnModelListener;
 import javax.swing.plaf.ComponentUI;
+import javax.swing.plaf.TableHeaderUI;
 import javax.swing.plaf.TableUI;
 import javax.swing.plaf.UIResource;
 import javax.swing.plaf.basic.BasicTableHeaderUI;
@@ -63,7 +68,7 @@ import javax.swing.table.TableColumnModel;
 import java.awt.*;
 import java.awt.geom.Line2D;
 import java.beans.PropertyChangeListener;
-import java.util.HashMap;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -85,9 +90,30 @@ public class SubstanceTableHeaderUI extends BasicTableHeaderUI {
     private TableCellRenderer defaultHeaderRenderer;
 
     /**
-     * Holds the list of currently selected indices.
+     * Holds the currently selected column indices. Is updated from the ranges of the
+     * selection events while the selection is animated.
      */
-    private Map<Integer, Object> selectedIndices;
+    private BitSet selectedColumns;
+
+    /**
+     * Indicates that {@link #selectedColumns} needs to be resynced with the selection model.
+     * Is set when the selection changes without being tracked, and on structural changes of
+     * the column model.
+     */
+    private boolean selectedColumnsOutOfSync;
+
+    /**
+     * Cached left-to-right offsets of the columns. The entry at index <code>i</code> is the
+     * combined width of all the columns before the column <code>i</code>, and the last entry
+     * is the combined width of all the columns. Is <code>null</code> when it needs to be
+     * recomputed.
+     */
+    private int[] columnOffsets;
+
+    /**
+     * Resets the cached column offsets on changes to the column model.
+     */
+    private TableColumnModelListener substanceColumnModelListener;
 
     /**
      * Listener for transition animations on list selections.
@@ -127,7 +153,7 @@ public class SubstanceTableHeaderUI extends BasicTableHeaderUI {
             if (ui.header == null)
                 return;
             if (ui.header.isValid())
-                ui.header.repaint();
+                ui.repaintColumns(e.getFirstIndex(), e.getLastIndex());
         }
     }
 
@@ -141,7 +167,7 @@ public class SubstanceTableHeaderUI extends BasicTableHeaderUI {
      */
     private SubstanceTableHeaderUI() {
         this.stateTransitionMultiTracker = new StateTransitionMultiTracker<>();
-        selectedIndices = new HashMap<>();
+        selectedColumns = new BitSet();
     }
 
     @Override
@@ -162,18 +188,24 @@ public class SubstanceTableHeaderUI extends BasicTableHeaderUI {
             if (header == null)
                 return;
 
-            if (!columnModel.getColumnSelectionAllowed())
+            TableColumnModel currColumnModel = header.getColumnModel();
+            if (!currColumnModel.getColumnSelectionAllowed()) {
+                selectedColumnsOutOfSync = true;
                 return;
+            }
 
             // fix for issue 367 - check that there is an associated
             // table and that it has a substance UI delegate
             JTable table = header.getTable();
-            if (table == null)
+            if (table == null) {
+                selectedColumnsOutOfSync = true;
                 return;
+            }
 
             TableUI ui = table.getUI();
             if (!(ui instanceof SubstanceTableUI)) {
                 stateTransitionMultiTracker.clear();
+                selectedColumnsOutOfSync = true;
                 return;
             }
 
@@ -181,66 +213,59 @@ public class SubstanceTableHeaderUI extends BasicTableHeaderUI {
             // and syncing the fade presence with the table
             // (issue 309)
             SubstanceTableUI tableUI = (SubstanceTableUI) ui;
-            // System.out.println("Sel anim: "
-            // + tableUI.hasSelectionAnimations());
             if (!tableUI._hasSelectionAnimations()) {
                 stateTransitionMultiTracker.clear();
+                selectedColumnsOutOfSync = true;
+                return;
+            }
+
+            if (selectedColumnsOutOfSync) {
+                // The previous selection is not known, so there is nothing to animate
+                syncSelectedColumns(currColumnModel);
                 return;
             }
 
-            // Set<Long> initiatedFadeSequences = new HashSet<Long>();
+            // Only start the transitions on the columns that are currently visible.
+            // The rest only need their selection state to be updated. Selection shifts
+            // while a column is dragged are not animated at all.
+            int firstAnimated = -1;
+            int lastAnimated = -1;
+            Rectangle visible = header.getVisibleRect();
+            if ((header.getDraggedColumn() == null) && !visible.isEmpty()) {
+                int[] visibleColumns = getColumnRange(visible.x, visible.x + visible.width - 1);
+                if (visibleColumns != null) {
+                    firstAnimated = visibleColumns[0];
+                    lastAnimated = visibleColumns[1];
+                }
+            }
+
             Set<StateTransitionTracker> initiatedTrackers = new HashSet<>();
             boolean fadeCanceled = false;
 
-            // FadeTracker fadeTrackerInstance = FadeTracker.getInstance();
-            int size = columnModel.getColumnCount();
-            ListSelectionModel lsm = columnModel.getSelectionModel();
-            for (int i = listSelectionEvent.getFirstIndex(); i <= listSelectionEvent.getLastIndex(); i++) {
-                if (i >= size)
+            ListSelectionModel lsm = currColumnModel.getSelectionModel();
+            int first = Math.max(0, listSelectionEvent.getFirstIndex());
+            int last = Math.min(currColumnModel.getColumnCount() - 1,
+                    listSelectionEvent.getLastIndex());
+            for (int i = first; i <= last; i++) {
+                boolean isSelected = lsm.isSelectedIndex(i);
+                if (isSelected == selectedColumns.get(i)) {
                     continue;
-                if (lsm.isSelectedIndex(i)) {
-                    // check if was selected before
-                    if (!selectedIndices.containsKey(i)) {
-                        // start fading in
-                        // System.out.println("Fade in on index " + i);
-
-                        if (!fadeCanceled) {
-                            StateTransitionTracker tracker = getTracker(i,
-                                    getColumnState(i).isFacetActive(ComponentStateFacet.ROLLOVER),
-                                    false);
-                            tracker.getModel().setSelected(true);
-                            initiatedTrackers.add(tracker);
-                            if (initiatedTrackers.size() > 15) {
-                                stateTransitionMultiTracker.clear();
-                                initiatedTrackers.clear();
-                                fadeCanceled = true;
-                            }
-                        }
+                }
+                selectedColumns.set(i, isSelected);
 
-                        selectedIndices.put(i, columnModel.getColumn(i));
-                    }
-                } else {
-                    // check if was selected before and still points to the
-                    // same element
-                    if (selectedIndices.containsKey(i)) {
-                        if (selectedIndices.get(i) == columnModel.getColumn(i)) {
-                            // start fading out
-                            // System.out.println("Fade out on index " + i);
-
-                            if (!fadeCanceled) {
-                                StateTransitionTracker tracker = getTracker(i, getColumnState(i)
-                                        .isFacetActive(ComponentStateFacet.ROLLOVER), true);
-                                tracker.getModel().setSelected(false);
-                                initiatedTrackers.add(tracker);
-                                if (initiatedTrackers.size() > 15) {
-                                    stateTransitionMultiTracker.clear();
-                                    initiatedTrackers.clear();
-                                    fadeCanceled = true;
-                                }
-                            }
-                        }
-                        selectedIndices.remove(i);
-                    }
+                if (fadeCanceled || (i < firstAnimated) || (i > lastAnimated)) {
+                    continue;
+                }
+                // start fading in or out
+                StateTransitionTracker tracker = getTracker(i,
+                        getColumnState(i).isFacetActive(ComponentStateFacet.ROLLOVER),
+                        !isSelected);
+                tracker.getModel().setSelected(isSelected);
+                initiatedTrackers.add(tracker);
+                if (initiatedTrackers.size() > 15) {
+                    stateTransitionMultiTracker.clear();
+                    initiatedTrackers.clear();
+                    fadeCanceled = true;
                 }
             }
         };
@@ -252,6 +277,43 @@ public class SubstanceTableHeaderUI extends BasicTableHeaderUI {
             }
         }
 
+        this.substanceColumnModelListener = new TableColumnModelListener() {
+            @Override
+            public void columnAdded(TableColumnModelEvent e) {
+                columnOffsets = null;
+                selectedColumnsOutOfSync = true;
+            }
+
+            @Override
+            public void columnRemoved(TableColumnModelEvent e) {
+                columnOffsets = null;
+                selectedColumnsOutOfSync = true;
+            }
+
+            @Override
+            public void columnMoved(TableColumnModelEvent e) {
+                // Dragging a column fires this event on every mouse drag, even
+                // when the column has not moved yet
+                if (e.getFromIndex() != e.getToIndex()) {
+                    columnOffsets = null;
+                    selectedColumnsOutOfSync = true;
+                }
+            }
+
+            @Override
+            public void columnMarginChanged(ChangeEvent e) {
+                // Also fired on changes to column widths
+                columnOffsets = null;
+            }
+
+            @Override
+            public void columnSelectionChanged(ListSelectionEvent e) {
+            }
+        };
+        if (columnModel != null) {
+            columnModel.addColumnModelListener(this.substanceColumnModelListener);
+        }
+
         this.substancePropertyChangeListener = propertyChangeEvent -> {
             if ("table".equals(propertyChangeEvent.getPropertyName())) {
                 // track changes to the table and re-register the
@@ -264,6 +326,12 @@ public class SubstanceTableHeaderUI extends BasicTableHeaderUI {
                         : null;
                 processColumnModelChangeEvent(oldModel, newModel);
             }
+            if ("columnModel".equals(propertyChangeEvent.getPropertyName())) {
+                // move the listeners from the old column model to the new one
+                processColumnModelChangeEvent(
+                        (TableColumnModel) propertyChangeEvent.getOldValue(),
+                        (TableColumnModel) propertyChangeEvent.getNewValue());
+            }
         };
         this.header.addPropertyChangeListener(this.substancePropertyChangeListener);
     }
@@ -277,11 +345,7 @@ public class SubstanceTableHeaderUI extends BasicTableHeaderUI {
             header.setDefaultRenderer(new SubstanceDefaultTableHeaderCellRenderer());
         }
 
-        for (int i = 0; i < header.getColumnModel().getColumnCount(); i++) {
-            if (header.getColumnModel().getSelectionModel().isSelectedIndex(i)) {
-                selectedIndices.put(i, header.getColumnModel().getColumn(i));
-            }
-        }
+        selectedColumnsOutOfSync = true;
     }
 
     @Override
@@ -293,8 +357,12 @@ public class SubstanceTableHeaderUI extends BasicTableHeaderUI {
             if (lsm != null) {
                 lsm.removeListSelectionListener(substanceHeaderListener);
                 substanceHeaderListener = null;
+                lsm.removeListSelectionListener(substanceFadeSelectionListener);
+                substanceFadeSelectionListener = null;
             }
+            columnModel.removeColumnModelListener(substanceColumnModelListener);
         }
+        substanceColumnModelListener = null;
 
         this.header.removePropertyChangeListener(this.substancePropertyChangeListener);
         this.substancePropertyChangeListener = null;
@@ -306,7 +374,8 @@ public class SubstanceTableHeaderUI extends BasicTableHeaderUI {
     protected void uninstallDefaults() {
         super.uninstallDefaults();
 
-        selectedIndices.clear();
+        selectedColumns.clear();
+        columnOffsets = null;
 
         if (header.getDefaultRenderer() instanceof SubstanceDefaultTableHeaderCellRenderer) {
             header.setDefaultRenderer(defaultHeaderRenderer);
@@ -323,51 +392,24 @@ public class SubstanceTableHeaderUI extends BasicTableHeaderUI {
         boolean ltr = header.getComponentOrientation().isLeftToRight();
 
         Rectangle clip = g.getClipBounds();
-        Point left = clip.getLocation();
-        Point right = new Point(clip.x + clip.width - 1, clip.y);
-
         TableColumnModel cm = header.getColumnModel();
-        int[] selectedColumns = cm.getSelectedColumns();
-        Set<Integer> selected = new HashSet<>();
-        for (int sel : selectedColumns)
-            selected.add(sel);
-
-        int cMin = header.columnAtPoint(ltr ? left : right);
-        int cMax = header.columnAtPoint(ltr ? right : left);
-        // This should never happen.
-        if (cMin == -1) {
-            cMin = 0;
-        }
-        // If the table does not have enough columns to fill the view we'll get
-        // -1.
-        // Replace this with the index of the last column.
-        if (cMax == -1) {
-            cMax = cm.getColumnCount() - 1;
-        }
+        ListSelectionModel lsm = cm.getSelectionModel();
 
         TableColumn draggedColumn = header.getDraggedColumn();
-        int columnWidth;
-        Rectangle cellRect = header.getHeaderRect(ltr ? cMin : cMax);
-        TableColumn aColumn;
-        if (ltr) {
-            for (int column = cMin; column <= cMax; column++) {
-                aColumn = cm.getColumn(column);
-                columnWidth = aColumn.getWidth();
-                cellRect.width = columnWidth;
-                if (aColumn != draggedColumn) {
-                    this.paintCell(g, cellRect, column, selected.contains(column));
-                }
-                cellRect.x += columnWidth;
-            }
-        } else {
-            for (int column = cMax; column >= cMin; column--) {
-                aColumn = cm.getColumn(column);
-                columnWidth = aColumn.getWidth();
-                cellRect.width = columnWidth;
-                if (aColumn != draggedColumn) {
-                    this.paintCell(g, cellRect, column, selected.contains(column));
+        // Only paint the columns that intersect the clip
+        int[] columnRange = getColumnRange(clip.x, clip.x + clip.width - 1);
+        if (columnRange != null) {
+            int cMin = columnRange[0];
+            int cMax = columnRange[1];
+            Rectangle cellRect = new Rectangle(0, 0, 0, header.getHeight());
+            for (int i = cMin; i <= cMax; i++) {
+                // Paint the columns from left to right
+                int column = ltr ? i : cMin + cMax - i;
+                setColumnBounds(cellRect, column);
+                if (cm.getColumn(column) != draggedColumn) {
+                    this.paintCell(g, cellRect, column,
+                            (lsm != null) && lsm.isSelectedIndex(column));
                 }
-                cellRect.x += columnWidth;
             }
         }
 
@@ -395,7 +437,7 @@ public class SubstanceTableHeaderUI extends BasicTableHeaderUI {
             // it will crash in ColumnModel.getColumn)
             if (draggedColumnIndex >= 0) {
                 this.paintCell(g, draggedCellRect, draggedColumnIndex,
-                        selected.contains(draggedColumnIndex));
+                        (lsm != null) && lsm.isSelectedIndex(draggedColumnIndex));
             }
         }
 
@@ -441,16 +483,7 @@ public class SubstanceTableHeaderUI extends BasicTableHeaderUI {
 
         TableColumnModel cm = header.getColumnModel();
 
-        int cMin = header.columnAtPoint(ltr ? left : right);
-        int cMax = header.columnAtPoint(ltr ? right : left);
-        // This should never happen.
-        if (cMin == -1) {
-            cMin = 0;
-        }
-
-        Rectangle cellRect0 = header.getHeaderRect(cMin);
-        // int top = cellRect0.y;
-        int bottom = cellRect0.y + cellRect0.height;
+        int bottom = header.getHeight();
 
         Color gridColor = getGridColor(this.header);
 
@@ -463,50 +496,32 @@ public class SubstanceTableHeaderUI extends BasicTableHeaderUI {
         float bottomLineY = bottom - strokeWidth / 2;
         g2d.draw(new Line2D.Float((float) left.getX(), bottomLineY, (float) right.getX(),
                 bottomLineY));
-        // If the table does not have enough columns to fill the view we'll
-        // get -1. Replace this with the index of the last column.
-        if (cMax == -1) {
-            cMax = cm.getColumnCount() - 1;
+
+        // Only paint the grid lines of the columns that intersect the clip
+        int[] columnRange = getColumnRange(left.x, right.x);
+        if (columnRange == null) {
+            g2d.dispose();
+            return;
         }
+        int cMin = columnRange[0];
+        int cMax = columnRange[1];
 
         TableColumn draggedColumn = this.header.getDraggedColumn();
-        int columnWidth;
-        Rectangle cellRect = this.header.getHeaderRect(ltr ? cMin : cMax);
-        TableColumn aColumn;
-        if (ltr) {
-            for (int column = cMin; column <= cMax; column++) {
-                aColumn = cm.getColumn(column);
-                columnWidth = aColumn.getWidth();
-                cellRect.width = columnWidth;
-
-                if (aColumn != draggedColumn) {
-                    if (hasLeadingVerticalGridLine(header, cellRect, column)) {
-                        g2d.drawLine(cellRect.x, cellRect.y, cellRect.x, bottom);
-                    }
-                    if (hasTrailingVerticalGridLine(header, cellRect, column)) {
-                        g2d.drawLine(cellRect.x + cellRect.width - 1, cellRect.y,
-                                cellRect.x + cellRect.width - 1, bottom);
-                    }
-                }
-
-                cellRect.x += columnWidth;
+        Rectangle cellRect = new Rectangle(0, 0, 0, bottom);
+        for (int i = cMin; i <= cMax; i++) {
+            // Paint the columns from left to right
+            int column = ltr ? i : cMin + cMax - i;
+            setColumnBounds(cellRect, column);
+            if (cm.getColumn(column) == draggedColumn) {
+                continue;
             }
-        } else {
-            for (int column = cMax; column >= cMin; column--) {
-                aColumn = cm.getColumn(column);
-                columnWidth = aColumn.getWidth();
-                cellRect.width = columnWidth;
-
-                if (aColumn != draggedColumn) {
-                    if (hasLeadingVerticalGridLine(header, cellRect, column)) {
-                        g2d.drawLine(cellRect.x + cellRect.width - 1, cellRect.y,
-                                cellRect.x + cellRect.width - 1, bottom);
-                    }
-                    if (hasTrailingVerticalGridLine(header, cellRect, column)) {
-                        g2d.drawLine(cellRect.x, cellRect.y, cellRect.x, bottom);
-                    }
-                }
-                cellRect.x += columnWidth;
+            int leadingX = ltr ? cellRect.x : cellRect.x + cellRect.width - 1;
+            int trailingX = ltr ? cellRect.x + cellRect.width - 1 : cellRect.x;
+            if (hasLeadingVerticalGridLine(header, cellRect, column)) {
+                g2d.drawLine(leadingX, cellRect.y, leadingX, bottom);
+            }
+            if (hasTrailingVerticalGridLine(header, cellRect, column)) {
+                g2d.drawLine(trailingX, cellRect.y, trailingX, bottom);
             }
         }
 
@@ -671,8 +686,161 @@ public class SubstanceTableHeaderUI extends BasicTableHeaderUI {
         return -1;
     }
 
+    /**
+     * Returns the cached left-to-right offsets of the columns, recomputing them if necessary.
+     * 
+     * @return Column offsets. The entry at index <code>i</code> is the combined width of all
+     *         the columns before the column <code>i</code>, and the last entry is the combined
+     *         width of all the columns.
+     */
+    private int[] getColumnOffsets() {
+        TableColumnModel cm = header.getColumnModel();
+        int columnCount = cm.getColumnCount();
+        if ((columnOffsets == null) || (columnOffsets.length != columnCount + 1)) {
+            int[] offsets = new int[columnCount + 1];
+            for (int i = 0; i < columnCount; i++) {
+                offsets[i + 1] = offsets[i] + cm.getColumn(i).getWidth();
+            }
+            columnOffsets = offsets;
+        }
+        return columnOffsets;
+    }
+
+    /**
+     * Returns the width that is used to lay out the columns under right-to-left orientation.
+     * This matches the logic in {@link JTableHeader#getHeaderRect(int)}.
+     * 
+     * @return The width that is used to lay out the columns under right-to-left orientation.
+     */
+    private int getWidthInRightToLeft() {
+        JTable table = header.getTable();
+        if ((table != null) && (table.getAutoResizeMode() != JTable.AUTO_RESIZE_OFF)) {
+            return table.getWidth();
+        }
+        return header.getWidth();
+    }
+
+    /**
+     * Returns the range of columns that intersect the specified horizontal span of the
+     * header.
+     * 
+     * @param x1
+     *            Left edge of the span, inclusive.
+     * @param x2
+     *            Right edge of the span, inclusive.
+     * @return Two-element array with the lowest and the highest view index of the columns
+     *         that intersect the span, or <code>null</code> if there are no such columns.
+     */
+    private int[] getColumnRange(int x1, int x2) {
+        int[] offsets = getColumnOffsets();
+        int columnCount = offsets.length - 1;
+        if (columnCount <= 0) {
+            return null;
+        }
+        if (!header.getComponentOrientation().isLeftToRight()) {
+            int width = getWidthInRightToLeft();
+            int mirrored = width - x2 - 1;
+            x2 = width - x1 - 1;
+            x1 = mirrored;
+        }
+        if ((x2 < 0) || (x1 >= offsets[columnCount]) || (x1 > x2)) {
+            return null;
+        }
+        return new int[] { getColumnIndexAt(offsets, x1), getColumnIndexAt(offsets, x2) };
+    }
+
+    /**
+     * Returns the view index of the column at the specified left-to-right offset. This
+     * matches the logic in {@link TableColumnModel#getColumnIndexAtX(int)}, with offsets
+     * before the first column mapping to the first column and offsets after the last column
+     * mapping to the last column.
+     * 
+     * @param offsets
+     *            Column offsets.
+     * @param x
+     *            Left-to-right offset.
+     * @return The view index of the column at the specified offset.
+     */
+    private static int getColumnIndexAt(int[] offsets, int x) {
+        // Find the first column that ends after x
+        int low = 0;
+        int high = offsets.length - 2;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (offsets[mid + 1] > x) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Sets the horizontal bounds of the specified rectangle to the bounds of the specified
+     * column header. This is the cached equivalent of {@link JTableHeader#getHeaderRect(int)}
+     * for valid column indices.
+     * 
+     * @param rect
+     *            Rectangle to update.
+     * @param column
+     *            Column view index.
+     */
+    private void setColumnBounds(Rectangle rect, int column) {
+        int[] offsets = getColumnOffsets();
+        rect.width = offsets[column + 1] - offsets[column];
+        rect.x = header.getComponentOrientation().isLeftToRight() ? offsets[column]
+                : getWidthInRightToLeft() - offsets[column + 1];
+    }
+
+    /**
+     * Repaints the headers of the specified range of columns.
+     * 
+     * @param firstColumn
+     *            The lowest view index of the columns to repaint.
+     * @param lastColumn
+     *            The highest view index of the columns to repaint.
+     */
+    private void repaintColumns(int firstColumn, int lastColumn) {
+        int columnCount = header.getColumnModel().getColumnCount();
+        firstColumn = Math.max(0, firstColumn);
+        lastColumn = Math.min(columnCount - 1, lastColumn);
+        if (firstColumn > lastColumn) {
+            return;
+        }
+        Rectangle first = new Rectangle(0, 0, 0, header.getHeight());
+        setColumnBounds(first, firstColumn);
+        Rectangle last = new Rectangle(0, 0, 0, header.getHeight());
+        setColumnBounds(last, lastColumn);
+        Rectangle damaged = first.union(last);
+        header.repaint(damaged.x - 5, damaged.y, damaged.width + 10, damaged.height);
+    }
+
+    /**
+     * Syncs the selected column indices with the selection model of the specified column
+     * model.
+     * 
+     * @param columnModel
+     *            Column model.
+     */
+    private void syncSelectedColumns(TableColumnModel columnModel) {
+        selectedColumns.clear();
+        selectedColumnsOutOfSync = false;
+        ListSelectionModel lsm = (columnModel == null) ? null : columnModel.getSelectionModel();
+        if ((lsm == null) || lsm.isSelectionEmpty()) {
+            return;
+        }
+        int last = Math.min(lsm.getMaxSelectionIndex(), columnModel.getColumnCount() - 1);
+        for (int i = lsm.getMinSelectionIndex(); i <= last; i++) {
+            if (lsm.isSelectedIndex(i)) {
+                selectedColumns.set(i);
+            }
+        }
+    }
+
     @Override
     public void update(Graphics g, JComponent c) {
+        Object paintEvent = FlightRecorderEvents.beginPaint();
         // fix for issue 175 - table header under resize mode off
         // was painted in color scheme-agnostic (gray) color.
         boolean isEnabled = this.header.isEnabled();
@@ -702,6 +870,7 @@ public class SubstanceTableHeaderUI extends BasicTableHeaderUI {
         NeonCortex.installDesktopHints(g2d, c.getFont());
         paint(g2d, c);
         g2d.dispose();
+        FlightRecorderEvents.endPaint(paintEvent, c, this);
     }
 
     @Override
@@ -749,8 +918,12 @@ public class SubstanceTableHeaderUI extends BasicTableHeaderUI {
                     isRollover = (rolledOverIndex >= 0) && (rolledOverIndex == columnIndex);
                     boolean hasSelectionAnimations = tableUI.hasSelectionAnimations();
                     if (hasSelectionAnimations && AnimationConfigurationManager.getInstance()
-                            .isAnimationAllowed(AnimationFacet.SELECTION, table))
-                        isSelected = this.selectedIndices.containsKey(columnIndex);
+                            .isAnimationAllowed(AnimationFacet.SELECTION, table)) {
+                        if (this.selectedColumnsOutOfSync) {
+                            syncSelectedColumns(columnModel);
+                        }
+                        isSelected = this.selectedColumns.get(columnIndex);
+                    }
                 }
             }
             return ComponentState.getState(toEnable, isRollover, isSelected);
@@ -855,11 +1028,18 @@ public class SubstanceTableHeaderUI extends BasicTableHeaderUI {
             TableColumnModel newModel) {
         if (oldModel != null) {
             oldModel.getSelectionModel().removeListSelectionListener(substanceFadeSelectionListener);
+            oldModel.removeColumnModelListener(substanceColumnModelListener);
         }
         if (newModel != null) {
+            // The new model may be the one the listeners were installed on
+            newModel.getSelectionModel().removeListSelectionListener(substanceFadeSelectionListener);
             newModel.getSelectionModel().addListSelectionListener(substanceFadeSelectionListener);
+            newModel.removeColumnModelListener(substanceColumnModelListener);
+            newModel.addColumnModelListener(substanceColumnModelListener);
         }
-        selectedIndices.clear();
+        selectedColumns.clear();
+        selectedColumnsOutOfSync = true;
+        columnOffsets = null;
         stateTransitionMultiTracker.clear();
     }
 
@@ -918,7 +1098,14 @@ public class SubstanceTableHeaderUI extends BasicTableHeaderUI {
                     if ((cellCount > 0) && (columnIndex < cellCount)) {
                         // need to retrieve the cell rectangle since the
                         // cells can be moved while animating
-                        Rectangle rect = header.getHeaderRect(columnIndex);
+                        Rectangle rect;
+                        TableHeaderUI ui = header.getUI();
+                        if (ui instanceof SubstanceTableHeaderUI) {
+                            rect = new Rectangle(0, 0, 0, header.getHeight());
+                            ((SubstanceTableHeaderUI) ui).setColumnBounds(rect, columnIndex);
+                        } else {
+                            rect = header.getHeaderRect(columnIndex);
+                        }
                         Rectangle damaged = new Rectangle(rect.x - 5, rect.y, rect.width + 10,
                                 rect.height);
                         header.repaint(damaged);
@@ -40,6 +40,7 @@ import org.pushingpixels.substance.api.colorscheme.SubstanceColorScheme;
 import org.pushingpixels.substance.api.renderer.SubstanceDefaultTableCellRenderer;
 import org.pushingpixels.substance.api.renderer.SubstanceDefaultTableHeaderCellRenderer;
 import org.pushingpixels.substance.internal.AnimationConfigurationManager;
+import org.pushingpixels.substance.internal.animation.CellStateTransitionStore;
 import org.pushingpixels.substance.internal.animation.StateTransitionMultiTracker;
 import org.pushingpixels.substance.internal.animation.StateTransitionTracker;
 import org.pushingpixels.substance.internal.painter.BackgroundPaintingUtils;
@@ -48,6 +49,7 @@ import org.pushingpixels.substance.internal.painter.HighlightPainterUtils;
 import org.pushingpixels.substance.internal.utils.*;
 import org.pushingpixels.trident.api.Timeline.TimelineState;
 import org.pushingpixels.trident.api.swing.EventDispatchThreadTimelineCallbackAdapter;
+import org.pushingpixels.trident.api.swing.SwingRepaintAggregator;
 
 import javax.swing.*;
 import javax.swing.RowSorter.SortKey;
@@ -117,7 +119,16 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
 
     private FocusListener substanceFocusListener;
 
-    private StateTransitionMultiTracker<TableCellId> stateTransitionMultiTracker;
+    /**
+     * Rollover, selection and enabled transitions of the animating cells of this table.
+     */
+    private CellStateTransitionStore cellTransitionStore;
+
+    /**
+     * Focus transitions of the cells of this table. Only the cells that gain or lose the focus
+     * are tracked here.
+     */
+    private StateTransitionMultiTracker<TableCellId> focusTransitionMultiTracker;
 
     /**
      * Cell renderer insets. Is computed in {@link #installDefaults()} and reused in
@@ -128,6 +139,16 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
      */
     private Insets cellRendererInsets;
 
+    /**
+     * Merges the repaints of all the animating cells, rows and columns of this table.
+     */
+    private AnimationRepaintCollector animationRepaintCollector;
+
+    /**
+     * Per-pass state of {@link #paintCells(Graphics, int, int, int, int)}.
+     */
+    private final CellPaintPass cellPaintPass = new CellPaintPass();
+
     public static ComponentUI createUI(JComponent comp) {
         SubstanceCoreUtilities.testComponentCreationThreadingViolation(comp);
         return new SubstanceTableUI();
@@ -140,9 +161,10 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
         super();
         this.selectedIndices = new HashMap<>();
         this.rolledOverIndices = new HashSet<>();
-        this.stateTransitionMultiTracker = new StateTransitionMultiTracker<>();
+        this.focusTransitionMultiTracker = new StateTransitionMultiTracker<>();
         this.rolledOverColumn = -1;
         this.rolledOverRow = -1;
+        this.animationRepaintCollector = new AnimationRepaintCollector();
 
         this.cellId = new TableCellId(-1, -1);
     }
@@ -178,6 +200,11 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
     protected void installDefaults() {
         super.installDefaults();
 
+        this.cellTransitionStore = new CellStateTransitionStore(this.table,
+                cellKey -> this.animationRepaintCollector.addCell(
+                        CellStateTransitionStore.getRow(cellKey),
+                        CellStateTransitionStore.getColumn(cellKey)));
+
         // fix for defect 117 - need to restore default table cell
         // renderers when Substance is unset
         this.defaultRenderers = new HashMap<>();
@@ -323,6 +350,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
         }
 
         this.selectedIndices.clear();
+        this.clearTransitions();
         // this.table.putClientProperty(SubstanceTableUI.SELECTED_INDICES,
         // null);
 
@@ -384,7 +412,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                 // fix for defect 291 - track changes to the table.
                 table.getModel().addTableModelListener(substanceTableStateListener);
                 selectedIndices.clear();
-                stateTransitionMultiTracker.clear();
+                clearTransitions();
                 SubstanceTableUI.this.syncSelection(true);
             }
 
@@ -397,7 +425,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                 table.getColumnModel().getSelectionModel()
                         .addListSelectionListener(substanceTableStateListener);
                 selectedIndices.clear();
-                stateTransitionMultiTracker.clear();
+                clearTransitions();
                 SubstanceTableUI.this.syncSelection(true);
 
                 JTableHeader tableHeader = table.getTableHeader();
@@ -421,7 +449,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                 }
                 table.getSelectionModel().addListSelectionListener(substanceTableStateListener);
                 selectedIndices.clear();
-                stateTransitionMultiTracker.clear();
+                clearTransitions();
                 SubstanceTableUI.this.syncSelection(true);
             }
 
@@ -437,7 +465,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                     newSorter.addRowSorterListener(substanceTableStateListener);
                 }
                 selectedIndices.clear();
-                stateTransitionMultiTracker.clear();
+                clearTransitions();
                 SubstanceTableUI.this.syncSelection(true);
             }
 
@@ -535,11 +563,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                 if (focusedCellId == null)
                     return;
 
-                ComponentState cellState = getCellState(focusedCellId);
-                StateTransitionTracker tracker = getTracker(focusedCellId,
-                        cellState.isFacetActive(ComponentStateFacet.ROLLOVER),
-                        cellState.isFacetActive(ComponentStateFacet.SELECTION));
-                tracker.setFocusState(false);
+                getFocusTracker(focusedCellId).setFocusState(false);
 
                 focusedCellId = null;
             }
@@ -552,11 +576,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                     TableCellId toFocus = new TableCellId(rowLead, colLead);
                     if (toFocus.equals(focusedCellId))
                         return;
-                    ComponentState cellState = getCellState(toFocus);
-                    StateTransitionTracker tracker = getTracker(toFocus,
-                            cellState.isFacetActive(ComponentStateFacet.ROLLOVER),
-                            cellState.isFacetActive(ComponentStateFacet.SELECTION));
-                    tracker.setFocusState(true);
+                    getFocusTracker(toFocus).setFocusState(true);
 
                     focusedCellId = toFocus;
                 }
@@ -773,52 +793,57 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
         Rectangle highlightCellRect;
         TableColumn aColumn;
         int columnWidth;
-        if (this.table.getComponentOrientation().isLeftToRight()) {
-            for (int row = rMin; row <= rMax; row++) {
-                cellRect = this.table.getCellRect(row, cMin, false);
-
-                highlightCellRect = new Rectangle(cellRect);
-                highlightCellRect.y -= rowMargin / 2;
-                highlightCellRect.height += rowMargin;
-
-                for (int column = cMin; column <= cMax; column++) {
-                    aColumn = cm.getColumn(column);
-                    columnWidth = aColumn.getWidth();
-
-                    cellRect.width = columnWidth - columnMargin;
-                    highlightCellRect.x = cellRect.x - columnMargin / 2;
-                    highlightCellRect.width = columnWidth;
-                    if (!hasTrailingVerticalGridLine(cm, column)) {
-                        cellRect.width++;
-                        highlightCellRect.width++;
-                    }
+        this.cellPaintPass.begin(g);
+        try {
+            if (this.table.getComponentOrientation().isLeftToRight()) {
+                for (int row = rMin; row <= rMax; row++) {
+                    cellRect = this.table.getCellRect(row, cMin, false);
+
+                    highlightCellRect = new Rectangle(cellRect);
+                    highlightCellRect.y -= rowMargin / 2;
+                    highlightCellRect.height += rowMargin;
+
+                    for (int column = cMin; column <= cMax; column++) {
+                        aColumn = cm.getColumn(column);
+                        columnWidth = aColumn.getWidth();
+
+                        cellRect.width = columnWidth - columnMargin;
+                        highlightCellRect.x = cellRect.x - columnMargin / 2;
+                        highlightCellRect.width = columnWidth;
+                        if (!hasTrailingVerticalGridLine(cm, column)) {
+                            cellRect.width++;
+                            highlightCellRect.width++;
+                        }
 
-                    if (aColumn != draggedColumn) {
-                        this.paintCell(g, cellRect, highlightCellRect, row, column);
+                        if (aColumn != draggedColumn) {
+                            this.paintCell(g, cellRect, highlightCellRect, row, column);
+                        }
+                        cellRect.x += columnWidth;
                     }
-                    cellRect.x += columnWidth;
                 }
-            }
-        } else {
-            for (int row = rMin; row <= rMax; row++) {
-                cellRect = this.table.getCellRect(row, cMin, false);
-                highlightCellRect = new Rectangle(cellRect);
-                highlightCellRect.y -= rowMargin / 2;
-                highlightCellRect.height += rowMargin;
-
-                for (int column = cMin; column <= cMax; column++) {
-                    aColumn = cm.getColumn(column);
-                    columnWidth = aColumn.getWidth();
-                    cellRect.width = columnWidth - columnMargin;
-
-                    highlightCellRect.x = cellRect.x - columnMargin / 2;
-                    highlightCellRect.width = columnWidth;
-                    if (aColumn != draggedColumn) {
-                        this.paintCell(g, cellRect, highlightCellRect, row, column);
+            } else {
+                for (int row = rMin; row <= rMax; row++) {
+                    cellRect = this.table.getCellRect(row, cMin, false);
+                    highlightCellRect = new Rectangle(cellRect);
+                    highlightCellRect.y -= rowMargin / 2;
+                    highlightCellRect.height += rowMargin;
+
+                    for (int column = cMin; column <= cMax; column++) {
+                        aColumn = cm.getColumn(column);
+                        columnWidth = aColumn.getWidth();
+                        cellRect.width = columnWidth - columnMargin;
+
+                        highlightCellRect.x = cellRect.x - columnMargin / 2;
+                        highlightCellRect.width = columnWidth;
+                        if (aColumn != draggedColumn) {
+                            this.paintCell(g, cellRect, highlightCellRect, row, column);
+                        }
+                        cellRect.x -= columnWidth;
                     }
-                    cellRect.x -= columnWidth;
                 }
             }
+        } finally {
+            this.cellPaintPass.end();
         }
 
         // Paint the dragged column if we are dragging.
@@ -897,9 +922,28 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
     protected void paintCell(Graphics g, Rectangle cellRect, Rectangle highlightCellRect, int row,
             int column) {
         // System.out.println("Painting " + row + ":" + column);
+        CellPaintPass pass = this.cellPaintPass;
+        boolean isTransientPass = (pass.source != g);
+        if (isTransientPass) {
+            // Called outside of paintCells (for example, for the dragged column)
+            pass = new CellPaintPass();
+            pass.begin(g);
+        }
+        try {
+            this.paintCell(pass, cellRect, highlightCellRect, row, column);
+        } finally {
+            if (isTransientPass) {
+                pass.end();
+            }
+        }
+    }
+
+    private void paintCell(CellPaintPass pass, Rectangle cellRect, Rectangle highlightCellRect,
+            int row, int column) {
+        Graphics g = pass.source;
+        boolean isEditingCell = (row == pass.editingRow) && (column == pass.editingColumn);
         Component rendererComponent = null;
-        if (!this.table.isEditing() || this.table.getEditingRow() != row
-                || this.table.getEditingColumn() != column) {
+        if (!isEditingCell) {
             TableCellRenderer renderer = this.table.getCellRenderer(row, column);
             boolean isSubstanceRenderer = isSubstanceDefaultRenderer(renderer);
             rendererComponent = this.table.prepareRenderer(renderer, row, column);
@@ -916,17 +960,12 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
             }
         }
 
-        Graphics2D g2d = (Graphics2D) g.create();
-        // fix for issue 183 - passing the original Graphics context
-        // to compute the alpha composite. If the table is in a JXPanel
-        // (component from SwingX) and it has custom alpha value set,
-        // then the original graphics context will have a SRC_OVER
-        // alpha composite applied to it.
-        g2d.setComposite(WidgetUtilities.getAlphaComposite(this.table, g));
-
-        TableCellId cellId = new TableCellId(row, column);
+        Graphics2D g2d = pass.graphics;
+        g2d.setComposite(pass.baseComposite);
 
-        StateTransitionTracker.ModelStateInfo modelStateInfo = this.getModelStateInfo(cellId);
+        StateTransitionTracker.ModelStateInfo modelStateInfo = pass.hasTrackers
+                ? this.getModelStateInfo(row, column)
+                : null;
         Map<ComponentState, StateTransitionTracker.StateContributionInfo> activeStates = ((modelStateInfo == null)
                 ? null
                 : modelStateInfo.getStateContributionMap());
@@ -936,9 +975,9 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
         if (!updateInfo.hasRolloverAnimations && !updateInfo.hasSelectionAnimations) {
             activeStates = null;
             boolean isRollover = false;
-            if (table.getRowSelectionAllowed()) {
+            if (pass.isRowSelectionAllowed) {
                 isRollover = (row == rolledOverRow);
-                if (table.getColumnSelectionAllowed()) {
+                if (pass.isColumnSelectionAllowed) {
                     isRollover = isRollover && (column == rolledOverColumn);
                 }
             } else {
@@ -949,7 +988,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                     ? (isSelected ? ComponentState.ROLLOVER_SELECTED : ComponentState.ROLLOVER_UNSELECTED)
                     : (isSelected ? ComponentState.SELECTED : ComponentState.ENABLED);
         } else {
-            currState = ((modelStateInfo == null) ? this.getCellState(cellId)
+            currState = ((modelStateInfo == null) ? this.getCellState(pass, row, column)
                     : modelStateInfo.getCurrModelState());
         }
 
@@ -967,46 +1006,24 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
         }
 
         Set<SubstanceSlices.Side> highlightOpenSides = null;
-        float highlightBorderAlpha = 0.0f;
+        float highlightBorderAlpha = pass.highlightBorderAlpha;
 
         if (hasHighlights) {
             // compute the highlight visuals, but only if there are
-            // highlights on this cell (optimization)
-            highlightOpenSides = EnumSet.noneOf(Side.class);
-            // show highlight border only when the table grid is not shown
-            highlightBorderAlpha = (table.getShowHorizontalLines() || table.getShowVerticalLines())
-                    ? 0.0f
-                    : 0.8f;
-            if (!table.getColumnSelectionAllowed() && table.getRowSelectionAllowed()) {
-                // if row selection is on and column selection is off, we
-                // will show the highlight for the entire row
-
-                // all cells have open left side
-                highlightOpenSides.add(SubstanceSlices.Side.LEFT);
-                // all cells have open right side
-                highlightOpenSides.add(SubstanceSlices.Side.RIGHT);
-            }
-            if (table.getColumnSelectionAllowed() && !table.getRowSelectionAllowed()) {
-                // if row selection is off and column selection is on, we
-                // will show the highlight for the entire column
-
-                // the top side is open for all rows except the
-                // first, or when the table header is visible
-                highlightOpenSides.add(SubstanceSlices.Side.TOP);
-                // all cells but the last have open bottom side
-                highlightOpenSides.add(SubstanceSlices.Side.BOTTOM);
-            }
+            // highlights on this cell (optimization). The row / column selection
+            // dependent open sides are the same for all the cells in this pass.
+            highlightOpenSides = pass.highlightOpenSides;
+            highlightOpenSides.clear();
+            highlightOpenSides.addAll(pass.baseOpenSides);
             if (row > 1) {
-                ComponentState upperNeighbourState = this
-                        .getCellState(new TableCellId(row - 1, column));
+                ComponentState upperNeighbourState = this.getCellState(pass, row - 1, column);
                 if (currState == upperNeighbourState) {
                     // the cell above it is in the same state
                     highlightOpenSides.add(SubstanceSlices.Side.TOP);
                 }
             }
             if (column > 1) {
-                ComponentState leftNeighbourState = this
-                        .getCellState(new TableCellId(row, column - 1));
+                ComponentState leftNeighbourState = this.getCellState(pass, row, column - 1);
                 if (currState == leftNeighbourState) {
                     // the cell to the left is in the same state
                     highlightOpenSides.add(SubstanceSlices.Side.LEFT);
@@ -1015,22 +1032,23 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
             if (row == 0) {
                 highlightOpenSides.add(SubstanceSlices.Side.TOP);
             }
-            if (row == (table.getRowCount() - 1)) {
+            if (row == pass.lastRow) {
                 highlightOpenSides.add(SubstanceSlices.Side.BOTTOM);
             }
             if (column == 0) {
                 highlightOpenSides.add(SubstanceSlices.Side.LEFT);
             }
-            if (column == (table.getColumnCount() - 1)) {
+            if (column == pass.lastColumn) {
                 highlightOpenSides.add(SubstanceSlices.Side.RIGHT);
             }
         }
 
-        boolean isRollover = this.rolledOverIndices.contains(cellId);
-        if (this.table.isEditing() && this.table.getEditingRow() == row
-                && this.table.getEditingColumn() == column) {
+        boolean isRollover = !this.rolledOverIndices.isEmpty()
+                && this.rolledOverIndices.contains(cellId);
+        Rectangle highlightRect = pass.highlightRect;
+        if (isEditingCell) {
             Component component = this.table.getEditorComponent();
-            component.applyComponentOrientation(this.table.getComponentOrientation());
+            component.applyComponentOrientation(pass.orientation);
 
             if (hasHighlights) {
                 float extra = SubstanceSizeUtils.getBorderStrokeWidth();
@@ -1038,7 +1056,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                         : extra;
                 float extraHeight = highlightOpenSides.contains(SubstanceSlices.Side.TOP) ? 0.0f
                         : extra;
-                Rectangle highlightRect = new Rectangle(highlightCellRect.x - (int) extraWidth,
+                highlightRect.setBounds(highlightCellRect.x - (int) extraWidth,
                         highlightCellRect.y - (int) extraHeight,
                         highlightCellRect.width + (int) extraWidth,
                         highlightCellRect.height + (int) extraHeight);
@@ -1053,7 +1071,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                         HighlightPainterUtils.paintHighlight(g2d, this.rendererPane, component,
                                 highlightRect, highlightBorderAlpha, highlightOpenSides, fillScheme,
                                 borderScheme);
-                        g2d.setComposite(WidgetUtilities.getAlphaComposite(this.table, g));
+                        g2d.setComposite(pass.baseComposite);
                     }
                 } else {
                     for (Map.Entry<ComponentState, StateTransitionTracker.StateContributionInfo> stateEntry : activeStates
@@ -1071,7 +1089,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                         HighlightPainterUtils.paintHighlight(g2d, this.rendererPane, component,
                                 highlightRect, highlightBorderAlpha, highlightOpenSides, fillScheme,
                                 borderScheme);
-                        g2d.setComposite(WidgetUtilities.getAlphaComposite(this.table, g));
+                        g2d.setComposite(pass.baseComposite);
                     }
                 }
             }
@@ -1083,7 +1101,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                 Color background = rendererComponent.getBackground();
                 // optimization - only render background if it's different
                 // from the table background
-                if ((background != null) && (!table.getBackground().equals(background)
+                if ((background != null) && (!pass.tableBackground.equals(background)
                         || this.updateInfo.isInDecorationArea)) {
                     // fill with the renderer background color
                     g2d.setColor(background);
@@ -1093,7 +1111,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
             }
 
             if (hasHighlights) {
-                JTable.DropLocation dropLocation = table.getDropLocation();
+                JTable.DropLocation dropLocation = pass.dropLocation;
                 if (dropLocation != null && !dropLocation.isInsertRow()
                         && !dropLocation.isInsertColumn() && dropLocation.getRow() == row
                         && dropLocation.getColumn() == column) {
@@ -1104,19 +1122,19 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                             .getColorScheme(table, ColorSchemeAssociationKind.HIGHLIGHT_BORDER,
                                     currState);
                     float extra = SubstanceSizeUtils.getBorderStrokeWidth();
+                    highlightRect.setBounds(highlightCellRect.x - (int) extra,
+                            highlightCellRect.y - (int) extra,
+                            highlightCellRect.width + (int) extra,
+                            highlightCellRect.height + (int) extra);
                     HighlightPainterUtils.paintHighlight(g2d, this.rendererPane, rendererComponent,
-                            new Rectangle(highlightCellRect.x - (int) extra,
-                                    highlightCellRect.y - (int) extra,
-                                    highlightCellRect.width + (int) extra,
-                                    highlightCellRect.height + (int) extra),
-                            0.8f, null, scheme, borderScheme);
+                            highlightRect, 0.8f, null, scheme, borderScheme);
                 } else {
                     float extra = SubstanceSizeUtils.getBorderStrokeWidth();
                     float extraWidth = highlightOpenSides.contains(SubstanceSlices.Side.LEFT) ? 0.0f
                             : extra;
                     float extraHeight = highlightOpenSides.contains(SubstanceSlices.Side.TOP) ? 0.0f
                             : extra;
-                    Rectangle highlightRect = new Rectangle(highlightCellRect.x - (int) extraWidth,
+                    highlightRect.setBounds(highlightCellRect.x - (int) extraWidth,
                             highlightCellRect.y - (int) extraHeight,
                             highlightCellRect.width + (int) extraWidth,
                             highlightCellRect.height + (int) extraHeight);
@@ -1132,7 +1150,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                             HighlightPainterUtils.paintHighlight(g2d, this.rendererPane,
                                     rendererComponent, highlightRect, highlightBorderAlpha,
                                     highlightOpenSides, fillScheme, borderScheme);
-                            g2d.setComposite(WidgetUtilities.getAlphaComposite(this.table, g));
+                            g2d.setComposite(pass.baseComposite);
                         }
                     } else {
                         for (Map.Entry<ComponentState, StateTransitionTracker.StateContributionInfo> stateEntry : activeStates
@@ -1150,14 +1168,14 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                                 HighlightPainterUtils.paintHighlight(g2d, this.rendererPane,
                                         rendererComponent, highlightRect, highlightBorderAlpha,
                                         highlightOpenSides, fillScheme, borderScheme);
-                                g2d.setComposite(WidgetUtilities.getAlphaComposite(this.table, g));
+                                g2d.setComposite(pass.baseComposite);
                             }
                         }
                     }
                 }
             }
 
-            rendererComponent.applyComponentOrientation(this.table.getComponentOrientation());
+            rendererComponent.applyComponentOrientation(pass.orientation);
             if (rendererComponent instanceof JComponent) {
                 // Play with opacity to make our own gradient background
                 // on selected elements to show.
@@ -1174,19 +1192,127 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                         : this.table.isCellSelected(row, column);
                 boolean newOpaque = !(isSelected || isRollover || hasHighlights);
 
-                Map<Component, Boolean> opacity = new HashMap<>();
+                Map<Component, Boolean> opacity = pass.opacity;
                 if (!newOpaque)
                     SubstanceCoreUtilities.makeNonOpaque(jRenderer, opacity);
                 this.rendererPane.paintComponent(g2d, rendererComponent, this.table, cellRect.x,
                         cellRect.y, cellRect.width, cellRect.height, true);
-                if (!newOpaque)
+                if (!newOpaque) {
                     SubstanceCoreUtilities.restoreOpaque(jRenderer, opacity);
+                    opacity.clear();
+                }
             } else {
                 this.rendererPane.paintComponent(g2d, rendererComponent, this.table, cellRect.x,
                         cellRect.y, cellRect.width, cellRect.height, true);
             }
         }
-        g2d.dispose();
+    }
+
+    /**
+     * Returns the current state of the specified cell. This is the equivalent of
+     * {@link #getCellState(TableCellId)} that uses the values computed once per paint pass and
+     * does not allocate a cell ID.
+     */
+    private ComponentState getCellState(CellPaintPass pass, int row, int column) {
+        TableCellId neighbourId = pass.neighbourId;
+        neighbourId.row = row;
+        neighbourId.column = column;
+        if (pass.hasTrackers) {
+            return this.getCellState(neighbourId);
+        }
+        boolean isRollover = pass.hasRolloverAnimations ? rolledOverIndices.contains(neighbourId)
+                : (row == rolledOverRow);
+        boolean isSelected = pass.isSelectionTracked
+                ? this.selectedIndices.containsKey(neighbourId)
+                : this.table.isCellSelected(row, column);
+        return ComponentState.getState(pass.isEnabled, isRollover, isSelected);
+    }
+
+    /**
+     * Holds the values that are computed once per pass of
+     * {@link #paintCells(Graphics, int, int, int, int)} instead of once per painted cell, as
+     * well as the scratch objects that are reused for all the cells painted in the pass.
+     */
+    private class CellPaintPass {
+        private Graphics source;
+        private Graphics2D graphics;
+        private Composite baseComposite;
+
+        private boolean isEnabled;
+        private boolean isRowSelectionAllowed;
+        private boolean isColumnSelectionAllowed;
+        private boolean hasTrackers;
+        private boolean hasRolloverAnimations;
+        private boolean isSelectionTracked;
+        private float highlightBorderAlpha;
+        private int lastRow;
+        private int lastColumn;
+        private int editingRow;
+        private int editingColumn;
+        private Color tableBackground;
+        private ComponentOrientation orientation;
+        private JTable.DropLocation dropLocation;
+
+        private final Set<Side> baseOpenSides = EnumSet.noneOf(Side.class);
+        private final Set<Side> highlightOpenSides = EnumSet.noneOf(Side.class);
+        private final Rectangle highlightRect = new Rectangle();
+        private final Map<Component, Boolean> opacity = new HashMap<>();
+        private final TableCellId neighbourId = new TableCellId(-1, -1);
+
+        private void begin(Graphics g) {
+            this.source = g;
+            this.graphics = (Graphics2D) g.create();
+            // fix for issue 183 - passing the original Graphics context
+            // to compute the alpha composite. If the table is in a JXPanel
+            // (component from SwingX) and it has custom alpha value set,
+            // then the original graphics context will have a SRC_OVER
+            // alpha composite applied to it.
+            this.baseComposite = WidgetUtilities.getAlphaComposite(table, g);
+
+            this.isEnabled = table.isEnabled();
+            this.isRowSelectionAllowed = table.getRowSelectionAllowed();
+            this.isColumnSelectionAllowed = table.getColumnSelectionAllowed();
+            this.hasTrackers = (cellTransitionStore.size() > 0);
+            this.hasRolloverAnimations = _hasRolloverAnimations();
+            this.isSelectionTracked = updateInfo.hasSelectionAnimations
+                    && AnimationConfigurationManager.getInstance()
+                    .isAnimationAllowed(AnimationFacet.SELECTION, table);
+            // show highlight border only when the table grid is not shown
+            this.highlightBorderAlpha = (table.getShowHorizontalLines()
+                    || table.getShowVerticalLines()) ? 0.0f : 0.8f;
+            this.lastRow = table.getRowCount() - 1;
+            this.lastColumn = table.getColumnCount() - 1;
+            boolean isEditing = table.isEditing();
+            this.editingRow = isEditing ? table.getEditingRow() : -1;
+            this.editingColumn = isEditing ? table.getEditingColumn() : -1;
+            this.tableBackground = table.getBackground();
+            this.orientation = table.getComponentOrientation();
+            this.dropLocation = table.getDropLocation();
+
+            this.baseOpenSides.clear();
+            if (!this.isColumnSelectionAllowed && this.isRowSelectionAllowed) {
+                // if row selection is on and column selection is off, we
+                // will show the highlight for the entire row
+                this.baseOpenSides.add(Side.LEFT);
+                this.baseOpenSides.add(Side.RIGHT);
+            }
+            if (this.isColumnSelectionAllowed && !this.isRowSelectionAllowed) {
+                // if row selection is off and column selection is on, we
+                // will show the highlight for the entire column
+                this.baseOpenSides.add(Side.TOP);
+                this.baseOpenSides.add(Side.BOTTOM);
+            }
+        }
+
+        private void end() {
+            this.graphics.dispose();
+            this.graphics = null;
+            this.source = null;
+            this.baseComposite = null;
+            this.tableBackground = null;
+            this.dropLocation = null;
+            this.opacity.clear();
+        }
     }
 
     protected void paintDropLines(Graphics g) {
@@ -1366,24 +1492,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
          * Repaints the associated cell.
          */
         private void repaintCell() {
-            SwingUtilities.invokeLater(() -> {
-                if (SubstanceTableUI.this.table == null) {
-                    // may happen if the LAF was switched in the meantime
-                    return;
-                }
-                int rowCount = table.getRowCount();
-                int colCount = table.getColumnCount();
-                if ((rowCount > 0) && (rowIndex < rowCount) && (colCount > 0)
-                        && (columnIndex < colCount)) {
-                    // need to retrieve the cell rectangle since the cells
-                    // can be moved while animating
-                    Rectangle rect = getCellRectangleForRepaint(rowIndex, columnIndex);
-                    // System.out.println("Cell Repainting " + rowIndex +
-                    // ":"
-                    // + columnIndex + ":" + rect);
-                    CellRepaintCallback.this.table.repaint(rect);
-                }
-            });
+            animationRepaintCollector.addCell(this.rowIndex, this.columnIndex);
         }
     }
 
@@ -1430,31 +1539,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
          * Repaints the associated row.
          */
         private void repaintRow() {
-            SwingUtilities.invokeLater(() -> {
-                if (SubstanceTableUI.this.table == null) {
-                    // may happen if the LAF was switched in the meantime
-                    return;
-                }
-                int rowCount = RowRepaintCallback.this.table.getRowCount();
-                if ((rowCount > 0) && (RowRepaintCallback.this.rowIndex < rowCount)) {
-                    // need to retrieve the cell rectangle since the cells
-                    // can be moved while animating
-                    Rectangle rect = RowRepaintCallback.this.table
-                            .getCellRect(RowRepaintCallback.this.rowIndex, 0, true);
-                    for (int i = 1; i < RowRepaintCallback.this.table.getColumnCount(); i++) {
-                        rect = rect.union(RowRepaintCallback.this.table
-                                .getCellRect(RowRepaintCallback.this.rowIndex, i, true));
-                    }
-                    if (!table.getShowHorizontalLines() && !table.getShowVerticalLines()) {
-                        float extra = SubstanceSizeUtils.getBorderStrokeWidth();
-                        rect.y -= (int) extra;
-                        rect.height += 2 * (int) extra;
-                    }
-                    // System.out.println("Repainting row " + rowIndex
-                    // + " at " + rect);
-                    RowRepaintCallback.this.table.repaint(rect);
-                }
-            });
+            animationRepaintCollector.addRow(this.rowIndex);
         }
     }
 
@@ -1501,29 +1586,120 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
          * Repaints the associated row.
          */
         private void repaintColumn() {
-            SwingUtilities.invokeLater(() -> {
-                if (SubstanceTableUI.this.table == null) {
-                    // may happen if the LAF was switched in the meantime
-                    return;
-                }
-                int columnCount = ColumnRepaintCallback.this.table.getColumnCount();
-                if ((columnCount > 0) && (ColumnRepaintCallback.this.columnIndex < columnCount)) {
-                    // need to retrieve the cell rectangle since the cells
-                    // can be moved while animating
-                    Rectangle rect = ColumnRepaintCallback.this.table.getCellRect(0,
-                            ColumnRepaintCallback.this.columnIndex, true);
-                    for (int i = 1; i < ColumnRepaintCallback.this.table.getRowCount(); i++) {
-                        rect = rect.union(ColumnRepaintCallback.this.table.getCellRect(i,
-                                ColumnRepaintCallback.this.columnIndex, true));
-                    }
-                    if (!table.getShowHorizontalLines() && !table.getShowVerticalLines()) {
-                        float extra = SubstanceSizeUtils.getBorderStrokeWidth();
-                        rect.x -= (int) extra;
-                        rect.width += 2 * (int) extra;
-                    }
-                    ColumnRepaintCallback.this.table.repaint(rect);
-                }
-            });
+            animationRepaintCollector.addColumn(this.columnIndex);
+        }
+    }
+
+    /**
+     * Collects the cells, rows and columns that are repainted by the animation callbacks during
+     * the current frame. Instead of each callback computing and repainting its own rectangle,
+     * the union of everything that needs to be repainted is computed once per frame, right
+     * before {@link SwingRepaintAggregator} flushes the dirty regions.
+     */
+    private class AnimationRepaintCollector implements Runnable {
+        private boolean hasCells;
+        private int minCellRow;
+        private int maxCellRow;
+        private int minCellColumn;
+        private int maxCellColumn;
+
+        private boolean hasRows;
+        private int minRow;
+        private int maxRow;
+
+        private boolean hasColumns;
+        private int minColumn;
+        private int maxColumn;
+
+        private void addCell(int row, int column) {
+            if (!this.hasCells) {
+                this.hasCells = true;
+                this.minCellRow = this.maxCellRow = row;
+                this.minCellColumn = this.maxCellColumn = column;
+            } else {
+                this.minCellRow = Math.min(this.minCellRow, row);
+                this.maxCellRow = Math.max(this.maxCellRow, row);
+                this.minCellColumn = Math.min(this.minCellColumn, column);
+                this.maxCellColumn = Math.max(this.maxCellColumn, column);
+            }
+            SwingRepaintAggregator.getInstance().addFlushTask(this);
+        }
+
+        private void addRow(int row) {
+            if (!this.hasRows) {
+                this.hasRows = true;
+                this.minRow = this.maxRow = row;
+            } else {
+                this.minRow = Math.min(this.minRow, row);
+                this.maxRow = Math.max(this.maxRow, row);
+            }
+            SwingRepaintAggregator.getInstance().addFlushTask(this);
+        }
+
+        private void addColumn(int column) {
+            if (!this.hasColumns) {
+                this.hasColumns = true;
+                this.minColumn = this.maxColumn = column;
+            } else {
+                this.minColumn = Math.min(this.minColumn, column);
+                this.maxColumn = Math.max(this.maxColumn, column);
+            }
+            SwingRepaintAggregator.getInstance().addFlushTask(this);
+        }
+
+        @Override
+        public void run() {
+            JTable table = SubstanceTableUI.this.table;
+            if (table == null) {
+                // may happen if the LAF was switched in the meantime
+                this.reset();
+                return;
+            }
+
+            // need to retrieve the cell rectangles since the cells can be moved while
+            // animating
+            int rowCount = table.getRowCount();
+            int columnCount = table.getColumnCount();
+            boolean noGridLines = !table.getShowHorizontalLines()
+                    && !table.getShowVerticalLines();
+            int extra = noGridLines ? (int) SubstanceSizeUtils.getBorderStrokeWidth() : 0;
+            Rectangle dirty = null;
+            if (this.hasCells && (this.minCellRow < rowCount)
+                    && (this.minCellColumn < columnCount)) {
+                // Since the cell bounds are monotonic in both view indices, the cells
+                // at the two corners are enough to compute the union of all the cells
+                dirty = getCellRectangleForRepaint(this.minCellRow, this.minCellColumn)
+                        .union(getCellRectangleForRepaint(
+                                Math.min(this.maxCellRow, rowCount - 1),
+                                Math.min(this.maxCellColumn, columnCount - 1)));
+            }
+            if (this.hasRows && (this.minRow < rowCount) && (columnCount > 0)) {
+                Rectangle rowsRect = table.getCellRect(this.minRow, 0, true).union(
+                        table.getCellRect(Math.min(this.maxRow, rowCount - 1),
+                                columnCount - 1, true));
+                rowsRect.y -= extra;
+                rowsRect.height += 2 * extra;
+                dirty = (dirty == null) ? rowsRect : dirty.union(rowsRect);
+            }
+            if (this.hasColumns && (this.minColumn < columnCount) && (rowCount > 0)) {
+                Rectangle columnsRect = table.getCellRect(0, this.minColumn, true).union(
+                        table.getCellRect(rowCount - 1,
+                                Math.min(this.maxColumn, columnCount - 1), true));
+                columnsRect.x -= extra;
+                columnsRect.width += 2 * extra;
+                dirty = (dirty == null) ? columnsRect : dirty.union(columnsRect);
+            }
+            this.reset();
+
+            if (dirty != null) {
+                SwingRepaintAggregator.getInstance().repaint(table, dirty);
+            }
+        }
+
+        private void reset() {
+            this.hasCells = false;
+            this.hasRows = false;
+            this.hasColumns = false;
         }
     }
 
@@ -1573,7 +1749,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
 
         @Override
         public int hashCode() {
-            return (this.row ^ (this.row << 16)) & (this.column ^ (this.column << 16));
+            return 31 * this.row + this.column;
         }
 
         @Override
@@ -1635,33 +1811,132 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
             syncSelection(isDifferentSorter);
         }
 
+        /**
+         * Model rows updated since the last flush of model changes. This only tracks the
+         * rows of {@link TableModelEvent#UPDATE} events that do not require a full resync.
+         */
+        private final BitSet pendingUpdatedRows = new BitSet();
+
+        /**
+         * Indicates whether a model event since the last flush requires a full resync.
+         */
+        private boolean isFullSyncPending;
+
+        /**
+         * Indicates whether a model event since the last flush has changed the table
+         * structure, invalidating the selection and focus tracking.
+         */
+        private boolean isStructureChangePending;
+
+        private boolean isFlushScheduled;
+
         @Override
         public void tableChanged(final TableModelEvent e) {
-            // fix for defect 291 - tracking changes to the table.
-            SwingUtilities.invokeLater(() -> {
-                // fix for defect 350 - font might have been
-                // switched in the middle of update
-                if (table == null)
+            // fix for defect 291 - tracking changes to the table. Models that are updated at
+            // high frequency can fire thousands of events per second, so all the events that
+            // arrive before the next EDT pass are coalesced into a single flush.
+            synchronized (this) {
+                if (isRowUpdate(e)) {
+                    pendingUpdatedRows.set(e.getFirstRow(), e.getLastRow() + 1);
+                } else {
+                    isFullSyncPending = true;
+                    // fix for defect 328 - do not clear the internal selection and focus
+                    // tracking when the event is table update.
+                    if (e.getType() != TableModelEvent.UPDATE) {
+                        isStructureChangePending = true;
+                    }
+                }
+                if (isFlushScheduled) {
                     return;
-
-                // fix for defect 328 - do not clear the
-                // internal selection and focus tracking
-                // when the event is table update.
-                if (e.getType() != TableModelEvent.UPDATE) {
-                    selectedIndices.clear();
-                    stateTransitionMultiTracker.clear();
-                    focusedCellId = null;
                 }
+                isFlushScheduled = true;
+            }
+            SwingUtilities.invokeLater(this::flushModelChanges);
+        }
+
+        private boolean isRowUpdate(TableModelEvent e) {
+            return (e.getType() == TableModelEvent.UPDATE)
+                    && (e.getFirstRow() != TableModelEvent.HEADER_ROW)
+                    && (e.getLastRow() != Integer.MAX_VALUE)
+                    && (e.getFirstRow() <= e.getLastRow());
+        }
+
+        private void flushModelChanges() {
+            boolean isFullSync;
+            boolean isStructureChange;
+            BitSet updatedRows;
+            synchronized (this) {
+                isFullSync = isFullSyncPending;
+                isStructureChange = isStructureChangePending;
+                updatedRows = isFullSync ? null : (BitSet) pendingUpdatedRows.clone();
+                pendingUpdatedRows.clear();
+                isFullSyncPending = false;
+                isStructureChangePending = false;
+                isFlushScheduled = false;
+            }
+
+            // fix for defect 350 - font might have been
+            // switched in the middle of update
+            if (table == null)
+                return;
+
+            if (isStructureChange) {
+                selectedIndices.clear();
+                clearTransitions();
+                focusedCellId = null;
+            }
+            if (isFullSync) {
                 syncSelection(true);
                 table.repaint();
-            });
+                return;
+            }
+
+            // Only the cells of specific rows have been updated. JTable repaints those cells
+            // on its own, so the selection needs to be synced (and the rows repainted) only
+            // if the updated rows intersect the current selection.
+            boolean hasColumnSelection = table.getColumnSelectionAllowed()
+                    && !table.getColumnModel().getSelectionModel().isSelectionEmpty();
+            Rectangle visibleRect = table.getVisibleRect();
+            Rectangle dirtyRect = null;
+            boolean touchesSelection = false;
+            int modelRowCount = table.getModel().getRowCount();
+            for (int modelRow = updatedRows.nextSetBit(0);
+                    (modelRow >= 0) && (modelRow < modelRowCount);
+                    modelRow = updatedRows.nextSetBit(modelRow + 1)) {
+                int viewRow = table.convertRowIndexToView(modelRow);
+                if (viewRow < 0) {
+                    continue;
+                }
+                if (!hasColumnSelection && !table.isRowSelected(viewRow)) {
+                    continue;
+                }
+                touchesSelection = true;
+                Rectangle cellRect = table.getCellRect(viewRow, 0, true);
+                Rectangle rowRect = new Rectangle(0, cellRect.y, table.getWidth(),
+                        cellRect.height);
+                if (!rowRect.intersects(visibleRect)) {
+                    continue;
+                }
+                if (dirtyRect == null) {
+                    dirtyRect = rowRect;
+                } else {
+                    dirtyRect.add(rowRect);
+                }
+            }
+            if (!touchesSelection) {
+                return;
+            }
+            syncSelection(true);
+            if (dirtyRect != null) {
+                table.repaint(dirtyRect);
+            }
         }
 
         @Override
         public void sorterChanged(RowSorterEvent e) {
             // fix for issue 479 - cancel selection animations
             // that are happening due to changes in sorter
-            SwingUtilities.invokeLater(stateTransitionMultiTracker::clear);
+            SwingUtilities.invokeLater(SubstanceTableUI.this::clearTransitions);
         }
     }
 
@@ -1879,10 +2154,10 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                             // System.out
                             // .println("Getting rollover/in tracker for "
                             // + currCellId);
-                            StateTransitionTracker tracker = getTracker(currCellId, false,
+                            cellTransitionStore.setRollover(
+                                    CellStateTransitionStore.getCellKey(i, j), true,
                                     getCellState(currCellId)
                                             .isFacetActive(ComponentStateFacet.SELECTION));
-                            tracker.getModel().setRollover(true);
 
                             rolledOverIndices.add(currCellId);
                         }
@@ -1898,9 +2173,10 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
             if (rolledOverIndices.contains(tableCellId)) {
                 // System.out
                 // .println("Getting rollover/out tracker for " + cellId);
-                StateTransitionTracker tracker = getTracker(tableCellId, true,
+                cellTransitionStore.setRollover(
+                        CellStateTransitionStore.getCellKey(tableCellId.row, tableCellId.column),
+                        false,
                         getCellState(tableCellId).isFacetActive(ComponentStateFacet.SELECTION));
-                tracker.getModel().setRollover(false);
             }
         }
 
@@ -1951,7 +2227,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
         // Solution - no selection animations on tables with more than 1000
         // cells.
         if (!this._hasSelectionAnimations()) {
-            stateTransitionMultiTracker.clear();
+            clearTransitions();
             // this.prevStateMap.clear();
             table.repaint();
 
@@ -1963,7 +2239,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
             return;
         }
 
-        Set<StateTransitionTracker> initiatedTrackers = new HashSet<>();
+        int initiatedTransitions = 0;
 
         for (int i = 0; i < rows; i++) {
             for (int j = 0; j < cols; j++) {
@@ -1976,16 +2252,16 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                             // System.out
                             // .println("Getting selection/in tracker for "
                             // + cellId);
-                            StateTransitionTracker tracker = getTracker(cellId, getCellState(cellId)
-                                    .isFacetActive(ComponentStateFacet.ROLLOVER), false);
-                            tracker.getModel().setSelected(true);
+                            cellTransitionStore.setSelected(
+                                    CellStateTransitionStore.getCellKey(i, j), true,
+                                    getCellState(cellId)
+                                            .isFacetActive(ComponentStateFacet.ROLLOVER));
                             // System.out
                             // .println("Selecting previously unselected "
                             // + i + ":" + j);
-                            initiatedTrackers.add(tracker);
-                            if (initiatedTrackers.size() > 20) {
-                                stateTransitionMultiTracker.clear();
-                                initiatedTrackers.clear();
+                            initiatedTransitions++;
+                            if (initiatedTransitions > 20) {
+                                clearTransitions();
                                 enforceNoAnimations = true;
                             }
                         }
@@ -2017,19 +2293,17 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                                 // System.out
                                 // .println("Getting selection/out tracker for "
                                 // + cellId);
-                                StateTransitionTracker tracker = getTracker(cellId,
+                                cellTransitionStore.setSelected(
+                                        CellStateTransitionStore.getCellKey(i, j), false,
                                         getCellState(cellId)
-                                                .isFacetActive(ComponentStateFacet.ROLLOVER),
-                                        true);
-                                tracker.getModel().setSelected(false);
+                                                .isFacetActive(ComponentStateFacet.ROLLOVER));
                                 // System.out
                                 // .println("Unselecting previously selected "
                                 // + i + ":" + j);
 
-                                initiatedTrackers.add(tracker);
-                                if (initiatedTrackers.size() > 20) {
-                                    stateTransitionMultiTracker.clear();
-                                    initiatedTrackers.clear();
+                                initiatedTransitions++;
+                                if (initiatedTransitions > 20) {
+                                    clearTransitions();
                                     enforceNoAnimations = true;
                                 }
                             }
@@ -2047,24 +2321,15 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                             if (this.focusedCellId != null) {
                                 // fade out the previous focus holder
 
-                                ComponentState cellState = getCellState(this.focusedCellId);
                                 // System.out.println("Getting focus/out tracker for "
                                 // + cellId);
-                                StateTransitionTracker tracker = getTracker(this.focusedCellId,
-                                        cellState.isFacetActive(ComponentStateFacet.ROLLOVER),
-                                        cellState.isFacetActive(ComponentStateFacet.SELECTION));
-                                tracker.setFocusState(false);
+                                getFocusTracker(this.focusedCellId).setFocusState(false);
                             }
 
                             // fade in the current cell (new focus holder)
-                            ComponentState cellState = getCellState(cellId);
-
                             // System.out.println("Getting focus/in tracker for "
                             // + currId);
-                            StateTransitionTracker tracker = getTracker(cellId,
-                                    cellState.isFacetActive(ComponentStateFacet.ROLLOVER),
-                                    cellState.isFacetActive(ComponentStateFacet.SELECTION));
-                            tracker.setFocusState(true);
+                            getFocusTracker(cellId).setFocusState(true);
                         }
 
                         if (AnimationConfigurationManager.getInstance()
@@ -2078,13 +2343,9 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
                     if (cellId.equals(this.focusedCellId)) {
                         if (!enforceNoAnimations) {
                             // fade it out
-                            ComponentState cellState = getCellState(cellId);
                             // System.out.println("Getting focus/out tracker for "
                             // + cellId);
-                            StateTransitionTracker tracker = getTracker(cellId,
-                                    cellState.isFacetActive(ComponentStateFacet.ROLLOVER),
-                                    cellState.isFacetActive(ComponentStateFacet.SELECTION));
-                            tracker.setFocusState(false);
+                            getFocusTracker(cellId).setFocusState(false);
                         }
 
                         this.focusedCellId = null;
@@ -2103,8 +2364,9 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
     public ComponentState getCellState(TableCellId cellIndex) {
         boolean isEnabled = this.table.isEnabled();
 
-        StateTransitionTracker tracker = this.stateTransitionMultiTracker.getTracker(cellIndex);
-        if (tracker == null) {
+        ComponentState fromTracker = this.cellTransitionStore.getCurrState(
+                CellStateTransitionStore.getCellKey(cellIndex.row, cellIndex.column));
+        if (fromTracker == null) {
             int row = cellIndex.row;
             int column = cellIndex.column;
             TableCellId cellId = this.getId(row, column);
@@ -2122,13 +2384,23 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
             }
             return ComponentState.getState(isEnabled, isRollover, isSelected);
         } else {
-            ComponentState fromTracker = tracker.getModelStateInfo().getCurrModelState();
             return ComponentState.getState(isEnabled,
                     fromTracker.isFacetActive(ComponentStateFacet.ROLLOVER),
                     fromTracker.isFacetActive(ComponentStateFacet.SELECTION));
         }
     }
 
+    /**
+     * Returns the current state for the specified cell. Does not allocate a cell ID.
+     *
+     * @param row    Row index.
+     * @param column Column index.
+     * @return The current state for the specified cell.
+     */
+    public ComponentState getCellState(int row, int column) {
+        return this.getCellState(this.getId(row, column));
+    }
+
     /**
      * Returns the current state for the specified cell.
      *
@@ -2136,14 +2408,23 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
      * @return The current state for the specified cell.
      */
     public StateTransitionTracker.ModelStateInfo getModelStateInfo(TableCellId cellId) {
-        if (this.stateTransitionMultiTracker.size() == 0)
-            return null;
-        StateTransitionTracker tracker = this.stateTransitionMultiTracker.getTracker(cellId);
-        if (tracker == null) {
+        return this.getModelStateInfo(cellId.row, cellId.column);
+    }
+
+    /**
+     * Returns the current model state info for the specified cell. The returned object is shared
+     * by all the cells of this table, and is only valid until the next call to this method.
+     *
+     * @param row    Row index.
+     * @param column Column index.
+     * @return The current model state info for the specified cell, or <code>null</code> if the
+     * cell is not animating.
+     */
+    public StateTransitionTracker.ModelStateInfo getModelStateInfo(int row, int column) {
+        if (this.cellTransitionStore.size() == 0)
             return null;
-        } else {
-            return tracker.getModelStateInfo();
-        }
+        return this.cellTransitionStore.getModelStateInfo(
+                CellStateTransitionStore.getCellKey(row, column));
     }
 
     /**
@@ -2216,6 +2497,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
 
     @Override
     public void update(Graphics g, JComponent c) {
+        Object paintEvent = FlightRecorderEvents.beginPaint();
         BackgroundPaintingUtils.updateIfOpaque(g, c);
         Graphics2D g2d = (Graphics2D) g.create();
         NeonCortex.installDesktopHints(g2d, c.getFont());
@@ -2225,6 +2507,7 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
         SubstanceStripingUtils.tearDown(c);
         g2d.dispose();
         this.updateInfo = null;
+        FlightRecorderEvents.endPaint(paintEvent, c, this);
     }
 
     /**
@@ -2302,29 +2585,53 @@ public class SubstanceTableUI extends BasicTableUI implements UpdateOptimization
         return rect;
     }
 
-    private StateTransitionTracker getTracker(final TableCellId tableCellId,
-            boolean initialRollover, boolean initialSelected) {
-        StateTransitionTracker tracker = stateTransitionMultiTracker.getTracker(tableCellId);
-        // System.out.println("TableID " + tableCellId + " has tracker "
-        // + ((tracker == null) ? "null" : ("@" + tracker.hashCode())));
+    private StateTransitionTracker getFocusTracker(final TableCellId tableCellId) {
+        StateTransitionTracker tracker = focusTransitionMultiTracker.getTracker(tableCellId);
         if (tracker == null) {
-            ButtonModel model = new DefaultButtonModel();
-            model.setSelected(initialSelected);
-            model.setRollover(initialRollover);
-            tracker = new StateTransitionTracker(table, model);
+            tracker = new StateTransitionTracker(table, new DefaultButtonModel());
             tracker.registerModelListeners();
             tracker.setRepaintCallback(
                     () -> new CellRepaintCallback(table, tableCellId.row, tableCellId.column));
             tracker.setName("row " + tableCellId.row + ", col " + tableCellId.column);
-            // System.out.println("TableID " + tableCellId +
-            // " has new tracker @"
-            // + tracker.hashCode());
-            stateTransitionMultiTracker.addTracker(tableCellId, tracker);
+            focusTransitionMultiTracker.addTracker(tableCellId, tracker);
         }
         return tracker;
     }
 
+    /**
+     * Ends all the cell transitions of this table.
+     */
+    private void clearTransitions() {
+        if (this.cellTransitionStore != null) {
+            this.cellTransitionStore.clear();
+        }
+        this.focusTransitionMultiTracker.clear();
+    }
+
+    /**
+     * Returns the focus transition tracker of the specified cell.
+     *
+     * @param tableId Cell ID.
+     * @return The focus transition tracker of the specified cell, or <code>null</code> if the
+     * cell is not animating its focus.
+     */
     public StateTransitionTracker getStateTransitionTracker(TableCellId tableId) {
-        return this.stateTransitionMultiTracker.getTracker(tableId);
+        return this.focusTransitionMultiTracker.getTracker(tableId);
+    }
+
+    /**
+     * Returns the focus transition tracker of the specified cell. Does not allocate when no cell
+     * of this table is animating its focus.
+     *
+     * @param row    Row index.
+     * @param column Column index.
+     * @return The focus transition tracker of the specified cell, or <code>null</code> if the
+     * cell is not animating its focus.
+     */
+    public StateTransitionTracker getStateTransitionTracker(int row, int column) {
+        if (this.focusTransitionMultiTracker.size() == 0) {
+            return null;
+        }
+        return this.focusTransitionMultiTracker.getTracker(new TableCellId(row, column));
     }
 }
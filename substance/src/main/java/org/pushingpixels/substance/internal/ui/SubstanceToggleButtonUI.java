@@ -354,10 +354,12 @@ public class SubstanceToggleButtonUI extends BasicToggleButtonUI implements
 
 	@Override
 	public void update(Graphics g, JComponent c) {
+		Object paintEvent = FlightRecorderEvents.beginPaint();
 		Graphics2D g2d = (Graphics2D) g.create();
         NeonCortex.installDesktopHints(g2d, c.getFont());
 		this.paint(g2d, c);
 		g2d.dispose();
+		FlightRecorderEvents.endPaint(paintEvent, c, this);
 	}
 
 	@Override
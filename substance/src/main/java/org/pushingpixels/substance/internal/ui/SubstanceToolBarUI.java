@@ -33,6 +33,7 @@ import org.pushingpixels.substance.api.SubstanceCortex.ComponentOrParentChainSco
 import org.pushingpixels.substance.api.SubstanceSlices.DecorationAreaType;
 import org.pushingpixels.substance.internal.painter.BackgroundPaintingUtils;
 import org.pushingpixels.substance.internal.painter.DecorationPainterUtils;
+import org.pushingpixels.substance.internal.utils.FlightRecorderEvents;
 import org.pushingpixels.substance.internal.utils.SubstanceCoreUtilities;
 import org.pushingpixels.substance.internal.widget.animation.effects.GhostPaintingUtils;
 
@@ -69,6 +70,7 @@ public class SubstanceToolBarUI extends BasicToolBarUI {
 
     @Override
     public void update(Graphics g, JComponent c) {
+        Object paintEvent = FlightRecorderEvents.beginPaint();
         boolean isOpaque = SubstanceCoreUtilities.isOpaque(c);
         if (isOpaque) {
             BackgroundPaintingUtils.update(g, c, false);
@@ -76,6 +78,7 @@ public class SubstanceToolBarUI extends BasicToolBarUI {
             super.update(g, c);
         }
         GhostPaintingUtils.paintGhostImages(c, g);
+        FlightRecorderEvents.endPaint(paintEvent, c, this);
     }
 
     @Override
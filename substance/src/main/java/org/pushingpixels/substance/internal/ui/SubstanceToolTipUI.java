@@ -30,6 +30,7 @@
 package org.pushingpixels.substance.internal.ui;
 
 import org.pushingpixels.neon.api.NeonCortex;
+import org.pushingpixels.substance.internal.utils.FlightRecorderEvents;
 import org.pushingpixels.substance.internal.utils.SubstanceCoreUtilities;
 import org.pushingpixels.substance.internal.utils.SubstanceMetricsUtilities;
 import org.pushingpixels.substance.internal.utils.SubstanceTextUtilities;
@@ -119,9 +120,11 @@ public class SubstanceToolTipUI extends BasicToolTipUI {
 
 	@Override
 	public void update(Graphics g, JComponent c) {
+		Object paintEvent = FlightRecorderEvents.beginPaint();
 		Graphics2D g2d = (Graphics2D) g.create();
 		NeonCortex.installDesktopHints(g2d, c.getFont());
 		super.update(g2d, c);
 		g2d.dispose();
+		FlightRecorderEvents.endPaint(paintEvent, c, this);
 	}
 }
@@ -48,6 +48,7 @@ import org.pushingpixels.substance.internal.utils.*;
 import org.pushingpixels.substance.internal.utils.icon.SubstanceIconFactory;
 import org.pushingpixels.trident.api.Timeline.TimelineState;
 import org.pushingpixels.trident.api.swing.EventDispatchThreadTimelineCallbackAdapter;
+import org.pushingpixels.trident.api.swing.SwingRepaintAggregator;
 
 import javax.swing.*;
 import javax.swing.event.TreeSelectionEvent;
@@ -512,7 +513,8 @@ public class SubstanceTreeUI extends BasicTreeUI {
 	}
 
 	/**
-	 * ID of a single tree path.
+	 * ID of a single tree path. The hash code is computed once, and the comparisons walk the
+	 * parent chains of the paths instead of allocating the arrays of path components.
 	 * 
 	 * @author Kirill Grouchnikov
 	 */
@@ -522,6 +524,11 @@ public class SubstanceTreeUI extends BasicTreeUI {
 		 */
 		protected TreePath path;
 
+		/**
+		 * Cached hash code of {@link #path}.
+		 */
+		private final int hash;
+
 		/**
 		 * Creates a tree path ID.
 		 * 
@@ -530,37 +537,69 @@ public class SubstanceTreeUI extends BasicTreeUI {
 		 */
 		public TreePathId(TreePath path) {
 			this.path = path;
+			this.hash = computeHash(path);
+		}
+
+		private static int computeHash(TreePath path) {
+			int result = 0;
+			for (TreePath curr = path; curr != null; curr = curr.getParentPath()) {
+				result = 31 * result + curr.getLastPathComponent().hashCode();
+			}
+			return result;
+		}
+
+		/**
+		 * Checks whether this ID matches the specified path.
+		 * 
+		 * @param otherPath
+		 *            Tree path.
+		 * @return <code>true</code> if this ID has the same path components as the
+		 *         specified path, <code>false</code> otherwise.
+		 */
+		public boolean matches(TreePath otherPath) {
+			TreePath path1 = this.path;
+			TreePath path2 = otherPath;
+			while (path1 != path2) {
+				if ((path1 == null) || (path2 == null)) {
+					return false;
+				}
+				if (!path1.getLastPathComponent().equals(path2.getLastPathComponent())) {
+					return false;
+				}
+				path1 = path1.getParentPath();
+				path2 = path2.getParentPath();
+			}
+			// Reached the same parent (shared prefix or both null)
+			return true;
 		}
 
+		/**
+		 * Compares the paths by their hash codes first. Different paths that have the same hash
+		 * code have no defined order, and compare as <code>1</code> to each other.
+		 */
 		@Override
 		public int compareTo(TreePathId otherId) {
-			if ((this.path == null) && (otherId.path != null))
-				return 1;
-			if ((otherId.path == null) && (this.path != null))
-				return -1;
-			Object[] path1Objs = this.path.getPath();
-			Object[] path2Objs = otherId.path.getPath();
-			if (path1Objs.length != path2Objs.length)
-				return 1;
-			for (int i = 0; i < path1Objs.length; i++)
-				if (!path1Objs[i].equals(path2Objs[i]))
-					return 1;
-			return 0;
+			if (this.hash != otherId.hash) {
+				return (this.hash < otherId.hash) ? -1 : 1;
+			}
+			return this.matches(otherId.path) ? 0 : 1;
 		}
 
-		public boolean equals(TreePathId obj) {
-			return this.compareTo(obj) == 0;
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof TreePathId)) {
+				return false;
+			}
+			TreePathId otherId = (TreePathId) obj;
+			return (this.hash == otherId.hash) && this.matches(otherId.path);
 		}
 
 		@Override
 		public int hashCode() {
-			if (this.path == null)
-				return 0;
-			Object[] pathObjs = this.path.getPath();
-			int result = pathObjs[0].hashCode();
-			for (int i = 1; i < pathObjs.length; i++)
-				result = result ^ pathObjs[i].hashCode();
-			return result;
+			return this.hash;
 		}
 	}
 
@@ -572,40 +611,78 @@ public class SubstanceTreeUI extends BasicTreeUI {
 	protected class MyTreeSelectionListener implements TreeSelectionListener {
 		@Override
 		public void valueChanged(TreeSelectionEvent e) {
-			// Map<TreePathId, Object> currSelected = (Map<TreePathId, Object>)
-			// tree
-			// .getClientProperty(SELECTED_INDICES);
-			if (tree.getSelectionPaths() != null) {
-				for (TreePath selectionPath : tree.getSelectionPaths()) {
-					TreePathId pathId = new TreePathId(selectionPath);
-
+			// Only look at the paths that have changed in this event instead of going over
+			// all the selected paths
+			TreePath[] changedPaths = e.getPaths();
+			for (int i = 0; i < changedPaths.length; i++) {
+				TreePath changedPath = changedPaths[i];
+				if (changedPath == null) {
+					continue;
+				}
+				TreePathId pathId = new TreePathId(changedPath);
+				boolean isRollover = (currRolloverPathId != null)
+						&& pathId.equals(currRolloverPathId);
+				if (e.isAddedPath(i)) {
 					// check if was selected before
 					if (!selectedPaths.containsKey(pathId)) {
 						// start fading in
-						StateTransitionTracker tracker = getTracker(pathId,
-								(currRolloverPathId != null) && pathId.equals(currRolloverPathId),
-								false);
+						StateTransitionTracker tracker = getTracker(pathId, isRollover, false);
 						tracker.getModel().setSelected(true);
-						selectedPaths.put(pathId, selectionPath.getLastPathComponent());
+						selectedPaths.put(pathId, changedPath.getLastPathComponent());
+					}
+				} else {
+					if (selectedPaths.remove(pathId) != null) {
+						// fade out for deselected path
+						StateTransitionTracker tracker = getTracker(pathId, isRollover, true);
+						tracker.getModel().setSelected(false);
 					}
 				}
 			}
 
-			for (Iterator<Map.Entry<TreePathId, Object>> it = selectedPaths.entrySet()
-					.iterator(); it.hasNext();) {
-				Map.Entry<TreePathId, Object> entry = it.next();
-				if (tree.getSelectionModel().isPathSelected(entry.getKey().path))
-					continue;
-				// fade out for deselected path
-				TreePathId pathId = entry.getKey();
-				StateTransitionTracker tracker = getTracker(pathId,
-						(currRolloverPathId != null) && pathId.equals(currRolloverPathId), true);
-				tracker.getModel().setSelected(false);
-				it.remove();
+			if (selectedPaths.size() != tree.getSelectionCount()) {
+				// The event didn't capture all the changes (for example, the selection
+				// model was replaced). Fall back to a full sync.
+				syncSelectedPaths();
 			}
 		}
 	}
 
+	/**
+	 * Synchronizes the tracked selected paths with all the paths that are selected in the
+	 * tree.
+	 */
+	private void syncSelectedPaths() {
+		TreePath[] selectionPaths = tree.getSelectionPaths();
+		if (selectionPaths != null) {
+			for (TreePath selectionPath : selectionPaths) {
+				TreePathId pathId = new TreePathId(selectionPath);
+
+				// check if was selected before
+				if (!selectedPaths.containsKey(pathId)) {
+					// start fading in
+					StateTransitionTracker tracker = getTracker(pathId,
+							(currRolloverPathId != null) && pathId.equals(currRolloverPathId),
+							false);
+					tracker.getModel().setSelected(true);
+					selectedPaths.put(pathId, selectionPath.getLastPathComponent());
+				}
+			}
+		}
+
+		for (Iterator<Map.Entry<TreePathId, Object>> it = selectedPaths.entrySet()
+				.iterator(); it.hasNext();) {
+			Map.Entry<TreePathId, Object> entry = it.next();
+			if (tree.getSelectionModel().isPathSelected(entry.getKey().path))
+				continue;
+			// fade out for deselected path
+			TreePathId pathId = entry.getKey();
+			StateTransitionTracker tracker = getTracker(pathId,
+					(currRolloverPathId != null) && pathId.equals(currRolloverPathId), true);
+			tracker.getModel().setSelected(false);
+			it.remove();
+		}
+	}
+
 	/**
 	 * Repaints a single path during the fade animation cycle.
 	 * 
@@ -651,31 +728,29 @@ public class SubstanceTreeUI extends BasicTreeUI {
 		 * Repaints the associated path.
 		 */
 		private void repaintPath() {
-			SwingUtilities.invokeLater(() -> {
-				if (SubstanceTreeUI.this.tree == null) {
-					// may happen if the LAF was switched in the meantime
-					return;
-				}
+			if (SubstanceTreeUI.this.tree == null) {
+				// may happen if the LAF was switched in the meantime
+				return;
+			}
 
-				Rectangle boundsBuffer = new Rectangle();
-				Rectangle bounds = treeState.getBounds(treePath, boundsBuffer);
+			Rectangle boundsBuffer = new Rectangle();
+			Rectangle bounds = treeState.getBounds(treePath, boundsBuffer);
 
-				if (bounds != null) {
-					// still visible
+			if (bounds != null) {
+				// still visible
 
-					// fix for defect 180 - refresh the entire row
-					bounds.x = 0;
-					bounds.width = tree.getWidth();
+				// fix for defect 180 - refresh the entire row
+				bounds.x = 0;
+				bounds.width = tree.getWidth();
 
-					// fix for defect 188 - rollover effects for trees
-					// with insets
-					Insets insets = tree.getInsets();
-					bounds.x += insets.left;
-					bounds.y += insets.top;
+				// fix for defect 188 - rollover effects for trees
+				// with insets
+				Insets insets = tree.getInsets();
+				bounds.x += insets.left;
+				bounds.y += insets.top;
 
-					tree.repaint(bounds);
-				}
-			});
+				SwingRepaintAggregator.getInstance().repaint(tree, bounds);
+			}
 		}
 	}
 
@@ -741,8 +816,7 @@ public class SubstanceTreeUI extends BasicTreeUI {
 				return;
 			}
 			// check if this is the same index
-			TreePathId newPathId = new TreePathId(closestPath);
-			if ((currRolloverPathId != null) && newPathId.equals(currRolloverPathId)) {
+			if ((currRolloverPathId != null) && currRolloverPathId.matches(closestPath)) {
 				// System.out.println("Same location " +
 				// System.currentTimeMillis());
 				// System.out.print("Current : ");
@@ -760,6 +834,7 @@ public class SubstanceTreeUI extends BasicTreeUI {
 
 			this.fadeOut();
 
+			TreePathId newPathId = new TreePathId(closestPath);
 			StateTransitionTracker tracker = getTracker(newPathId, false,
 					selectedPaths.containsKey(newPathId));
 			tracker.getModel().setRollover(true);
@@ -868,10 +943,9 @@ public class SubstanceTreeUI extends BasicTreeUI {
 		boolean isEnabled = this.tree.isEnabled();
 		StateTransitionTracker tracker = this.stateTransitionMultiTracker.getTracker(pathId);
 		if (tracker == null) {
-			int rowIndex = this.tree.getRowForPath(pathId.path);
 			boolean isRollover = (this.currRolloverPathId != null)
 					&& pathId.equals(this.currRolloverPathId);
-			boolean isSelected = this.tree.isRowSelected(rowIndex);
+			boolean isSelected = this.tree.isPathSelected(pathId.path);
 			return ComponentState.getState(isEnabled, isRollover, isSelected);
 		} else {
 			ComponentState fromTracker = tracker.getModelStateInfo().getCurrModelState();
@@ -894,6 +968,7 @@ public class SubstanceTreeUI extends BasicTreeUI {
 
 	@Override
 	public void update(Graphics g, JComponent c) {
+		Object paintEvent = FlightRecorderEvents.beginPaint();
 		BackgroundPaintingUtils.updateIfOpaque(g, c);
 
 		// Should never happen if installed for a UI
@@ -967,6 +1042,7 @@ public class SubstanceTreeUI extends BasicTreeUI {
 		this.paint(g2d, c);
 		SubstanceStripingUtils.tearDown(c);
 		g2d.dispose();
+		FlightRecorderEvents.endPaint(paintEvent, c, this);
 	}
 
 	/**
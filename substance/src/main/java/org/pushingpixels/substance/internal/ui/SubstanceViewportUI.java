@@ -30,6 +30,7 @@
 package org.pushingpixels.substance.internal.ui;
 
 import org.pushingpixels.substance.internal.painter.BackgroundPaintingUtils;
+import org.pushingpixels.substance.internal.utils.FlightRecorderEvents;
 import org.pushingpixels.substance.internal.utils.SubstanceColorUtilities;
 import org.pushingpixels.substance.internal.utils.SubstanceCoreUtilities;
 
@@ -73,10 +74,12 @@ public class SubstanceViewportUI extends BasicViewportUI {
 			return;
 		}
 
+		Object paintEvent = FlightRecorderEvents.beginPaint();
 		if (toPaintBackground(c)) {
 			BackgroundPaintingUtils.update(g, c, false);
 		}
 		super.paint(g, c);
+		FlightRecorderEvents.endPaint(paintEvent, c, this);
 	}
 
 	/**
@@ -40,6 +40,7 @@ import org.pushingpixels.substance.api.painter.fill.SubstanceFillPainter;
 import org.pushingpixels.substance.api.shaper.RectangularButtonShaper;
 import org.pushingpixels.substance.api.shaper.StandardButtonShaper;
 import org.pushingpixels.substance.api.shaper.SubstanceButtonShaper;
+import org.pushingpixels.substance.internal.colorscheme.ColorSchemeRegistry;
 import org.pushingpixels.substance.internal.SubstanceSynapse;
 import org.pushingpixels.substance.internal.animation.ModificationAwareUI;
 import org.pushingpixels.substance.internal.animation.StateTransitionTracker;
@@ -133,7 +134,8 @@ public class ButtonBackgroundDelegate {
                     float cyclePos = modificationTimeline.getTimelinePosition();
 
                     HashMapKey key1 = SubstanceCoreUtilities.getHashKey(width, height,
-                            colorScheme.getDisplayName(), baseBorderScheme.getDisplayName(),
+                            ColorSchemeRegistry.getSchemeId(colorScheme),
+                            ColorSchemeRegistry.getSchemeId(baseBorderScheme),
                             shaper.getDisplayName(), fillPainter.getDisplayName(),
                             borderPainter.getDisplayName(), straightSides, openSides,
                             button.getClass().getName(), isRoundButton, radius, isContentAreaFilled,
@@ -147,7 +149,8 @@ public class ButtonBackgroundDelegate {
                         regularBackgrounds.put(key1, layer1);
                     }
                     HashMapKey key2 = SubstanceCoreUtilities.getHashKey(width, height,
-                            colorScheme2.getDisplayName(), baseBorderScheme.getDisplayName(),
+                            ColorSchemeRegistry.getSchemeId(colorScheme2),
+                            ColorSchemeRegistry.getSchemeId(baseBorderScheme),
                             shaper.getDisplayName(), fillPainter.getDisplayName(),
                             borderPainter.getDisplayName(), straightSides, openSides,
                             button.getClass().getName(), isRoundButton, radius, isContentAreaFilled,
@@ -185,7 +188,8 @@ public class ButtonBackgroundDelegate {
         SubstanceColorScheme baseFillScheme = SubstanceColorSchemeUtilities.getColorScheme(button,
                 currState);
         HashMapKey keyBase = SubstanceCoreUtilities.getHashKey(width, height,
-                baseFillScheme.getDisplayName(), baseBorderScheme.getDisplayName(),
+                ColorSchemeRegistry.getSchemeId(baseFillScheme),
+                ColorSchemeRegistry.getSchemeId(baseBorderScheme),
                 shaper.getDisplayName(), fillPainter.getDisplayName(),
                 borderPainter.getDisplayName(), straightSides, openSides,
                 button.getClass().getName(), isRoundButton, (int) (1000 * radius),
@@ -227,7 +231,8 @@ public class ButtonBackgroundDelegate {
                 SubstanceColorScheme borderScheme = SubstanceColorSchemeUtilities
                         .getColorScheme(button, ColorSchemeAssociationKind.BORDER, activeState);
                 HashMapKey key = SubstanceCoreUtilities.getHashKey(width, height,
-                        fillScheme.getDisplayName(), borderScheme.getDisplayName(),
+                        ColorSchemeRegistry.getSchemeId(fillScheme),
+                        ColorSchemeRegistry.getSchemeId(borderScheme),
                         shaper.getDisplayName(), fillPainter.getDisplayName(),
                         borderPainter.getDisplayName(), straightSides, openSides,
                         button.getClass().getName(), isRoundButton, (int) (1000 * radius),
@@ -0,0 +1,525 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.substance.internal.utils;
+
+import org.pushingpixels.substance.api.EdtLatencyReport;
+
+import javax.swing.*;
+import javax.swing.plaf.ComponentUI;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watchdog for the Event Dispatch Thread latency. When installed, the watchdog pushes an event
+ * queue that timestamps the dispatch of every event, and replaces the default repaint manager
+ * with one that timestamps every paint cycle. A monitor thread samples the stack of the Event
+ * Dispatch Thread once the current event or paint cycle has taken longer than the threshold.
+ * Slow events and paint cycles are aggregated into histograms attributed to component and
+ * UI delegate classes. This class is <b>for internal use only</b>.
+ *
+ * @author Kirill Grouchnikov
+ */
+public class EdtWatchdog {
+    /**
+     * The currently installed watchdog. Only accessed on EDT.
+     */
+    private static EdtWatchdog instance;
+
+    private final long thresholdNanos;
+    private final WatchdogEventQueue eventQueue;
+    private final RepaintManager originalRepaintManager;
+    private final WatchdogRepaintManager repaintManager;
+    private final MonitorThread monitorThread;
+
+    /**
+     * Frames of the work in progress on EDT. Paint cycles and nested event dispatches (modal
+     * dialogs, for example) are pushed on top of the event dispatch that runs them. Only
+     * accessed on EDT.
+     */
+    private long[] frameStarts = new long[8];
+    private long[] frameExcludedNanos = new long[8];
+    private int[] frameSequences = new int[8];
+    private boolean[] frameHasNestedDispatch = new boolean[8];
+    private int frameDepth;
+    private int sequenceCounter;
+
+    // The state of the innermost frame as seen by the monitor thread
+    private volatile Thread edtThread;
+    private volatile int currentSequence;
+    private volatile long currentStart;
+    private volatile Sample currentSample;
+
+    private volatile long eventDispatchCount;
+    private volatile long paintCycleCount;
+
+    /**
+     * Aggregated slow work. Guarded by the map itself.
+     */
+    private final Map<EntryKey, EntryData> entries = new HashMap<>();
+
+    private EdtWatchdog(long thresholdNanos, long reportIntervalNanos,
+            Consumer<EdtLatencyReport> reportConsumer) {
+        this.thresholdNanos = thresholdNanos;
+        this.eventQueue = new WatchdogEventQueue();
+
+        RepaintManager current = RepaintManager.currentManager((Component) null);
+        // Only replace the default repaint manager. Wrapping a custom repaint manager
+        // would change the behavior of the application.
+        if (current.getClass() == RepaintManager.class) {
+            this.originalRepaintManager = current;
+            this.repaintManager = new WatchdogRepaintManager();
+        } else {
+            this.originalRepaintManager = null;
+            this.repaintManager = null;
+        }
+
+        this.monitorThread = new MonitorThread(reportIntervalNanos, reportConsumer);
+    }
+
+    /**
+     * Installs the watchdog. If a watchdog is already installed, it is uninstalled first.
+     * Must be called on EDT.
+     *
+     * @param thresholdMillis      Threshold for reporting an event dispatch or a paint cycle
+     *                             as slow.
+     * @param reportIntervalMillis Interval for calling the report consumer.
+     * @param reportConsumer       Report consumer. Can be <code>null</code>.
+     */
+    public static void install(long thresholdMillis, long reportIntervalMillis,
+            Consumer<EdtLatencyReport> reportConsumer) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            throw new IllegalStateException(
+                    "This method must be called on the Event Dispatch Thread");
+        }
+        if (thresholdMillis <= 0) {
+            throw new IllegalArgumentException("Threshold must be positive");
+        }
+        if ((reportConsumer != null) && (reportIntervalMillis <= 0)) {
+            throw new IllegalArgumentException("Report interval must be positive");
+        }
+        uninstall();
+
+        instance = new EdtWatchdog(TimeUnit.MILLISECONDS.toNanos(thresholdMillis),
+                TimeUnit.MILLISECONDS.toNanos(reportIntervalMillis), reportConsumer);
+        instance.edtThread = Thread.currentThread();
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(instance.eventQueue);
+        if (instance.repaintManager != null) {
+            RepaintManager.setCurrentManager(instance.repaintManager);
+        }
+        instance.monitorThread.start();
+    }
+
+    /**
+     * Uninstalls the currently installed watchdog. Must be called on EDT.
+     */
+    public static void uninstall() {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            throw new IllegalStateException(
+                    "This method must be called on the Event Dispatch Thread");
+        }
+        if (instance == null) {
+            return;
+        }
+        EdtWatchdog watchdog = instance;
+        instance = null;
+
+        watchdog.monitorThread.requestStop();
+        watchdog.eventQueue.dispose();
+        if (RepaintManager.currentManager((Component) null) == watchdog.repaintManager) {
+            RepaintManager.setCurrentManager(watchdog.originalRepaintManager);
+        }
+    }
+
+    /**
+     * Returns the report of the currently installed watchdog. Must be called on EDT.
+     *
+     * @return The report of the currently installed watchdog, or <code>null</code> if
+     * no watchdog is installed.
+     */
+    public static EdtLatencyReport getReport() {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            throw new IllegalStateException(
+                    "This method must be called on the Event Dispatch Thread");
+        }
+        return (instance == null) ? null : instance.createReport();
+    }
+
+    private EdtLatencyReport createReport() {
+        List<EdtLatencyReport.Entry> reportEntries = new ArrayList<>();
+        synchronized (this.entries) {
+            for (Map.Entry<EntryKey, EntryData> mapEntry : this.entries.entrySet()) {
+                EntryKey key = mapEntry.getKey();
+                EntryData data = mapEntry.getValue();
+                reportEntries.add(new EdtLatencyReport.Entry(key.kind, key.eventType,
+                        key.componentClassName, key.uiClassName, data.count,
+                        data.totalDurationNanos, data.maxDurationNanos, data.histogram,
+                        data.maxDurationStackTrace));
+            }
+        }
+        return new EdtLatencyReport(this.thresholdNanos, this.eventDispatchCount,
+                this.paintCycleCount, reportEntries);
+    }
+
+    private int enterFrame() {
+        long now = System.nanoTime();
+        if (this.frameDepth > 0) {
+            this.frameHasNestedDispatch[this.frameDepth - 1] = true;
+        }
+        if (this.frameDepth == this.frameStarts.length) {
+            int newLength = 2 * this.frameDepth;
+            this.frameStarts = Arrays.copyOf(this.frameStarts, newLength);
+            this.frameExcludedNanos = Arrays.copyOf(this.frameExcludedNanos, newLength);
+            this.frameSequences = Arrays.copyOf(this.frameSequences, newLength);
+            this.frameHasNestedDispatch = Arrays.copyOf(this.frameHasNestedDispatch,
+                    newLength);
+        }
+        int sequence = ++this.sequenceCounter;
+        this.frameStarts[this.frameDepth] = now;
+        this.frameExcludedNanos[this.frameDepth] = 0;
+        this.frameSequences[this.frameDepth] = sequence;
+        this.frameHasNestedDispatch[this.frameDepth] = false;
+        this.frameDepth++;
+
+        this.currentSequence = sequence;
+        this.currentStart = now;
+        return sequence;
+    }
+
+    /**
+     * Pops the innermost frame.
+     *
+     * @param isPaintCycle If <code>true</code>, the innermost frame is a paint cycle.
+     * @return The duration of the work done in the innermost frame, or -1 if that frame
+     * ran nested event dispatches and its own work can't be measured.
+     */
+    private long exitFrame(boolean isPaintCycle) {
+        long now = System.nanoTime();
+        this.frameDepth--;
+        int depth = this.frameDepth;
+        long elapsed = now - this.frameStarts[depth];
+        long duration = this.frameHasNestedDispatch[depth] ? -1
+                : elapsed - this.frameExcludedNanos[depth];
+
+        if (depth > 0) {
+            // The enclosing frame resumes its own work
+            int parent = depth - 1;
+            if (isPaintCycle) {
+                this.frameExcludedNanos[parent] += elapsed;
+            } else {
+                this.frameHasNestedDispatch[parent] = true;
+            }
+            this.currentSequence = this.frameSequences[parent];
+            this.currentStart = this.frameStarts[parent] + this.frameExcludedNanos[parent];
+            if (this.frameHasNestedDispatch[parent]) {
+                // The enclosing frame has been blocked in a nested event loop
+                this.currentStart = now;
+            }
+        } else {
+            this.currentStart = 0;
+        }
+        return duration;
+    }
+
+    private void record(EdtLatencyReport.Kind kind, String eventType, int sequence,
+            long durationNanos, Object source) {
+        Sample sample = this.currentSample;
+        if ((sample != null) && (sample.sequence != sequence)) {
+            sample = null;
+        }
+
+        String componentClassName = null;
+        String uiClassName = null;
+        if (source instanceof Component) {
+            componentClassName = source.getClass().getName();
+            if (source instanceof JComponent) {
+                ComponentUI ui = ((JComponent) source).getUI();
+                if (ui != null) {
+                    uiClassName = ui.getClass().getName();
+                }
+            }
+        }
+        if (sample != null) {
+            if (componentClassName == null) {
+                componentClassName = sample.componentClassName;
+            }
+            if (sample.uiClassName != null) {
+                uiClassName = sample.uiClassName;
+            }
+        }
+
+        int bucket = 0;
+        long bucketStart = 2 * this.thresholdNanos;
+        while ((bucket < EdtLatencyReport.HISTOGRAM_BUCKET_COUNT - 1)
+                && (durationNanos >= bucketStart)) {
+            bucket++;
+            bucketStart *= 2;
+        }
+
+        EntryKey key = new EntryKey(kind, eventType, componentClassName, uiClassName);
+        synchronized (this.entries) {
+            EntryData data = this.entries.computeIfAbsent(key, (EntryKey k) -> new EntryData());
+            data.count++;
+            data.totalDurationNanos += durationNanos;
+            data.histogram[bucket]++;
+            if (durationNanos > data.maxDurationNanos) {
+                data.maxDurationNanos = durationNanos;
+                data.maxDurationStackTrace = (sample == null) ? null : sample.stackTrace;
+            }
+        }
+    }
+
+    private class WatchdogEventQueue extends EventQueue {
+        private volatile boolean isDisposed;
+
+        @Override
+        protected void dispatchEvent(AWTEvent event) {
+            if (this.isDisposed) {
+                super.dispatchEvent(event);
+                return;
+            }
+
+            if (frameDepth == 0) {
+                // AWT replaces the dispatch thread after an uncaught exception, so track
+                // the thread that the monitor samples on every top-level dispatch
+                Thread current = Thread.currentThread();
+                if (edtThread != current) {
+                    edtThread = current;
+                }
+            }
+            eventDispatchCount++;
+            int sequence = enterFrame();
+            try {
+                super.dispatchEvent(event);
+            } finally {
+                long duration = exitFrame(false);
+                if (duration >= thresholdNanos) {
+                    record(EdtLatencyReport.Kind.EVENT_DISPATCH, event.getClass().getName(),
+                            sequence, duration, event.getSource());
+                }
+            }
+        }
+
+        private void dispose() {
+            this.isDisposed = true;
+            // Popping a queue that is not the topmost would remove the queue of
+            // another party
+            if (Toolkit.getDefaultToolkit().getSystemEventQueue() == this) {
+                this.pop();
+            }
+        }
+    }
+
+    private class WatchdogRepaintManager extends RepaintManager {
+        @Override
+        public void paintDirtyRegions() {
+            if ((instance != EdtWatchdog.this) || (frameDepth == 0)) {
+                super.paintDirtyRegions();
+                return;
+            }
+
+            paintCycleCount++;
+            int sequence = enterFrame();
+            try {
+                super.paintDirtyRegions();
+            } finally {
+                long duration = exitFrame(true);
+                if (duration >= thresholdNanos) {
+                    record(EdtLatencyReport.Kind.PAINT_CYCLE, null, sequence, duration,
+                            null);
+                }
+            }
+        }
+    }
+
+    /**
+     * EDT stack trace sampled during a slow event dispatch or paint cycle.
+     */
+    private static class Sample {
+        private final int sequence;
+        private final StackTraceElement[] stackTrace;
+        private final String componentClassName;
+        private final String uiClassName;
+
+        private Sample(int sequence, StackTraceElement[] stackTrace, String componentClassName,
+                String uiClassName) {
+            this.sequence = sequence;
+            this.stackTrace = stackTrace;
+            this.componentClassName = componentClassName;
+            this.uiClassName = uiClassName;
+        }
+    }
+
+    private class MonitorThread extends Thread {
+        private final long reportIntervalNanos;
+        private final Consumer<EdtLatencyReport> reportConsumer;
+        private final long pollIntervalMillis;
+
+        /**
+         * Cache of classes resolved from the stack frames. Only accessed on this thread.
+         */
+        private final Map<String, Class<?>> resolvedClasses = new HashMap<>();
+
+        private volatile boolean isStopRequest;
+
+        private MonitorThread(long reportIntervalNanos,
+                Consumer<EdtLatencyReport> reportConsumer) {
+            this.reportIntervalNanos = reportIntervalNanos;
+            this.reportConsumer = reportConsumer;
+            // Poll often enough to catch the EDT while it's still busy with the slow work
+            this.pollIntervalMillis = Math.max(1,
+                    TimeUnit.NANOSECONDS.toMillis(thresholdNanos) / 4);
+            this.setName("Substance EDT watchdog");
+            this.setDaemon(true);
+        }
+
+        private void requestStop() {
+            this.isStopRequest = true;
+            this.interrupt();
+        }
+
+        @Override
+        public void run() {
+            long nextReport = System.nanoTime() + this.reportIntervalNanos;
+            int lastSampledSequence = 0;
+            while (!this.isStopRequest) {
+                try {
+                    Thread.sleep(this.pollIntervalMillis);
+                } catch (InterruptedException ie) {
+                    continue;
+                }
+
+                long now = System.nanoTime();
+                long start = currentStart;
+                int sequence = currentSequence;
+                if ((start != 0) && ((now - start) >= thresholdNanos)
+                        && (sequence != lastSampledSequence)) {
+                    lastSampledSequence = sequence;
+                    currentSample = this.sample(sequence);
+                }
+
+                if ((this.reportConsumer != null) && (now >= nextReport)) {
+                    nextReport = now + this.reportIntervalNanos;
+                    this.reportConsumer.accept(createReport());
+                }
+            }
+        }
+
+        private Sample sample(int sequence) {
+            Thread thread = edtThread;
+            StackTraceElement[] stackTrace = thread.getStackTrace();
+            ClassLoader classLoader = thread.getContextClassLoader();
+            String componentClassName = null;
+            String uiClassName = null;
+            // Attribute to the innermost component and UI delegate frames
+            for (StackTraceElement element : stackTrace) {
+                Class<?> clazz = this.resolve(element.getClassName(), classLoader);
+                if (clazz == null) {
+                    continue;
+                }
+                if ((uiClassName == null) && ComponentUI.class.isAssignableFrom(clazz)) {
+                    uiClassName = clazz.getName();
+                }
+                if ((componentClassName == null) && Component.class.isAssignableFrom(clazz)) {
+                    componentClassName = clazz.getName();
+                }
+                if ((uiClassName != null) && (componentClassName != null)) {
+                    break;
+                }
+            }
+            return new Sample(sequence, stackTrace, componentClassName, uiClassName);
+        }
+
+        private Class<?> resolve(String className, ClassLoader classLoader) {
+            if (this.resolvedClasses.containsKey(className)) {
+                return this.resolvedClasses.get(className);
+            }
+            Class<?> result = null;
+            try {
+                result = Class.forName(className, false, classLoader);
+            } catch (ClassNotFoundException | LinkageError exc) {
+                try {
+                    result = Class.forName(className, false,
+                            EdtWatchdog.class.getClassLoader());
+                } catch (ClassNotFoundException | LinkageError exc2) {
+                    // Generated and hidden classes can't be resolved by name
+                }
+            }
+            this.resolvedClasses.put(className, result);
+            return result;
+        }
+    }
+
+    private static class EntryKey {
+        private final EdtLatencyReport.Kind kind;
+        private final String eventType;
+        private final String componentClassName;
+        private final String uiClassName;
+
+        private EntryKey(EdtLatencyReport.Kind kind, String eventType,
+                String componentClassName, String uiClassName) {
+            this.kind = kind;
+            this.eventType = eventType;
+            this.componentClassName = componentClassName;
+            this.uiClassName = uiClassName;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof EntryKey)) {
+                return false;
+            }
+            EntryKey other = (EntryKey) obj;
+            return (this.kind == other.kind) && Objects.equals(this.eventType, other.eventType)
+                    && Objects.equals(this.componentClassName, other.componentClassName)
+                    && Objects.equals(this.uiClassName, other.uiClassName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.kind, this.eventType, this.componentClassName,
+                    this.uiClassName);
+        }
+    }
+
+    private static class EntryData {
+        private int count;
+        private long totalDurationNanos;
+        private long maxDurationNanos;
+        private final int[] histogram = new int[EdtLatencyReport.HISTOGRAM_BUCKET_COUNT];
+        private StackTraceElement[] maxDurationStackTrace;
+    }
+}
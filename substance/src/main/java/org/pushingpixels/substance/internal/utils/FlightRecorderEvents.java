@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.substance.internal.utils;
+
+import org.pushingpixels.substance.api.SubstanceSkin;
+import org.pushingpixels.trident.internal.jfr.FlightRecorderEventType;
+
+import javax.swing.*;
+import javax.swing.plaf.ComponentUI;
+import java.awt.*;
+
+/**
+ * Java Flight Recorder events emitted by Substance. The events are only created while there is
+ * a running recording, and cost a single volatile read otherwise. See
+ * {@link FlightRecorderEventType} for the details. This class is <b>for internal use
+ * only</b>.
+ *
+ * @author Kirill Grouchnikov
+ */
+public class FlightRecorderEvents {
+    private static final String[] CATEGORY = new String[] { "Radiance", "Substance" };
+
+    private static final FlightRecorderEventType PAINT = new FlightRecorderEventType(
+            "org.pushingpixels.substance.Paint", "Substance Paint",
+            "Painting of a single component by its Substance UI delegate, not including the "
+                    + "children of the component",
+            CATEGORY,
+            new FlightRecorderEventType.Field(Class.class, "componentClass", "Component Class"),
+            new FlightRecorderEventType.Field(Class.class, "uiClass", "UI Delegate Class"));
+
+    private static final FlightRecorderEventType CACHE_MISS = new FlightRecorderEventType(
+            "org.pushingpixels.substance.CacheMiss", "Substance Cache Miss",
+            "New entry computed and stored in one of the Substance caches",
+            CATEGORY,
+            new FlightRecorderEventType.Field(String.class, "cache", "Cache"),
+            new FlightRecorderEventType.Field(Class.class, "entryClass", "Entry Class"),
+            new FlightRecorderEventType.Field(int.class, "imageWidth", "Image Width"),
+            new FlightRecorderEventType.Field(int.class, "imageHeight", "Image Height"));
+
+    private static final FlightRecorderEventType SKIN_CHANGE = new FlightRecorderEventType(
+            "org.pushingpixels.substance.SkinChange", "Substance Skin Change Phase",
+            "Single phase of switching to a new Substance skin",
+            CATEGORY,
+            new FlightRecorderEventType.Field(String.class, "phase", "Phase"),
+            new FlightRecorderEventType.Field(String.class, "skin", "Skin"));
+
+    /**
+     * Begins a paint event.
+     *
+     * @return The new event, or <code>null</code> if there is no running recording.
+     */
+    public static Object beginPaint() {
+        return PAINT.begin();
+    }
+
+    /**
+     * Ends and commits the specified paint event.
+     *
+     * @param event Event returned by {@link #beginPaint()}. Can be <code>null</code>.
+     * @param c     Painted component.
+     * @param ui    UI delegate of the painted component.
+     */
+    public static void endPaint(Object event, JComponent c, ComponentUI ui) {
+        if (event != null) {
+            PAINT.commit(event, c.getClass(), ui.getClass());
+        }
+    }
+
+    /**
+     * Records a new entry stored in the specified cache. Cache entries are stored after a
+     * lookup miss, so this tracks the misses along with the size of the computed images.
+     *
+     * @param cacheName Display name of the cache.
+     * @param entry     New cache entry.
+     */
+    public static void cacheMiss(String cacheName, Object entry) {
+        if (!CACHE_MISS.isEnabled()) {
+            return;
+        }
+        int width = -1;
+        int height = -1;
+        if (entry instanceof Image) {
+            width = ((Image) entry).getWidth(null);
+            height = ((Image) entry).getHeight(null);
+        }
+        CACHE_MISS.commitInstant(cacheName, (entry == null) ? null : entry.getClass(),
+                width, height);
+    }
+
+    /**
+     * Begins a skin change phase event.
+     *
+     * @return The new event, or <code>null</code> if there is no running recording.
+     */
+    public static Object beginSkinChangePhase() {
+        return SKIN_CHANGE.begin();
+    }
+
+    /**
+     * Ends and commits the specified skin change phase event.
+     *
+     * @param event Event returned by {@link #beginSkinChangePhase()}. Can be
+     *              <code>null</code>.
+     * @param phase Phase name.
+     * @param skin  The new skin.
+     */
+    public static void endSkinChangePhase(Object event, String phase, SubstanceSkin skin) {
+        if (event != null) {
+            SKIN_CHANGE.commit(event, phase, skin.getDisplayName());
+        }
+    }
+}
@@ -86,6 +86,7 @@ public class LazyResettableHashMap<T> {
     public synchronized void put(HashMapKey key, T entry) {
         this.createIfNecessary();
         this.cache.put(key, entry);
+        FlightRecorderEvents.cacheMiss(this.displayName, entry);
     }
 
     /**
@@ -34,6 +34,7 @@ import org.pushingpixels.substance.api.SubstanceCortex.ComponentOrParentChainSco
 import org.pushingpixels.substance.api.SubstanceSkin;
 import org.pushingpixels.substance.api.SubstanceSlices.ColorSchemeAssociationKind;
 import org.pushingpixels.substance.api.colorscheme.*;
+import org.pushingpixels.substance.internal.colorscheme.ColorSchemeRegistry;
 
 import javax.swing.*;
 import javax.swing.plaf.UIResource;
@@ -606,7 +607,7 @@ public class SubstanceColorSchemeUtilities {
     public static SubstanceColorScheme getShiftedScheme(SubstanceColorScheme orig,
             Color backgroundShiftColor, double backgroundShiftFactor, Color foregroundShiftColor,
             double foregroundShiftFactor) {
-        HashMapKey key = SubstanceCoreUtilities.getHashKey(orig.getDisplayName(),
+        HashMapKey key = SubstanceCoreUtilities.getHashKey(ColorSchemeRegistry.getSchemeId(orig),
                 backgroundShiftColor == null ? "" : backgroundShiftColor.getRGB(),
                 backgroundShiftFactor,
                 foregroundShiftColor == null ? "" : foregroundShiftColor.getRGB(),
@@ -33,17 +33,31 @@ import org.pushingpixels.substance.api.SubstanceSlices.Side;
 
 import java.awt.*;
 import java.awt.geom.Arc2D;
-import java.awt.geom.GeneralPath;
 import java.awt.geom.Path2D;
 import java.util.Set;
 
 /**
  * Provides common functionality that can be used by button shapers. This class
  * is <b>for internal use only</b>.
+ * <p>
+ * The outlines returned by this class are cached and shared between all the
+ * callers that ask for the same geometry. The callers must not modify them.
  * 
  * @author Kirill Grouchnikov
  */
 public class SubstanceOutlineUtilities {
+	/**
+	 * Cache of base outlines.
+	 */
+	private static final LazyResettableHashMap<Shape> baseOutlines = new LazyResettableHashMap<>(
+			"SubstanceOutlineUtilities.baseOutline");
+
+	/**
+	 * Cache of triangle button outlines.
+	 */
+	private static final LazyResettableHashMap<Shape> triangleOutlines = new LazyResettableHashMap<>(
+			"SubstanceOutlineUtilities.triangleOutline");
+
 	/**
 	 * Returns basic outline for the specified component. The basic outline is a
 	 * rectangle with rounded corners. Some corners may not be rounded based on
@@ -104,25 +118,45 @@ public class SubstanceOutlineUtilities {
 	 */
 	public static Shape getBaseOutline(float width, float height,
 			float radius, Set<Side> straightSides, float insets) {
-		boolean isTopLeftCorner = (straightSides != null)
-				&& (straightSides.contains(Side.LEFT) || straightSides
-						.contains(Side.TOP));
-		boolean isTopRightCorner = (straightSides != null)
-				&& (straightSides.contains(Side.RIGHT) || straightSides
-						.contains(Side.TOP));
-		boolean isBottomRightCorner = (straightSides != null)
-				&& (straightSides.contains(Side.RIGHT) || straightSides
-						.contains(Side.BOTTOM));
-		boolean isBottomLeftCorner = (straightSides != null)
-				&& (straightSides.contains(Side.LEFT) || straightSides
-						.contains(Side.BOTTOM));
+		// Only the corners matter for the geometry. Keying by the corner mask
+		// instead of the side set also keeps the key immune to later changes
+		// of the passed set.
+		int straightCorners = 0;
+		if (straightSides != null) {
+			boolean isLeft = straightSides.contains(Side.LEFT);
+			boolean isRight = straightSides.contains(Side.RIGHT);
+			boolean isTop = straightSides.contains(Side.TOP);
+			boolean isBottom = straightSides.contains(Side.BOTTOM);
+			straightCorners = ((isLeft || isTop) ? 1 : 0)
+					| ((isRight || isTop) ? 2 : 0)
+					| ((isRight || isBottom) ? 4 : 0)
+					| ((isLeft || isBottom) ? 8 : 0);
+		}
+
+		HashMapKey key = SubstanceCoreUtilities.getHashKey(width, height,
+				radius, straightCorners, insets);
+		Shape result = baseOutlines.get(key);
+		if (result == null) {
+			result = createBaseOutline(width, height, radius, straightCorners,
+					insets);
+			baseOutlines.put(key, result);
+		}
+		return result;
+	}
+
+	private static Path2D createBaseOutline(float width, float height,
+			float radius, int straightCorners, float insets) {
+		boolean isTopLeftCorner = (straightCorners & 1) != 0;
+		boolean isTopRightCorner = (straightCorners & 2) != 0;
+		boolean isBottomRightCorner = (straightCorners & 4) != 0;
+		boolean isBottomLeftCorner = (straightCorners & 8) != 0;
 
 		float xs = insets;
 		float ys = insets;
 		width -= 2 * insets;
 		height -= 2 * insets;
 
-		GeneralPath result = new GeneralPath();
+		Path2D result = new Path2D.Float(Path2D.WIND_NON_ZERO, 12);
 
 		if (isTopLeftCorner || (radius <= 0.0f)) {
 			result.moveTo(xs, ys);
@@ -190,9 +224,20 @@ public class SubstanceOutlineUtilities {
 	 *            Insets to compute the outline.
 	 * @return Outline that has a triangle poiting downwards.
 	 */
-	public static GeneralPath getTriangleButtonOutline(float width, float height,
+	public static Shape getTriangleButtonOutline(float width, float height,
 			float radius, float insets) {
+		HashMapKey key = SubstanceCoreUtilities.getHashKey(width, height,
+				radius, insets);
+		Shape result = triangleOutlines.get(key);
+		if (result == null) {
+			result = createTriangleButtonOutline(width, height, radius, insets);
+			triangleOutlines.put(key, result);
+		}
+		return result;
+	}
 
+	private static Path2D createTriangleButtonOutline(float width,
+			float height, float radius, float insets) {
 		float xs = insets;
 		float ys = insets + 1;
 		float xe = width - insets;
@@ -200,7 +245,7 @@ public class SubstanceOutlineUtilities {
 		width -= 2 * insets;
 		height -= 2 * insets;
 
-		GeneralPath result = new GeneralPath();
+		Path2D result = new Path2D.Float(Path2D.WIND_NON_ZERO, 10);
 		float radius3 = (float) (radius / (1.5 * Math.pow(height, 0.5)));
 		if (Math.max(width, height) < 15)
 			radius3 /= 2;
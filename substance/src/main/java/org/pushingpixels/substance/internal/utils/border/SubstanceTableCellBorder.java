@@ -115,10 +115,8 @@ public class SubstanceTableCellBorder implements Border, UIResource {
 		Graphics2D graphics = (Graphics2D) g.create();
 
 		float radius = 0.0f;
-		StateTransitionTracker stateTransitionTracker = ui
-				.getStateTransitionTracker(cellId);
-		StateTransitionTracker.ModelStateInfo modelStateInfo = (stateTransitionTracker == null) ? null
-				: stateTransitionTracker.getModelStateInfo();
+		StateTransitionTracker.ModelStateInfo modelStateInfo = ui
+				.getModelStateInfo(cellId);
 		Map<ComponentState, StateTransitionTracker.StateContributionInfo> activeStates = (modelStateInfo == null) ? null
 				: modelStateInfo.getStateContributionMap();
 		ComponentState currState = (modelStateInfo == null) ? ui
@@ -0,0 +1,338 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.substance.internal.utils.combo;
+
+import javax.swing.*;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.awt.*;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Cache of the renderer sizes of the elements in a combo box model. This class is <b>for
+ * internal use only</b>.
+ * <p>
+ * Combo boxes without a prototype display value compute their display size by asking the
+ * renderer for the preferred size of every element in the model, and do so again on every
+ * change to the model. This cache keeps the size of each element and measures only the
+ * elements that have been added or changed. When a large model is installed, only a sample of
+ * its elements is measured right away, and the rest of the elements are measured in chunks on
+ * the event dispatch thread.
+ *
+ * @author Kirill Grouchnikov
+ */
+public class ComboBoxDisplaySizeCache implements ListDataListener {
+    /**
+     * The number of elements measured right away from the start of a new model, and also the
+     * number of elements sampled from the rest of it.
+     */
+    private static final int SAMPLE_SIZE = 128;
+
+    /**
+     * The number of elements measured in a single pass of the background measurement.
+     */
+    private static final int CHUNK_SIZE = 2000;
+
+    /**
+     * Marker for an element that hasn't been measured yet.
+     */
+    private static final int UNMEASURED = -1;
+
+    private final Function<Object, Dimension> measurer;
+
+    private final Runnable sizeChangeCallback;
+
+    private ListModel<?> model;
+
+    /**
+     * Renderer widths of the model elements, or {@link #UNMEASURED}. Only the first
+     * {@link #size} entries are in use.
+     */
+    private int[] widths;
+
+    /**
+     * Renderer heights of the model elements, or {@link #UNMEASURED}. Only the first
+     * {@link #size} entries are in use.
+     */
+    private int[] heights;
+
+    private int size;
+
+    private int unmeasuredCount;
+
+    /**
+     * All the elements before this index have been measured.
+     */
+    private int measureCursor;
+
+    private int maxWidth;
+
+    private int maxHeight;
+
+    /**
+     * Set when an element that might have been the widest or the tallest one is removed or
+     * changed. The maximum is then recomputed from the cached sizes, without going to the
+     * renderer.
+     */
+    private boolean isMaxDirty;
+
+    private boolean isMeasureScheduled;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param measurer           Returns the renderer size of the specified element.
+     * @param sizeChangeCallback Called when the size of the widest or the tallest element grows
+     *                           as the result of the background measurement.
+     */
+    public ComboBoxDisplaySizeCache(Function<Object, Dimension> measurer,
+            Runnable sizeChangeCallback) {
+        this.measurer = measurer;
+        this.sizeChangeCallback = sizeChangeCallback;
+        this.widths = new int[0];
+        this.heights = new int[0];
+    }
+
+    /**
+     * Starts tracking the specified model, measuring a sample of its elements.
+     *
+     * @param model The model to track. Can be <code>null</code>.
+     */
+    public void setModel(ListModel<?> model) {
+        if (this.model != null) {
+            this.model.removeListDataListener(this);
+        }
+        this.model = model;
+        if (this.model != null) {
+            this.model.addListDataListener(this);
+        }
+        this.reset();
+    }
+
+    /**
+     * Stops tracking the current model.
+     */
+    public void dispose() {
+        this.setModel(null);
+    }
+
+    /**
+     * Discards all the cached sizes and measures a sample of the model elements again. This
+     * needs to be called when the renderer or the font have changed.
+     */
+    public void reset() {
+        this.size = (this.model == null) ? 0 : this.model.getSize();
+        this.widths = new int[this.size];
+        this.heights = new int[this.size];
+        Arrays.fill(this.widths, UNMEASURED);
+        Arrays.fill(this.heights, UNMEASURED);
+        this.unmeasuredCount = this.size;
+        this.measureCursor = 0;
+        this.maxWidth = 0;
+        this.maxHeight = 0;
+        this.isMaxDirty = false;
+
+        if (this.size <= 2 * SAMPLE_SIZE) {
+            this.measure(0, this.size - 1);
+            return;
+        }
+        // Measure the elements at the start of the model, as these are the ones most likely
+        // to be displayed first, and a sample spread across the rest of the model
+        this.measure(0, SAMPLE_SIZE - 1);
+        int step = (this.size - SAMPLE_SIZE) / SAMPLE_SIZE;
+        for (int i = SAMPLE_SIZE; i < this.size; i += step) {
+            this.measure(i, i);
+        }
+        this.scheduleMeasure();
+    }
+
+    /**
+     * Returns the size of the widest and the tallest element measured so far.
+     *
+     * @return The size of the widest and the tallest element measured so far.
+     */
+    public Dimension getSize() {
+        if (this.isMaxDirty) {
+            this.isMaxDirty = false;
+            this.maxWidth = 0;
+            this.maxHeight = 0;
+            for (int i = 0; i < this.size; i++) {
+                this.maxWidth = Math.max(this.maxWidth, this.widths[i]);
+                this.maxHeight = Math.max(this.maxHeight, this.heights[i]);
+            }
+        }
+        return new Dimension(this.maxWidth, this.maxHeight);
+    }
+
+    private void measure(int index0, int index1) {
+        for (int i = index0; i <= index1; i++) {
+            if (this.widths[i] == UNMEASURED) {
+                this.unmeasuredCount--;
+            }
+            Dimension d = this.measurer.apply(this.model.getElementAt(i));
+            this.widths[i] = d.width;
+            this.heights[i] = d.height;
+            this.maxWidth = Math.max(this.maxWidth, d.width);
+            this.maxHeight = Math.max(this.maxHeight, d.height);
+        }
+    }
+
+    private void markUnmeasured(int index0, int index1) {
+        this.measureCursor = Math.min(this.measureCursor, index0);
+        for (int i = index0; i <= index1; i++) {
+            if (this.widths[i] != UNMEASURED) {
+                this.invalidateMax(i);
+                this.widths[i] = UNMEASURED;
+                this.heights[i] = UNMEASURED;
+                this.unmeasuredCount++;
+            }
+        }
+        this.scheduleMeasure();
+    }
+
+    private void invalidateMax(int index) {
+        if ((this.widths[index] == this.maxWidth) || (this.heights[index] == this.maxHeight)) {
+            this.isMaxDirty = true;
+        }
+    }
+
+    private void scheduleMeasure() {
+        if (this.isMeasureScheduled || (this.unmeasuredCount == 0)) {
+            return;
+        }
+        this.isMeasureScheduled = true;
+        SwingUtilities.invokeLater(this::measureChunk);
+    }
+
+    private void measureChunk() {
+        this.isMeasureScheduled = false;
+        if (this.model == null) {
+            return;
+        }
+        Dimension before = this.getSize();
+        int remaining = CHUNK_SIZE;
+        while ((this.measureCursor < this.size) && (remaining > 0)
+                && (this.unmeasuredCount > 0)) {
+            if (this.widths[this.measureCursor] == UNMEASURED) {
+                this.measure(this.measureCursor, this.measureCursor);
+                remaining--;
+            }
+            this.measureCursor++;
+        }
+        if (this.measureCursor >= this.size) {
+            // Everything has been measured
+            this.unmeasuredCount = 0;
+        }
+        this.scheduleMeasure();
+        if ((this.maxWidth > before.width) || (this.maxHeight > before.height)) {
+            this.sizeChangeCallback.run();
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > this.widths.length) {
+            int newCapacity = Math.max(capacity, this.widths.length + (this.widths.length >> 1));
+            this.widths = Arrays.copyOf(this.widths, newCapacity);
+            this.heights = Arrays.copyOf(this.heights, newCapacity);
+        }
+    }
+
+    @Override
+    public void intervalAdded(ListDataEvent e) {
+        int index0 = Math.min(e.getIndex0(), e.getIndex1());
+        int index1 = Math.max(e.getIndex0(), e.getIndex1());
+        int count = index1 - index0 + 1;
+        if ((index0 < 0) || (index0 > this.size)
+                || (this.size + count != this.model.getSize())) {
+            // Not consistent with what we know about the model
+            this.reset();
+            return;
+        }
+        this.ensureCapacity(this.size + count);
+        System.arraycopy(this.widths, index0, this.widths, index1 + 1, this.size - index0);
+        System.arraycopy(this.heights, index0, this.heights, index1 + 1, this.size - index0);
+        this.size += count;
+        Arrays.fill(this.widths, index0, index1 + 1, UNMEASURED);
+        Arrays.fill(this.heights, index0, index1 + 1, UNMEASURED);
+        this.unmeasuredCount += count;
+        this.measureCursor = Math.min(this.measureCursor, index0);
+        if (count <= CHUNK_SIZE) {
+            this.measure(index0, index1);
+        } else {
+            this.scheduleMeasure();
+        }
+    }
+
+    @Override
+    public void intervalRemoved(ListDataEvent e) {
+        int index0 = Math.min(e.getIndex0(), e.getIndex1());
+        int index1 = Math.max(e.getIndex0(), e.getIndex1());
+        int count = index1 - index0 + 1;
+        if ((index0 < 0) || (index1 >= this.size)
+                || (this.size - count != this.model.getSize())) {
+            this.reset();
+            return;
+        }
+        for (int i = index0; i <= index1; i++) {
+            if (this.widths[i] == UNMEASURED) {
+                this.unmeasuredCount--;
+            } else {
+                this.invalidateMax(i);
+            }
+        }
+        System.arraycopy(this.widths, index1 + 1, this.widths, index0, this.size - index1 - 1);
+        System.arraycopy(this.heights, index1 + 1, this.heights, index0, this.size - index1 - 1);
+        this.size -= count;
+        this.measureCursor = Math.min(this.measureCursor, index0);
+    }
+
+    @Override
+    public void contentsChanged(ListDataEvent e) {
+        if ((e.getIndex0() == -1) && (e.getIndex1() == -1)) {
+            // Selection change
+            return;
+        }
+        int index0 = Math.min(e.getIndex0(), e.getIndex1());
+        int index1 = Math.max(e.getIndex0(), e.getIndex1());
+        if ((index0 < 0) || (index1 >= this.size) || (this.size != this.model.getSize())) {
+            this.reset();
+            return;
+        }
+        if (index1 - index0 + 1 <= CHUNK_SIZE) {
+            for (int i = index0; i <= index1; i++) {
+                this.invalidateMax(i);
+            }
+            this.measure(index0, index1);
+        } else {
+            this.markUnmeasured(index0, index1);
+        }
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.substance.internal.utils.combo;
+
+import javax.swing.*;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import javax.swing.plaf.UIResource;
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * Key selection manager for combo boxes with large models. This class is <b>for internal use
+ * only</b>.
+ * <p>
+ * The default key selection manager finds the next element that starts with the typed prefix
+ * by converting every element of the model to an upper-case string on every key stroke. This
+ * manager keeps the upper-case strings of all the elements in an index that is rebuilt only
+ * after the model has changed. The index groups the elements by their first character, so that
+ * only the elements that start with the first character of the prefix are checked. The
+ * type-ahead behavior is the same as that of the default manager. Models smaller than the
+ * specified threshold are handled by the default manager.
+ *
+ * @author Kirill Grouchnikov
+ */
+public class IndexedKeySelectionManager implements JComboBox.KeySelectionManager,
+        ListDataListener, UIResource {
+    private final JComboBox<?> combo;
+
+    private final JComboBox.KeySelectionManager fallback;
+
+    private final int minModelSize;
+
+    /**
+     * Key strokes that are closer in time than this many milliseconds are treated as a single
+     * prefix.
+     */
+    private final long timeFactor;
+
+    /**
+     * The model that the current index has been built for.
+     */
+    private ListModel<?> indexedModel;
+
+    /**
+     * Upper-case string representations of the model elements, by model index. Is
+     * <code>null</code> when the index needs to be rebuilt.
+     */
+    private String[] keys;
+
+    /**
+     * The first character of the key in the upper 32 bits and the model index in the lower 32
+     * bits, for all the elements with a non-empty key. Sorted so that the elements that start
+     * with the same character are grouped together in the model order.
+     */
+    private long[] firstCharIndex;
+
+    private String prefix = "";
+
+    private String typedString = "";
+
+    private long lastTime;
+
+    private int lastSelectedIndex = -1;
+
+    /**
+     * Creates a new key selection manager.
+     *
+     * @param combo        Combo box.
+     * @param fallback     Key selection manager for models with less than
+     *                     <code>minModelSize</code> elements.
+     * @param minModelSize The minimal model size to use the index for.
+     */
+    public IndexedKeySelectionManager(JComboBox<?> combo,
+            JComboBox.KeySelectionManager fallback, int minModelSize) {
+        this.combo = combo;
+        this.fallback = fallback;
+        this.minModelSize = minModelSize;
+        Object timeFactor = UIManager.get("ComboBox.timeFactor");
+        this.timeFactor = (timeFactor instanceof Long) ? (Long) timeFactor : 1000L;
+    }
+
+    /**
+     * Returns the key selection manager for models smaller than the threshold.
+     *
+     * @return The key selection manager for models smaller than the threshold.
+     */
+    public JComboBox.KeySelectionManager getFallback() {
+        return this.fallback;
+    }
+
+    /**
+     * Stops tracking the changes in the indexed model.
+     */
+    public void dispose() {
+        this.setIndexedModel(null);
+    }
+
+    @Override
+    public int selectionForKey(char aKey, ComboBoxModel<?> aModel) {
+        int modelSize = aModel.getSize();
+        if (modelSize < this.minModelSize) {
+            return this.fallback.selectionForKey(aKey, aModel);
+        }
+        if ((aModel != this.indexedModel) || (this.keys == null)) {
+            this.setIndexedModel(aModel);
+            this.buildIndex();
+        }
+
+        long time = EventQueue.getMostRecentEventTime();
+        int selectedIndex = this.getSelectedIndex(aModel);
+        int startIndex = selectedIndex;
+        // Keyboard navigation changes the selection without going through this manager, and
+        // starts a new prefix
+        if ((time - this.lastTime < this.timeFactor)
+                && (selectedIndex == this.lastSelectedIndex)) {
+            this.typedString += aKey;
+            if ((this.prefix.length() == 1) && (aKey == this.prefix.charAt(0))) {
+                // Subsequent same key presses move to the next element that starts with the
+                // same letter
+                startIndex++;
+            } else {
+                this.prefix = this.typedString;
+            }
+        } else {
+            startIndex++;
+            this.typedString = String.valueOf(aKey);
+            this.prefix = this.typedString;
+        }
+        this.lastTime = time;
+
+        if ((startIndex < 0) || (startIndex >= modelSize)) {
+            startIndex = 0;
+        }
+        int index = this.getNextMatch(this.prefix.toUpperCase(), startIndex);
+        this.lastSelectedIndex = (index >= 0) ? index : selectedIndex;
+        return index;
+    }
+
+    private void setIndexedModel(ListModel<?> model) {
+        if (this.indexedModel != null) {
+            this.indexedModel.removeListDataListener(this);
+        }
+        this.indexedModel = model;
+        this.keys = null;
+        this.firstCharIndex = null;
+        if (this.indexedModel != null) {
+            this.indexedModel.addListDataListener(this);
+        }
+    }
+
+    private void buildIndex() {
+        int modelSize = this.indexedModel.getSize();
+        this.keys = new String[modelSize];
+        long[] packed = new long[modelSize];
+        int count = 0;
+        for (int i = 0; i < modelSize; i++) {
+            String key = getKey(this.indexedModel.getElementAt(i));
+            this.keys[i] = key;
+            if ((key != null) && !key.isEmpty()) {
+                packed[count++] = getFirstCharIndexEntry(key.charAt(0), i);
+            }
+        }
+        Arrays.sort(packed, 0, count);
+        this.firstCharIndex = (count == modelSize) ? packed : Arrays.copyOf(packed, count);
+    }
+
+    private static long getFirstCharIndexEntry(char firstChar, int index) {
+        return ((long) firstChar << 32) | index;
+    }
+
+    /**
+     * Returns the index key of the specified element. This matches the conversion done by
+     * {@link JList#getNextMatch(String, int, javax.swing.text.Position.Bias)}.
+     */
+    private static String getKey(Object element) {
+        if (element == null) {
+            return null;
+        }
+        String string = element.toString();
+        return (string == null) ? null : string.toUpperCase();
+    }
+
+    /**
+     * Returns the position of the first entry in the index that is not smaller than the
+     * specified entry.
+     */
+    private int getLowerBound(long entry) {
+        int position = Arrays.binarySearch(this.firstCharIndex, entry);
+        return (position >= 0) ? position : -position - 1;
+    }
+
+    /**
+     * Returns the position of the first entry in the index that starts with a character larger
+     * than the specified one.
+     */
+    private int getUpperBound(char firstChar) {
+        return (firstChar == Character.MAX_VALUE) ? this.firstCharIndex.length
+                : this.getLowerBound(getFirstCharIndexEntry((char) (firstChar + 1), 0));
+    }
+
+    /**
+     * Returns the index of the combo selected item. Unlike {@link JComboBox#getSelectedIndex()}
+     * this doesn't scan the whole model.
+     */
+    private int getSelectedIndex(ComboBoxModel<?> model) {
+        Object selectedItem = model.getSelectedItem();
+        String key = getKey(selectedItem);
+        if ((key == null) || key.isEmpty()) {
+            return this.combo.getSelectedIndex();
+        }
+        int end = this.getUpperBound(key.charAt(0));
+        for (int i = this.getLowerBound(getFirstCharIndexEntry(key.charAt(0), 0)); i < end; i++) {
+            int index = (int) this.firstCharIndex[i];
+            if (key.equals(this.keys[index]) && selectedItem.equals(model.getElementAt(index))) {
+                return index;
+            }
+        }
+        // The selected item may have a string representation that doesn't match the one of
+        // the model element that it equals to
+        return this.combo.getSelectedIndex();
+    }
+
+    /**
+     * Returns the model index of the first element that starts with the specified prefix,
+     * looking from the specified index forward and wrapping around at the end of the model.
+     */
+    private int getNextMatch(String prefix, int startIndex) {
+        char firstChar = prefix.charAt(0);
+        int begin = this.getLowerBound(getFirstCharIndexEntry(firstChar, 0));
+        int start = this.getLowerBound(getFirstCharIndexEntry(firstChar, startIndex));
+        int end = this.getUpperBound(firstChar);
+        for (int i = start; i < end; i++) {
+            int index = (int) this.firstCharIndex[i];
+            if (this.keys[index].startsWith(prefix)) {
+                return index;
+            }
+        }
+        for (int i = begin; i < start; i++) {
+            int index = (int) this.firstCharIndex[i];
+            if (this.keys[index].startsWith(prefix)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void intervalAdded(ListDataEvent e) {
+        this.keys = null;
+    }
+
+    @Override
+    public void intervalRemoved(ListDataEvent e) {
+        this.keys = null;
+    }
+
+    @Override
+    public void contentsChanged(ListDataEvent e) {
+        if ((e.getIndex0() == -1) && (e.getIndex1() == -1)) {
+            // Selection change
+            return;
+        }
+        this.keys = null;
+    }
+}
@@ -29,6 +29,7 @@
  */
 package org.pushingpixels.substance.internal.utils.combo;
 
+import org.pushingpixels.substance.internal.ui.SubstanceComboBoxUI;
 import org.pushingpixels.substance.internal.ui.SubstanceListUI;
 import org.pushingpixels.substance.internal.utils.SubstanceCoreUtilities;
 import org.pushingpixels.substance.internal.utils.border.SubstanceBorder;
@@ -181,6 +182,9 @@ public class SubstanceComboPopup extends BasicComboPopup {
 
 	@Override
 	public void show() {
+		if (this.comboBox.getUI() instanceof SubstanceComboBoxUI) {
+			((SubstanceComboBoxUI) this.comboBox.getUI()).syncPopupListCellSize();
+		}
 		this.setListSelection(this.comboBox.getSelectedIndex());
 
 		Point location = this.getPopupLocation();
@@ -45,7 +45,6 @@ import javax.swing.*;
 import javax.swing.plaf.UIResource;
 import java.awt.*;
 import java.awt.geom.Ellipse2D;
-import java.awt.geom.GeneralPath;
 import java.awt.image.BufferedImage;
 import java.util.HashMap;
 import java.util.Map;
@@ -267,7 +266,7 @@ public class SubstanceIconFactory {
                     fillScheme, true);
 
             float borderThickness = SubstanceSizeUtils.getBorderStrokeWidth();
-            GeneralPath contourInner = SubstanceOutlineUtilities.getTriangleButtonOutline(width,
+            Shape contourInner = SubstanceOutlineUtilities.getTriangleButtonOutline(width,
                     this.size - 1, 2, borderThickness + borderDelta);
 
             borderPainter.paintBorder(g2d, slider, width, this.size, contour, contourInner,
@@ -606,7 +605,7 @@ public class SubstanceIconFactory {
                     fillScheme, true);
 
             float borderThickness = SubstanceSizeUtils.getBorderStrokeWidth();
-            GeneralPath contourInner = SubstanceOutlineUtilities.getTriangleButtonOutline(height,
+            Shape contourInner = SubstanceOutlineUtilities.getTriangleButtonOutline(height,
                     this.size - 1, 2, borderThickness + borderDelta);
 
             borderPainter.paintBorder(g2d, slider, height, this.size - 1, contour, contourInner,
@@ -46,6 +46,11 @@ import java.awt.event.KeyEvent;
 import java.awt.geom.Area;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Menu-related utilities.
@@ -55,7 +60,7 @@ import java.beans.PropertyChangeListener;
 public class MenuUtilities {
     /**
      * Key to store the layout metrics. The value should be an instance of
-     * {@link MenuLayoutMetrics}.
+     * {@link PopupLayoutCache}.
      */
     private static final String LAYOUT_METRICS = "substancelaf.internal.menus.layoutMetrics";
 
@@ -65,8 +70,20 @@ public class MenuUtilities {
     private static final String GUTTER_X = "substancelaf.internal.menus.gutterX";
 
     /**
-     * Listener to track changes in the menu items. Once any property has been changed, the popup
-     * layout metrics on the menu item and its parent popup menu are cleared.
+     * Names of the menu item properties that affect the layout of the menu item.
+     */
+    private static final Set<String> LAYOUT_PROPERTIES = new HashSet<>(Arrays.asList(
+            AbstractButton.TEXT_CHANGED_PROPERTY, AbstractButton.ICON_CHANGED_PROPERTY,
+            AbstractButton.HORIZONTAL_ALIGNMENT_CHANGED_PROPERTY,
+            AbstractButton.VERTICAL_ALIGNMENT_CHANGED_PROPERTY,
+            AbstractButton.HORIZONTAL_TEXT_POSITION_CHANGED_PROPERTY,
+            AbstractButton.VERTICAL_TEXT_POSITION_CHANGED_PROPERTY, "iconTextGap",
+            "accelerator", "font", "UI", "componentOrientation", BasicHTML.propertyKey));
+
+    /**
+     * Listener to track changes in the menu items. Once a layout-related property has been
+     * changed, the layout info of the menu item is removed from the popup layout metrics of its
+     * parent popup menu.
      * 
      * @author Kirill Grouchnikov
      */
@@ -76,11 +93,6 @@ public class MenuUtilities {
          */
         private JMenuItem menuItem;
 
-        /**
-         * Runnable instance to clean the layout metrics.
-         */
-        private Runnable cleanLayoutMetricsRunnable;
-        
         /**
          * Creates a new listener.
          * 
@@ -89,7 +101,6 @@ public class MenuUtilities {
          */
         public MenuPropertyListener(final JMenuItem menuItem) {
             this.menuItem = menuItem;
-            this.cleanLayoutMetricsRunnable = () -> MenuUtilities.cleanPopupLayoutMetrics(menuItem);
         }
 
         /**
@@ -109,14 +120,18 @@ public class MenuUtilities {
         @Override
         public void propertyChange(PropertyChangeEvent evt) {
             if (!evt.getPropertyName().equals(MenuUtilities.LAYOUT_METRICS)) {
-                SwingUtilities.invokeLater(cleanLayoutMetricsRunnable);
-                
                 // Workaround for https://github.com/kirill-grouchnikov/substance/issues/86
                 // introduced in http://hg.openjdk.java.net/jdk8u/jdk8u/jdk/rev/908d5fa49906
                 // where the basic UI delegate overrides the check icon after the custom UI
                 // delegate has already installed its check icon.
                 SubstanceMenu ui = (SubstanceMenu) this.menuItem.getUI();
+                Icon checkIcon = ui.getCheckIcon();
                 ui.updateCheckIconIfNeeded();
+
+                if ((checkIcon != ui.getCheckIcon())
+                        || LAYOUT_PROPERTIES.contains(evt.getPropertyName())) {
+                    MenuUtilities.popupMenuItemChanged(this.menuItem);
+                }
             }
         }
     }
@@ -200,6 +215,54 @@ public class MenuUtilities {
          * Maximum gap between icon and text of the menu items of this popup menu.
          */
         public int maxIconTextGap;
+
+        private void add(MenuLayoutMetrics itemMetrics) {
+            this.maxIconWidth = Math.max(this.maxIconWidth, itemMetrics.maxIconWidth);
+            this.maxCheckIconWidth = Math.max(this.maxCheckIconWidth,
+                    itemMetrics.maxCheckIconWidth);
+            this.maxTextWidth = Math.max(this.maxTextWidth, itemMetrics.maxTextWidth);
+            this.maxAcceleratorWidth = Math.max(this.maxAcceleratorWidth,
+                    itemMetrics.maxAcceleratorWidth);
+            this.maxArrowIconWidth = Math.max(this.maxArrowIconWidth,
+                    itemMetrics.maxArrowIconWidth);
+            this.maxIconTextGap = Math.max(this.maxIconTextGap, itemMetrics.maxIconTextGap);
+        }
+
+        /**
+         * Checks whether removing a menu item with the specified metrics can lower any one
+         * of the maximums in these metrics.
+         */
+        private boolean isAnyMaximumOf(MenuLayoutMetrics itemMetrics) {
+            return isMaximumOf(this.maxIconWidth, itemMetrics.maxIconWidth)
+                    || isMaximumOf(this.maxCheckIconWidth, itemMetrics.maxCheckIconWidth)
+                    || isMaximumOf(this.maxTextWidth, itemMetrics.maxTextWidth)
+                    || isMaximumOf(this.maxAcceleratorWidth, itemMetrics.maxAcceleratorWidth)
+                    || isMaximumOf(this.maxArrowIconWidth, itemMetrics.maxArrowIconWidth)
+                    || isMaximumOf(this.maxIconTextGap, itemMetrics.maxIconTextGap);
+        }
+
+        private static boolean isMaximumOf(int max, int value) {
+            return (max > 0) && (max == value);
+        }
+    }
+
+    /**
+     * Layout metrics of a single popup menu, along with the memoized layout metrics of each one
+     * of its menu items. Adding a menu item updates the popup metrics in place. Removing or
+     * changing a menu item only requires aggregating the memoized metrics of the other menu
+     * items, and doesn't lay them out again.
+     */
+    private static class PopupLayoutCache {
+        /**
+         * Memoized layout metrics of the menu items. Each value has the layout metrics of a
+         * single menu item.
+         */
+        private final Map<JMenuItem, MenuLayoutMetrics> itemMetrics = new IdentityHashMap<>();
+
+        /**
+         * Aggregated metrics, or <code>null</code> if they need to be aggregated again.
+         */
+        private MenuLayoutMetrics metrics;
     }
 
     /**
@@ -477,7 +540,7 @@ public class MenuUtilities {
         MenuLayoutInfo mli = MenuUtilities.getMenuLayoutInfo(true, menuItem,
                 menuUi.getAcceleratorFont(), menuUi.getCheckIcon(), menuUi.getArrowIcon(),
                 menuUi.getDefaultTextIconGap());
-        MenuLayoutMetrics popupMetrics = MenuUtilities.getPopupLayoutMetrics(menuItem, true);
+        MenuLayoutMetrics popupMetrics = MenuUtilities.getPopupLayoutMetrics(menuItem);
         Insets i = menuItem.getInsets();
         if (popupMetrics != null) {
             boolean hasGutterContent = (popupMetrics.maxCheckIconWidth > 0)
@@ -752,72 +815,24 @@ public class MenuUtilities {
     }
 
     /**
-     * Returns the layout metrics of the specified popup menu.
-     * 
-     * @param popupMenu
-     *            Popup menu.
-     * @return Layout metrics of the specified popup menu.
-     */
-    public static MenuLayoutMetrics getMetrics(JPopupMenu popupMenu, boolean forPainting) {
-        MenuLayoutMetrics metrics = new MenuLayoutMetrics();
-        for (int i = 0; i < popupMenu.getComponentCount(); i++) {
-            Component comp = popupMenu.getComponent(i);
-            if (comp instanceof JMenuItem) {
-                JMenuItem childMenuItem = (JMenuItem) comp;
-                ButtonUI bui = childMenuItem.getUI();
-                if (!(bui instanceof SubstanceMenu))
-                    continue;
-                SubstanceMenu ui = (SubstanceMenu) bui;
-                MenuLayoutInfo mli = MenuUtilities.getMenuLayoutInfo(forPainting, childMenuItem,
-                        ui.getAcceleratorFont(), ui.getCheckIcon(), ui.getArrowIcon(),
-                        ui.getDefaultTextIconGap());
-                metrics.maxIconWidth = Math.max(metrics.maxIconWidth, mli.iconRect.width);
-                metrics.maxCheckIconWidth = Math.max(metrics.maxCheckIconWidth,
-                        mli.checkIconRect.width);
-                metrics.maxTextWidth = Math.max(metrics.maxTextWidth, mli.textRect.width);
-                metrics.maxAcceleratorWidth = Math.max(metrics.maxAcceleratorWidth,
-                        mli.acceleratorRect.width);
-                metrics.maxArrowIconWidth = Math.max(metrics.maxArrowIconWidth,
-                        mli.arrowIconRect.width);
-                metrics.maxIconTextGap = Math.max(metrics.maxIconTextGap,
-                        ui.getDefaultTextIconGap());
-            }
-        }
-        return metrics;
-    }
-
-    /**
-     * Returns the layout metrics of the popup menu of the specified menu item.
+     * Returns the layout metrics of the popup menu of the specified menu item. The metrics are
+     * computed from the preferred sizes of the menu items and are shared between layout and
+     * painting.
      * 
      * @param menuItem
      *            Menu item.
      * @return Layout metrics of the popup menu of the specified menu item.
      */
-    public static MenuLayoutMetrics getPopupLayoutMetrics(JMenuItem menuItem, boolean forPainting) {
+    public static MenuLayoutMetrics getPopupLayoutMetrics(JMenuItem menuItem) {
         Component comp = menuItem.getParent();
         if (comp instanceof JPopupMenu) {
             JPopupMenu popupMenu = (JPopupMenu) comp;
-            return getPopupLayoutMetrics(popupMenu, forPainting);
+            return getPopupLayoutMetrics(popupMenu);
         }
         // fix for issue 347 - menu item in menu bar is not
         // covered by the code above
         if (!(comp instanceof JMenu)) {
-            ButtonUI bui = menuItem.getUI();
-            if (bui instanceof SubstanceMenu) {
-                SubstanceMenu ui = (SubstanceMenu) bui;
-
-                MenuLayoutInfo mli = MenuUtilities.getMenuLayoutInfo(forPainting, menuItem,
-                        ui.getAcceleratorFont(), ui.getCheckIcon(), ui.getArrowIcon(),
-                        ui.getDefaultTextIconGap());
-                MenuLayoutMetrics metrics = new MenuLayoutMetrics();
-                metrics.maxIconWidth = mli.iconRect.width;
-                metrics.maxCheckIconWidth = mli.checkIconRect.width;
-                metrics.maxTextWidth = mli.textRect.width;
-                metrics.maxAcceleratorWidth = mli.acceleratorRect.width;
-                metrics.maxArrowIconWidth = mli.arrowIconRect.width;
-                metrics.maxIconTextGap = ui.getDefaultTextIconGap();
-                return metrics;
-            }
+            return getItemLayoutMetrics(menuItem);
         }
 
         // If here, the parent is not popup menu - this is a top-level menu
@@ -825,40 +840,148 @@ public class MenuUtilities {
         return null;
     }
 
-    public static MenuLayoutMetrics getPopupLayoutMetrics(JPopupMenu popupMenu,
-            boolean forPainting) {
-        Object prop = popupMenu.getClientProperty(LAYOUT_METRICS);
-        if (prop instanceof MenuLayoutMetrics) {
-            return (MenuLayoutMetrics) prop;
+    /**
+     * Returns the layout metrics of the specified popup menu. The metrics are memoized on the
+     * popup menu and updated as menu items are added, removed or changed.
+     * 
+     * @param popupMenu
+     *            Popup menu.
+     * @return Layout metrics of the specified popup menu.
+     */
+    public static MenuLayoutMetrics getPopupLayoutMetrics(JPopupMenu popupMenu) {
+        PopupLayoutCache cache = getPopupLayoutCache(popupMenu);
+        if (cache.metrics != null) {
+            return cache.metrics;
+        }
+
+        MenuLayoutMetrics metrics = new MenuLayoutMetrics();
+        Map<JMenuItem, MenuLayoutMetrics> itemMetrics = new IdentityHashMap<>();
+        for (int i = 0; i < popupMenu.getComponentCount(); i++) {
+            Component comp = popupMenu.getComponent(i);
+            if (comp instanceof JMenuItem) {
+                JMenuItem childMenuItem = (JMenuItem) comp;
+                MenuLayoutMetrics childMetrics = cache.itemMetrics.get(childMenuItem);
+                if (childMetrics == null) {
+                    childMetrics = getItemLayoutMetrics(childMenuItem);
+                    if (childMetrics == null) {
+                        continue;
+                    }
+                }
+                itemMetrics.put(childMenuItem, childMetrics);
+                metrics.add(childMetrics);
+            }
         }
-        MenuLayoutMetrics metrics = getMetrics(popupMenu, forPainting);
-        popupMenu.putClientProperty(LAYOUT_METRICS, metrics);
+        // This also drops the menu items that are no longer in this popup menu
+        cache.itemMetrics.clear();
+        cache.itemMetrics.putAll(itemMetrics);
+        cache.metrics = metrics;
         return metrics;
     }
 
+    private static PopupLayoutCache getPopupLayoutCache(JPopupMenu popupMenu) {
+        PopupLayoutCache cache = getExistingPopupLayoutCache(popupMenu);
+        if (cache == null) {
+            cache = new PopupLayoutCache();
+            popupMenu.putClientProperty(LAYOUT_METRICS, cache);
+        }
+        return cache;
+    }
+
+    private static PopupLayoutCache getExistingPopupLayoutCache(JPopupMenu popupMenu) {
+        Object prop = popupMenu.getClientProperty(LAYOUT_METRICS);
+        return (prop instanceof PopupLayoutCache) ? (PopupLayoutCache) prop : null;
+    }
+
     /**
-     * Cleans the layout metrics of the popup menu of the specified menu item.
+     * Returns the layout metrics of a single menu item.
      * 
      * @param menuItem
      *            Menu item.
+     * @return Layout metrics of the specified menu item, or <code>null</code> if the menu item
+     *         doesn't have Substance UI delegate.
      */
-    private static void cleanPopupLayoutMetrics(JMenuItem menuItem) {
-        Component comp = menuItem.getParent();
-        if (comp instanceof JPopupMenu) {
-            JPopupMenu popupMenu = (JPopupMenu) comp;
-            cleanPopupLayoutMetrics(popupMenu);
+    private static MenuLayoutMetrics getItemLayoutMetrics(JMenuItem menuItem) {
+        ButtonUI bui = menuItem.getUI();
+        if (!(bui instanceof SubstanceMenu))
+            return null;
+        SubstanceMenu ui = (SubstanceMenu) bui;
+        MenuLayoutInfo mli = MenuUtilities.getMenuLayoutInfo(false, menuItem,
+                ui.getAcceleratorFont(), ui.getCheckIcon(), ui.getArrowIcon(),
+                ui.getDefaultTextIconGap());
+        MenuLayoutMetrics metrics = new MenuLayoutMetrics();
+        metrics.maxIconWidth = mli.iconRect.width;
+        metrics.maxCheckIconWidth = mli.checkIconRect.width;
+        metrics.maxTextWidth = mli.textRect.width;
+        metrics.maxAcceleratorWidth = mli.acceleratorRect.width;
+        metrics.maxArrowIconWidth = mli.arrowIconRect.width;
+        metrics.maxIconTextGap = ui.getDefaultTextIconGap();
+        return metrics;
+    }
+
+    /**
+     * Updates the layout metrics of the specified popup menu after a component has been
+     * added to it.
+     * 
+     * @param popupMenu
+     *            Popup menu.
+     * @param comp
+     *            Added component.
+     */
+    public static void popupMenuComponentAdded(JPopupMenu popupMenu, Component comp) {
+        PopupLayoutCache cache = getExistingPopupLayoutCache(popupMenu);
+        if ((cache == null) || (cache.metrics == null) || !(comp instanceof JMenuItem)) {
+            return;
+        }
+        JMenuItem menuItem = (JMenuItem) comp;
+        MenuLayoutMetrics itemMetrics = getItemLayoutMetrics(menuItem);
+        if (itemMetrics == null) {
+            return;
         }
+        cache.itemMetrics.put(menuItem, itemMetrics);
+        // Don't modify the metrics that have already been returned
+        MenuLayoutMetrics metrics = new MenuLayoutMetrics();
+        metrics.add(cache.metrics);
+        metrics.add(itemMetrics);
+        cache.metrics = metrics;
     }
 
     /**
-     * Cleans the layout metrics of the specified popup menu.
+     * Updates the layout metrics of the specified popup menu after a component has been
+     * removed from it.
      * 
      * @param popupMenu
      *            Popup menu.
+     * @param comp
+     *            Removed component.
      */
-    public static void cleanPopupLayoutMetrics(JPopupMenu popupMenu) {
-        if (popupMenu != null) {
-            popupMenu.putClientProperty(LAYOUT_METRICS, null);
+    public static void popupMenuComponentRemoved(JPopupMenu popupMenu, Component comp) {
+        PopupLayoutCache cache = getExistingPopupLayoutCache(popupMenu);
+        if (cache == null) {
+            return;
+        }
+        MenuLayoutMetrics itemMetrics = cache.itemMetrics.remove(comp);
+        if ((itemMetrics != null) && (cache.metrics != null)
+                && cache.metrics.isAnyMaximumOf(itemMetrics)) {
+            // Aggregate the memoized metrics of the remaining menu items on the next access
+            cache.metrics = null;
+        }
+    }
+
+    /**
+     * Updates the layout metrics of the popup menu of the specified menu item after a
+     * layout-related property of the menu item has been changed.
+     * 
+     * @param menuItem
+     *            Menu item.
+     */
+    private static void popupMenuItemChanged(JMenuItem menuItem) {
+        Component comp = menuItem.getParent();
+        if (comp instanceof JPopupMenu) {
+            PopupLayoutCache cache = getExistingPopupLayoutCache((JPopupMenu) comp);
+            if (cache != null) {
+                cache.itemMetrics.remove(menuItem);
+                cache.metrics = null;
+            }
         }
     }
 
@@ -872,7 +995,7 @@ public class MenuUtilities {
      */
     public static int getPreferredWidth(JMenuItem menuItem) {
         Insets ins = menuItem.getInsets();
-        MenuLayoutMetrics popupMetrics = MenuUtilities.getPopupLayoutMetrics(menuItem, false);
+        MenuLayoutMetrics popupMetrics = MenuUtilities.getPopupLayoutMetrics(menuItem);
 
         int width = popupMetrics.maxCheckIconWidth + popupMetrics.maxIconWidth
                 + popupMetrics.maxTextWidth + popupMetrics.maxAcceleratorWidth
@@ -96,8 +96,8 @@ public class SubstanceMenuBackgroundDelegate {
 
 		if (menuItem.getParent() instanceof JPopupMenu) {
 			JPopupMenu parent = (JPopupMenu) menuItem.getParent();
-			MenuLayoutMetrics popupMetrics = MenuUtilities.getPopupLayoutMetrics(
-					parent, true);
+			MenuLayoutMetrics popupMetrics = MenuUtilities
+					.getPopupLayoutMetrics(parent);
 			MenuGutterFillKind fillKind = SubstanceCoreUtilities
 					.getMenuGutterFillKind();
 			boolean hasGutterContent = (popupMetrics.maxIconWidth > 0) ||
@@ -0,0 +1,412 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.substance.internal.widget.menu;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ContainerEvent;
+import java.awt.event.ContainerListener;
+import java.beans.PropertyChangeListener;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Search index over the texts of all the menus and menu items of a menu bar. The index is
+ * built once and then kept up to date with container listeners on the menu bar and the popup
+ * menus of all the indexed menus, and with property change listeners on the texts of all the
+ * indexed menu (item)s. This class is <b>for internal use only</b>, and must only be accessed
+ * on the Event Dispatch Thread.
+ *
+ * @author Kirill Grouchnikov
+ */
+public class MenuSearchIndex {
+    /**
+     * The indexed menu bar.
+     */
+    private final JMenuBar menuBar;
+
+    /**
+     * All the indexed menu (item)s.
+     */
+    private final Map<JMenuItem, Node> nodes;
+
+    /**
+     * The indexed menus, keyed by their popup menus.
+     */
+    private final Map<JPopupMenu, Node> popupMenuNodes;
+
+    /**
+     * The indexed top-level menus, in the order of the menu bar.
+     */
+    private final List<Node> roots;
+
+    /**
+     * Updates the structure of the index on changes to the menu bar and the popup menus.
+     */
+    private final ContainerListener containerListener;
+
+    /**
+     * Updates the indexed texts.
+     */
+    private final PropertyChangeListener textListener;
+
+    /**
+     * All the indexed menu (item)s in the order of a depth-first traversal of the menu bar.
+     * Is <code>null</code> when it needs to be recomputed after a structural change.
+     */
+    private Node[] entries;
+
+    /**
+     * Incremented on every change to the index.
+     */
+    private int modificationCount;
+
+    /**
+     * The pattern of the last search.
+     */
+    private String lastPattern;
+
+    /**
+     * Positions in {@link #entries} of all the entries that matched the last pattern.
+     */
+    private int[] lastMatches;
+
+    /**
+     * The number of valid elements in {@link #lastMatches}.
+     */
+    private int lastMatchCount;
+
+    /**
+     * The value of {@link #modificationCount} at the time of the last search.
+     */
+    private int lastModificationCount;
+
+    /**
+     * Single indexed menu (item).
+     */
+    private static class Node {
+        private final JMenuItem menuItem;
+
+        private final Node parent;
+
+        /**
+         * Lower-cased text of the menu (item).
+         */
+        private String text;
+
+        /**
+         * Indexed children of a menu, in the order of its popup menu. Is <code>null</code> for
+         * menu items.
+         */
+        private List<Node> children;
+
+        private Node(JMenuItem menuItem, Node parent) {
+            this.menuItem = menuItem;
+            this.parent = parent;
+            this.text = toSearchText(menuItem.getText());
+        }
+    }
+
+    /**
+     * Creates a new index over all the menus and menu items of the specified menu bar.
+     *
+     * @param menuBar Menu bar.
+     */
+    public MenuSearchIndex(JMenuBar menuBar) {
+        this.menuBar = menuBar;
+        this.nodes = new HashMap<>();
+        this.popupMenuNodes = new HashMap<>();
+        this.roots = new ArrayList<>();
+
+        this.containerListener = new ContainerListener() {
+            @Override
+            public void componentAdded(ContainerEvent e) {
+                onStructureChanged(e);
+            }
+
+            @Override
+            public void componentRemoved(ContainerEvent e) {
+                onStructureChanged(e);
+            }
+        };
+        this.textListener = propertyChangeEvent -> {
+            Node node = nodes.get(propertyChangeEvent.getSource());
+            if (node != null) {
+                node.text = toSearchText((String) propertyChangeEvent.getNewValue());
+                modificationCount++;
+            }
+        };
+
+        this.menuBar.addContainerListener(this.containerListener);
+        this.syncChildren(this.roots, null, this.menuBar);
+    }
+
+    /**
+     * Removes all the listeners installed by this index.
+     */
+    public void dispose() {
+        this.menuBar.removeContainerListener(this.containerListener);
+        for (Node root : this.roots) {
+            this.removeNode(root);
+        }
+        this.roots.clear();
+        this.entries = null;
+        this.modificationCount++;
+    }
+
+    /**
+     * Returns the number of the indexed menus and menu items.
+     *
+     * @return The number of the indexed menus and menu items.
+     */
+    public int size() {
+        return this.nodes.size();
+    }
+
+    /**
+     * Returns the menus and menu items that match the specified pattern. The matching is case
+     * insensitive. Menu (item)s with the text that starts with the pattern come first, followed
+     * by the ones with the text that contains the pattern, followed by the ones with the text
+     * that contains all the characters of the pattern in the same order. Within each group,
+     * the results are in the order of the menu bar.
+     * <p>
+     * Typing the pattern a character at a time is cheap, as a pattern that extends the
+     * previous one only needs to look at the matches of the previous one.
+     *
+     * @param pattern    Pattern.
+     * @param maxResults The maximal number of results to return.
+     * @return The matching menu (item)s.
+     */
+    public List<JMenuItem> search(String pattern, int maxResults) {
+        pattern = toSearchText(pattern);
+        Node[] allEntries = this.getEntries();
+
+        // A match of a longer pattern is always a match of its prefix
+        boolean isRefinement = (this.lastPattern != null)
+                && (this.lastModificationCount == this.modificationCount)
+                && pattern.startsWith(this.lastPattern);
+        int candidateCount = isRefinement ? this.lastMatchCount : allEntries.length;
+        int[] candidates = isRefinement ? this.lastMatches : null;
+
+        int[] matches = new int[Math.min(candidateCount, 16)];
+        int matchCount = 0;
+        List<JMenuItem> prefixMatches = new ArrayList<>();
+        List<JMenuItem> substringMatches = new ArrayList<>();
+        List<JMenuItem> fuzzyMatches = new ArrayList<>();
+        for (int i = 0; i < candidateCount; i++) {
+            int entryIndex = (candidates != null) ? candidates[i] : i;
+            Node entry = allEntries[entryIndex];
+            if (!isSubsequence(pattern, entry.text)) {
+                continue;
+            }
+            if (matchCount == matches.length) {
+                matches = Arrays.copyOf(matches, Math.min(candidateCount, 2 * matchCount));
+            }
+            matches[matchCount++] = entryIndex;
+
+            if (entry.text.startsWith(pattern)) {
+                if (prefixMatches.size() < maxResults) {
+                    prefixMatches.add(entry.menuItem);
+                }
+            } else if (entry.text.contains(pattern)) {
+                if (substringMatches.size() < maxResults) {
+                    substringMatches.add(entry.menuItem);
+                }
+            } else if (fuzzyMatches.size() < maxResults) {
+                fuzzyMatches.add(entry.menuItem);
+            }
+        }
+
+        this.lastPattern = pattern;
+        this.lastMatches = matches;
+        this.lastMatchCount = matchCount;
+        this.lastModificationCount = this.modificationCount;
+
+        List<JMenuItem> result = new ArrayList<>(maxResults);
+        for (List<JMenuItem> group : Arrays.asList(prefixMatches, substringMatches,
+                fuzzyMatches)) {
+            for (JMenuItem menuItem : group) {
+                if (result.size() == maxResults) {
+                    return result;
+                }
+                result.add(menuItem);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the menus leading to the specified indexed menu (item).
+     *
+     * @param menuItem Indexed menu (item).
+     * @return The menus leading to the specified menu (item), starting from the top-level
+     * menu. Does not include the menu (item) itself.
+     */
+    public LinkedList<JMenu> getMenuPath(JMenuItem menuItem) {
+        LinkedList<JMenu> result = new LinkedList<>();
+        Node node = this.nodes.get(menuItem);
+        if (node == null) {
+            return result;
+        }
+        for (Node ancestor = node.parent; ancestor != null; ancestor = ancestor.parent) {
+            result.addFirst((JMenu) ancestor.menuItem);
+        }
+        return result;
+    }
+
+    private void onStructureChanged(ContainerEvent e) {
+        if (!(e.getChild() instanceof JMenuItem)) {
+            return;
+        }
+        Container container = e.getContainer();
+        if (container == this.menuBar) {
+            this.syncChildren(this.roots, null, this.menuBar);
+        } else {
+            Node node = this.popupMenuNodes.get(container);
+            if (node != null) {
+                this.syncChildren(node.children, node, container);
+            }
+        }
+    }
+
+    /**
+     * Syncs the indexed children of a menu bar or a menu with the menu (item)s that it
+     * currently contains.
+     *
+     * @param children  Indexed children. Will be updated in place.
+     * @param parent    The node of the menu, or <code>null</code> for the menu bar.
+     * @param container Menu bar or the popup menu of the menu.
+     */
+    private void syncChildren(List<Node> children, Node parent, Container container) {
+        Set<Node> previous = new HashSet<>(children);
+        children.clear();
+        for (int i = 0; i < container.getComponentCount(); i++) {
+            Component component = container.getComponent(i);
+            // Only menus are indexed on the menu bar
+            if (!(component instanceof JMenuItem)
+                    || ((parent == null) && !(component instanceof JMenu))) {
+                continue;
+            }
+            JMenuItem menuItem = (JMenuItem) component;
+            Node node = this.nodes.get(menuItem);
+            if ((node == null) || (node.parent != parent)) {
+                if (node != null) {
+                    // Moved from another indexed menu without a removal event
+                    ((node.parent == null) ? this.roots : node.parent.children).remove(node);
+                    this.removeNode(node);
+                }
+                node = this.addNode(menuItem, parent);
+            }
+            previous.remove(node);
+            children.add(node);
+        }
+        for (Node removed : previous) {
+            this.removeNode(removed);
+        }
+        this.entries = null;
+        this.modificationCount++;
+    }
+
+    private Node addNode(JMenuItem menuItem, Node parent) {
+        Node node = new Node(menuItem, parent);
+        this.nodes.put(menuItem, node);
+        menuItem.addPropertyChangeListener(AbstractButton.TEXT_CHANGED_PROPERTY,
+                this.textListener);
+        if (menuItem instanceof JMenu) {
+            JPopupMenu popupMenu = ((JMenu) menuItem).getPopupMenu();
+            popupMenu.addContainerListener(this.containerListener);
+            this.popupMenuNodes.put(popupMenu, node);
+            node.children = new ArrayList<>();
+            this.syncChildren(node.children, node, popupMenu);
+        }
+        return node;
+    }
+
+    private void removeNode(Node node) {
+        this.nodes.remove(node.menuItem);
+        node.menuItem.removePropertyChangeListener(AbstractButton.TEXT_CHANGED_PROPERTY,
+                this.textListener);
+        if (node.children != null) {
+            JPopupMenu popupMenu = ((JMenu) node.menuItem).getPopupMenu();
+            popupMenu.removeContainerListener(this.containerListener);
+            this.popupMenuNodes.remove(popupMenu);
+            for (Node child : node.children) {
+                this.removeNode(child);
+            }
+        }
+    }
+
+    private Node[] getEntries() {
+        if (this.entries == null) {
+            List<Node> result = new ArrayList<>(this.nodes.size());
+            for (Node root : this.roots) {
+                collectEntries(root, result);
+            }
+            this.entries = result.toArray(new Node[0]);
+        }
+        return this.entries;
+    }
+
+    private static void collectEntries(Node node, List<Node> result) {
+        result.add(node);
+        if (node.children != null) {
+            for (Node child : node.children) {
+                collectEntries(child, result);
+            }
+        }
+    }
+
+    private static String toSearchText(String text) {
+        return (text == null) ? "" : text.toLowerCase();
+    }
+
+    /**
+     * Checks whether all the characters of the pattern appear in the text in the same order.
+     */
+    private static boolean isSubsequence(String pattern, String text) {
+        int patternLength = pattern.length();
+        int textLength = text.length();
+        if (patternLength > textLength) {
+            return false;
+        }
+        int textIndex = 0;
+        for (int i = 0; i < patternLength; i++) {
+            char c = pattern.charAt(i);
+            while ((textIndex < textLength) && (text.charAt(textIndex) != c)) {
+                textIndex++;
+            }
+            if (textIndex == textLength) {
+                return false;
+            }
+            textIndex++;
+        }
+        return true;
+    }
+}
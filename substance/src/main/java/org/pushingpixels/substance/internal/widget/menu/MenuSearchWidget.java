@@ -41,12 +41,16 @@ import org.pushingpixels.substance.internal.utils.*;
 import org.pushingpixels.substance.internal.utils.icon.TransitionAwareIcon;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.event.*;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
 
@@ -56,6 +60,11 @@ import java.util.ResourceBundle;
  * @author Kirill Grouchnikov
  */
 public class MenuSearchWidget extends SubstanceWidget<JMenuBar> {
+    /**
+     * The maximal number of the displayed search results.
+     */
+    private static final int MAX_SEARCH_RESULTS = 16;
+
     /**
      * Boolean flag to prevent infinite loop. Maybe need to use something more elegant.
      */
@@ -71,6 +80,11 @@ public class MenuSearchWidget extends SubstanceWidget<JMenuBar> {
      */
     private SearchPanel searchPanel;
 
+    /**
+     * Search index over the menus and menu items of the associated menu bar.
+     */
+    private MenuSearchIndex searchIndex;
+
     /**
      * Panel for searching the menus.
      *
@@ -88,10 +102,22 @@ public class MenuSearchWidget extends SubstanceWidget<JMenuBar> {
         private JTextField searchStringField;
 
         /**
-         * The result buttons. Key is {@link Integer}, value is {@link JButton}.
+         * The result buttons of the current search. Key is {@link Integer}, value is
+         * {@link JButton}.
          */
         private Map<Integer, JButton> resultButtons;
 
+        /**
+         * All the result buttons created so far. The buttons are reused across searches, and
+         * the ones that are not needed for the current search are hidden.
+         */
+        private JButton[] resultButtonPool;
+
+        /**
+         * The action listeners of the buttons in {@link #resultButtonPool}.
+         */
+        private SearchResultListener[] resultListenerPool;
+
         /**
          * Simple constructor.
          *
@@ -150,110 +176,91 @@ public class MenuSearchWidget extends SubstanceWidget<JMenuBar> {
             // Map to hold the result buttons (need for the icon reset
             // on theme change and layout manager).
             this.resultButtons = new HashMap<>();
-            this.searchStringField.addActionListener(actionEvent -> {
-                String searchString = SearchPanel.this.searchStringField.getText().toLowerCase();
-                // See if there is at least one non-white space character.
-                // This is fix for bug 54
-                if (searchString.trim().length() == 0) {
-                    return;
+            this.resultButtonPool = new JButton[MAX_SEARCH_RESULTS];
+            this.resultListenerPool = new SearchResultListener[MAX_SEARCH_RESULTS];
+            // Search as the user types, and also on Enter
+            this.searchStringField.addActionListener(
+                    actionEvent -> SearchPanel.this.updateSearchResults());
+            this.searchStringField.getDocument().addDocumentListener(new DocumentListener() {
+                @Override
+                public void insertUpdate(DocumentEvent e) {
+                    SearchPanel.this.updateSearchResults();
                 }
 
-                // remove all old buttons
-                for (JButton toRemove : SearchPanel.this.resultButtons.values()) {
-                    SearchPanel.this.remove(toRemove);
+                @Override
+                public void removeUpdate(DocumentEvent e) {
+                    SearchPanel.this.updateSearchResults();
                 }
-                SearchPanel.this.resultButtons.clear();
-                // find all matching menu items / menus
-                LinkedList<SearchResult> searchResults = SearchPanel.this
-                        .findOccurences(searchString);
-                int count = 0;
-                for (SearchResult searchResult : searchResults) {
-                    // show only first 16 results.
-                    if (count == 16)
-                        break;
-                    // create new button with binary icon
-                    JButton resultButton = new JButton();
-                    final int finalCount = count;
-                    resultButton.setIcon(new TransitionAwareIcon(resultButton,
-                            () -> (TransitionAwareUI) resultButton.getUI(),
-                            scheme -> SubstanceImageCreator.getHexaMarker((finalCount + 1), scheme),
-                            state -> state.isFacetActive(ComponentStateFacet.ROLLOVER)
-                                    ? ColorSchemeAssociationKind.HIGHLIGHT
-                                    : ColorSchemeAssociationKind.MARK,
-                            "substance.widget.menusearch." + (finalCount + 1)));
-
-                    // set action listener (to show the menu).
-                    resultButton.addActionListener(new SearchResultListener(searchResult));
-                    // check if the path to the menu (item) has
-                    // only enabled items.
-                    resultButton.setEnabled(searchResult.isEnabled());
-                    SearchPanel.this.add(resultButton);
-                    SearchPanel.this.resultButtons.put(Integer.valueOf(count + 1), resultButton);
-                    resultButton.setToolTipText("<html><body><b>"
-                            + searchResult.toString() + "</b><br>" + SubstanceCortex.GlobalScope
-                            .getLabelBundle().getString("Tooltip.menuSearchTooltip")
-                            + "</html>");
-                    SubstanceCoreUtilities.markButtonAsFlat(resultButton);
-                    count++;
+
+                @Override
+                public void changedUpdate(DocumentEvent e) {
                 }
-                SearchPanel.this.repaint();
-                jcomp.revalidate();
             });
         }
 
         /**
-         * Returns all occurences of the specified string in the menus and menu items of the
-         * associated menu bar.
-         *
-         * @param searchPattern Pattern to search (no wildcards yet).
-         * @return All occurences of the specified string in the menus and menu items of the
-         * associated menu bar.
+         * Shows the result buttons for all menus and menu items that match the current
+         * content of the search field.
          */
-        private LinkedList<SearchResult> findOccurences(String searchPattern) {
-            LinkedList<SearchResult> result = new LinkedList<>();
-
-            LinkedList<JMenu> currentPath = new LinkedList<>();
-
-            for (int i = 0; i < jcomp.getComponentCount(); i++) {
-                Component component = jcomp.getComponent(i);
-                if (component instanceof JMenu) {
-                    JMenu menu = (JMenu) component;
-                    this.checkMenu(currentPath, menu, searchPattern, result);
+        private void updateSearchResults() {
+            String searchString = this.searchStringField.getText();
+            // See if there is at least one non-white space character.
+            // This is fix for bug 54
+            List<JMenuItem> matches = (searchString.trim().length() == 0)
+                    ? Collections.emptyList()
+                    : searchIndex.search(searchString, MAX_SEARCH_RESULTS);
+
+            int count = 0;
+            for (JMenuItem match : matches) {
+                SearchResult searchResult = new SearchResult(jcomp,
+                        searchIndex.getMenuPath(match), match);
+                JButton resultButton = this.getResultButton(count);
+                this.resultListenerPool[count].searchResult = searchResult;
+                // check if the path to the menu (item) has
+                // only enabled items.
+                resultButton.setEnabled(searchResult.isEnabled());
+                resultButton.setToolTipText("<html><body><b>"
+                        + searchResult.toString() + "</b><br>" + SubstanceCortex.GlobalScope
+                        .getLabelBundle().getString("Tooltip.menuSearchTooltip")
+                        + "</html>");
+                resultButton.setVisible(true);
+                this.resultButtons.put(count + 1, resultButton);
+                count++;
+            }
+            // hide the result buttons that are not needed for this search
+            for (int i = count; i < this.resultButtonPool.length; i++) {
+                if (this.resultButtonPool[i] != null) {
+                    this.resultButtonPool[i].setVisible(false);
+                    this.resultButtonPool[i].setToolTipText(null);
+                    this.resultListenerPool[i].searchResult = null;
                 }
+                this.resultButtons.remove(i + 1);
             }
-
-            return result;
+            this.repaint();
+            jcomp.revalidate();
         }
 
         /**
-         * Recursively scans the specified menu (item) and updates the list that contains all
-         * occurences of the specified string in the contained menus and menu items.
+         * Returns the result button at the specified position, creating it if necessary.
          *
-         * @param currentPath     The path to the current menu (item). Contains {@link JMenu}s.
-         * @param menuItem        The menu (item) itself that is being tested.
-         * @param searchPattern   Pattern to search (no wildcards yet).
-         * @param matchingResults All occurences of the specified string up until now. After <code>this</code>
-         *                        function returns, will also contain all occurences of the specified string in
-         *                        the contained menu (item)s. Contains {@link SearchResult}s.
+         * @param index Position of the result button.
+         * @return The result button at the specified position.
          */
-        private void checkMenu(LinkedList<JMenu> currentPath, JMenuItem menuItem,
-                String searchPattern, LinkedList<SearchResult> matchingResults) {
-            String menuItemText = menuItem.getText();
-            if (menuItemText.toLowerCase().contains(searchPattern)) {
-                matchingResults.addLast(new SearchResult(jcomp, currentPath, menuItem));
-            }
-            if (menuItem instanceof JMenu) {
-                JMenu menu = (JMenu) menuItem;
-                currentPath.addLast(menu);
-                for (int i = 0; i < menu.getMenuComponentCount(); i++) {
-                    Component menuComponent = menu.getMenuComponent(i);
-                    if (menuComponent instanceof JMenuItem) {
-                        JMenuItem childItem = (JMenuItem) menuComponent;
-                        this.checkMenu(currentPath, childItem, searchPattern, matchingResults);
-                    }
-                }
-                currentPath.removeLast();
+        private JButton getResultButton(int index) {
+            JButton resultButton = this.resultButtonPool[index];
+            if (resultButton == null) {
+                // create new button with binary icon
+                resultButton = new JButton();
+                setResultButtonIcon(resultButton, index + 1);
+                // set action listener (to show the menu).
+                SearchResultListener resultListener = new SearchResultListener();
+                resultButton.addActionListener(resultListener);
+                SubstanceCoreUtilities.markButtonAsFlat(resultButton);
+                this.add(resultButton);
+                this.resultButtonPool[index] = resultButton;
+                this.resultListenerPool[index] = resultListener;
             }
+            return resultButton;
         }
 
         @Override
@@ -280,22 +287,16 @@ public class MenuSearchWidget extends SubstanceWidget<JMenuBar> {
      */
     private static class SearchResultListener implements ActionListener {
         /**
-         * The associated search result.
+         * The associated search result. Is updated when the result button is reused for
+         * another search.
          */
         private SearchResult searchResult;
 
-        /**
-         * Simple constructor.
-         *
-         * @param searchResult The associated search result.
-         */
-        public SearchResultListener(SearchResult searchResult) {
-            super();
-            this.searchResult = searchResult;
-        }
-
         @Override
         public void actionPerformed(ActionEvent e) {
+            if (this.searchResult == null) {
+                return;
+            }
             // start opening the menus
             MenuElement[] menuElements = this.searchResult.menuElements;
             MenuSelectionManager.defaultManager().setSelectedPath(menuElements);
@@ -381,63 +382,24 @@ public class MenuSearchWidget extends SubstanceWidget<JMenuBar> {
         }
     }
 
-    private static boolean toInstallMenuSearch(JMenuBar menuBar) {
+    private boolean toInstallMenuSearch() {
         // if the menu search widget has not been allowed,
         // return false
-        if (!SubstanceWidgetManager.getInstance().isAllowed(SwingUtilities.getRootPane(menuBar),
+        if (!SubstanceWidgetManager.getInstance().isAllowed(SwingUtilities.getRootPane(this.jcomp),
                 SubstanceWidgetType.MENU_SEARCH))
             return false;
         // don't install on menu bar of title panes
-        if (menuBar instanceof SubstanceTitlePane.SubstanceMenuBar)
+        if (this.jcomp instanceof SubstanceTitlePane.SubstanceMenuBar)
             return false;
-        return MenuSearchWidget.getMenuItemCount(menuBar) > 40;
-    }
-
-    /**
-     * Returns the number of menu items under the specified menu item.
-     *
-     * @param menuItem The root menu item.
-     * @return The number of menu items under the specified menu item.
-     */
-    private static int getMenuItemCount(JMenuItem menuItem) {
-        int result = 1;
-
-        if (menuItem instanceof JMenu) {
-            JMenu menu = (JMenu) menuItem;
-            for (int i = 0; i < menu.getMenuComponentCount(); i++) {
-                Component child = menu.getMenuComponent(i);
-                if (child instanceof JMenuItem)
-                    result += MenuSearchWidget.getMenuItemCount((JMenuItem) child);
-            }
-        }
-
-        return result;
-    }
-
-    /**
-     * Returns the number of menu items under the specified menu bar.
-     *
-     * @param menuBar The root menu bar.
-     * @return The number of menu items under the specified menu bar.
-     */
-    public static int getMenuItemCount(JMenuBar menuBar) {
-        int result = 0;
-
-        for (int i = 0; i < menuBar.getMenuCount(); i++) {
-            JMenu menu = menuBar.getMenu(i);
-            if (menu != null) {
-                result += MenuSearchWidget.getMenuItemCount(menu);
-            }
-        }
-
-        return result;
+        return this.searchIndex.size() > 40;
     }
 
     @Override
     public void installUI() {
+        this.searchIndex = new MenuSearchIndex(this.jcomp);
         this.searchPanel = new SearchPanel(this.jcomp);
         this.jcomp.add(searchPanel, this.jcomp.getComponentCount());
-        this.searchPanel.setVisible(toInstallMenuSearch(this.jcomp));
+        this.searchPanel.setVisible(toInstallMenuSearch());
         // NewMenuSearchWidget.panels.put(this.jcomp, searchPanel);
         // toAddListener = true;
         // }
@@ -465,7 +427,7 @@ public class MenuSearchWidget extends SubstanceWidget<JMenuBar> {
                         MenuSearchWidget.this.jcomp.add(removed,
                                 MenuSearchWidget.this.jcomp.getComponentCount());
                         // Show search panel only if needed
-                        removed.setVisible(toInstallMenuSearch(MenuSearchWidget.this.jcomp));
+                        removed.setVisible(toInstallMenuSearch());
                     }
                     inEvent = false;
                 }
@@ -483,6 +445,7 @@ public class MenuSearchWidget extends SubstanceWidget<JMenuBar> {
     @Override
     public void uninstallUI() {
         this.jcomp.remove(this.searchPanel);
+        this.searchIndex.dispose();
         super.uninstallUI();
     }
 
@@ -519,17 +482,11 @@ public class MenuSearchWidget extends SubstanceWidget<JMenuBar> {
     private void reset() {
         if (searchPanel == null)
             return;
-        for (Map.Entry<Integer, JButton> entry : searchPanel.resultButtons.entrySet()) {
-            int index = entry.getKey();
-            JButton button = entry.getValue();
-
-            button.setIcon(new TransitionAwareIcon(button,
-                    () -> (TransitionAwareUI) button.getUI(),
-                    scheme -> SubstanceImageCreator.getHexaMarker(index, scheme),
-                    state -> state.isFacetActive(ComponentStateFacet.ROLLOVER)
-                            ? ColorSchemeAssociationKind.HIGHLIGHT
-                            : ColorSchemeAssociationKind.MARK,
-                    "substance.widget.menusearch." + index));
+        for (int i = 0; i < searchPanel.resultButtonPool.length; i++) {
+            JButton button = searchPanel.resultButtonPool[i];
+            if (button != null) {
+                setResultButtonIcon(button, i + 1);
+            }
         }
         searchPanel.updateSearchIcon();
         ResourceBundle bundle = SubstanceCortex.GlobalScope.getLabelBundle();
@@ -537,6 +494,22 @@ public class MenuSearchWidget extends SubstanceWidget<JMenuBar> {
         searchPanel.searchStringField.setToolTipText(bundle.getString("Tooltip.menuSearchField"));
     }
 
+    /**
+     * Sets the icon of the specified result button.
+     *
+     * @param resultButton Result button.
+     * @param index        One-based position of the result button.
+     */
+    private static void setResultButtonIcon(JButton resultButton, int index) {
+        resultButton.setIcon(new TransitionAwareIcon(resultButton,
+                () -> (TransitionAwareUI) resultButton.getUI(),
+                scheme -> SubstanceImageCreator.getHexaMarker(index, scheme),
+                state -> state.isFacetActive(ComponentStateFacet.ROLLOVER)
+                        ? ColorSchemeAssociationKind.HIGHLIGHT
+                        : ColorSchemeAssociationKind.MARK,
+                "substance.widget.menusearch." + index));
+    }
+
     /**
      * Layout for the search panel. Note that {@link FlowLayout} is almost perfect for us, but we
      * need the following:
@@ -32,6 +32,7 @@ package org.pushingpixels.substance.internal.widget.scroll;
 import org.pushingpixels.neon.api.NeonCortex;
 import org.pushingpixels.substance.api.SubstanceCortex;
 import org.pushingpixels.substance.api.SubstanceSlices;
+import org.pushingpixels.substance.api.painter.preview.DefaultPreviewPainter;
 import org.pushingpixels.substance.api.painter.preview.PreviewPainter;
 import org.pushingpixels.substance.internal.AnimationConfigurationManager;
 import org.pushingpixels.substance.internal.utils.SubstanceCoreUtilities;
@@ -79,6 +80,7 @@ public class ScrollPaneSelector extends JComponent {
     private boolean toRestoreOriginal;
     private JButton theButton;
     private BufferedImage theImage;
+    private TiledViewPreview thePreview;
     private Rectangle theStartRectangle;
     private Rectangle theRectangle;
     private Point theStartPoint;
@@ -178,11 +180,15 @@ public class ScrollPaneSelector extends JComponent {
                     thePopupMenu.setVisible(false);
                 Component comp = theScrollPane.getViewport().getView();
                 theComponent = (comp instanceof JComponent) ? (JComponent) comp : null;
+                disposePreview();
             }
         };
         thePopupMenu.addPropertyChangeListener(propertyChangeEvent -> {
             if ("visible".equals(propertyChangeEvent.getPropertyName())) {
                 if (!thePopupMenu.isVisible()) {
+                    if (thePreview != null) {
+                        thePreview.stop();
+                    }
                     setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
                     if (toRestoreOriginal) {
                         int deltaX = (int) ((thePrevPoint.x - theStartPoint.x) / theScale);
@@ -266,6 +272,15 @@ public class ScrollPaneSelector extends JComponent {
         theScrollPane.setLayout(theFormerLayoutManager);
         theScrollPane.firePropertyChange("layoutManager", true, false);
         theScrollPane = null;
+        disposePreview();
+    }
+
+    private void disposePreview() {
+        if (thePreview != null) {
+            thePreview.stop();
+            thePreview = null;
+        }
+        theImage = null;
     }
 
     private void display(Point aPointOnScreen) {
@@ -285,14 +300,33 @@ public class ScrollPaneSelector extends JComponent {
         double scaleX = pDimension.getWidth() / compWidth;
         double scaleY = pDimension.getHeight() / compHeight;
         theScale = Math.min(scaleX, scaleY);
-        int previewWidth = (int) (theComponent.getWidth() * theScale);
-        int previewHeight = (int) (theComponent.getHeight() * theScale);
-        theImage = SubstanceCoreUtilities.getBlankImage(previewWidth, previewHeight);
+        int previewWidth = Math.max(1, (int) (theComponent.getWidth() * theScale));
+        int previewHeight = Math.max(1, (int) (theComponent.getHeight() * theScale));
+
+        if (previewPainter.getClass() == DefaultPreviewPainter.class) {
+            // The default preview is the view itself scaled down. Paint it progressively
+            // at the preview resolution, and keep it around for the next display.
+            if ((thePreview == null) || !thePreview.matches(theComponent, theScale,
+                    previewWidth, previewHeight)) {
+                disposePreview();
+                thePreview = new TiledViewPreview(theComponent, theScale, previewWidth,
+                        previewHeight, region -> {
+                            Insets insets = getInsets();
+                            repaint(region.x + insets.left, region.y + insets.top,
+                                    region.width, region.height);
+                        });
+            }
+            thePreview.display(theComponent.getVisibleRect());
+            theImage = thePreview.getImage();
+        } else {
+            disposePreview();
+            theImage = SubstanceCoreUtilities.getBlankImage(previewWidth, previewHeight);
 
-        Graphics2D g = theImage.createGraphics();
-        previewPainter.previewComponent(null, theComponent, 0, g, 0, 0, theImage.getWidth(),
-                theImage.getHeight());
-        g.dispose();
+            Graphics2D g = theImage.createGraphics();
+            previewPainter.previewComponent(null, theComponent, 0, g, 0, 0,
+                    theImage.getWidth(), theImage.getHeight());
+            g.dispose();
+        }
 
         theStartRectangle = theComponent.getVisibleRect();
         Insets insets = getInsets();
@@ -341,7 +375,7 @@ public class ScrollPaneSelector extends JComponent {
         clip.grow(2, 2);
         theRectangle = newRect;
 
-        paintImmediately(clip);
+        repaint(clip);
     }
 
     private void scroll(final int aDeltaX, final int aDeltaY, boolean toAnimate) {
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.substance.internal.widget.scroll;
+
+import org.pushingpixels.substance.internal.utils.SubstanceCoreUtilities;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Reduced-resolution preview of a scroll pane view, painted progressively in tiles.
+ * <p>
+ * The view is painted directly at the preview scale, without going through a full-size image
+ * of the entire view. Each tile covers a bounded area of the view, so that painting a single
+ * tile of a very large view (such as a table with tens of thousands of rows) has a bounded
+ * cost. The tiles in the visible part of the view are painted as soon as the preview is
+ * displayed. The rest of the tiles are painted in short time slices on the event dispatch
+ * thread, starting with the tiles closest to the visible part.
+ * <p>
+ * The preview is kept between the displays. Tiles painted for a previous display are shown
+ * right away and then painted again, as the view may have changed since then.
+ *
+ * @author Kirill Grouchnikov
+ */
+class TiledViewPreview {
+    /**
+     * Maximal size of a tile, in preview pixels.
+     */
+    private static final int MAX_TILE_SIZE = 64;
+
+    /**
+     * Maximal extent of a tile, in view pixels. Bounds the cost of painting a single tile.
+     */
+    private static final int MAX_TILE_VIEW_EXTENT = 2048;
+
+    /**
+     * Delay between two consecutive time slices, in milliseconds. Leaves the event dispatch
+     * thread free to process the user input between the slices.
+     */
+    private static final int SLICE_DELAY = 10;
+
+    /**
+     * Duration of a single time slice, in nanoseconds.
+     */
+    private static final long SLICE_DURATION = 8000000L;
+
+    private static final byte TILE_MISSING = 0;
+    private static final byte TILE_STALE = 1;
+    private static final byte TILE_VALID = 2;
+
+    private final JComponent view;
+
+    private final double scale;
+
+    private final int width;
+
+    private final int height;
+
+    private final BufferedImage image;
+
+    private final int tileWidth;
+
+    private final int tileHeight;
+
+    private final int columns;
+
+    private final int rows;
+
+    private final byte[] tileStates;
+
+    /**
+     * Tile indices in the order of painting. Is recomputed on every display.
+     */
+    private int[] paintOrder;
+
+    private int paintPosition;
+
+    private final Timer timer;
+
+    /**
+     * Called with the region of the preview, in preview coordinates, that has been painted
+     * during a time slice.
+     */
+    private final Consumer<Rectangle> paintCallback;
+
+    /**
+     * Creates a new preview of the specified view. All the tiles are initially filled with the
+     * background of the view.
+     *
+     * @param view          View component.
+     * @param scale         Preview scale.
+     * @param width         Preview width.
+     * @param height        Preview height.
+     * @param paintCallback Called with the region of the preview that has been painted during
+     *                      a background time slice.
+     */
+    TiledViewPreview(JComponent view, double scale, int width, int height,
+            Consumer<Rectangle> paintCallback) {
+        this.view = view;
+        this.scale = scale;
+        this.width = width;
+        this.height = height;
+        this.paintCallback = paintCallback;
+        this.image = SubstanceCoreUtilities.getBlankImage(width, height);
+
+        int tileSize = (int) Math.max(1, Math.min(MAX_TILE_SIZE, MAX_TILE_VIEW_EXTENT * scale));
+        this.tileWidth = tileSize;
+        this.tileHeight = tileSize;
+        this.columns = (width + tileSize - 1) / tileSize;
+        this.rows = (height + tileSize - 1) / tileSize;
+        this.tileStates = new byte[this.columns * this.rows];
+
+        if (view.isOpaque()) {
+            Graphics2D g2d = this.image.createGraphics();
+            g2d.setColor(view.getBackground());
+            g2d.fillRect(0, 0, width, height);
+            g2d.dispose();
+        }
+
+        this.timer = new Timer(SLICE_DELAY, actionEvent -> this.paintSlice());
+    }
+
+    /**
+     * Checks whether this preview can be displayed for the specified parameters.
+     *
+     * @param view   View component.
+     * @param scale  Preview scale.
+     * @param width  Preview width.
+     * @param height Preview height.
+     * @return <code>true</code> if this preview matches the specified parameters,
+     * <code>false</code> otherwise.
+     */
+    boolean matches(JComponent view, double scale, int width, int height) {
+        return (this.view == view) && (this.scale == scale) && (this.width == width)
+                && (this.height == height);
+    }
+
+    BufferedImage getImage() {
+        return this.image;
+    }
+
+    /**
+     * Prepares this preview for display. The tiles that intersect the specified visible region
+     * of the view are painted right away, and the rest are scheduled for painting in the
+     * background.
+     *
+     * @param visibleViewRect Visible region of the view, in view coordinates.
+     */
+    void display(Rectangle visibleViewRect) {
+        // The view may have changed since the tiles have been painted
+        for (int i = 0; i < this.tileStates.length; i++) {
+            if (this.tileStates[i] == TILE_VALID) {
+                this.tileStates[i] = TILE_STALE;
+            }
+        }
+
+        int firstColumn = this.getColumn(visibleViewRect.x);
+        int lastColumn = this.getColumn(visibleViewRect.x + visibleViewRect.width - 1);
+        int firstRow = this.getRow(visibleViewRect.y);
+        int lastRow = this.getRow(visibleViewRect.y + visibleViewRect.height - 1);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                this.paintTile(row * this.columns + column);
+            }
+        }
+
+        // Order the remaining tiles by their distance from the visible ones
+        long[] order = new long[this.tileStates.length];
+        for (int row = 0; row < this.rows; row++) {
+            int rowDistance = Math.max(0, Math.max(firstRow - row, row - lastRow));
+            for (int column = 0; column < this.columns; column++) {
+                int columnDistance = Math.max(0,
+                        Math.max(firstColumn - column, column - lastColumn));
+                int tile = row * this.columns + column;
+                order[tile] = ((long) Math.max(rowDistance, columnDistance) << 32) | tile;
+            }
+        }
+        Arrays.sort(order);
+        this.paintOrder = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            this.paintOrder[i] = (int) order[i];
+        }
+        this.paintPosition = 0;
+        this.timer.restart();
+    }
+
+    /**
+     * Stops painting the tiles in the background.
+     */
+    void stop() {
+        this.timer.stop();
+    }
+
+    private int getColumn(int viewX) {
+        return Math.max(0, Math.min(this.columns - 1, (int) (viewX * this.scale) / this.tileWidth));
+    }
+
+    private int getRow(int viewY) {
+        return Math.max(0, Math.min(this.rows - 1, (int) (viewY * this.scale) / this.tileHeight));
+    }
+
+    private void paintSlice() {
+        long sliceEnd = System.nanoTime() + SLICE_DURATION;
+        Rectangle painted = null;
+        while ((this.paintPosition < this.paintOrder.length) && (System.nanoTime() < sliceEnd)) {
+            int tile = this.paintOrder[this.paintPosition++];
+            if (this.tileStates[tile] != TILE_VALID) {
+                Rectangle tileBounds = this.paintTile(tile);
+                if (painted == null) {
+                    painted = tileBounds;
+                } else {
+                    painted.add(tileBounds);
+                }
+            }
+        }
+        if (this.paintPosition >= this.paintOrder.length) {
+            this.timer.stop();
+        }
+        if (painted != null) {
+            this.paintCallback.accept(painted);
+        }
+    }
+
+    private Rectangle paintTile(int tile) {
+        int x = (tile % this.columns) * this.tileWidth;
+        int y = (tile / this.columns) * this.tileHeight;
+        int w = Math.min(this.tileWidth, this.width - x);
+        int h = Math.min(this.tileHeight, this.height - y);
+
+        Graphics2D g2d = this.image.createGraphics();
+        g2d.clipRect(x, y, w, h);
+        g2d.setComposite(AlphaComposite.Clear);
+        g2d.fillRect(x, y, w, h);
+        g2d.setComposite(AlphaComposite.SrcOver);
+        // Paint the view directly at the preview scale. The view only paints the part
+        // that intersects the clip of this tile.
+        g2d.scale(this.scale, this.scale);
+        this.view.paint(g2d);
+        g2d.dispose();
+
+        this.tileStates[tile] = TILE_VALID;
+        return new Rectangle(x, y, w, h);
+    }
+}
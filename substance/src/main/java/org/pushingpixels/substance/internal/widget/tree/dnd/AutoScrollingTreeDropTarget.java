@@ -34,66 +34,131 @@ import java.awt.*;
 import java.awt.dnd.DnDConstants;
 import java.awt.dnd.DropTarget;
 import java.awt.dnd.DropTargetListener;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Drop target that scrolls the tree when the drag cursor is near the edges of
+ * its viewport. The scrolling is driven by a single timer shared by all the
+ * trees, so that the scrolling speed doesn't depend on the rate of the drag
+ * events.
+ * 
+ * @author Kirill Grouchnikov
+ */
 class AutoScrollingTreeDropTarget extends DropTarget {
+	private static final int AUTOSCROLL_MARGIN = 16;
+
+	/**
+	 * Delay between two consecutive scroll steps, in milliseconds.
+	 */
+	private static final int AUTOSCROLL_DELAY = 40;
+
+	/**
+	 * All the drop targets that have a drag in progress.
+	 */
+	private static final List<AutoScrollingTreeDropTarget> activeTargets = new ArrayList<>();
+
+	/**
+	 * The shared timer that scrolls the active drop targets. Runs only as long
+	 * as there is at least one active target.
+	 */
+	private static Timer autoscrollTimer;
+
 	private JViewport viewport;
 	private int scrollUnits;
 	private JTree tree;
 
+	/**
+	 * The last drag cursor location, in the coordinates of the viewport. This
+	 * stays valid as the viewport scrolls the tree under a stationary cursor.
+	 */
+	private int dragCursorX;
+	private int dragCursorY;
+
 	AutoScrollingTreeDropTarget(JTree aTree, DropTargetListener listener) {
 		super(aTree, DnDConstants.ACTION_COPY_OR_MOVE, listener);
-		this.viewport = (JViewport) SwingUtilities.getAncestorOfClass(
-				JViewport.class, aTree);
-		this.scrollUnits = Math.max(aTree.getRowHeight(), 16);
 		this.tree = aTree;
 	}
 
-	private Point lastDragCursorLocn = new Point(0, 0);
-
-	protected void updateAutoscroll(Point dragCursorLocn) {
-		if (this.lastDragCursorLocn.equals(dragCursorLocn))
+	@Override
+	protected void initializeAutoscrolling(Point p) {
+		// The tree may have been moved to another viewport since the last
+		// drag, look it up once per drag
+		this.viewport = (JViewport) SwingUtilities.getAncestorOfClass(
+				JViewport.class, this.tree);
+		if (this.viewport == null)
 			return;
-		else
-			this.lastDragCursorLocn.setLocation(dragCursorLocn);
-		this.doAutoscroll(dragCursorLocn);
+		this.scrollUnits = Math.max(this.tree.getRowHeight(), 16);
+		this.updateAutoscroll(p);
+
+		if (!activeTargets.contains(this)) {
+			activeTargets.add(this);
+		}
+		if (autoscrollTimer == null) {
+			autoscrollTimer = new Timer(AUTOSCROLL_DELAY, actionEvent -> {
+				for (int i = activeTargets.size() - 1; i >= 0; i--) {
+					activeTargets.get(i).doAutoscroll();
+				}
+			});
+		}
+		if (!autoscrollTimer.isRunning()) {
+			autoscrollTimer.start();
+		}
 	}
 
-	protected void initializeAutoscrolling(Point p) {
-		this.doAutoscroll(p);
+	@Override
+	protected void updateAutoscroll(Point dragCursorLocn) {
+		if (this.viewport == null)
+			return;
+		int x = dragCursorLocn.x;
+		int y = dragCursorLocn.y;
+		for (Component c = this.tree; (c != null) && (c != this.viewport); c = c
+				.getParent()) {
+			x += c.getX();
+			y += c.getY();
+		}
+		this.dragCursorX = x;
+		this.dragCursorY = y;
 	}
 
+	@Override
 	protected void clearAutoscroll() {
+		activeTargets.remove(this);
+		if (activeTargets.isEmpty() && (autoscrollTimer != null)) {
+			autoscrollTimer.stop();
+		}
 	}
 
-	private static final int AUTOSCROLL_MARGIN = 16;
-
-	protected void doAutoscroll(Point aPoint) {
-		if (this.viewport == null)
+	/**
+	 * Scrolls the viewport by a single step if the last drag cursor location is
+	 * near its edges.
+	 */
+	private void doAutoscroll() {
+		if ((this.viewport == null) || !this.tree.isShowing())
+			return;
+		Component view = this.viewport.getView();
+		if (view == null)
 			return;
 
-		Point treePosition = this.viewport.getViewPosition();
-		int vH = this.viewport.getExtentSize().height;
-		int vW = this.viewport.getExtentSize().width;
-		Point nextPoint = null;
-		if ((aPoint.y - treePosition.y) < AutoScrollingTreeDropTarget.AUTOSCROLL_MARGIN) {
-			nextPoint = new Point(treePosition.x, Math.max(treePosition.y
-					- this.scrollUnits, 0));
-		} else if (treePosition.y + vH - aPoint.y < AutoScrollingTreeDropTarget.AUTOSCROLL_MARGIN) {
-			nextPoint = new Point(treePosition.x, Math.min(aPoint.y
-					+ AutoScrollingTreeDropTarget.AUTOSCROLL_MARGIN, this.tree
-					.getHeight()
-					- vH));
-		} else if (aPoint.x - treePosition.x < AutoScrollingTreeDropTarget.AUTOSCROLL_MARGIN) {
-			nextPoint = new Point(Math.max(treePosition.x
-					- AutoScrollingTreeDropTarget.AUTOSCROLL_MARGIN, 0),
-					treePosition.y);
-		} else if (treePosition.x + vW - aPoint.x < AutoScrollingTreeDropTarget.AUTOSCROLL_MARGIN) {
-			nextPoint = new Point(Math.min(treePosition.x
-					+ AutoScrollingTreeDropTarget.AUTOSCROLL_MARGIN, this.tree
-					.getWidth()
-					- vW), treePosition.y);
+		int vW = this.viewport.getWidth();
+		int vH = this.viewport.getHeight();
+		Point viewPosition = this.viewport.getViewPosition();
+		int x = viewPosition.x;
+		int y = viewPosition.y;
+		if (this.dragCursorY < AUTOSCROLL_MARGIN) {
+			y = Math.max(y - this.scrollUnits, 0);
+		} else if (vH - this.dragCursorY < AUTOSCROLL_MARGIN) {
+			y = Math.max(Math.min(y + this.scrollUnits, view.getHeight() - vH),
+					0);
+		} else if (this.dragCursorX < AUTOSCROLL_MARGIN) {
+			x = Math.max(x - AUTOSCROLL_MARGIN, 0);
+		} else if (vW - this.dragCursorX < AUTOSCROLL_MARGIN) {
+			x = Math.max(Math.min(x + AUTOSCROLL_MARGIN, view.getWidth() - vW),
+					0);
+		}
+		if ((x != viewPosition.x) || (y != viewPosition.y)) {
+			viewPosition.setLocation(x, y);
+			this.viewport.setViewPosition(viewPosition);
 		}
-		if (nextPoint != null)
-			this.viewport.setViewPosition(nextPoint);
 	}
-}
\ No newline at end of file
+}
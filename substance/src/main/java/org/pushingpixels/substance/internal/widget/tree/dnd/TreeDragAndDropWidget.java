@@ -31,6 +31,9 @@ package org.pushingpixels.substance.internal.widget.tree.dnd;
 
 import org.pushingpixels.substance.api.SubstanceWidget;
 import org.pushingpixels.substance.internal.SubstanceSynapse;
+import org.pushingpixels.substance.internal.utils.HashMapKey;
+import org.pushingpixels.substance.internal.utils.LazyResettableHashMap;
+import org.pushingpixels.substance.internal.utils.SubstanceCoreUtilities;
 import org.pushingpixels.substance.internal.utils.WidgetUtilities;
 
 import javax.swing.*;
@@ -69,6 +72,14 @@ public class TreeDragAndDropWidget extends SubstanceWidget<JTree> {
 	 */
 	private static Object[] EMPTY_OBJECT_ARRAY = new Object[0];
 
+	/**
+	 * Drag images keyed by the renderer class. Each image is grown to the
+	 * largest node size dragged so far, and every drag gesture clears and
+	 * repaints only the sub-image that matches the size of the dragged node.
+	 */
+	private static final LazyResettableHashMap<BufferedImage> dragImages = new LazyResettableHashMap<>(
+			"TreeDragAndDropWidget.dragImage");
+
 	protected DnDCellRendererProxy rendererProxy;
 
 	protected DragSource dragSource;
@@ -89,6 +100,12 @@ public class TreeDragAndDropWidget extends SubstanceWidget<JTree> {
 
 	protected DragGestureRecognizer dragGestureRecognizer;
 
+	/**
+	 * Path of the node that currently shows the drop feedback. Only the rows of
+	 * this path are repainted when the drop feedback moves to another node.
+	 */
+	private TreePath dropFeedbackPath;
+
 	@Override
 	public void installListeners() {
 		this.listeners = new EventListenerList();
@@ -193,10 +210,16 @@ public class TreeDragAndDropWidget extends SubstanceWidget<JTree> {
 		}
 
 		if (this.dropListener != null) {
+			if (this.dropTarget instanceof AutoScrollingTreeDropTarget) {
+				// Don't keep scrolling a tree that is not a drop target anymore
+				((AutoScrollingTreeDropTarget) this.dropTarget)
+						.clearAutoscroll();
+			}
 			this.dropTarget.removeDropTargetListener(this.dropListener);
 			this.dropListener = null;
 			this.jcomp.setDropTarget(null);
 		}
+		this.dropFeedbackPath = null;
 
 		if (this.dragGestureRecognizer != null) {
 			this.dragGestureRecognizer
@@ -251,9 +274,29 @@ public class TreeDragAndDropWidget extends SubstanceWidget<JTree> {
 					TreeDragAndDropWidget.this.jcomp.isExpanded(draggedPath),
 					node.isLeaf(), 0, false);
 			component.setSize(dragBounds.width, dragBounds.height);
-			image = new BufferedImage(dragBounds.width, dragBounds.height,
-					BufferedImage.TYPE_INT_ARGB);
+			HashMapKey key = SubstanceCoreUtilities.getHashKey(renderer
+					.getClass().getName());
+			BufferedImage backingImage = TreeDragAndDropWidget.dragImages.get(key);
+			if ((backingImage == null)
+					|| (backingImage.getWidth() < dragBounds.width)
+					|| (backingImage.getHeight() < dragBounds.height)) {
+				int width = dragBounds.width;
+				int height = dragBounds.height;
+				if (backingImage != null) {
+					width = Math.max(width, backingImage.getWidth());
+					height = Math.max(height, backingImage.getHeight());
+				}
+				backingImage = new BufferedImage(width, height,
+						BufferedImage.TYPE_INT_ARGB);
+				TreeDragAndDropWidget.dragImages.put(key, backingImage);
+			}
+			// The sub-image shares the pixels of the backing image
+			image = backingImage.getSubimage(0, 0, dragBounds.width,
+					dragBounds.height);
 			Graphics2D g2d = image.createGraphics();
+			// Clear the contents of the previous drag that reused this image
+			g2d.setComposite(AlphaComposite.Clear);
+			g2d.fillRect(0, 0, dragBounds.width, dragBounds.height);
 			g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC, 0.75f));
 			component.paint(g2d);
 			g2d.dispose();
@@ -490,9 +533,12 @@ public class TreeDragAndDropWidget extends SubstanceWidget<JTree> {
 		}
 
 		public void dragExit(DropTargetEvent dte) {
+			// Show the drop feedback again if the drag comes back to the
+			// same node
+			this.lastDragOverNode = null;
 			TreeDragAndDropWidget.this.dropNode = null;
 			TreeDragAndDropWidget.this.rendererProxy.setDropNode(null);
-			TreeDragAndDropWidget.this.jcomp.repaint();
+			TreeDragAndDropWidget.this.updateDropFeedback(null);
 		}
 
 		public void dropActionChanged(DropTargetDragEvent dtde) {
@@ -531,10 +577,13 @@ public class TreeDragAndDropWidget extends SubstanceWidget<JTree> {
 					.getClosestPathForLocation(dtde.getLocation().x, dtde
 							.getLocation().y);
 
+			if (dropPath == null)
+				return;
+
 			TreeNode currentDropNode = (TreeNode) dropPath
 					.getLastPathComponent();
 
-			if ((dropPath == null) || (currentDropNode == null)
+			if ((currentDropNode == null)
 					|| currentDropNode.equals(this.lastDragOverNode)) {
 				return;
 			} else {
@@ -597,13 +646,12 @@ public class TreeDragAndDropWidget extends SubstanceWidget<JTree> {
 					.setDropAllowed(mayDropHere);
 			TreeDragAndDropWidget.this.rendererProxy
 					.setDropNode((TreeNode) dropPath.getLastPathComponent());
-			TreeDragAndDropWidget.this.jcomp.repaint();
+			TreeDragAndDropWidget.this.updateDropFeedback(dropPath);
 			if (!mayDropHere) {
 				dtde.rejectDrag();
 			} else {
 				dtde.acceptDrag(dtde.getDropAction());
 			}
-			TreeDragAndDropWidget.this.jcomp.repaint();
 		}
 
 		public void dragEnter(DropTargetDragEvent dtde) {
@@ -736,6 +784,47 @@ public class TreeDragAndDropWidget extends SubstanceWidget<JTree> {
 		this.rendererProxy.setDraggedNode(null);
 		this.rendererProxy.setDropAllowed(false);
 		this.rendererProxy.setDropNode(null);
-		this.jcomp.repaint();
+		if (this.dropListener != null)
+			this.dropListener.lastDragOverNode = null;
+		this.updateDropFeedback(null);
+	}
+
+	/**
+	 * Moves the drop feedback to the specified path, repainting only the rows
+	 * of the previous and the new drop target.
+	 * 
+	 * @param newDropFeedbackPath
+	 *            Path of the new drop target. Can be <code>null</code>.
+	 */
+	private void updateDropFeedback(TreePath newDropFeedbackPath) {
+		this.repaintDropFeedback(this.dropFeedbackPath);
+		this.dropFeedbackPath = newDropFeedbackPath;
+		this.repaintDropFeedback(newDropFeedbackPath);
+	}
+
+	/**
+	 * Repaints the drop feedback of the specified path. The feedback spans the
+	 * row of the path and the row that follows it, as the latter shows the
+	 * offset border when the drop is allowed.
+	 * 
+	 * @param path
+	 *            Path of the drop target. Can be <code>null</code>.
+	 */
+	private void repaintDropFeedback(TreePath path) {
+		if (path == null)
+			return;
+		int row = this.jcomp.getRowForPath(path);
+		if (row < 0)
+			return;
+		Rectangle rowBounds = this.jcomp.getRowBounds(row);
+		if (rowBounds == null)
+			return;
+		int bottom = rowBounds.y + rowBounds.height;
+		Rectangle nextRowBounds = this.jcomp.getRowBounds(row + 1);
+		if (nextRowBounds != null)
+			bottom = nextRowBounds.y + nextRowBounds.height;
+		// Row backgrounds span the full tree width
+		this.jcomp.repaint(0, rowBounds.y, this.jcomp.getWidth(), bottom
+				- rowBounds.y);
 	}
 }
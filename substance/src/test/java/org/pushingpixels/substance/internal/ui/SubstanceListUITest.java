@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.substance.internal.ui;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.pushingpixels.substance.api.skin.SubstanceBusinessLookAndFeel;
+
+import javax.swing.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for coalescing list model events in {@link SubstanceListUI}.
+ *
+ * @author Kirill Grouchnikov
+ */
+public class SubstanceListUITest {
+    private static final int MODEL_SIZE = 10;
+
+    private static class TestListModel extends AbstractListModel<String> {
+        @Override
+        public int getSize() {
+            return MODEL_SIZE;
+        }
+
+        @Override
+        public String getElementAt(int index) {
+            return "Item " + index;
+        }
+
+        void fireChanged(int index0, int index1) {
+            fireContentsChanged(this, index0, index1);
+        }
+    }
+
+    @BeforeClass
+    public static void installLookAndFeel() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            try {
+                UIManager.setLookAndFeel(new SubstanceBusinessLookAndFeel());
+            } catch (UnsupportedLookAndFeelException exc) {
+                throw new IllegalStateException(exc);
+            }
+        });
+    }
+
+    private static SubstanceListUI.SubstanceListDataListener getDataListener(
+            TestListModel model) {
+        for (Object listener : model.getListDataListeners()) {
+            if (listener instanceof SubstanceListUI.SubstanceListDataListener) {
+                return (SubstanceListUI.SubstanceListDataListener) listener;
+            }
+        }
+        fail("List UI is not listening to the model");
+        return null;
+    }
+
+    @Test
+    public void changedRangeWithinModelIsTracked() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            TestListModel model = new TestListModel();
+            new JList<>(model);
+            SubstanceListUI.SubstanceListDataListener listener = getDataListener(model);
+
+            model.fireChanged(4, 2);
+            assertFalse(listener.isFullSyncPending());
+            assertEquals(3, listener.getPendingChangedIndexCount());
+        });
+    }
+
+    @Test
+    public void changedRangeUpToMaxValueRequestsFullSync() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            TestListModel model = new TestListModel();
+            new JList<>(model);
+            SubstanceListUI.SubstanceListDataListener listener = getDataListener(model);
+
+            model.fireChanged(0, Integer.MAX_VALUE);
+            assertTrue(listener.isFullSyncPending());
+            assertEquals(0, listener.getPendingChangedIndexCount());
+        });
+    }
+
+    @Test
+    public void changedRangePastModelSizeRequestsFullSync() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            TestListModel model = new TestListModel();
+            new JList<>(model);
+            SubstanceListUI.SubstanceListDataListener listener = getDataListener(model);
+
+            model.fireChanged(2, 1_000_000_000);
+            assertTrue(listener.isFullSyncPending());
+            assertEquals(0, listener.getPendingChangedIndexCount());
+        });
+    }
+}
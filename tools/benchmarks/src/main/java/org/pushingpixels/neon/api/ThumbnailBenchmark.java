@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.neon.api;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link NeonCortex#createThumbnail(BufferedImage, int)} with the previous
+ * implementation that repeatedly halved the image with bicubic interpolation. The sources
+ * are window-sized and 4K snapshots with fine detail. The quality of both implementations,
+ * as the peak signal-to-noise ratio against the area-averaging scaler of the JDK, is printed
+ * during the setup.
+ *
+ * @author Kirill Grouchnikov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ThumbnailBenchmark {
+    @Param({"1280x800", "3840x2160"})
+    public String sourceSize;
+
+    @Param({"200"})
+    public int thumbWidth;
+
+    private BufferedImage source;
+
+    @Setup
+    public void setup() {
+        String[] dimensions = this.sourceSize.split("x");
+        int width = Integer.parseInt(dimensions[0]);
+        int height = Integer.parseInt(dimensions[1]);
+
+        // Snapshot-like content with thin lines and text, which alias when shrunk poorly
+        this.source = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = this.source.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, new Color(250, 250, 250),
+                width, height, new Color(200, 215, 235)));
+        graphics.fillRect(0, 0, width, height);
+        graphics.setColor(new Color(40, 40, 40));
+        for (int y = 0; y < height; y += 3) {
+            graphics.drawLine(0, y, width, y + width / 8);
+        }
+        graphics.setColor(new Color(20, 80, 160));
+        graphics.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 12));
+        for (int y = 16; y < height; y += 24) {
+            graphics.drawString("The quick brown fox jumps over the lazy dog 0123456789",
+                    (y * 7) % 120, y);
+        }
+        graphics.dispose();
+
+        BufferedImage reference = createReferenceThumbnail(this.source, this.thumbWidth);
+        System.out.printf("%n%s: PSNR of halving %.2f dB, of area averaging %.2f dB%n",
+                this.sourceSize, getPeakSignalToNoiseRatio(reference,
+                        createThumbnailByHalving(this.source, this.thumbWidth)),
+                getPeakSignalToNoiseRatio(reference,
+                        NeonCortex.createThumbnail(this.source, this.thumbWidth)));
+    }
+
+    @Benchmark
+    public BufferedImage halving() {
+        return createThumbnailByHalving(this.source, this.thumbWidth);
+    }
+
+    @Benchmark
+    public BufferedImage areaAveraging() {
+        return NeonCortex.createThumbnail(this.source, this.thumbWidth);
+    }
+
+    /**
+     * The previous implementation of {@link NeonCortex#createThumbnail(BufferedImage, int)}.
+     */
+    private static BufferedImage createThumbnailByHalving(BufferedImage image,
+            int requestedThumbWidth) {
+        float ratio = (float) image.getWidth() / (float) image.getHeight();
+        int width = image.getWidth();
+        BufferedImage thumb = image;
+
+        double scaleFactor = NeonCortex.getScaleFactor();
+        do {
+            width /= 2;
+            if (width < requestedThumbWidth) {
+                width = requestedThumbWidth;
+            }
+
+            BufferedImage temp = NeonCortex.getBlankImage(width, (int) (width / ratio));
+            Graphics2D g2 = temp.createGraphics();
+            g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                    RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g2.drawImage(thumb, 0, 0, (int) (temp.getWidth() / scaleFactor),
+                    (int) (temp.getHeight() / scaleFactor), null);
+            g2.dispose();
+
+            thumb = temp;
+        } while (width != requestedThumbWidth);
+
+        return thumb;
+    }
+
+    private static BufferedImage createReferenceThumbnail(BufferedImage image, int width) {
+        int height = (int) (width / ((float) image.getWidth() / (float) image.getHeight()));
+        Image scaled = image.getScaledInstance(width, height, Image.SCALE_AREA_AVERAGING);
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = result.createGraphics();
+        graphics.drawImage(scaled, 0, 0, null);
+        graphics.dispose();
+        return result;
+    }
+
+    private static double getPeakSignalToNoiseRatio(BufferedImage reference,
+            BufferedImage image) {
+        int width = reference.getWidth();
+        int height = reference.getHeight();
+        double squaredError = 0.0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int expected = reference.getRGB(x, y);
+                int actual = image.getRGB(x, y);
+                for (int shift = 0; shift < 32; shift += 8) {
+                    int delta = ((expected >>> shift) & 0xFF) - ((actual >>> shift) & 0xFF);
+                    squaredError += delta * delta;
+                }
+            }
+        }
+        double meanSquaredError = squaredError / (4.0 * width * height);
+        return 10.0 * Math.log10(255.0 * 255.0 / Math.max(meanSquaredError, 1.0e-10));
+    }
+}
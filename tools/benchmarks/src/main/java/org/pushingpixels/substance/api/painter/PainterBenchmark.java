@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.substance.api.painter;
+
+import org.openjdk.jmh.annotations.*;
+import org.pushingpixels.substance.api.SubstanceBenchmarkSupport;
+import org.pushingpixels.substance.api.colorscheme.LightAquaColorScheme;
+import org.pushingpixels.substance.api.colorscheme.SubstanceColorScheme;
+import org.pushingpixels.substance.api.painter.border.*;
+import org.pushingpixels.substance.api.painter.fill.*;
+import org.pushingpixels.substance.internal.utils.SubstanceOutlineUtilities;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of painting the fill and the border of a single button-sized contour with
+ * the core fill and border painters. This is the work that is done on every miss of the button
+ * background cache.
+ *
+ * @author Kirill Grouchnikov
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PainterBenchmark {
+    private static final int WIDTH = 80;
+
+    private static final int HEIGHT = 24;
+
+    @State(Scope.Benchmark)
+    public static class Canvas {
+        private BufferedImage image;
+
+        private JButton button;
+
+        private Shape contour;
+
+        private Shape innerContour;
+
+        private SubstanceColorScheme colorScheme;
+
+        @Setup
+        public void setup() throws Exception {
+            SubstanceBenchmarkSupport.installLookAndFeel();
+            this.image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+            SwingUtilities.invokeAndWait(() -> {
+                button = new JButton("button");
+                button.setSize(WIDTH, HEIGHT);
+            });
+            this.contour = SubstanceOutlineUtilities.getBaseOutline(WIDTH, HEIGHT, 3.0f,
+                    null, 0.5f);
+            this.innerContour = SubstanceOutlineUtilities.getBaseOutline(WIDTH, HEIGHT, 2.0f,
+                    null, 1.5f);
+            this.colorScheme = new LightAquaColorScheme();
+        }
+
+        private Graphics2D createGraphics() {
+            Graphics2D graphics = this.image.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                    RenderingHints.VALUE_ANTIALIAS_ON);
+            return graphics;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Fill {
+        @Param({"Standard", "Classic", "Glass", "Matte", "Subdued"})
+        public String painter;
+
+        private SubstanceFillPainter fillPainter;
+
+        @Setup
+        public void setup() {
+            switch (this.painter) {
+                case "Standard":
+                    this.fillPainter = new StandardFillPainter();
+                    break;
+                case "Classic":
+                    this.fillPainter = new ClassicFillPainter();
+                    break;
+                case "Glass":
+                    this.fillPainter = new GlassFillPainter();
+                    break;
+                case "Matte":
+                    this.fillPainter = new MatteFillPainter();
+                    break;
+                case "Subdued":
+                    this.fillPainter = new SubduedFillPainter();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown fill painter " + this.painter);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Border {
+        @Param({"Standard", "Classic", "Glass", "Flat"})
+        public String painter;
+
+        private SubstanceBorderPainter borderPainter;
+
+        @Setup
+        public void setup() {
+            switch (this.painter) {
+                case "Standard":
+                    this.borderPainter = new StandardBorderPainter();
+                    break;
+                case "Classic":
+                    this.borderPainter = new ClassicBorderPainter();
+                    break;
+                case "Glass":
+                    this.borderPainter = new GlassBorderPainter();
+                    break;
+                case "Flat":
+                    this.borderPainter = new FlatBorderPainter();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown border painter " + this.painter);
+            }
+        }
+    }
+
+    @Benchmark
+    public void paintFill(Canvas canvas, Fill fill) {
+        Graphics2D graphics = canvas.createGraphics();
+        fill.fillPainter.paintContourBackground(graphics, canvas.button, WIDTH, HEIGHT,
+                canvas.contour, false, canvas.colorScheme, true);
+        graphics.dispose();
+    }
+
+    @Benchmark
+    public void paintBorder(Canvas canvas, Border border) {
+        Graphics2D graphics = canvas.createGraphics();
+        border.borderPainter.paintBorder(graphics, canvas.button, WIDTH, HEIGHT,
+                canvas.contour, canvas.innerContour, canvas.colorScheme);
+        graphics.dispose();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.substance.internal.svg;
+
+import org.openjdk.jmh.annotations.*;
+import org.pushingpixels.neon.api.icon.ResizableIcon;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of painting transcoded SVG icons at different sizes. The icons are chosen
+ * to cover simple and complex paths.
+ *
+ * @author Kirill Grouchnikov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TranscodedIconBenchmark {
+    @Param({"16", "32", "64"})
+    public int size;
+
+    @Param({"error", "brightness", "computer"})
+    public String icon;
+
+    private ResizableIcon resizableIcon;
+
+    private BufferedImage canvas;
+
+    @Setup
+    public void setup() {
+        switch (this.icon) {
+            case "error":
+                this.resizableIcon = ic_error_black_24px.of(this.size, this.size);
+                break;
+            case "brightness":
+                this.resizableIcon = ic_brightness_high_black_24px.of(this.size, this.size);
+                break;
+            case "computer":
+                this.resizableIcon = ic_computer_black_24px.of(this.size, this.size);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown icon " + this.icon);
+        }
+        this.canvas = new BufferedImage(this.size, this.size, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    @Benchmark
+    public void paintIcon() {
+        Graphics2D graphics = this.canvas.createGraphics();
+        this.resizableIcon.paintIcon(null, graphics, 0, 0);
+        graphics.dispose();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.substance.internal.utils;
+
+import org.openjdk.jmh.annotations.*;
+import org.pushingpixels.substance.api.SubstanceBenchmarkSupport;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of painting the background of a button with
+ * {@link ButtonBackgroundDelegate}. A cache hit only draws the cached background image. A cache
+ * miss resets all the Substance caches first, so that it measures creating the background from
+ * scratch, as is the case on the first paint of a button with a new size or state.
+ *
+ * @author Kirill Grouchnikov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ButtonBackgroundDelegateBenchmark {
+    @Param({"24", "48"})
+    public int height;
+
+    private ButtonBackgroundDelegate delegate;
+
+    private JButton button;
+
+    private BufferedImage canvas;
+
+    @Setup
+    public void setup() throws Exception {
+        SubstanceBenchmarkSupport.installLookAndFeel();
+        SwingUtilities.invokeAndWait(() -> {
+            button = new JButton("button");
+            button.setSize(4 * height, height);
+        });
+        this.delegate = new ButtonBackgroundDelegate();
+        this.canvas = new BufferedImage(4 * this.height, this.height,
+                BufferedImage.TYPE_INT_ARGB);
+    }
+
+    @Benchmark
+    public void cacheHit() {
+        Graphics2D graphics = this.canvas.createGraphics();
+        this.delegate.updateBackground(graphics, this.button);
+        graphics.dispose();
+    }
+
+    @Benchmark
+    public void cacheMiss() {
+        LazyResettableHashMap.reset();
+        Graphics2D graphics = this.canvas.createGraphics();
+        this.delegate.updateBackground(graphics, this.button);
+        graphics.dispose();
+    }
+}
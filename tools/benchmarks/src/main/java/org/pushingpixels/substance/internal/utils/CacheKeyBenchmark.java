@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.substance.internal.utils;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of the Substance cache primitives. The keys mimic the keys that the
+ * background delegates compute on every paint - a mix of sizes, scheme ids, painter names and
+ * flags.
+ *
+ * @author Kirill Grouchnikov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class CacheKeyBenchmark {
+    private static final int KEY_COUNT = 1024;
+
+    private LazyResettableHashMap<Object> map;
+
+    private HashMapKey[] keys;
+
+    private int index;
+
+    @Setup
+    public void setup() {
+        this.map = new LazyResettableHashMap<>("CacheKeyBenchmark");
+        this.keys = new HashMapKey[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            this.keys[i] = createKey(i);
+            this.map.put(this.keys[i], Integer.valueOf(i));
+        }
+    }
+
+    private static HashMapKey createKey(int i) {
+        return SubstanceCoreUtilities.getHashKey(60 + (i % 32), 24 + (i / 32), "Light Aqua",
+                "Steel Blue", "Standard", "Classic", "Glass", 3000, true, false, 12);
+    }
+
+    private HashMapKey nextKey() {
+        this.index = (this.index + 1) & (KEY_COUNT - 1);
+        return this.keys[this.index];
+    }
+
+    @Benchmark
+    public HashMapKey createKey() {
+        this.index = (this.index + 1) & (KEY_COUNT - 1);
+        return createKey(this.index);
+    }
+
+    @Benchmark
+    public int hashKey() {
+        return this.nextKey().hashCode();
+    }
+
+    @Benchmark
+    public void createAndGet(Blackhole blackhole) {
+        // The typical paint path - compute a new key and look it up
+        this.index = (this.index + 1) & (KEY_COUNT - 1);
+        blackhole.consume(this.map.get(createKey(this.index)));
+    }
+
+    @Benchmark
+    public void get(Blackhole blackhole) {
+        blackhole.consume(this.map.get(this.nextKey()));
+    }
+
+    @Benchmark
+    public void put() {
+        HashMapKey key = this.nextKey();
+        this.map.put(key, key);
+    }
+}
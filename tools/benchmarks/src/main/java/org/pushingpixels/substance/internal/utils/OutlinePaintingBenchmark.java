@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.substance.internal.utils;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pushingpixels.substance.api.SubstanceSlices.Side;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of painting the contours of 1,000 buttons. Each button asks for its outer
+ * contour, its inner contour and its focus ring contour, fills the outer contour and draws the
+ * other two, which is what the button background delegate and the border painters do on every
+ * paint.
+ * <p>
+ * In the <code>repeated</code> layout the buttons come in a handful of sizes, which is typical
+ * for toolbars and forms. In the <code>distinct</code> layout every button has a different
+ * size, so that every outline is a cache miss.
+ *
+ * @author Kirill Grouchnikov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class OutlinePaintingBenchmark {
+    @Param({"1000"})
+    public int buttonCount;
+
+    @Param({"repeated", "distinct"})
+    public String layout;
+
+    private float[] widths;
+
+    private float[] heights;
+
+    private Set<Side>[] straightSides;
+
+    private BufferedImage canvas;
+
+    private Graphics2D graphics;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        this.widths = new float[this.buttonCount];
+        this.heights = new float[this.buttonCount];
+        this.straightSides = new Set[this.buttonCount];
+        boolean isDistinct = "distinct".equals(this.layout);
+        for (int i = 0; i < this.buttonCount; i++) {
+            this.widths[i] = isDistinct ? (60 + i * 0.25f) : (60 + 10 * (i % 4));
+            this.heights[i] = isDistinct ? (22 + (i % 7)) : 24;
+            // Every fifth button is a part of a button strip
+            this.straightSides[i] = (i % 5 == 0) ? EnumSet.of(Side.RIGHT) : null;
+        }
+        this.canvas = new BufferedImage(400, 40, BufferedImage.TYPE_INT_ARGB);
+        this.graphics = this.canvas.createGraphics();
+        this.graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                RenderingHints.VALUE_ANTIALIAS_ON);
+        this.graphics.setColor(Color.GRAY);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.graphics.dispose();
+    }
+
+    @Benchmark
+    public void paintButtons(Blackhole blackhole) {
+        float borderStrokeWidth = 1.0f;
+        float borderDelta = borderStrokeWidth / 2.0f;
+        float radius = 4.0f;
+        for (int i = 0; i < this.buttonCount; i++) {
+            float width = this.widths[i];
+            float height = this.heights[i];
+            Set<Side> sides = this.straightSides[i];
+
+            Shape contour = SubstanceOutlineUtilities.getBaseOutline(width, height,
+                    radius, sides, borderDelta);
+            Shape contourInner = SubstanceOutlineUtilities.getBaseOutline(width, height,
+                    radius - borderStrokeWidth, sides, borderStrokeWidth + borderDelta);
+            Shape focusRing = SubstanceOutlineUtilities.getBaseOutline(width, height,
+                    radius - 2.0f, sides, 2.0f);
+
+            this.graphics.fill(contour);
+            this.graphics.draw(contourInner);
+            this.graphics.draw(focusRing);
+            blackhole.consume(contour);
+        }
+    }
+
+    @Benchmark
+    public void getOutlines(Blackhole blackhole) {
+        float radius = 4.0f;
+        for (int i = 0; i < this.buttonCount; i++) {
+            blackhole.consume(SubstanceOutlineUtilities.getBaseOutline(this.widths[i],
+                    this.heights[i], radius, this.straightSides[i], 0.5f));
+        }
+    }
+}
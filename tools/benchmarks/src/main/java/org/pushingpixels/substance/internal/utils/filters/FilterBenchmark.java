@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.substance.internal.utils.filters;
+
+import org.openjdk.jmh.annotations.*;
+import org.pushingpixels.neon.api.filter.NeonAbstractFilter;
+import org.pushingpixels.substance.api.colorscheme.OrangeColorScheme;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of the image filters that are used to create colorized and disabled
+ * versions of icons, on icon-sized and larger images.
+ *
+ * @author Kirill Grouchnikov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class FilterBenchmark {
+    @Param({"16", "64", "256"})
+    public int size;
+
+    @Param({"colorScheme", "grayscale"})
+    public String filterKind;
+
+    private NeonAbstractFilter filter;
+
+    private BufferedImage source;
+
+    private BufferedImage destination;
+
+    @Setup
+    public void setup() {
+        switch (this.filterKind) {
+            case "colorScheme":
+                this.filter = ColorSchemeFilter.getColorSchemeFilter(new OrangeColorScheme(),
+                        0.5f);
+                break;
+            case "grayscale":
+                this.filter = new GrayscaleFilter();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown filter " + this.filterKind);
+        }
+
+        // Translucent gradient content, similar to an anti-aliased icon
+        this.source = new BufferedImage(this.size, this.size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = this.source.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setPaint(new GradientPaint(0, 0, new Color(30, 120, 200),
+                this.size, this.size, new Color(240, 180, 40)));
+        graphics.fillOval(1, 1, this.size - 2, this.size - 2);
+        graphics.dispose();
+
+        this.destination = this.filter.createCompatibleDestImage(this.source, null);
+    }
+
+    @Benchmark
+    public BufferedImage filter() {
+        return this.filter.filter(this.source, null);
+    }
+
+    @Benchmark
+    public BufferedImage filterInto() {
+        return this.filter.filter(this.source, this.destination);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.substance.internal.widget.menu;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.swing.*;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of menu search on a synthetic menu bar with 10 top-level menus, 20
+ * submenus in each and 50 menu items in each submenu - 10,210 entries in total. Typing
+ * measures the full sequence of searches as the user types a word a character at a time.
+ *
+ * @author Kirill Grouchnikov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class MenuSearchIndexBenchmark {
+    private static final String[] WORDS = {"Open", "Save", "Export", "Import", "Selection",
+            "Layer", "Filter", "Document", "Window", "Preferences", "Recent", "Format",
+            "Image", "Table", "Column", "Row", "Chart", "Report", "Print", "Preview"};
+
+    private JMenuBar menuBar;
+
+    private MenuSearchIndex index;
+
+    private JMenuItem renamedItem;
+
+    private int renameCount;
+
+    @Setup
+    public void setup() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            Random random = new Random(0);
+            this.menuBar = new JMenuBar();
+            for (int i = 0; i < 10; i++) {
+                JMenu menu = new JMenu(WORDS[i] + " " + i);
+                for (int j = 0; j < 20; j++) {
+                    JMenu submenu = new JMenu(createText(random, j));
+                    for (int k = 0; k < 50; k++) {
+                        this.renamedItem = new JMenuItem(createText(random, k));
+                        submenu.add(this.renamedItem);
+                    }
+                    menu.add(submenu);
+                }
+                this.menuBar.add(menu);
+            }
+            this.index = new MenuSearchIndex(this.menuBar);
+        });
+    }
+
+    private static String createText(Random random, int position) {
+        return WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                + " " + WORDS[random.nextInt(WORDS.length)] + " " + position;
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        SwingUtilities.invokeAndWait(() -> this.index.dispose());
+    }
+
+    @Benchmark
+    public void build(Blackhole blackhole) throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            MenuSearchIndex newIndex = new MenuSearchIndex(this.menuBar);
+            blackhole.consume(newIndex.size());
+            newIndex.dispose();
+        });
+    }
+
+    @Benchmark
+    public void search(Blackhole blackhole) throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            // Not a refinement of the previous search
+            blackhole.consume(this.index.search("x", 16));
+            blackhole.consume(this.index.search("chart", 16));
+        });
+    }
+
+    @Benchmark
+    public void typing(Blackhole blackhole) throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            String word = "preferences";
+            for (int i = 1; i <= word.length(); i++) {
+                blackhole.consume(this.index.search(word.substring(0, i), 16));
+            }
+        });
+    }
+
+    @Benchmark
+    public void renameAndSearch(Blackhole blackhole) throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            this.renamedItem.setText("Renamed " + (this.renameCount++));
+            blackhole.consume(this.index.search("renamed", 16));
+        });
+    }
+}
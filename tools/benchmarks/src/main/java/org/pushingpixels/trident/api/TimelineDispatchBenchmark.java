@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.trident.api;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pushingpixels.trident.api.callback.TimelineCallbackAdapter;
+import org.pushingpixels.trident.api.swing.EventDispatchThreadTimelineCallbackAdapter;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of fanning out pulses and state changes of concurrently running timelines
+ * to their callbacks. Each timeline has one callback that runs on EDT and one that runs on the
+ * Trident callback thread. Every benchmark invocation waits for EDT to process the scheduled
+ * callbacks, so that the EDT side of the dispatch is part of the measurement.
+ * <p>
+ * This benchmark lives in the Trident API package to drive the timeline callback chain
+ * directly, without waiting for the pulses of the Trident engine.
+ *
+ * @author Kirill Grouchnikov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TimelineDispatchBenchmark {
+    private static final Runnable NO_OP = () -> {
+    };
+
+    @Param({"1000"})
+    public int timelineCount;
+
+    private Timeline[] timelines;
+
+    private float position;
+
+    private volatile int callbackCount;
+
+    /**
+     * Timeline on a component that is not displayable in a headless environment. Forcing
+     * UI updates makes sure that the callbacks are still called.
+     */
+    private static class ForcedUpdateTimeline extends Timeline {
+        private ForcedUpdateTimeline(Component mainObject) {
+            super(mainObject);
+        }
+
+        @Override
+        protected boolean shouldForceUiUpdate() {
+            return true;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        this.timelines = new Timeline[this.timelineCount];
+        for (int i = 0; i < this.timelineCount; i++) {
+            ForcedUpdateTimeline timeline = new ForcedUpdateTimeline(new JPanel());
+            timeline.addCallback(new EventDispatchThreadTimelineCallbackAdapter() {
+                @Override
+                public void onTimelinePulse(float durationFraction, float timelinePosition) {
+                    callbackCount++;
+                }
+
+                @Override
+                public void onTimelineStateChanged(Timeline.TimelineState oldState,
+                        Timeline.TimelineState newState, float durationFraction,
+                        float timelinePosition) {
+                    callbackCount++;
+                }
+            });
+            timeline.addCallback(new TimelineCallbackAdapter() {
+                @Override
+                public void onTimelinePulse(float durationFraction, float timelinePosition) {
+                    callbackCount++;
+                }
+            });
+            this.timelines[i] = timeline;
+        }
+    }
+
+    @Benchmark
+    public void pulse(Blackhole blackhole) throws Exception {
+        this.position += 0.01f;
+        if (this.position > 1.0f) {
+            this.position = 0.0f;
+        }
+        for (Timeline timeline : this.timelines) {
+            timeline.callbackChain.onTimelinePulse(this.position, this.position);
+        }
+        SwingUtilities.invokeAndWait(NO_OP);
+        blackhole.consume(this.callbackCount);
+    }
+
+    @Benchmark
+    public void stateChange(Blackhole blackhole) throws Exception {
+        for (Timeline timeline : this.timelines) {
+            timeline.callbackChain.onTimelineStateChanged(Timeline.TimelineState.READY,
+                    Timeline.TimelineState.PLAYING_FORWARD, 0.0f, 0.0f);
+        }
+        SwingUtilities.invokeAndWait(NO_OP);
+        blackhole.consume(this.callbackCount);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.trident.api;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of a single pass of {@link TimelineEngine#updateTimelines()} over a number
+ * of concurrently running looping timelines, each interpolating a single property.
+ * <p>
+ * The pulse source thread is parked for the duration of the benchmark, and the benchmark thread
+ * drives the engine instead. Each pass simulates 16ms passing since the previous pulse, so that
+ * all the timelines advance their positions.
+ *
+ * @author Kirill Grouchnikov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TimelineEngineBenchmark {
+    @Param({"10", "100", "1000"})
+    public int timelineCount;
+
+    private TimelineEngine engine;
+
+    private Timeline[] timelines;
+
+    public static class Target {
+        private float value;
+
+        public void setValue(float value) {
+            this.value = value;
+        }
+
+        public float getValue() {
+            return this.value;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        CountDownLatch never = new CountDownLatch(1);
+        TridentConfig.getInstance().setPulseSource(() -> {
+            try {
+                never.await();
+            } catch (InterruptedException ie) {
+            }
+        });
+
+        this.engine = TimelineEngine.getInstance();
+        this.timelines = new Timeline[this.timelineCount];
+        for (int i = 0; i < this.timelineCount; i++) {
+            Timeline timeline = Timeline.builder(new Target())
+                    .setDuration(500 + i)
+                    .addPropertyToInterpolate("value", 0.0f, 1.0f)
+                    .build();
+            timeline.playLoop(Timeline.RepeatBehavior.REVERSE);
+            this.timelines[i] = timeline;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (Timeline timeline : this.timelines) {
+            timeline.cancel();
+        }
+    }
+
+    @Benchmark
+    public void updateTimelines() {
+        this.engine.lastIterationTimeStamp = System.currentTimeMillis() - 16;
+        this.engine.updateTimelines();
+    }
+}
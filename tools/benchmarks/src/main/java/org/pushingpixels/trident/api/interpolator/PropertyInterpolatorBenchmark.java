@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.trident.api.interpolator;
+
+import org.openjdk.jmh.annotations.*;
+import org.pushingpixels.trident.api.TridentConfig;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of interpolating the property types that are animated most often, as well
+ * as the cost of looking up the matching interpolator for a pair of values.
+ *
+ * @author Kirill Grouchnikov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PropertyInterpolatorBenchmark {
+    @Param({"Float", "Integer", "Color", "Point", "Rectangle"})
+    public String type;
+
+    private List<Object> values;
+
+    private PropertyInterpolator<Object> interpolator;
+
+    private float position;
+
+    @Setup
+    public void setup() {
+        switch (this.type) {
+            case "Float":
+                this.values = Arrays.asList(0.0f, 100.0f);
+                break;
+            case "Integer":
+                this.values = Arrays.asList(0, 100);
+                break;
+            case "Color":
+                this.values = Arrays.asList(new Color(20, 80, 200), new Color(240, 200, 40, 128));
+                break;
+            case "Point":
+                this.values = Arrays.asList(new Point(0, 0), new Point(300, 200));
+                break;
+            case "Rectangle":
+                this.values = Arrays.asList(new Rectangle(0, 0, 10, 10),
+                        new Rectangle(100, 50, 300, 200));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown type " + this.type);
+        }
+        this.interpolator = TridentConfig.getInstance().getPropertyInterpolator(this.values);
+        if (this.interpolator == null) {
+            throw new IllegalStateException("No interpolator for " + this.type);
+        }
+    }
+
+    @Benchmark
+    public Object interpolate() {
+        this.position += 0.01f;
+        if (this.position > 1.0f) {
+            this.position = 0.0f;
+        }
+        return this.interpolator.interpolate(this.values.get(0), this.values.get(1),
+                this.position);
+    }
+
+    @Benchmark
+    public Object lookup() {
+        return TridentConfig.getInstance().getPropertyInterpolator(this.values);
+    }
+}
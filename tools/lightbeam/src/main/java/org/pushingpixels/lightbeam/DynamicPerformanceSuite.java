@@ -36,7 +36,6 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.lang.management.*;
-import java.lang.reflect.Method;
 import java.util.*;
 import java.util.List;
 import java.util.concurrent.*;
@@ -365,25 +364,9 @@ public class DynamicPerformanceSuite {
     }
 
     private void scan(String title, Component comp) {
-        Class<?> compClass = comp.getClass();
-        List<PerformanceScenario> scenarioList = new LinkedList<>();
-        ComponentInfo componentInfo = new ComponentInfo(comp, scenarioList);
-        scenarios.put(title, componentInfo);
-        for (Method m : compClass.getDeclaredMethods()) {
-            // check annotation
-            if (m.getAnnotation(PerformanceScenarioParticipant.class) != null) {
-                // check return type and parameters
-                if ((m.getReturnType() == PerformanceScenario.class)
-                        && (m.getParameterTypes().length == 0)) {
-                    try {
-                        PerformanceScenario scenario = (PerformanceScenario) m.invoke(comp);
-                        componentInfo.scenarios.add(scenario);
-                    } catch (Exception exc) {
-                    }
-                }
-            }
-        }
-        componentInfo.scenarios.sort(Comparator.comparing(PerformanceScenario::getName));
+        List<PerformanceScenario> scenarioList = new LinkedList<>(
+                LightbeamUtils.getScenarios(comp));
+        scenarios.put(title, new ComponentInfo(comp, scenarioList));
     }
 
     private void scanAndAddTab(String tabTitle, Component tabComp) {
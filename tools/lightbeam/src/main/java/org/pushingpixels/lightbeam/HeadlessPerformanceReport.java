@@ -0,0 +1,530 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.lightbeam;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Results of a single run of {@link HeadlessPerformanceSuite}. The report can be written to
+ * and read from JSON, and compared against a baseline report from an earlier run.
+ *
+ * @author Kirill Grouchnikov
+ */
+public class HeadlessPerformanceReport {
+    /**
+     * Frame time differences below this threshold are treated as noise and never reported as
+     * regressions, no matter how large they are relative to the baseline.
+     */
+    private static final long FRAME_TIME_NOISE_FLOOR_NANOS = 100_000L;
+
+    /**
+     * Allocation differences below this threshold are never reported as regressions.
+     */
+    private static final long ALLOCATION_NOISE_FLOOR_BYTES = 1024L;
+
+    public static class ScenarioResult {
+        public final String panelTitle;
+
+        public final String scenarioName;
+
+        public final int frameCount;
+
+        public final long p50Nanos;
+
+        public final long p95Nanos;
+
+        public final long p99Nanos;
+
+        /**
+         * Average number of bytes allocated on EDT per frame, or -1 if the VM doesn't support
+         * measuring thread allocations.
+         */
+        public final long allocatedBytesPerFrame;
+
+        public final long gcCount;
+
+        public final long gcTimeMillis;
+
+        /**
+         * If not <code>null</code>, the scenario could not run and this is the reason.
+         */
+        public final String skipReason;
+
+        public ScenarioResult(String panelTitle, String scenarioName, int frameCount,
+                long p50Nanos, long p95Nanos, long p99Nanos, long allocatedBytesPerFrame,
+                long gcCount, long gcTimeMillis) {
+            this.panelTitle = panelTitle;
+            this.scenarioName = scenarioName;
+            this.frameCount = frameCount;
+            this.p50Nanos = p50Nanos;
+            this.p95Nanos = p95Nanos;
+            this.p99Nanos = p99Nanos;
+            this.allocatedBytesPerFrame = allocatedBytesPerFrame;
+            this.gcCount = gcCount;
+            this.gcTimeMillis = gcTimeMillis;
+            this.skipReason = null;
+        }
+
+        public ScenarioResult(String panelTitle, String scenarioName, String skipReason) {
+            this.panelTitle = panelTitle;
+            this.scenarioName = scenarioName;
+            this.frameCount = 0;
+            this.p50Nanos = 0;
+            this.p95Nanos = 0;
+            this.p99Nanos = 0;
+            this.allocatedBytesPerFrame = -1;
+            this.gcCount = 0;
+            this.gcTimeMillis = 0;
+            this.skipReason = skipReason;
+        }
+
+        public boolean isSkipped() {
+            return (this.skipReason != null);
+        }
+
+        public String getKey() {
+            return this.panelTitle + " : " + this.scenarioName;
+        }
+    }
+
+    private String lookAndFeel;
+
+    private int warmupRounds;
+
+    private int measuredRounds;
+
+    private List<ScenarioResult> results;
+
+    public HeadlessPerformanceReport(String lookAndFeel, int warmupRounds, int measuredRounds) {
+        this.lookAndFeel = lookAndFeel;
+        this.warmupRounds = warmupRounds;
+        this.measuredRounds = measuredRounds;
+        this.results = new ArrayList<>();
+    }
+
+    public void addResult(ScenarioResult result) {
+        this.results.add(result);
+    }
+
+    public List<ScenarioResult> getResults() {
+        return Collections.unmodifiableList(this.results);
+    }
+
+    public String getLookAndFeel() {
+        return this.lookAndFeel;
+    }
+
+    /**
+     * Compares this report against the specified baseline report. A scenario has regressed if
+     * its median or 95th percentile frame time, or its allocation per frame, is higher than in
+     * the baseline by more than the matching tolerance. A scenario that ran in the baseline but
+     * is missing or skipped in this report is a regression as well. Scenarios that are skipped
+     * in the baseline, or that are excluded by the panel or scenario filter of this run, are not
+     * compared.
+     *
+     * @param baseline            Baseline report.
+     * @param panelFilter         If not <code>null</code>, only the baseline scenarios of the
+     *                            panel with this title are compared.
+     * @param scenarioFilter      If not <code>null</code>, only the baseline scenarios with this
+     *                            name are compared.
+     * @param timeTolerance       Allowed relative increase in frame times, 0.1 for 10%.
+     * @param allocationTolerance Allowed relative increase in allocated bytes per frame.
+     * @return Descriptions of all the regressions. The list is empty if there are none.
+     */
+    public List<String> getRegressions(HeadlessPerformanceReport baseline, String panelFilter,
+            String scenarioFilter, double timeTolerance, double allocationTolerance) {
+        Map<String, ScenarioResult> currentResults = new HashMap<>();
+        for (ScenarioResult result : this.results) {
+            currentResults.put(result.getKey(), result);
+        }
+
+        List<String> regressions = new ArrayList<>();
+        for (ScenarioResult baselineResult : baseline.results) {
+            if (baselineResult.isSkipped()) {
+                continue;
+            }
+            if ((panelFilter != null) && !panelFilter.equals(baselineResult.panelTitle)) {
+                continue;
+            }
+            if ((scenarioFilter != null)
+                    && !scenarioFilter.equals(baselineResult.scenarioName)) {
+                continue;
+            }
+            ScenarioResult result = currentResults.get(baselineResult.getKey());
+            if (result == null) {
+                regressions.add(baselineResult.getKey() + " : missing in this run");
+                continue;
+            }
+            if (result.isSkipped()) {
+                regressions.add(baselineResult.getKey() + " : skipped in this run ("
+                        + result.skipReason + ")");
+                continue;
+            }
+            checkRegression(regressions, result.getKey(), "p50 frame time", "ns",
+                    baselineResult.p50Nanos, result.p50Nanos, timeTolerance,
+                    FRAME_TIME_NOISE_FLOOR_NANOS);
+            checkRegression(regressions, result.getKey(), "p95 frame time", "ns",
+                    baselineResult.p95Nanos, result.p95Nanos, timeTolerance,
+                    FRAME_TIME_NOISE_FLOOR_NANOS);
+            if ((result.allocatedBytesPerFrame >= 0)
+                    && (baselineResult.allocatedBytesPerFrame >= 0)) {
+                checkRegression(regressions, result.getKey(), "allocation per frame", "bytes",
+                        baselineResult.allocatedBytesPerFrame, result.allocatedBytesPerFrame,
+                        allocationTolerance, ALLOCATION_NOISE_FLOOR_BYTES);
+            }
+        }
+        return regressions;
+    }
+
+    private static void checkRegression(List<String> regressions, String key, String metric,
+            String unit, long baselineValue, long currentValue, double tolerance,
+            long noiseFloor) {
+        if ((currentValue - baselineValue) <= noiseFloor) {
+            return;
+        }
+        if (currentValue <= baselineValue * (1.0 + tolerance)) {
+            return;
+        }
+        regressions.add(String.format(Locale.US, "%s : %s went from %d to %d %s (%+.1f%%)",
+                key, metric, baselineValue, currentValue, unit,
+                100.0 * (currentValue - baselineValue) / Math.max(1, baselineValue)));
+    }
+
+    public void writeJson(Writer writer) throws IOException {
+        PrintWriter out = new PrintWriter(writer);
+        out.println("{");
+        out.println("  \"lookAndFeel\": " + quote(this.lookAndFeel) + ",");
+        out.println("  \"warmupRounds\": " + this.warmupRounds + ",");
+        out.println("  \"measuredRounds\": " + this.measuredRounds + ",");
+        out.println("  \"scenarios\": [");
+        for (int i = 0; i < this.results.size(); i++) {
+            ScenarioResult result = this.results.get(i);
+            out.print("    { \"panel\": " + quote(result.panelTitle) + ", \"name\": "
+                    + quote(result.scenarioName) + ", ");
+            if (result.isSkipped()) {
+                out.print("\"skipped\": " + quote(result.skipReason));
+            } else {
+                out.print("\"frames\": " + result.frameCount
+                        + ", \"p50Nanos\": " + result.p50Nanos
+                        + ", \"p95Nanos\": " + result.p95Nanos
+                        + ", \"p99Nanos\": " + result.p99Nanos
+                        + ", \"allocatedBytesPerFrame\": " + result.allocatedBytesPerFrame
+                        + ", \"gcCount\": " + result.gcCount
+                        + ", \"gcTimeMillis\": " + result.gcTimeMillis);
+            }
+            out.println((i < this.results.size() - 1) ? " }," : " }");
+        }
+        out.println("  ]");
+        out.println("}");
+        out.flush();
+        if (out.checkError()) {
+            throw new IOException("Failed writing the report");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static HeadlessPerformanceReport readJson(Reader reader) throws IOException {
+        StringBuilder content = new StringBuilder();
+        char[] buffer = new char[4096];
+        int read;
+        while ((read = reader.read(buffer)) >= 0) {
+            content.append(buffer, 0, read);
+        }
+
+        try {
+            Map<String, Object> root = (Map<String, Object>) new JsonParser(
+                    content.toString()).parse();
+            HeadlessPerformanceReport report = new HeadlessPerformanceReport(
+                    (String) root.get("lookAndFeel"), getInt(root, "warmupRounds"),
+                    getInt(root, "measuredRounds"));
+            for (Object entry : (List<Object>) root.get("scenarios")) {
+                Map<String, Object> scenario = (Map<String, Object>) entry;
+                String panelTitle = (String) scenario.get("panel");
+                String scenarioName = (String) scenario.get("name");
+                if (scenario.containsKey("skipped")) {
+                    report.addResult(new ScenarioResult(panelTitle, scenarioName,
+                            (String) scenario.get("skipped")));
+                } else {
+                    report.addResult(new ScenarioResult(panelTitle, scenarioName,
+                            getInt(scenario, "frames"), getLong(scenario, "p50Nanos"),
+                            getLong(scenario, "p95Nanos"), getLong(scenario, "p99Nanos"),
+                            getLong(scenario, "allocatedBytesPerFrame"),
+                            getLong(scenario, "gcCount"), getLong(scenario, "gcTimeMillis")));
+                }
+            }
+            return report;
+        } catch (ClassCastException | NullPointerException exc) {
+            throw new IOException("Malformed report", exc);
+        }
+    }
+
+    private static int getInt(Map<String, Object> map, String key) {
+        return (int) getLong(map, key);
+    }
+
+    private static long getLong(Map<String, Object> map, String key) {
+        return ((Number) map.get(key)).longValue();
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 2);
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+        return sb.toString();
+    }
+
+    /**
+     * Minimal JSON parser that is just enough to read back the reports written by
+     * {@link #writeJson(Writer)}. Objects are parsed to maps, arrays to lists and numbers to
+     * longs or doubles.
+     */
+    private static class JsonParser {
+        private final String content;
+
+        private int position;
+
+        private JsonParser(String content) {
+            this.content = content;
+        }
+
+        private Object parse() throws IOException {
+            Object result = this.parseValue();
+            this.skipWhitespace();
+            if (this.position != this.content.length()) {
+                throw this.error("Unexpected content");
+            }
+            return result;
+        }
+
+        private Object parseValue() throws IOException {
+            this.skipWhitespace();
+            if (this.position >= this.content.length()) {
+                throw this.error("Unexpected end of content");
+            }
+            char c = this.content.charAt(this.position);
+            switch (c) {
+                case '{':
+                    return this.parseObject();
+                case '[':
+                    return this.parseArray();
+                case '"':
+                    return this.parseString();
+                case 't':
+                    this.expect("true");
+                    return Boolean.TRUE;
+                case 'f':
+                    this.expect("false");
+                    return Boolean.FALSE;
+                case 'n':
+                    this.expect("null");
+                    return null;
+                default:
+                    return this.parseNumber();
+            }
+        }
+
+        private Map<String, Object> parseObject() throws IOException {
+            Map<String, Object> result = new LinkedHashMap<>();
+            this.position++;
+            this.skipWhitespace();
+            if (this.peek() == '}') {
+                this.position++;
+                return result;
+            }
+            while (true) {
+                this.skipWhitespace();
+                if (this.peek() != '"') {
+                    throw this.error("Expected a key");
+                }
+                String key = this.parseString();
+                this.skipWhitespace();
+                this.expect(":");
+                result.put(key, this.parseValue());
+                this.skipWhitespace();
+                char c = this.next();
+                if (c == '}') {
+                    return result;
+                }
+                if (c != ',') {
+                    throw this.error("Expected , or }");
+                }
+            }
+        }
+
+        private List<Object> parseArray() throws IOException {
+            List<Object> result = new ArrayList<>();
+            this.position++;
+            this.skipWhitespace();
+            if (this.peek() == ']') {
+                this.position++;
+                return result;
+            }
+            while (true) {
+                result.add(this.parseValue());
+                this.skipWhitespace();
+                char c = this.next();
+                if (c == ']') {
+                    return result;
+                }
+                if (c != ',') {
+                    throw this.error("Expected , or ]");
+                }
+            }
+        }
+
+        private String parseString() throws IOException {
+            StringBuilder sb = new StringBuilder();
+            this.position++;
+            while (true) {
+                char c = this.next();
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                char escaped = this.next();
+                switch (escaped) {
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'u':
+                        if (this.position + 4 > this.content.length()) {
+                            throw this.error("Truncated escape");
+                        }
+                        try {
+                            sb.append((char) Integer.parseInt(
+                                    this.content.substring(this.position, this.position + 4),
+                                    16));
+                        } catch (NumberFormatException nfe) {
+                            throw this.error("Malformed escape");
+                        }
+                        this.position += 4;
+                        break;
+                    default:
+                        sb.append(escaped);
+                }
+            }
+        }
+
+        private Number parseNumber() throws IOException {
+            int start = this.position;
+            while ((this.position < this.content.length())
+                    && ("+-.eE".indexOf(this.content.charAt(this.position)) >= 0
+                    || Character.isDigit(this.content.charAt(this.position)))) {
+                this.position++;
+            }
+            String number = this.content.substring(start, this.position);
+            try {
+                if ((number.indexOf('.') >= 0) || (number.indexOf('e') >= 0)
+                        || (number.indexOf('E') >= 0)) {
+                    return Double.parseDouble(number);
+                }
+                return Long.parseLong(number);
+            } catch (NumberFormatException nfe) {
+                throw this.error("Malformed number");
+            }
+        }
+
+        private void expect(String token) throws IOException {
+            if (!this.content.startsWith(token, this.position)) {
+                throw this.error("Expected " + token);
+            }
+            this.position += token.length();
+        }
+
+        private char peek() throws IOException {
+            if (this.position >= this.content.length()) {
+                throw this.error("Unexpected end of content");
+            }
+            return this.content.charAt(this.position);
+        }
+
+        private char next() throws IOException {
+            char result = this.peek();
+            this.position++;
+            return result;
+        }
+
+        private void skipWhitespace() {
+            while ((this.position < this.content.length())
+                    && Character.isWhitespace(this.content.charAt(this.position))) {
+                this.position++;
+            }
+        }
+
+        private IOException error(String message) {
+            return new IOException(message + " at position " + this.position);
+        }
+    }
+}
@@ -0,0 +1,391 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.lightbeam;
+
+import org.pushingpixels.lightbeam.HeadlessPerformanceReport.ScenarioResult;
+import org.pushingpixels.lightbeam.panels.*;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Runs the lightbeam scenarios without a display. Instead of showing the panels in a frame,
+ * every scenario iteration is followed by laying out the panel and painting it into an
+ * offscreen image. The iteration and the painting together make a single frame.
+ * <p>
+ * For every scenario this suite reports the median, 95th and 99th percentile frame times,
+ * the average number of bytes allocated on EDT per frame, and the number of garbage
+ * collections during the measured rounds. The results can be written as JSON, and compared
+ * against the JSON results of an earlier run. In the comparison mode the suite exits with
+ * status 1 if any scenario regressed.
+ * <p>
+ * Supported arguments:
+ * <ul>
+ * <li><code>--laf className</code> - look-and-feel to install before creating the panels</li>
+ * <li><code>--warmup count</code> - number of warmup rounds, 3 by default</li>
+ * <li><code>--rounds count</code> - number of measured rounds, 5 by default</li>
+ * <li><code>--panel title</code> - run only the scenarios of this panel</li>
+ * <li><code>--scenario name</code> - run only the scenario with this name</li>
+ * <li><code>--output file</code> - write the results to this JSON file</li>
+ * <li><code>--baseline file</code> - compare the results against this JSON file</li>
+ * <li><code>--time-tolerance fraction</code> - allowed frame time increase, 0.15 by default</li>
+ * <li><code>--allocation-tolerance fraction</code> - allowed allocation increase, 0.1 by
+ * default</li>
+ * </ul>
+ *
+ * @author Kirill Grouchnikov
+ */
+public class HeadlessPerformanceSuite {
+    private static final int WIDTH = 860;
+
+    private static final int HEIGHT = 600;
+
+    private String lafClassName;
+
+    private int warmupRounds = 3;
+
+    private int measuredRounds = 5;
+
+    private String panelFilter;
+
+    private String scenarioFilter;
+
+    private File outputFile;
+
+    private File baselineFile;
+
+    private double timeTolerance = 0.15;
+
+    private double allocationTolerance = 0.1;
+
+    private com.sun.management.ThreadMXBean threadBean;
+
+    private long edtThreadId;
+
+    private BufferedImage canvas;
+
+    private HeadlessPerformanceSuite(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (i == args.length - 1) {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--laf":
+                    this.lafClassName = value;
+                    break;
+                case "--warmup":
+                    this.warmupRounds = Integer.parseInt(value);
+                    break;
+                case "--rounds":
+                    this.measuredRounds = Integer.parseInt(value);
+                    break;
+                case "--panel":
+                    this.panelFilter = value;
+                    break;
+                case "--scenario":
+                    this.scenarioFilter = value;
+                    break;
+                case "--output":
+                    this.outputFile = new File(value);
+                    break;
+                case "--baseline":
+                    this.baselineFile = new File(value);
+                    break;
+                case "--time-tolerance":
+                    this.timeTolerance = Double.parseDouble(value);
+                    break;
+                case "--allocation-tolerance":
+                    this.allocationTolerance = Double.parseDouble(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument " + arg);
+            }
+        }
+        if (this.measuredRounds < 1) {
+            throw new IllegalArgumentException("At least one measured round is required");
+        }
+
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            this.threadBean = (com.sun.management.ThreadMXBean) bean;
+            if (this.threadBean.isThreadAllocatedMemorySupported()) {
+                this.threadBean.setThreadAllocatedMemoryEnabled(true);
+            } else {
+                this.threadBean = null;
+            }
+        }
+    }
+
+    private Map<String, Supplier<Component>> getPanels() {
+        // Panels are created lazily so that filtering by panel doesn't pay for creating all
+        // the others. The titles match those in DynamicPerformanceSuite.
+        Map<String, Supplier<Component>> panels = new LinkedHashMap<>();
+        panels.put("Buttons", ButtonsPanel::new);
+        panels.put("Combos", CombosPanel::new);
+        panels.put("Table", TablePanel::new);
+        panels.put("List", ListPanel::new);
+        panels.put("Sliders", SliderPanel::new);
+        panels.put("Progress bars", ProgressBarPanel::new);
+        panels.put("Text fields", TextFieldsPanel::new);
+        panels.put("Text areas", TextAreasPanel::new);
+        panels.put("Tabs", TabsPanel::new);
+        panels.put("Text area", BigTextAreaPanel::new);
+        panels.put("Tree", TreePanel::new);
+        panels.put("Spinners", SpinnerPanel::new);
+        panels.put("Menu bar", LightbeamMenuBar::new);
+        return panels;
+    }
+
+    private HeadlessPerformanceReport run() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            edtThreadId = Thread.currentThread().getId();
+            if (lafClassName != null) {
+                try {
+                    UIManager.setLookAndFeel(lafClassName);
+                } catch (Exception exc) {
+                    throw new IllegalStateException("Failed installing " + lafClassName, exc);
+                }
+            }
+        });
+
+        HeadlessPerformanceReport report = new HeadlessPerformanceReport(
+                UIManager.getLookAndFeel().getName(), this.warmupRounds, this.measuredRounds);
+        for (Map.Entry<String, Supplier<Component>> panelEntry : this.getPanels().entrySet()) {
+            String panelTitle = panelEntry.getKey();
+            if ((this.panelFilter != null) && !this.panelFilter.equals(panelTitle)) {
+                continue;
+            }
+
+            Component[] panel = new Component[1];
+            List<PerformanceScenario> scenarios = new ArrayList<>();
+            SwingUtilities.invokeAndWait(() -> {
+                panel[0] = panelEntry.getValue().get();
+                int height = (panel[0] instanceof JMenuBar)
+                        ? panel[0].getPreferredSize().height : HEIGHT;
+                panel[0].setSize(WIDTH, height);
+                layoutTree(panel[0]);
+                scenarios.addAll(LightbeamUtils.getScenarios(panel[0]));
+            });
+
+            for (PerformanceScenario scenario : scenarios) {
+                if ((this.scenarioFilter != null)
+                        && !this.scenarioFilter.equals(scenario.getName())) {
+                    continue;
+                }
+                ScenarioResult result = this.runScenario(panelTitle, panel[0], scenario);
+                report.addResult(result);
+                printResult(result);
+            }
+        }
+        return report;
+    }
+
+    private ScenarioResult runScenario(String panelTitle, Component panel,
+            PerformanceScenario scenario) throws InterruptedException {
+        int iterationCount = scenario.getIterationCount();
+        long[] frameTimes = new long[iterationCount * this.measuredRounds];
+        long allocatedBytes = 0;
+        long gcCountStart = 0;
+        long gcTimeStart = 0;
+        int frameCount = 0;
+
+        try {
+            for (int round = 0; round < this.warmupRounds + this.measuredRounds; round++) {
+                boolean isMeasured = (round >= this.warmupRounds);
+                if (round == this.warmupRounds) {
+                    gcCountStart = getGcCount();
+                    gcTimeStart = getGcTime();
+                }
+
+                SwingUtilities.invokeAndWait(scenario::setup);
+                try {
+                    for (int i = 0; i < iterationCount; i++) {
+                        int iteration = i;
+                        long allocatedStart = this.getEdtAllocatedBytes();
+                        long start = System.nanoTime();
+                        // Run the iteration and the painting as two separate events, so that
+                        // any work that the iteration posts on EDT is a part of the frame
+                        SwingUtilities.invokeAndWait(() -> scenario.runSingleIteration(iteration));
+                        SwingUtilities.invokeAndWait(() -> paintFrame(panel));
+                        long end = System.nanoTime();
+                        long allocatedEnd = this.getEdtAllocatedBytes();
+
+                        if (isMeasured) {
+                            frameTimes[frameCount++] = end - start;
+                            allocatedBytes += (allocatedEnd - allocatedStart);
+                        }
+                    }
+                } finally {
+                    SwingUtilities.invokeAndWait(scenario::tearDown);
+                }
+            }
+        } catch (InvocationTargetException ite) {
+            return new ScenarioResult(panelTitle, scenario.getName(),
+                    String.valueOf(ite.getCause()));
+        }
+
+        if (frameCount == 0) {
+            return new ScenarioResult(panelTitle, scenario.getName(), "No iterations");
+        }
+        Arrays.sort(frameTimes, 0, frameCount);
+        return new ScenarioResult(panelTitle, scenario.getName(), frameCount,
+                getPercentile(frameTimes, frameCount, 50),
+                getPercentile(frameTimes, frameCount, 95),
+                getPercentile(frameTimes, frameCount, 99),
+                (this.threadBean != null) ? allocatedBytes / frameCount : -1,
+                getGcCount() - gcCountStart, getGcTime() - gcTimeStart);
+    }
+
+    private void paintFrame(Component panel) {
+        if ((this.canvas == null) || (this.canvas.getWidth() < panel.getWidth())
+                || (this.canvas.getHeight() < panel.getHeight())) {
+            this.canvas = new BufferedImage(WIDTH, Math.max(HEIGHT, panel.getHeight()),
+                    BufferedImage.TYPE_INT_RGB);
+        }
+        // The panel hierarchy has no peers and is never validated by AWT, so lay it out
+        // explicitly before painting
+        layoutTree(panel);
+        Graphics2D g2d = this.canvas.createGraphics();
+        try {
+            g2d.setClip(0, 0, panel.getWidth(), panel.getHeight());
+            panel.paint(g2d);
+        } finally {
+            g2d.dispose();
+        }
+    }
+
+    private static void layoutTree(Component component) {
+        if (component instanceof Container) {
+            Container container = (Container) component;
+            container.doLayout();
+            for (int i = 0; i < container.getComponentCount(); i++) {
+                layoutTree(container.getComponent(i));
+            }
+        }
+    }
+
+    private long getEdtAllocatedBytes() {
+        return (this.threadBean != null)
+                ? this.threadBean.getThreadAllocatedBytes(this.edtThreadId) : 0;
+    }
+
+    private static long getGcCount() {
+        long result = 0;
+        for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            result += Math.max(0, gcBean.getCollectionCount());
+        }
+        return result;
+    }
+
+    private static long getGcTime() {
+        long result = 0;
+        for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            result += Math.max(0, gcBean.getCollectionTime());
+        }
+        return result;
+    }
+
+    private static long getPercentile(long[] sorted, int count, int percentile) {
+        // Nearest-rank percentile
+        int rank = (int) Math.ceil(percentile / 100.0 * count);
+        return sorted[Math.max(0, Math.min(count, rank) - 1)];
+    }
+
+    private static void printResult(ScenarioResult result) {
+        StringBuilder sb = new StringBuilder();
+        Formatter formatter = new Formatter(sb, Locale.US);
+        if (result.isSkipped()) {
+            formatter.format("%1$-52s %2$15s : %3$s", "skipped: " + result.skipReason,
+                    result.panelTitle, result.scenarioName);
+        } else {
+            formatter.format(
+                    "p50 %1$7.2f, p95 %2$7.2f, p99 %3$7.2f ms, %4$9d B/frame, gc %5$3d %6$15s : %7$s",
+                    result.p50Nanos / 1000000.0, result.p95Nanos / 1000000.0,
+                    result.p99Nanos / 1000000.0, result.allocatedBytesPerFrame, result.gcCount,
+                    result.panelTitle, result.scenarioName);
+        }
+        formatter.close();
+        System.out.println(sb.toString());
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("java.awt.headless") == null) {
+            System.setProperty("java.awt.headless", "true");
+        }
+
+        HeadlessPerformanceSuite suite = new HeadlessPerformanceSuite(args);
+        HeadlessPerformanceReport report = suite.run();
+
+        if (suite.outputFile != null) {
+            try (Writer writer = new OutputStreamWriter(
+                    new FileOutputStream(suite.outputFile), StandardCharsets.UTF_8)) {
+                report.writeJson(writer);
+            }
+        }
+
+        int status = 0;
+        if (suite.baselineFile != null) {
+            HeadlessPerformanceReport baseline;
+            try (Reader reader = new InputStreamReader(
+                    new FileInputStream(suite.baselineFile), StandardCharsets.UTF_8)) {
+                baseline = HeadlessPerformanceReport.readJson(reader);
+            }
+            if (!Objects.equals(baseline.getLookAndFeel(), report.getLookAndFeel())) {
+                System.out.println("Warning: baseline was recorded under "
+                        + baseline.getLookAndFeel() + ", this run is under "
+                        + report.getLookAndFeel());
+            }
+            List<String> regressions = report.getRegressions(baseline, suite.panelFilter,
+                    suite.scenarioFilter, suite.timeTolerance, suite.allocationTolerance);
+            if (regressions.isEmpty()) {
+                System.out.println("\nNo regressions against " + suite.baselineFile);
+            } else {
+                System.out.println("\n" + regressions.size() + " regression(s) against "
+                        + suite.baselineFile);
+                for (String regression : regressions) {
+                    System.out.println("  " + regression);
+                }
+                status = 1;
+            }
+        }
+        System.exit(status);
+    }
+}
@@ -30,7 +30,9 @@
 package org.pushingpixels.lightbeam;
 
 import java.awt.*;
+import java.lang.reflect.Method;
 import java.util.*;
+import java.util.List;
 
 /**
  * Utilities for the Lightbeam project.
@@ -105,6 +107,35 @@ public class LightbeamUtils {
 		}
 	}
 
+	/**
+	 * Returns all the scenarios of the specified component. These are the
+	 * results of calling all the methods of the component class that are
+	 * marked with {@link PerformanceScenarioParticipant}. The scenarios are
+	 * sorted by name.
+	 * 
+	 * @param comp
+	 * 		Component.
+	 * @return All the scenarios of the specified component.
+	 */
+	public static List<PerformanceScenario> getScenarios(Component comp) {
+		List<PerformanceScenario> result = new ArrayList<>();
+		for (Method m : comp.getClass().getDeclaredMethods()) {
+			// check annotation
+			if (m.getAnnotation(PerformanceScenarioParticipant.class) != null) {
+				// check return type and parameters
+				if ((m.getReturnType() == PerformanceScenario.class)
+						&& (m.getParameterTypes().length == 0)) {
+					try {
+						result.add((PerformanceScenario) m.invoke(comp));
+					} catch (Exception exc) {
+					}
+				}
+			}
+		}
+		result.sort(Comparator.comparing(PerformanceScenario::getName));
+		return result;
+	}
+
 	/**
 	 * Test main method.
 	 * 
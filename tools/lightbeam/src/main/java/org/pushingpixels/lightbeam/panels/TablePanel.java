@@ -267,6 +267,52 @@ public class TablePanel extends JPanel {
 		};
 	}
 
+	@PerformanceScenarioParticipant
+	public PerformanceScenario getIncrementalScrollScenario() {
+		return new PerformanceScenario() {
+			@Override
+			public String getName() {
+				return "Scrolling large table with selection";
+			}
+
+			@Override
+			public void setup() {
+				table.scrollRectToVisible(table.getCellRect(0, 0, true));
+				table.setRowSelectionAllowed(true);
+				table.setColumnSelectionAllowed(false);
+				table.getSelectionModel().setSelectionMode(
+						ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+				table.getSelectionModel().clearSelection();
+				// select every third row so that every painted page
+				// has a mix of highlighted and plain cells
+				for (int row = 0; row < table.getRowCount(); row += 3) {
+					table.getSelectionModel().addSelectionInterval(row, row);
+				}
+			}
+
+			@Override
+			public void tearDown() {
+				table.getSelectionModel().clearSelection();
+			}
+
+			@Override
+			public int getIterationCount() {
+				return 100;
+			}
+
+			@Override
+			public void runSingleIteration(int iterationNumber) {
+				// scroll down by a few rows at a time, as a mouse wheel would
+				Rectangle visible = table.getVisibleRect();
+				int step = 3 * table.getRowHeight();
+				visible.y = Math.min(visible.y + step,
+						table.getHeight() - visible.height);
+				table.scrollRectToVisible(visible);
+				table.paintImmediately(table.getVisibleRect());
+			}
+		};
+	}
+
 	@PerformanceScenarioParticipant
 	public PerformanceScenario getLargeRowSelectionScenario() {
 		return new PerformanceScenario() {
@@ -36,6 +36,7 @@ import org.pushingpixels.lightbeam.PerformanceScenarioParticipant;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.MouseEvent;
 import java.util.Random;
 
 /**
@@ -101,6 +102,72 @@ public class TabsPanel extends JPanel {
 		}
 	}
 
+	private class ManyScrollableTabsScenario extends PerformanceScenario {
+		private static final int TAB_COUNT = 500;
+
+		private JTabbedPane manyTabsPane;
+
+		@Override
+		public String getName() {
+			return "Hovering and closing " + TAB_COUNT + " scrollable tabs";
+		}
+
+		@Override
+		public void setup() {
+			this.manyTabsPane = new JTabbedPane(SwingConstants.TOP,
+					JTabbedPane.SCROLL_TAB_LAYOUT);
+			for (int i = 0; i < TAB_COUNT; i++) {
+				this.manyTabsPane.addTab("Document" + i + ".java",
+						IconManager.getRandomIcon(), new JPanel());
+			}
+			remove(tabbedPane);
+			add(this.manyTabsPane, BorderLayout.CENTER);
+			revalidate();
+			// scroll to the middle of the tab strip
+			this.manyTabsPane.setSelectedIndex(TAB_COUNT / 2);
+			paintImmediately(new Rectangle(0, 0, getWidth(), getHeight()));
+		}
+
+		@Override
+		public void tearDown() {
+			remove(this.manyTabsPane);
+			add(tabbedPane, BorderLayout.CENTER);
+			revalidate();
+			this.manyTabsPane = null;
+		}
+
+		@Override
+		public int getIterationCount() {
+			return 50;
+		}
+
+		@Override
+		public void runSingleIteration(int iterationNumber) {
+			// sweep the mouse across the tab strip, as a user looking for a tab would
+			int width = this.manyTabsPane.getWidth();
+			Rectangle selectedBounds = this.manyTabsPane
+					.getBoundsAt(this.manyTabsPane.getSelectedIndex());
+			int y = (selectedBounds != null) ? selectedBounds.y + selectedBounds.height / 2 : 10;
+			for (int x = 0; x < width; x += 8) {
+				this.manyTabsPane.dispatchEvent(new MouseEvent(this.manyTabsPane,
+						MouseEvent.MOUSE_MOVED, System.currentTimeMillis(), 0, x, y, 0, false));
+			}
+
+			// close a tab in the middle of the strip and open a new one in its place
+			int index = TAB_COUNT / 2 + (iterationNumber % 10) - 5;
+			this.manyTabsPane.removeTabAt(index);
+			this.manyTabsPane.insertTab("Reopened" + iterationNumber + ".java",
+					IconManager.getRandomIcon(), new JPanel(), null, index);
+			this.manyTabsPane.validate();
+			paintImmediately(new Rectangle(0, 0, getWidth(), getHeight()));
+		}
+	}
+
+	@PerformanceScenarioParticipant
+	public PerformanceScenario getManyScrollableTabsPerformanceScenario() {
+		return new ManyScrollableTabsScenario();
+	}
+
 	@PerformanceScenarioParticipant
 	public PerformanceScenario getTabSelectionTopPerformanceScenario() {
 		return new TabPlacementScenario(SwingConstants.TOP, "top");
@@ -42,7 +42,10 @@ import org.pushingpixels.trident.internal.swing.SwingUtils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
 import java.util.Stack;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 
 /**
@@ -217,42 +220,71 @@ public class Timeline implements TimelineScenario.TimelineScenarioActor {
 
     class Chain implements TimelineCallback {
         private TimelineCallback setterCallback;
-        private List<TimelineCallback> callbacks;
+        private boolean isSetterOnUIThread;
+
+        // Callbacks are classified once as they are added, so that dispatching pulses
+        // and state changes doesn't need to look at the callback class hierarchy
+        private List<TimelineCallback> directCallbacks;
+        private List<TimelineCallback> uiThreadCallbacks;
+
+        // Reusable runnables that carry the latest pulse to the callback thread and to EDT
+        private PendingPulse queuedPulse;
+        private PendingPulse uiThreadPulse;
 
         public Chain(Setter setterCallback) {
             this.setterCallback = setterCallback;
-            this.callbacks = new ArrayList<>();
+            this.isSetterOnUIThread = this.shouldRunOnUIThread(setterCallback);
+            this.directCallbacks = new ArrayList<>();
+            this.uiThreadCallbacks = new ArrayList<>();
+            this.queuedPulse = new PendingPulse(false);
+            this.uiThreadPulse = new PendingPulse(true);
         }
 
         public void addCallback(TimelineCallback callback) {
-            this.callbacks.add(callback);
+            if (this.shouldRunOnUIThread(callback)) {
+                this.uiThreadCallbacks.add(callback);
+            } else {
+                this.directCallbacks.add(callback);
+            }
         }
 
         public void removeCallback(TimelineCallback callback) {
-            this.callbacks.remove(callback);
-        }
-
-        private void handleStateChange(final TimelineCallback callback,
-                final TimelineState oldState, final TimelineState newState,
-                final float durationFraction, final float timelinePosition) {
-            // special handling for chained callbacks not running on UI
-            // thread
-            boolean shouldRunOnUIThread = false;
-            Class<?> clazz = callback.getClass();
-            while ((clazz != null) && !shouldRunOnUIThread) {
-                shouldRunOnUIThread = clazz.isAnnotationPresent(RunOnEventDispatchThread.class);
-                clazz = clazz.getSuperclass();
-            }
-            if (shouldRunOnUIThread && Timeline.this.mainObjectIsUiComponent) {
-                SwingUtils.runOnEventDispatchThread(
-                        () -> callback.onTimelineStateChanged(oldState, newState, durationFraction,
-                                timelinePosition));
-            } else {
-                callback.onTimelineStateChanged(oldState, newState, durationFraction,
-                        timelinePosition);
+            this.directCallbacks.remove(callback);
+            this.uiThreadCallbacks.remove(callback);
+        }
+
+        private boolean shouldRunOnUIThread(TimelineCallback callback) {
+            // special handling for chained callbacks not running on UI thread
+            return Timeline.this.mainObjectIsUiComponent
+                    && SwingUtils.isRunOnEventDispatchThread(callback.getClass());
+        }
+
+        private boolean hasUIThreadCallbacks() {
+            return this.isSetterOnUIThread || !this.uiThreadCallbacks.isEmpty();
+        }
+
+        /**
+         * Adds the specified pulse to the queue. If the previous pulse has not been processed
+         * yet, it is updated with the new values instead.
+         */
+        void queuePulse(Queue<Runnable> queue, float durationFraction, float timelinePosition) {
+            if (this.queuedPulse.update(durationFraction, timelinePosition)) {
+                queue.add(this.queuedPulse);
             }
         }
 
+        /**
+         * Adds the specified state change to the queue. Pulses queued after this call are
+         * processed after the state change.
+         */
+        void queueStateChange(Queue<Runnable> queue, final TimelineState oldState,
+                final TimelineState newState, final float durationFraction,
+                final float timelinePosition) {
+            queue.add(() -> onTimelineStateChanged(oldState, newState, durationFraction,
+                    timelinePosition));
+            this.queuedPulse = this.queuedPulse.next();
+        }
+
         @Override
         public void onTimelineStateChanged(final TimelineState oldState,
                 final TimelineState newState, final float durationFraction,
@@ -268,37 +300,29 @@ public class Timeline implements TimelineScenario.TimelineScenarioActor {
                 return;
             }
 
-            handleStateChange(this.setterCallback, oldState, newState, durationFraction,
-                    timelinePosition);
-            for (int i = this.callbacks.size() - 1; i >= 0; i--) {
-                handleStateChange(this.callbacks.get(i), oldState, newState, durationFraction,
+            if (!this.isSetterOnUIThread) {
+                this.setterCallback.onTimelineStateChanged(oldState, newState, durationFraction,
                         timelinePosition);
             }
-        }
-
-        private void handlePulse(final TimelineCallback callback, final float durationFraction,
-                final float timelinePosition) {
-            // special handling for chained callbacks not running on UI
-            // thread
-            boolean shouldRunOnUIThread = false;
-            Class<?> clazz = callback.getClass();
-            while ((clazz != null) && !shouldRunOnUIThread) {
-                shouldRunOnUIThread = clazz.isAnnotationPresent(RunOnEventDispatchThread.class);
-                clazz = clazz.getSuperclass();
+            for (int i = this.directCallbacks.size() - 1; i >= 0; i--) {
+                this.directCallbacks.get(i).onTimelineStateChanged(oldState, newState,
+                        durationFraction, timelinePosition);
             }
-            if (shouldRunOnUIThread && Timeline.this.mainObjectIsUiComponent) {
+
+            if (this.hasUIThreadCallbacks()) {
                 SwingUtils.runOnEventDispatchThread(() -> {
-                    if (Timeline.this.getState() == TimelineState.CANCELLED) {
-                        return;
+                    if (isSetterOnUIThread) {
+                        setterCallback.onTimelineStateChanged(oldState, newState,
+                                durationFraction, timelinePosition);
+                    }
+                    for (int i = uiThreadCallbacks.size() - 1; i >= 0; i--) {
+                        uiThreadCallbacks.get(i).onTimelineStateChanged(oldState, newState,
+                                durationFraction, timelinePosition);
                     }
-                    // System.err.println("Timeline @"
-                    // + Timeline.this.hashCode());
-                    callback.onTimelinePulse(durationFraction, timelinePosition);
                 });
-            } else {
-                // System.err.println("Timeline @" +
-                // Timeline.this.hashCode());
-                callback.onTimelinePulse(durationFraction, timelinePosition);
+                // Pulses that come after this state change must not be folded into a pulse
+                // that is scheduled before it
+                this.uiThreadPulse = this.uiThreadPulse.next();
             }
         }
 
@@ -313,9 +337,79 @@ public class Timeline implements TimelineScenario.TimelineScenarioActor {
                 return;
             }
 
-            handlePulse(this.setterCallback, durationFraction, timelinePosition);
-            for (int i = this.callbacks.size() - 1; i >= 0; i--) {
-                handlePulse(this.callbacks.get(i), durationFraction, timelinePosition);
+            if (!this.isSetterOnUIThread) {
+                this.setterCallback.onTimelinePulse(durationFraction, timelinePosition);
+            }
+            for (int i = this.directCallbacks.size() - 1; i >= 0; i--) {
+                this.directCallbacks.get(i).onTimelinePulse(durationFraction, timelinePosition);
+            }
+
+            if (this.hasUIThreadCallbacks()
+                    && this.uiThreadPulse.update(durationFraction, timelinePosition)) {
+                TimelineEngine.pendingUIThreadPulses.incrementAndGet();
+                SwingUtils.runOnEventDispatchThread(this.uiThreadPulse);
+            }
+        }
+
+        private void onUIThreadPulse(float durationFraction, float timelinePosition) {
+            if (Timeline.this.getState() == TimelineState.CANCELLED) {
+                return;
+            }
+            if (this.isSetterOnUIThread) {
+                this.setterCallback.onTimelinePulse(durationFraction, timelinePosition);
+            }
+            for (int i = this.uiThreadCallbacks.size() - 1; i >= 0; i--) {
+                this.uiThreadCallbacks.get(i).onTimelinePulse(durationFraction, timelinePosition);
+            }
+        }
+
+        /**
+         * Carries the latest pulse of this chain. While it is waiting to be run, new pulses
+         * update the carried values instead of scheduling another runnable.
+         */
+        private class PendingPulse implements Runnable {
+            private final boolean isOnUIThread;
+            private final AtomicBoolean isScheduled;
+            // Duration fraction in the high bits, timeline position in the low bits
+            private final AtomicLong values;
+
+            private PendingPulse(boolean isOnUIThread) {
+                this.isOnUIThread = isOnUIThread;
+                this.isScheduled = new AtomicBoolean(false);
+                this.values = new AtomicLong();
+            }
+
+            /**
+             * Updates the carried values. Returns <code>true</code> if this runnable needs to
+             * be scheduled, and <code>false</code> if it is already waiting to be run.
+             */
+            private boolean update(float durationFraction, float timelinePosition) {
+                this.values.set(((long) Float.floatToRawIntBits(durationFraction) << 32)
+                        | (Float.floatToRawIntBits(timelinePosition) & 0xFFFFFFFFL));
+                return this.isScheduled.compareAndSet(false, true);
+            }
+
+            /**
+             * Returns the runnable to carry the next pulse. A new one is needed when this one
+             * is still waiting to be run, so that the next pulse is delivered after everything
+             * that was scheduled in between.
+             */
+            private PendingPulse next() {
+                return this.isScheduled.get() ? new PendingPulse(this.isOnUIThread) : this;
+            }
+
+            @Override
+            public void run() {
+                this.isScheduled.set(false);
+                long packed = this.values.get();
+                float durationFraction = Float.intBitsToFloat((int) (packed >>> 32));
+                float timelinePosition = Float.intBitsToFloat((int) packed);
+                if (this.isOnUIThread) {
+                    TimelineEngine.pendingUIThreadPulses.decrementAndGet();
+                    onUIThreadPulse(durationFraction, timelinePosition);
+                } else {
+                    onTimelinePulse(durationFraction, timelinePosition);
+                }
             }
         }
     }
@@ -31,14 +31,14 @@ package org.pushingpixels.trident.api;
 
 import org.pushingpixels.trident.api.Timeline.TimelineState;
 import org.pushingpixels.trident.api.TimelineScenario.TimelineScenarioState;
-import org.pushingpixels.trident.api.swing.RunOnEventDispatchThread;
-import org.pushingpixels.trident.internal.swing.SwingUtils;
+import org.pushingpixels.trident.internal.jfr.FlightRecorderEventType;
 
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The Trident timeline engine. This is the main entry point to play {@link Timeline}s and
@@ -53,6 +53,25 @@ class TimelineEngine {
      */
     public static boolean DEBUG_MODE = false;
 
+    /**
+     * Flight recorder event for a single pass over the running timelines.
+     */
+    private static final FlightRecorderEventType PULSE_EVENT = new FlightRecorderEventType(
+            "org.pushingpixels.trident.Pulse", "Trident Pulse",
+            "Single pass of the Trident engine over all running timelines and scenarios",
+            new String[] { "Radiance", "Trident" },
+            new FlightRecorderEventType.Field(int.class, "timelineCount", "Running Timelines"),
+            new FlightRecorderEventType.Field(int.class, "scenarioCount", "Running Scenarios"),
+            new FlightRecorderEventType.Field(int.class, "callbackQueueDepth",
+                    "Callback Queue Depth"),
+            new FlightRecorderEventType.Field(int.class, "uiThreadQueueDepth",
+                    "EDT Callback Queue Depth"));
+
+    /**
+     * Number of timeline pulses that have been scheduled to run on EDT and have not run yet.
+     */
+    static final AtomicInteger pendingUIThreadPulses = new AtomicInteger();
+
     /**
      * Single instance of <code>this</code> class.
      */
@@ -236,6 +255,10 @@ class TimelineEngine {
                 return;
             }
 
+            Object pulseEvent = PULSE_EVENT.begin();
+            int timelineCount = this.runningTimelines.size();
+            int scenarioCount = this.runningScenarios.size();
+
             long passedSinceLastIteration = (System.currentTimeMillis()
                     - this.lastIterationTimeStamp);
             if (passedSinceLastIteration < 0) {
@@ -460,66 +483,31 @@ class TimelineEngine {
 
             // this.nothingTracked = (this.runningTimelines.size() == 0);
             this.lastIterationTimeStamp = System.currentTimeMillis();
+
+            if (pulseEvent != null) {
+                PULSE_EVENT.commit(pulseEvent, timelineCount, scenarioCount,
+                        this.callbackQueue.size(), pendingUIThreadPulses.get());
+            }
         }
     }
 
     private void callbackCallTimelineStateChanged(final Timeline timeline,
             final TimelineState oldState) {
         final TimelineState newState = timeline.getState();
-        final float durationFraction = timeline.durationFraction;
-        final float timelinePosition = timeline.timelinePosition;
-        Runnable callbackRunnable = () -> {
-            boolean shouldRunOnUIThread = false;
-            Class<?> clazz = timeline.callbackChain.getClass();
-            while ((clazz != null) && !shouldRunOnUIThread) {
-                shouldRunOnUIThread = clazz.isAnnotationPresent(RunOnEventDispatchThread.class);
-                clazz = clazz.getSuperclass();
-            }
-            if (shouldRunOnUIThread && SwingUtils.isUiComponent(timeline.getMainObject())) {
-                if (DEBUG_MODE) {
-                    System.out.println("Scheduling callback state change from " + oldState.name()
-                            + " to " + newState.name() + " on timeline " + timeline.id);
-                }
-                // System.out.println("Will update from " + oldState + " to " + newState);
-                SwingUtils.runOnEventDispatchThread(
-                        () -> timeline.callbackChain.onTimelineStateChanged(oldState, newState,
-                                durationFraction, timelinePosition));
-            } else {
-                if (DEBUG_MODE) {
-                    System.out.println("Calling callback state change from " + oldState.name()
-                            + " to " + newState.name() + " on timeline " + timeline.id);
-                }
-                // System.out.println("Updating from " + oldState + " to " + newState);
-                timeline.callbackChain.onTimelineStateChanged(oldState, newState, durationFraction,
-                        timelinePosition);
-            }
-        };
         if (DEBUG_MODE) {
             System.out.println("Scheduling callback runnable for " + oldState.name() + " to "
                     + newState.name() + " on timeline " + timeline.id);
         }
-        this.callbackQueue.add(callbackRunnable);
+        timeline.callbackChain.queueStateChange(this.callbackQueue, oldState, newState,
+                timeline.durationFraction, timeline.timelinePosition);
     }
 
     private void callbackCallTimelinePulse(final Timeline timeline) {
-        final float durationFraction = timeline.durationFraction;
-        final float timelinePosition = timeline.timelinePosition;
-        Runnable callbackRunnable = () -> {
-            boolean shouldRunOnUIThread = false;
-            Class<?> clazz = timeline.callbackChain.getClass();
-            while ((clazz != null) && !shouldRunOnUIThread) {
-                shouldRunOnUIThread = clazz.isAnnotationPresent(RunOnEventDispatchThread.class);
-                clazz = clazz.getSuperclass();
-            }
-            if (shouldRunOnUIThread && SwingUtils.isUiComponent(timeline.getMainObject())) {
-                SwingUtils.runOnEventDispatchThread(
-                        () -> timeline.callbackChain.onTimelinePulse(durationFraction,
-                                timelinePosition));
-            } else {
-                timeline.callbackChain.onTimelinePulse(durationFraction, timelinePosition);
-            }
-        };
-        this.callbackQueue.add(callbackRunnable);
+        // The chain reuses the same runnable for consecutive pulses, so that a pulse that
+        // is not yet processed by the callback thread is updated instead of allocating
+        // and queueing another runnable
+        timeline.callbackChain.queuePulse(this.callbackQueue, timeline.durationFraction,
+                timeline.timelinePosition);
     }
 
     private void callbackCallTimelineScenarioEnded(final TimelineScenario timelineScenario) {
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.trident.api.swing;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects repaint requests issued by animation callbacks and flushes them together once per
+ * frame. When many timelines pulse at the same time (for example, rollover animations on
+ * multiple cells of the same table), the repaint requests made during the processing of the
+ * same engine pulse are merged into a single dirty rectangle per component. The merged repaints
+ * of all the top-level windows are issued together in a single EDT event per frame, instead of
+ * every callback hopping to EDT and calling {@link Component#repaint()} on its own.
+ * <p>
+ * Components that need more work to compute their dirty region (such as tables that track
+ * dirty rows, columns and cells) can register a flush task with
+ * {@link #addFlushTask(Runnable)}. Flush tasks run on EDT right before the dirty regions
+ * are flushed, and can add their own dirty regions to the same flush.
+ * <p>
+ * The methods of this class can be called from any thread.
+ *
+ * @author Kirill Grouchnikov
+ */
+public class SwingRepaintAggregator {
+    private static final SwingRepaintAggregator INSTANCE = new SwingRepaintAggregator();
+
+    /**
+     * Dirty regions of the current frame. A <code>null</code> value marks the entire component
+     * as dirty. This and {@link #flushingRegions} are swapped on every flush, so that steady
+     * state animations don't allocate new maps.
+     */
+    private Map<Component, Rectangle> dirtyRegions;
+
+    private Map<Component, Rectangle> flushingRegions;
+
+    private Set<Runnable> flushTasks;
+
+    private Set<Runnable> flushingTasks;
+
+    private boolean isFlushScheduled;
+
+    private final Runnable flushRunnable;
+
+    private SwingRepaintAggregator() {
+        this.dirtyRegions = new LinkedHashMap<>();
+        this.flushingRegions = new LinkedHashMap<>();
+        this.flushTasks = new LinkedHashSet<>();
+        this.flushingTasks = new LinkedHashSet<>();
+        this.flushRunnable = this::flush;
+    }
+
+    public static SwingRepaintAggregator getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Marks the entire component as dirty for the current frame.
+     *
+     * @param component Component to repaint.
+     */
+    public synchronized void repaint(Component component) {
+        this.dirtyRegions.put(component, null);
+        this.scheduleFlush();
+    }
+
+    /**
+     * Marks the specified region of the component as dirty for the current frame.
+     *
+     * @param component Component to repaint.
+     * @param x         X coordinate of the dirty region in the component coordinate space.
+     * @param y         Y coordinate of the dirty region in the component coordinate space.
+     * @param width     Width of the dirty region.
+     * @param height    Height of the dirty region.
+     */
+    public synchronized void repaint(Component component, int x, int y, int width, int height) {
+        if ((width <= 0) || (height <= 0)) {
+            return;
+        }
+        if (!this.dirtyRegions.containsKey(component)) {
+            this.dirtyRegions.put(component, new Rectangle(x, y, width, height));
+        } else {
+            Rectangle existing = this.dirtyRegions.get(component);
+            if (existing != null) {
+                int x2 = Math.max(existing.x + existing.width, x + width);
+                int y2 = Math.max(existing.y + existing.height, y + height);
+                existing.x = Math.min(existing.x, x);
+                existing.y = Math.min(existing.y, y);
+                existing.width = x2 - existing.x;
+                existing.height = y2 - existing.y;
+            }
+        }
+        this.scheduleFlush();
+    }
+
+    /**
+     * Marks the specified region of the component as dirty for the current frame.
+     *
+     * @param component Component to repaint.
+     * @param rect      Dirty region in the component coordinate space.
+     */
+    public void repaint(Component component, Rectangle rect) {
+        this.repaint(component, rect.x, rect.y, rect.width, rect.height);
+    }
+
+    /**
+     * Registers a task to run on EDT before the dirty regions of the current frame are flushed.
+     * Registering the same task more than once during a single frame runs it only once.
+     *
+     * @param flushTask Task to run before the dirty regions are flushed.
+     */
+    public synchronized void addFlushTask(Runnable flushTask) {
+        this.flushTasks.add(flushTask);
+        this.scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (!this.isFlushScheduled) {
+            this.isFlushScheduled = true;
+            SwingUtilities.invokeLater(this.flushRunnable);
+        }
+    }
+
+    private void flush() {
+        Set<Runnable> tasks;
+        synchronized (this) {
+            tasks = this.flushTasks;
+            this.flushTasks = this.flushingTasks;
+            this.flushingTasks = tasks;
+        }
+        // The flush is still marked as scheduled, so the repaints requested by the tasks
+        // will be picked up below
+        for (Runnable task : tasks) {
+            task.run();
+        }
+        tasks.clear();
+
+        Map<Component, Rectangle> regions;
+        synchronized (this) {
+            regions = this.dirtyRegions;
+            this.dirtyRegions = this.flushingRegions;
+            this.flushingRegions = regions;
+            this.isFlushScheduled = false;
+        }
+
+        for (Map.Entry<Component, Rectangle> entry : regions.entrySet()) {
+            Component component = entry.getKey();
+            if (!component.isShowing()) {
+                continue;
+            }
+            Rectangle rect = entry.getValue();
+            if (rect == null) {
+                component.repaint();
+            } else {
+                component.repaint(rect.x, rect.y, rect.width, rect.height);
+            }
+        }
+        regions.clear();
+    }
+}
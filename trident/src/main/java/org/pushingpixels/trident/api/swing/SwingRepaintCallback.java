@@ -99,9 +99,12 @@ public class SwingRepaintCallback extends TimelineCallbackAdapter {
             }
         }
 
+        // Let the aggregator merge this repaint with the repaints of all the other timelines
+        // that pulse at the same time
         if (this.rect == null)
-            this.comp.repaint();
+            SwingRepaintAggregator.getInstance().repaint(this.comp);
         else
-            this.comp.repaint(this.rect.x, this.rect.y, this.rect.width, this.rect.height);
+            SwingRepaintAggregator.getInstance().repaint(this.comp, this.rect.x, this.rect.y,
+                    this.rect.width, this.rect.height);
     }
 }
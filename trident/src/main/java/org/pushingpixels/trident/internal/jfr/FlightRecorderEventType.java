@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) 2005-2020 Radiance Kirill Grouchnikov. All Rights Reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  o Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  o Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  o Neither the name of the copyright holder nor the names of
+ *    its contributors may be used to endorse or promote products derived
+ *    from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+ * THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE
+ * OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.pushingpixels.trident.internal.jfr;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Custom Java Flight Recorder event type. The build targets a Java version that doesn't have
+ * the <code>jdk.jfr</code> API, so the event types are registered at runtime with
+ * <code>jdk.jfr.EventFactory</code> through reflection. On runtimes without JFR all the
+ * methods of this class are no-ops.
+ * <p>
+ * Event types are registered lazily on the first use during an active recording, and
+ * checking whether an event should be created costs a single volatile read while nothing is
+ * being recorded. The intended use for events with duration is
+ * <pre>
+ * Object event = TYPE.begin();
+ * try {
+ *     ...
+ * } finally {
+ *     if (event != null) {
+ *         TYPE.commit(event, value1, value2);
+ *     }
+ * }
+ * </pre>
+ * and for instant events
+ * <pre>
+ * if (TYPE.isEnabled()) {
+ *     TYPE.commitInstant(value1, value2);
+ * }
+ * </pre>
+ * so that the field values are not computed (or boxed) unless there is an active recording.
+ * <p>
+ * This class is <b>for internal use only</b>.
+ *
+ * @author Kirill Grouchnikov
+ */
+public final class FlightRecorderEventType {
+    /**
+     * Field of a custom event type.
+     */
+    public static final class Field {
+        private final Class<?> type;
+        private final String name;
+        private final String label;
+
+        /**
+         * Creates a new field.
+         *
+         * @param type  Field type. Must be a primitive type, <code>String</code> or
+         *              <code>Class</code>.
+         * @param name  Field name.
+         * @param label Human-readable field label.
+         */
+        public Field(Class<?> type, String name, String label) {
+            this.type = type;
+            this.name = name;
+            this.label = label;
+        }
+    }
+
+    /**
+     * Reflective access to the <code>jdk.jfr</code> API. All the members are <code>null</code>
+     * if the API is not available in this runtime.
+     */
+    private static final class Jfr {
+        private static Class<? extends Annotation> nameAnnotation;
+        private static Class<? extends Annotation> labelAnnotation;
+        private static Class<? extends Annotation> categoryAnnotation;
+        private static Class<? extends Annotation> descriptionAnnotation;
+        private static Constructor<?> annotationElementConstructor;
+        private static Constructor<?> valueDescriptorConstructor;
+        private static Method createFactory;
+        private static Method newEvent;
+        private static Method begin;
+        private static Method end;
+        private static Method shouldCommit;
+        private static Method set;
+        private static Method commit;
+        private static Method getRecordings;
+        private static Method getRecordingState;
+        private static Object runningState;
+
+        private static final boolean isAvailable = initialize();
+
+        private static boolean initialize() {
+            try {
+                nameAnnotation = Class.forName("jdk.jfr.Name").asSubclass(Annotation.class);
+                labelAnnotation = Class.forName("jdk.jfr.Label").asSubclass(Annotation.class);
+                categoryAnnotation = Class.forName("jdk.jfr.Category")
+                        .asSubclass(Annotation.class);
+                descriptionAnnotation = Class.forName("jdk.jfr.Description")
+                        .asSubclass(Annotation.class);
+
+                Class<?> annotationElementClass = Class.forName("jdk.jfr.AnnotationElement");
+                annotationElementConstructor = annotationElementClass.getConstructor(
+                        Class.class, Object.class);
+                valueDescriptorConstructor = Class.forName("jdk.jfr.ValueDescriptor")
+                        .getConstructor(Class.class, String.class, List.class);
+
+                Class<?> eventFactoryClass = Class.forName("jdk.jfr.EventFactory");
+                createFactory = eventFactoryClass.getMethod("create", List.class, List.class);
+                newEvent = eventFactoryClass.getMethod("newEvent");
+
+                Class<?> eventClass = Class.forName("jdk.jfr.Event");
+                begin = eventClass.getMethod("begin");
+                end = eventClass.getMethod("end");
+                shouldCommit = eventClass.getMethod("shouldCommit");
+                set = eventClass.getMethod("set", int.class, Object.class);
+                commit = eventClass.getMethod("commit");
+
+                Class<?> flightRecorderClass = Class.forName("jdk.jfr.FlightRecorder");
+                Method getFlightRecorder = flightRecorderClass.getMethod("getFlightRecorder");
+                getRecordings = flightRecorderClass.getMethod("getRecordings");
+                getRecordingState = Class.forName("jdk.jfr.Recording").getMethod("getState");
+                for (Object state : Class.forName("jdk.jfr.RecordingState").getEnumConstants()) {
+                    if ("RUNNING".equals(((Enum<?>) state).name())) {
+                        runningState = state;
+                    }
+                }
+
+                // Track the recording state so that the events are only created while there
+                // is at least one running recording
+                Class<?> listenerClass = Class.forName("jdk.jfr.FlightRecorderListener");
+                Object listener = Proxy.newProxyInstance(
+                        FlightRecorderEventType.class.getClassLoader(),
+                        new Class<?>[] { listenerClass }, (proxy, method, args) -> {
+                            switch (method.getName()) {
+                                case "recordingStateChanged":
+                                case "recorderInitialized":
+                                    updateRecordingState(getFlightRecorder.invoke(null));
+                                    return null;
+                                case "hashCode":
+                                    return System.identityHashCode(proxy);
+                                case "equals":
+                                    return (proxy == args[0]);
+                                case "toString":
+                                    return "Radiance flight recorder listener";
+                                default:
+                                    return null;
+                            }
+                        });
+                flightRecorderClass.getMethod("addListener", listenerClass)
+                        .invoke(null, listener);
+                return true;
+            } catch (Throwable t) {
+                // No JFR in this runtime, or no permission to use it
+                return false;
+            }
+        }
+
+        private static void updateRecordingState(Object flightRecorder) {
+            boolean hasRunningRecording = false;
+            try {
+                for (Object recording : (List<?>) getRecordings.invoke(flightRecorder)) {
+                    if (getRecordingState.invoke(recording) == runningState) {
+                        hasRunningRecording = true;
+                        break;
+                    }
+                }
+            } catch (ReflectiveOperationException roe) {
+                // Leave the events off
+            }
+            isRecording = hasRunningRecording;
+        }
+    }
+
+    private static volatile boolean isRecording;
+
+    private final String name;
+    private final String label;
+    private final String description;
+    private final String[] category;
+    private final Field[] fields;
+
+    private volatile Object factory;
+    private volatile boolean isBroken;
+
+    /**
+     * Creates a new event type.
+     *
+     * @param name        Unique event name, such as <code>org.pushingpixels.trident.Pulse</code>.
+     * @param label       Human-readable event label.
+     * @param description Event description.
+     * @param category    Event category path.
+     * @param fields      Event fields. The values passed to {@link #commit(Object, Object...)}
+     *                    and {@link #commitInstant(Object...)} must match these fields in
+     *                    number and order.
+     */
+    public FlightRecorderEventType(String name, String label, String description,
+            String[] category, Field... fields) {
+        this.name = name;
+        this.label = label;
+        this.description = description;
+        this.category = category.clone();
+        this.fields = fields.clone();
+        // Trigger the JFR lookup and the registration of the recording state listener
+        if (!Jfr.isAvailable) {
+            this.isBroken = true;
+        }
+    }
+
+    /**
+     * Returns indication whether events of this type should be created. This is the case only
+     * while there is at least one running recording.
+     *
+     * @return <code>true</code> if events of this type should be created.
+     */
+    public boolean isEnabled() {
+        return isRecording && !this.isBroken;
+    }
+
+    /**
+     * Creates and begins a new event with duration.
+     *
+     * @return The new event, or <code>null</code> if events of this type are not enabled.
+     */
+    public Object begin() {
+        if (!this.isEnabled()) {
+            return null;
+        }
+        Object factory = this.getFactory();
+        if (factory == null) {
+            return null;
+        }
+        try {
+            Object event = Jfr.newEvent.invoke(factory);
+            Jfr.begin.invoke(event);
+            return event;
+        } catch (ReflectiveOperationException roe) {
+            this.isBroken = true;
+            return null;
+        }
+    }
+
+    /**
+     * Ends and commits the specified event with duration.
+     *
+     * @param event  Event returned by {@link #begin()}. Can be <code>null</code>.
+     * @param values Field values.
+     */
+    public void commit(Object event, Object... values) {
+        if (event == null) {
+            return;
+        }
+        try {
+            Jfr.end.invoke(event);
+            if (!((Boolean) Jfr.shouldCommit.invoke(event))) {
+                return;
+            }
+            for (int i = 0; i < values.length; i++) {
+                Jfr.set.invoke(event, i, values[i]);
+            }
+            Jfr.commit.invoke(event);
+        } catch (ReflectiveOperationException roe) {
+            this.isBroken = true;
+        }
+    }
+
+    /**
+     * Creates and commits a new instant event.
+     *
+     * @param values Field values.
+     */
+    public void commitInstant(Object... values) {
+        if (!this.isEnabled()) {
+            return;
+        }
+        Object factory = this.getFactory();
+        if (factory == null) {
+            return;
+        }
+        try {
+            Object event = Jfr.newEvent.invoke(factory);
+            if (!((Boolean) Jfr.shouldCommit.invoke(event))) {
+                return;
+            }
+            for (int i = 0; i < values.length; i++) {
+                Jfr.set.invoke(event, i, values[i]);
+            }
+            Jfr.commit.invoke(event);
+        } catch (ReflectiveOperationException roe) {
+            this.isBroken = true;
+        }
+    }
+
+    private Object getFactory() {
+        Object result = this.factory;
+        if (result != null) {
+            return result;
+        }
+        synchronized (this) {
+            if ((this.factory == null) && !this.isBroken) {
+                try {
+                    this.factory = this.createFactory();
+                } catch (ReflectiveOperationException | RuntimeException exc) {
+                    this.isBroken = true;
+                }
+            }
+            return this.factory;
+        }
+    }
+
+    private Object createFactory() throws ReflectiveOperationException {
+        List<Object> eventAnnotations = new ArrayList<>();
+        eventAnnotations.add(Jfr.annotationElementConstructor.newInstance(
+                Jfr.nameAnnotation, this.name));
+        eventAnnotations.add(Jfr.annotationElementConstructor.newInstance(
+                Jfr.labelAnnotation, this.label));
+        eventAnnotations.add(Jfr.annotationElementConstructor.newInstance(
+                Jfr.descriptionAnnotation, this.description));
+        eventAnnotations.add(Jfr.annotationElementConstructor.newInstance(
+                Jfr.categoryAnnotation, this.category));
+
+        List<Object> valueDescriptors = new ArrayList<>();
+        for (Field field : this.fields) {
+            List<Object> fieldAnnotations = new ArrayList<>();
+            fieldAnnotations.add(Jfr.annotationElementConstructor.newInstance(
+                    Jfr.labelAnnotation, field.label));
+            valueDescriptors.add(Jfr.valueDescriptorConstructor.newInstance(
+                    field.type, field.name, fieldAnnotations));
+        }
+        return Jfr.createFactory.invoke(null, eventAnnotations, valueDescriptors);
+    }
+}
@@ -29,10 +29,34 @@
  */
 package org.pushingpixels.trident.internal.swing;
 
+import org.pushingpixels.trident.api.swing.RunOnEventDispatchThread;
+
 import javax.swing.*;
 import java.awt.*;
 
 public class SwingUtils {
+    /**
+     * Caches whether a class or any of its superclasses is marked with
+     * {@link RunOnEventDispatchThread}, so that the class hierarchy is walked only once.
+     */
+    private static final ClassValue<Boolean> RUN_ON_EDT = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            Class<?> clazz = type;
+            while (clazz != null) {
+                if (clazz.isAnnotationPresent(RunOnEventDispatchThread.class)) {
+                    return Boolean.TRUE;
+                }
+                clazz = clazz.getSuperclass();
+            }
+            return Boolean.FALSE;
+        }
+    };
+
+    public static boolean isRunOnEventDispatchThread(Class<?> clazz) {
+        return RUN_ON_EDT.get(clazz);
+    }
+
     public static boolean isUiComponent(Object mainTimelineObject) {
         return (mainTimelineObject instanceof Component);
     }